@@ -0,0 +1,37 @@
+package com.credibledoc.iso8583packer.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks.jar file. Runs all benchmarks of this module with the {@link GCProfiler},
+ * so the report contains ops/s and the <b>gc.alloc.rate.norm</b> bytes allocated per operation.
+ * <p>
+ * The optional first argument is a regular expression for selection of benchmarks, for example
+ * <pre>
+ *     java -jar benchmarks.jar PackUnpackBenchmark.unpack
+ * </pre>
+ * The standard JMH command line is available with the {@code org.openjdk.jmh.Main} main class.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args optional regular expression of benchmarks to include
+     * @throws RunnerException in case of a benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
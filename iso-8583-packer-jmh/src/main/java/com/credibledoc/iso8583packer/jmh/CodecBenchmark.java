@@ -0,0 +1,139 @@
+package com.credibledoc.iso8583packer.jmh;
+
+import com.credibledoc.iso8583packer.bcd.BcdService;
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicService;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the low level codecs used by packers, the {@link HexService}, {@link BcdService},
+ * {@link EbcdicService} and {@link Bitmap} conversions.
+ *
+ * @author Kyrylo Semenko
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+    private static final String DIGITS = "4761739001010010221220111438044000001234567890";
+    private static final String TEXT = "CREDIBLE DOC SHOP        PRAGUE       CZ";
+
+    private byte[] binary;
+    private byte[] hex;
+    private byte[] ascii;
+    private byte[] bcd;
+    private byte[] ebcdic;
+    private byte[] bitmapBytes;
+    private byte[] bitmapHex;
+    private Bitmap bitmap;
+    private BitSet bitSet;
+    private byte[] target;
+
+    /**
+     * Prepare source values in all encodings.
+     */
+    @Setup
+    public void setup() {
+        hex = "0123456789ABCDEF8E19EF3C7A9F8D41E0F8C81E0300220031".getBytes(StandardCharsets.US_ASCII);
+        binary = HexService.hex2byte(hex, 0, hex.length / 2);
+        ascii = DIGITS.getBytes(StandardCharsets.US_ASCII);
+        bcd = new byte[ascii.length / 2];
+        BcdService.ascii2bcd(ascii, 0, ascii.length, true, bcd, 0);
+        byte[] text = TEXT.getBytes(StandardCharsets.US_ASCII);
+        ebcdic = new byte[text.length];
+        EbcdicService.asciiToEbcdic(text, 0, text.length, ebcdic, 0);
+
+        bitmap = new Bitmap();
+        for (int fieldNum : new int[] {2, 3, 4, 7, 11, 12, 13, 14, 22, 35, 37, 41, 42, 43, 49, 55, 70, 90, 102}) {
+            bitmap.set(fieldNum);
+        }
+        bitmapBytes = bitmap.toBytes(16);
+        bitmapHex = bitmap.toHex(16);
+        bitSet = bitmap.toBitSet();
+        target = new byte[256];
+    }
+
+    @Benchmark
+    public byte[] hexEncode() {
+        HexService.bytesToHex(binary, 0, binary.length, target, 0);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] hexDecode() {
+        HexService.hex2byte(hex, 0, binary.length, target, 0);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] bcdEncode() {
+        BcdService.ascii2bcd(ascii, 0, ascii.length, true, target, 0);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] bcdDecode() {
+        BcdService.bcd2ascii(bcd, 0, ascii.length, true, target, 0);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] ebcdicDecode() {
+        EbcdicService.ebcdicToAscii(ebcdic, 0, ebcdic.length, target, 0);
+        return target;
+    }
+
+    @Benchmark
+    public Bitmap bitmapFromBytes() {
+        return Bitmap.fromBytes(bitmapBytes, 0, bitmapBytes.length);
+    }
+
+    @Benchmark
+    public byte[] bitmapToBytes() {
+        bitmap.toBytes(target, 0, bitmapBytes.length);
+        return target;
+    }
+
+    @Benchmark
+    public Bitmap bitmapFromHex() {
+        return Bitmap.fromHex(bitmapHex, 0, bitmapHex.length);
+    }
+
+    @Benchmark
+    public byte[] bitmapToHex() {
+        return bitmap.toHex(16);
+    }
+
+    @Benchmark
+    public BitSet bitmapToBitSet() {
+        return bitmap.toBitSet();
+    }
+
+    @Benchmark
+    public byte[] ifbPackBitmap() {
+        return IfbBitmapPacker.getInstance().pack(bitmap);
+    }
+
+    @Benchmark
+    public byte[] ifbPackBitSet() {
+        return IfbBitmapPacker.getInstance().pack(bitSet);
+    }
+}
@@ -0,0 +1,298 @@
+package com.credibledoc.iso8583packer.jmh;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.bcd.BcdBodyPacker;
+import com.credibledoc.iso8583packer.bcd.BcdLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexTagPacker;
+import com.credibledoc.iso8583packer.ifa.IfaBitmapPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+
+/**
+ * Representative message definitions and their values for benchmarks. Every definition is frozen by the
+ * {@link FieldBuilder#validateStructure(boolean)} method, so it is compiled to a
+ * {@link com.credibledoc.iso8583packer.plan.MessagePlan} once.
+ *
+ * @author Kyrylo Semenko
+ */
+public enum MessageShape {
+
+    /**
+     * ASCII 0200 message with ASCII hex primary and secondary bitmaps and 30 ASCII fields.
+     */
+    ASCII_0200 {
+        @Override
+        MsgField define() {
+            FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+                .defineName(MSG)
+
+                .createChild(MsgFieldType.VAL)
+                .defineName(MTI)
+                .defineBodyPacker(AsciiBodyPacker.getInstance())
+                .defineLen(4)
+
+                .createSibling(MsgFieldType.BIT_SET)
+                .defineName(BIT_SET)
+                .defineHeaderBitmapPacker(IfaBitmapPacker.getInstance());
+
+            boolean first = true;
+            for (String[] field : ASCII_FIELDS) {
+                int lengthDigits = Integer.parseInt(field[1]);
+                MsgFieldType msgFieldType = lengthDigits == 0 ? MsgFieldType.VAL : MsgFieldType.LEN_VAL;
+                if (first) {
+                    fieldBuilder.createChild(msgFieldType);
+                    first = false;
+                } else {
+                    fieldBuilder.createSibling(msgFieldType);
+                }
+                if (lengthDigits == 0) {
+                    fieldBuilder.defineLen(field[2].length());
+                } else {
+                    fieldBuilder.defineHeaderLengthPacker(AsciiLengthPacker.getInstance(lengthDigits));
+                }
+                fieldBuilder.defineName("F" + field[0])
+                    .defineFieldNum(Integer.parseInt(field[0]))
+                    .defineBodyPacker(AsciiBodyPacker.getInstance());
+            }
+            return freeze(fieldBuilder);
+        }
+
+        @Override
+        void fill(ValueHolder valueHolder) {
+            valueHolder.setValue("0200", MSG, MTI);
+            for (String[] field : ASCII_FIELDS) {
+                valueHolder.setValue(field[2], MSG, BIT_SET, "F" + field[0]);
+            }
+        }
+    },
+
+    /**
+     * BCD MTI, binary IFB bitmap, BCD numeric fields and EBCDIC text fields.
+     */
+    EBCDIC_BCD {
+        @Override
+        MsgField define() {
+            FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+                .defineName(MSG)
+
+                .createChild(MsgFieldType.VAL)
+                .defineName(MTI)
+                .defineBodyPacker(BcdBodyPacker.noPadding())
+                .defineLen(2)
+
+                .createSibling(MsgFieldType.BIT_SET)
+                .defineName(BIT_SET)
+                .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+                .createChild(MsgFieldType.LEN_VAL)
+                .defineName("PAN")
+                .defineFieldNum(2)
+                .defineHeaderLengthPacker(BcdLengthPacker.getInstance(1))
+                .defineBodyPacker(BcdBodyPacker.noPadding());
+
+            for (String[] field : BCD_FIELDS) {
+                fieldBuilder.createSibling(MsgFieldType.VAL)
+                    .defineName("F" + field[0])
+                    .defineFieldNum(Integer.parseInt(field[0]))
+                    .defineBodyPacker(BcdBodyPacker.noPadding())
+                    .defineLen(field[1].length() / 2);
+            }
+            fieldBuilder.createSibling(MsgFieldType.LEN_VAL)
+                .defineName("TRACK_2")
+                .defineFieldNum(35)
+                .defineHeaderLengthPacker(BcdLengthPacker.getInstance(1))
+                .defineBodyPacker(EbcdicBodyPacker.getInstance());
+            for (String[] field : EBCDIC_FIELDS) {
+                fieldBuilder.createSibling(MsgFieldType.VAL)
+                    .defineName("F" + field[0])
+                    .defineFieldNum(Integer.parseInt(field[0]))
+                    .defineBodyPacker(EbcdicBodyPacker.getInstance())
+                    .defineLen(field[1].length());
+            }
+            return freeze(fieldBuilder);
+        }
+
+        @Override
+        void fill(ValueHolder valueHolder) {
+            valueHolder.setValue("0200", MSG, MTI);
+            valueHolder.setValue("4761739001010010", MSG, BIT_SET, "PAN");
+            for (String[] field : BCD_FIELDS) {
+                valueHolder.setValue(field[1], MSG, BIT_SET, "F" + field[0]);
+            }
+            valueHolder.setValue("4761739001010010=22122011143804400000", MSG, BIT_SET, "TRACK_2");
+            for (String[] field : EBCDIC_FIELDS) {
+                valueHolder.setValue(field[1], MSG, BIT_SET, "F" + field[0]);
+            }
+        }
+    },
+
+    /**
+     * Binary message with the field 55 (EMV data), which contains nested TLV fields with 2-byte tags.
+     */
+    TLV_55 {
+        @Override
+        MsgField define() {
+            FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+                .defineName(MSG)
+
+                .createChild(MsgFieldType.VAL)
+                .defineName(MTI)
+                .defineBodyPacker(HexBodyPacker.getInstance())
+                .defineLen(2)
+
+                .createSibling(MsgFieldType.BIT_SET)
+                .defineName(BIT_SET)
+                .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+                .createChild(MsgFieldType.LEN_VAL)
+                .defineName("PAN")
+                .defineFieldNum(2)
+                .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+                .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+                .createSibling(MsgFieldType.VAL)
+                .defineName("STAN")
+                .defineFieldNum(11)
+                .defineBodyPacker(AsciiBodyPacker.getInstance())
+                .defineLen(6)
+
+                .createSibling(MsgFieldType.LEN_VAL)
+                .defineName(EMV)
+                .defineFieldNum(55)
+                .defineHeaderLengthPacker(BinaryLengthPacker.getInstance(2))
+                .defineChildrenLengthPacker(BinaryLengthPacker.getInstance(1))
+                .defineChildrenTagPacker(HexTagPacker.getInstance(2));
+
+            boolean first = true;
+            for (Object[] tag : EMV_TAGS) {
+                if (first) {
+                    fieldBuilder.createChild(MsgFieldType.TAG_LEN_VAL);
+                    first = false;
+                } else {
+                    fieldBuilder.createSibling(MsgFieldType.TAG_LEN_VAL);
+                }
+                fieldBuilder.defineHeaderTag(tag[0])
+                    .defineName(Integer.toHexString((Integer) tag[0]).toUpperCase())
+                    .defineBodyPacker(HexBodyPacker.getInstance());
+            }
+            return freeze(fieldBuilder);
+        }
+
+        @Override
+        void fill(ValueHolder valueHolder) {
+            valueHolder.setValue("0200", MSG, MTI);
+            valueHolder.setValue("4761739001010010", MSG, BIT_SET, "PAN");
+            valueHolder.setValue("000123", MSG, BIT_SET, "STAN");
+            for (Object[] tag : EMV_TAGS) {
+                valueHolder.setValue(tag[1], MSG, BIT_SET, EMV, Integer.toHexString((Integer) tag[0]).toUpperCase());
+            }
+        }
+    };
+
+    static final String MSG = "MSG";
+    static final String MTI = "MTI";
+    static final String BIT_SET = "BIT_SET";
+    private static final String EMV = "EMV";
+
+    /**
+     * Field number, number of length digits (0 for fixed length fields) and value.
+     */
+    private static final String[][] ASCII_FIELDS = {
+        {"2", "2", "4761739001010010"},
+        {"3", "0", "000000"},
+        {"4", "0", "000000005000"},
+        {"7", "0", "1019120000"},
+        {"11", "0", "000123"},
+        {"12", "0", "120000"},
+        {"13", "0", "1019"},
+        {"14", "0", "2212"},
+        {"18", "0", "5999"},
+        {"22", "0", "051"},
+        {"23", "0", "001"},
+        {"25", "0", "00"},
+        {"26", "0", "12"},
+        {"32", "2", "12345678901"},
+        {"35", "2", "4761739001010010=22122011143804400000"},
+        {"37", "0", "123456789012"},
+        {"41", "0", "TERM0001"},
+        {"42", "0", "MERCHANT0000001"},
+        {"43", "0", "CREDIBLE DOC SHOP        PRAGUE       CZ"},
+        {"49", "0", "203"},
+        {"52", "0", "0123456789ABCDEF"},
+        {"53", "0", "2600000000000000"},
+        {"54", "3", "1001203C000000001000"},
+        {"60", "3", "PRIVATE FIELD 60"},
+        {"61", "3", "PRIVATE FIELD 61 POS DATA"},
+        {"62", "3", "PRIVATE FIELD 62"},
+        {"63", "3", "PRIVATE FIELD 63 NETWORK"},
+        {"70", "0", "301"},
+        {"90", "0", "020000012310191200000000000000000000000000"},
+        {"102", "2", "CZ6508000000192000145399"},
+    };
+
+    /**
+     * Field number and BCD digits.
+     */
+    private static final String[][] BCD_FIELDS = {
+        {"3", "000000"},
+        {"4", "000000005000"},
+        {"7", "1019120000"},
+        {"11", "000123"},
+        {"12", "120000"},
+        {"13", "1019"},
+        {"14", "2212"},
+        {"22", "0051"},
+        {"49", "0203"},
+    };
+
+    /**
+     * Field number and EBCDIC text.
+     */
+    private static final String[][] EBCDIC_FIELDS = {
+        {"37", "123456789012"},
+        {"41", "TERM0001"},
+        {"42", "MERCHANT0000001"},
+        {"43", "CREDIBLE DOC SHOP        PRAGUE       CZ"},
+    };
+
+    /**
+     * EMV tag and hex value.
+     */
+    private static final Object[][] EMV_TAGS = {
+        {0x9F02, "000000005000"},
+        {0x9F03, "000000000000"},
+        {0x9F10, "06010A03A0A000"},
+        {0x9F1A, "0203"},
+        {0x9F26, "8E19EF3C7A9F8D41"},
+        {0x9F27, "80"},
+        {0x9F33, "E0F8C8"},
+        {0x9F34, "1E0300"},
+        {0x9F35, "22"},
+        {0x9F36, "0031"},
+        {0x9F37, "6A1B5C3D"},
+    };
+
+    /**
+     * @return A new frozen definition.
+     */
+    abstract MsgField define();
+
+    /**
+     * Set values of all fields of the message.
+     *
+     * @param valueHolder a new {@link ValueHolder} of the {@link #define()} definition
+     */
+    abstract void fill(ValueHolder valueHolder);
+
+    private static MsgField freeze(FieldBuilder fieldBuilder) {
+        fieldBuilder.jumpToRoot().validateStructure(true);
+        return fieldBuilder.getCurrentField();
+    }
+}
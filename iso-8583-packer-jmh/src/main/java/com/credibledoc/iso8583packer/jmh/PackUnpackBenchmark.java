@@ -0,0 +1,113 @@
+package com.credibledoc.iso8583packer.jmh;
+
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.message.MsgValuePool;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
+import com.credibledoc.iso8583packer.plan.PlanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pack and unpack throughput of the {@link MessageShape} messages. Run with the <b>-prof gc</b> option
+ * for bytes allocated per operation, see the {@link BenchmarkRunner}.
+ *
+ * @author Kyrylo Semenko
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackUnpackBenchmark {
+
+    @Param({"ASCII_0200", "EBCDIC_BCD", "TLV_55"})
+    private MessageShape shape;
+
+    private MsgField definition;
+    private MessagePlan messagePlan;
+    private ValueHolder filledValueHolder;
+    private ValueHolder pooledValueHolder;
+    private byte[] packed;
+
+    /**
+     * Create the definition and check that the unpacked message is packed to the same bytes.
+     */
+    @Setup
+    public void setup() {
+        definition = shape.define();
+        messagePlan = PlanService.getInstance().compile(definition);
+        filledValueHolder = ValueHolder.newInstance(definition);
+        shape.fill(filledValueHolder);
+        packed = filledValueHolder.jumpToRoot().pack();
+
+        MsgValue unpacked = ValueHolder.unpack(packed, 0, messagePlan);
+        byte[] repacked = ValueHolder.newInstance(unpacked, definition).pack();
+        if (!Arrays.equals(packed, repacked)) {
+            throw new PackerRuntimeException("Shape " + shape + " is not symmetric. Packed: " +
+                HexService.bytesToHex(packed) + ", repacked: " + HexService.bytesToHex(repacked));
+        }
+
+        pooledValueHolder = ValueHolder.newInstance(messagePlan);
+        pooledValueHolder.setMsgValuePool(new MsgValuePool(256));
+    }
+
+    /**
+     * Fill a new message and pack it, as a sender does for every message.
+     *
+     * @return The packed bytes.
+     */
+    @Benchmark
+    public byte[] fillAndPack() {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        shape.fill(valueHolder);
+        return valueHolder.jumpToRoot().pack();
+    }
+
+    /**
+     * Pack the already filled message.
+     *
+     * @return The packed bytes.
+     */
+    @Benchmark
+    public byte[] pack() {
+        return filledValueHolder.pack();
+    }
+
+    /**
+     * Unpack the message with the compiled {@link MessagePlan}.
+     *
+     * @return The unpacked root.
+     */
+    @Benchmark
+    public MsgValue unpack() {
+        return ValueHolder.unpack(packed, 0, messagePlan);
+    }
+
+    /**
+     * Unpack the message to the {@link MsgValue} graph reused from the {@link MsgValuePool}.
+     *
+     * @return The unpacked root.
+     */
+    @Benchmark
+    public MsgValue unpackPooled() {
+        pooledValueHolder.reset();
+        return pooledValueHolder.unpack(packed);
+    }
+}
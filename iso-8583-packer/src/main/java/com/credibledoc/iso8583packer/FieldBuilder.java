@@ -13,6 +13,8 @@ import com.credibledoc.iso8583packer.message.MsgFieldType;
 import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.navigator.Navigator;
 import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
+import com.credibledoc.iso8583packer.plan.PlanService;
 import com.credibledoc.iso8583packer.stringer.Stringer;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 import com.credibledoc.iso8583packer.validator.Validator;
@@ -194,10 +196,20 @@ public class FieldBuilder {
      * @param current the {@link MsgField} to be checked.
      */
     public static void validateStructure(MsgField current) {
+        validateStructure(current, false);
+    }
+
+    /**
+     * Call the {@link #validateStructure(boolean)} method.
+     *
+     * @param current the {@link MsgField} to be checked.
+     * @param freeze  see the {@link #validateStructure(boolean)} method description.
+     */
+    public static void validateStructure(MsgField current, boolean freeze) {
         FieldBuilder fieldBuilder = new FieldBuilder();
         fieldBuilder.msgField = current;
         fieldBuilder.createDefaultServices();
-        fieldBuilder.validateStructure();
+        fieldBuilder.validateStructure(freeze);
     }
 
     /**
@@ -220,6 +232,39 @@ public class FieldBuilder {
         }
     }
 
+    /**
+     * Call the {@link #validateStructure()} method. If the freeze argument is 'true', make the whole definition
+     * immutable, see the {@link MsgField#freeze()} method, and compile it to a {@link MessagePlan}, see the
+     * {@link MsgField#getMessagePlan()} method.
+     * <p>
+     * The frozen definition can be shared between threads. The {@link ValueHolder}s created from it use the
+     * {@link MessagePlan} for packing and unpacking.
+     *
+     * @param freeze 'true' for making the definition immutable
+     * @return The current instance of {@link FieldBuilder} with {@link #msgField} in its context.
+     */
+    public FieldBuilder validateStructure(boolean freeze) {
+        validateStructure();
+        if (freeze) {
+            MsgField root = navigator.findRoot(msgField);
+            if (root.getMessagePlan() == null) {
+                root.freeze();
+                root.setMessagePlan(PlanService.getInstance().compile(root));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Children cannot be added to the frozen fields, see the {@link MsgField#freeze()} method.
+     */
+    protected void checkNotFrozen(MsgField parent) {
+        if (parent != null && parent.isFrozen()) {
+            throw new PackerRuntimeException("The MsgField '" + navigator.getPathRecursively(parent) +
+                "' is frozen, children cannot be added to it.");
+        }
+    }
+
     /**
      * Get the field from the argument and instantiate a new {@link FieldBuilder} with this field in its context.
      *
@@ -500,6 +545,7 @@ public class FieldBuilder {
      * @return The current actual {@link FieldBuilder} with the new child as its context {@link #msgField} value.
      */
     public FieldBuilder createChild(MsgFieldType msgFieldType) {
+        checkNotFrozen(msgField);
         MsgField child = new MsgField();
         child.setRoot(msgField.getRoot());
         child.setType(msgFieldType);
@@ -524,6 +570,7 @@ public class FieldBuilder {
      * @return The current actual {@link FieldBuilder} with the new {@link #msgField} value.
      */
     public FieldBuilder cloneToSibling() {
+        checkNotFrozen(msgField.getParent());
         MsgField cloned = cloneField(msgField);
         MsgField parent = msgField.getParent();
         if (parent == null) {
@@ -630,6 +677,7 @@ public class FieldBuilder {
     }
 
     protected FieldBuilder createParentIfNotExists(MsgField newMsgField) {
+        checkNotFrozen(msgField.getParent() == null ? msgField : msgField.getParent());
         if (msgField.getParent() == null) {
             MsgField parent = new MsgField();
             parent.setRoot(parent);
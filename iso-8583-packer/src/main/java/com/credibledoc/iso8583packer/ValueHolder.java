@@ -2,26 +2,37 @@ package com.credibledoc.iso8583packer;
 
 import com.credibledoc.iso8583packer.bcd.BcdBodyPacker;
 import com.credibledoc.iso8583packer.bcd.BcdService;
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
 import com.credibledoc.iso8583packer.dump.DumpService;
 import com.credibledoc.iso8583packer.dump.Visualizer;
+import com.credibledoc.iso8583packer.exception.MalformedMessageException;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.FieldPath;
 import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgFieldType;
 import com.credibledoc.iso8583packer.message.MsgPair;
 import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.message.MsgValuePool;
 import com.credibledoc.iso8583packer.navigator.Navigator;
 import com.credibledoc.iso8583packer.navigator.NavigatorService;
 import com.credibledoc.iso8583packer.offset.Offset;
+import com.credibledoc.iso8583packer.plan.FieldPlan;
+import com.credibledoc.iso8583packer.plan.FieldProjection;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
+import com.credibledoc.iso8583packer.plan.PlanPacker;
+import com.credibledoc.iso8583packer.plan.PlanService;
+import com.credibledoc.iso8583packer.plan.PlanUnpacker;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -67,6 +78,49 @@ public class ValueHolder {
      */
     protected Visualizer visualizer;
 
+    /**
+     * The compiled {@link #msgField} graph, see the {@link com.credibledoc.iso8583packer.plan.PlanService#compile(MsgField)}
+     * method. If the value is not 'null', the {@link #pack()} and {@link #unpack(byte[])} methods use the plan
+     * instead of resolving packers from the {@link MsgField} graph for every field.
+     */
+    protected MessagePlan messagePlan;
+
+    /**
+     * If 'true', the {@link #unpack(byte[])} method does not copy tag, length and body bytes of unpacked fields.
+     * The {@link MsgValue}s contain views of the source bytes instead, see the
+     * {@link MsgValue#setBodySlice(byte[], int, int)} method. The source bytes should not be changed after unpacking.
+     */
+    protected boolean zeroCopy;
+
+    /**
+     * If 'true', the {@link #unpack(byte[])} method does not decode values of leaf fields. Every value is decoded
+     * by its {@link BodyPacker} when it is read first time, see the {@link MsgValue#setLazyBodyPacker(BodyPacker)}
+     * method.
+     */
+    protected boolean lazy;
+
+    /**
+     * If 'true', the {@link #unpack(byte[])}, {@link #pack()} and {@link #validateData()} methods throw
+     * a {@link MalformedMessageException} without a stack trace. Its path and dumps of the message are created
+     * lazily by the {@link MalformedMessageException#getMessage()} method, so malformed messages can be rejected
+     * cheaply. The message should not be changed before the exception message is rendered.
+     * <p>
+     * If 'false', the dumps are created immediately.
+     */
+    protected boolean failFast;
+
+    /**
+     * If not 'null', the {@link #unpack(byte[])} method takes {@link MsgValue}s from this pool when the
+     * {@link #messagePlan} is defined, and the {@link #reset()} method returns the unpacked graph to the pool.
+     * The pool is not thread-safe, so the {@link ValueHolder} with the pool should be used by a single thread.
+     */
+    protected MsgValuePool msgValuePool;
+
+    /**
+     * The {@link PlanUnpacker} with the {@link #msgValuePool}, created by the {@link #getPlanUnpacker()} method.
+     */
+    protected PlanUnpacker pooledPlanUnpacker;
+
     /**
      * Please do not create instances of this builder. It uses for internal purposes only,
      * please use one of the newInstance() methods.
@@ -135,6 +189,30 @@ public class ValueHolder {
         return newInstance(fieldBuilder.getCurrentField(), fromRoot);
     }
 
+    /**
+     * Create a new instance of {@link MsgValue} from the root of the compiled definition. The {@link #pack()} and
+     * {@link #unpack(byte[])} methods of the created instance use the compiled {@link MessagePlan}.
+     * <p>
+     * Example of usage:
+     * <pre>
+     *     MessagePlan messagePlan = PlanService.getInstance().compile(isoMsgField);
+     *     ValueHolder valueHolder = ValueHolder.newInstance(messagePlan);
+     * </pre>
+     *
+     * @param messagePlan the definition compiled by the
+     *                    {@link com.credibledoc.iso8583packer.plan.PlanService#compile(MsgField)} method.
+     * @return A new instance of the {@link ValueHolder} with {@link #msgValue}, {@link #msgField}
+     * and {@link #messagePlan} in its context.
+     */
+    public static ValueHolder newInstance(MessagePlan messagePlan) {
+        if (messagePlan == null) {
+            throw new PackerRuntimeException("MessagePlan cannot be 'null'.");
+        }
+        ValueHolder valueHolder = newInstance(messagePlan.getRoot().getMsgField(), true);
+        valueHolder.messagePlan = messagePlan;
+        return valueHolder;
+    }
+
     /**
      * Create instances of services used in the builder. The method may be overridden if needed.
      */
@@ -162,9 +240,20 @@ public class ValueHolder {
         if (msgValue.getParent() != null) {
             msgValue.getParent().getChildNamesMap().put(msgValue.getName(), msgValue);
         }
+        usePlanOfFrozenDefinition();
         return this;
     }
 
+    /**
+     * If the {@link #msgField} definition has been frozen by the {@link FieldBuilder#validateStructure(boolean)}
+     * method, set its {@link MessagePlan} to the {@link #messagePlan}.
+     */
+    protected void usePlanOfFrozenDefinition() {
+        if (messagePlan == null && msgField.isFrozen()) {
+            messagePlan = navigator.findRoot(msgField).getMessagePlan();
+        }
+    }
+
     /**
      * Create a new instance of {@link ValueHolder}.
      *
@@ -201,6 +290,7 @@ public class ValueHolder {
             if (this.msgValue.getRoot() == null) {
                 this.msgValue.setRoot(this.msgValue);
             }
+            usePlanOfFrozenDefinition();
             return this;
         } catch (Exception e) {
             MsgField rootMsgField = navigator.findRoot(msgField);
@@ -222,6 +312,19 @@ public class ValueHolder {
         return valueHolder.unpackMsgField(bytes, offset);
     }
 
+    /**
+     * Unpack the bytes started from offset to a new {@link MsgValue} using the compiled definition from the third
+     * argument.
+     * @param bytes the source bytes.
+     * @param offset the index where the field starts in the bytes.
+     * @param messagePlan the compiled definition of the {@link MsgField} structure.
+     * @return The unpacked {@link MsgValue}.
+     */
+    public static MsgValue unpack(byte[] bytes, int offset, MessagePlan messagePlan) {
+        ValueHolder valueHolder = newInstance(messagePlan);
+        return valueHolder.unpackMsgField(bytes, offset);
+    }
+
     /**
      * Unpack the bytes started from offset to the {@link #msgField} in the context.
      * @param bytes the source bytes.
@@ -230,9 +333,16 @@ public class ValueHolder {
      */
     protected MsgValue unpackMsgField(byte[] bytes, int offset) {
         MsgValue newMsgValue = msgValue;
+        if (newMsgValue != null) {
+            newMsgValue.setProjected(false);
+        }
         try {
             Offset offsetObject = new Offset();
             offsetObject.setValue(offset);
+            FieldPlan fieldPlan = messagePlan == null ? null : messagePlan.findPlan(msgField);
+            if (fieldPlan != null) {
+                return unpackByPlan(bytes, offsetObject, fieldPlan, newMsgValue);
+            }
             MsgPair msgPair = new MsgPair(msgField, newMsgValue);
             unpackFieldRecursively(bytes, offsetObject, msgPair);
             msgValue = newMsgValue;
@@ -242,18 +352,46 @@ public class ValueHolder {
             }
             return newMsgValue;
         } catch (Exception e) {
+            if (failFast) {
+                throw newFailFastException("Cannot unpack field.", msgField, newMsgValue, e);
+            }
             String dump = PARTIAL_DUMP + visualizer.dumpMsgValue(msgField, newMsgValue, true) +
                 ROOT_MSG_FIELD + visualizer.dumpMsgField(navigator.findRoot(msgField));
             throw new PackerRuntimeException("Cannot unpack field: " + navigator.generatePath(newMsgValue) + dump, e);
         }
     }
 
+    protected MsgValue unpackByPlan(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue target) {
+        PlanUnpacker planUnpacker = getPlanUnpacker();
+        MsgValue unpacked = planUnpacker.unpackField(bytes, offset, fieldPlan, target.getParent(),
+            target);
+        if (unpacked != target) {
+            msgField = navigator.findByName(msgField.getParent().getChildren(), unpacked.getName());
+        }
+        msgValue = unpacked;
+        if (unpacked.getParent() != null) {
+            unpacked.getParent().getChildNamesMap().put(unpacked.getName(), unpacked);
+        }
+        return unpacked;
+    }
+
     /**
      * @param bytes the source bytes.
      * @param offset the index where the field starts in the bytes.
      * @param msgPair the definition of the {@link MsgField} structure and the field values.
      */
     protected void unpackFieldRecursively(byte[] bytes, Offset offset, MsgPair msgPair) {
+        int rawOffset = offset.getValue();
+        unpackFieldAndChildren(bytes, offset, msgPair);
+        if (zeroCopy) {
+            msgPair.getMsgValue().setRawSlice(bytes, rawOffset, offset.getValue() - rawOffset);
+        }
+    }
+
+    /**
+     * See the {@link #unpackFieldRecursively(byte[], Offset, MsgPair)} method.
+     */
+    protected void unpackFieldAndChildren(byte[] bytes, Offset offset, MsgPair msgPair) {
         navigator.validateSameNamesAndTags(msgPair);
         Integer rawDataLength;
         MsgFieldType msgFieldType = msgPair.getMsgField().getType();
@@ -356,12 +494,13 @@ public class ValueHolder {
         if (rawDataLength == null) {
             MsgValue currentMsgValue = msgPair.getMsgValue();
             MsgValue currentMsgValueParent = currentMsgValue.getParent();
-            if (currentMsgValueParent != null && currentMsgValueParent.getLengthBytes() != null) {
+            if (currentMsgValueParent != null && currentMsgValueParent.getLengthBytesLength() >= 0) {
                 LengthPacker parentLengthPacker = currentMsgField.getParent().getLengthPacker();
                 if (parentLengthPacker == null) {
                     parentLengthPacker = currentMsgField.getParent().getParent().getChildrenLengthPacker();
                 }
-                int parentLength = parentLengthPacker.unpack(currentMsgValueParent.getLengthBytes(), 0);
+                int parentLength = parentLengthPacker.unpack(currentMsgValueParent.getLengthArray(),
+                    currentMsgValueParent.getLengthArrayOffset());
                 int childrenLength = calculateLengthUpTo(currentMsgValueParent.getChildren(), currentMsgValue);
                 rawDataLength = parentLength - childrenLength;
             } else {
@@ -370,9 +509,9 @@ public class ValueHolder {
         }
         int remaining = bytes.length - offset.getValue();
         if (rawDataLength > remaining) {
-            throw new PackerRuntimeException("Cannot unpack bytes because the remaining data length '" + remaining +
-                "' of the byte array is less than defined 'len' value '" + rawDataLength +
-                "' of the MsgField with path '" + navigator.getPathRecursively(currentMsgField) + "'.");
+            throw new MalformedMessageException("Cannot unpack bytes because the remaining data length " +
+                "of the byte array is less than defined 'len' value.",
+                () -> navigator.getPathRecursively(currentMsgField), offset.getValue(), rawDataLength, remaining);
         }
         unpackBodyBytes(bytes, offset, msgPair, rawDataLength);
         
@@ -385,7 +524,7 @@ public class ValueHolder {
             if (sibling == currentSibling) {
                 return length;
             }
-            length += sibling.getBodyBytes().length;
+            length += sibling.getBodyBytesLength();
         }
         throw new PackerRuntimeException("It is expected, that the siblings' list contains the current sibling, " +
             "but the current sibling cannot be found in the list.\n" +
@@ -410,15 +549,19 @@ public class ValueHolder {
     }
 
     protected void unpackBodyBytes(byte[] bytes, Offset offset, MsgPair msgPair, Integer rawDataLength) {
-        try {
-            byte[] rawData = new byte[rawDataLength];
-            System.arraycopy(bytes, offset.getValue(), rawData, 0, rawData.length);
-            msgPair.getMsgValue().setBodyBytes(rawData);
-        } catch (Exception e) {
-            String path = navigator.getPathRecursively(msgPair.getMsgField());
-            throw new PackerRuntimeException("Current MsgField: '" + path + "', source bytes length: '" + bytes.length +
-                "', offset: '" + offset.getValue() + "', rawDataLength: '" + rawDataLength + "'", e);
+        int start = offset.getValue();
+        if (rawDataLength < 0 || start < 0 || start > bytes.length || rawDataLength > bytes.length - start) {
+            throw new MalformedMessageException("The source bytes are shorter than the rawDataLength.",
+                () -> navigator.getPathRecursively(msgPair.getMsgField()), start, rawDataLength,
+                bytes.length - start);
+        }
+        if (zeroCopy) {
+            msgPair.getMsgValue().setBodySlice(bytes, start, rawDataLength);
+            return;
         }
+        byte[] rawData = new byte[rawDataLength];
+        System.arraycopy(bytes, start, rawData, 0, rawData.length);
+        msgPair.getMsgValue().setBodyBytes(rawData);
     }
 
     protected void unpackChildren(byte[] bytes, Offset offset, MsgPair msgPair, Integer rawDataLength) {
@@ -441,20 +584,29 @@ public class ValueHolder {
             nextMsgValueChild.setRoot(nextMsgValueChild.getParent().getRoot());
             MsgPair msgPairChild = new MsgPair(nextMsgFieldChild, nextMsgValueChild);
             unpackFieldRecursively(bytes, offset, msgPairChild);
+            // The child may be replaced with its sibling found by the unpacked tag
+            List<MsgValue> unpackedChildren = msgPair.getMsgValue().getChildren();
+            MsgValue unpackedChild = unpackedChildren.get(unpackedChildren.size() - 1);
+            msgPair.getMsgValue().getChildNamesMap().put(unpackedChild.getName(), unpackedChild);
         }
         if (offset.getValue() != offsetWithChildren) {
-            throw new PackerRuntimeException("Expected end of children is '" + offsetWithChildren +
-                    "' but current offset is '" + offset.getValue() +
-                    "'. These values should be equal.");
+            throw new MalformedMessageException("Expected end of children is '" + offsetWithChildren +
+                "' but current offset is '" + offset.getValue() + "'. These values should be equal.",
+                () -> navigator.getPathRecursively(msgPair.getMsgField()), offsetWithChildren - rawDataLength,
+                rawDataLength, offset.getValue() - offsetWithChildren + rawDataLength);
         }
     }
 
     protected void unpackTagBytes(byte[] bytes, Offset offset, MsgPair msgPair, Integer fieldTagLength,
                                               Object tag) {
-        byte[] tagBytes = new byte[fieldTagLength];
-        System.arraycopy(bytes, offset.getValue(), tagBytes, 0, tagBytes.length);
+        if (zeroCopy) {
+            msgPair.getMsgValue().setTagSlice(bytes, offset.getValue(), fieldTagLength);
+        } else {
+            byte[] tagBytes = new byte[fieldTagLength];
+            System.arraycopy(bytes, offset.getValue(), tagBytes, 0, tagBytes.length);
+            msgPair.getMsgValue().setTagBytes(tagBytes);
+        }
         offset.add(fieldTagLength);
-        msgPair.getMsgValue().setTagBytes(tagBytes);
         msgPair.getMsgValue().setTag(tag);
     }
 
@@ -500,9 +652,13 @@ public class ValueHolder {
     protected int unpackLength(byte[] bytes, Offset offset, MsgPair msgPair) {
         LengthPacker lengthPacker = getLengthPackerFromParentOrSelfOrThrowException(msgPair.getMsgField());
         int lenLength = lengthPacker.calculateLenLength(bytes, offset.getValue());
-        byte[] lengthBytes = new byte[lenLength];
-        System.arraycopy(bytes, offset.getValue(), lengthBytes, 0, lengthBytes.length);
-        msgPair.getMsgValue().setLengthBytes(lengthBytes);
+        if (zeroCopy) {
+            msgPair.getMsgValue().setLengthSlice(bytes, offset.getValue(), lenLength);
+        } else {
+            byte[] lengthBytes = new byte[lenLength];
+            System.arraycopy(bytes, offset.getValue(), lengthBytes, 0, lengthBytes.length);
+            msgPair.getMsgValue().setLengthBytes(lengthBytes);
+        }
         int rawDataLength = lengthPacker.unpack(bytes, offset.getValue());
         offset.add(lenLength);
         return rawDataLength;
@@ -522,8 +678,13 @@ public class ValueHolder {
                 "of the FieldBuilder class, for example " +
                 "MsgField subfield35 = FieldBuilder.builder(...).defineBodyPacker(...).");
         }
+        MsgValue leafMsgValue = msgPair.getMsgValue();
+        if (lazy && leafMsgValue.getBodyBytesLength() == bodyBytesLength) {
+            leafMsgValue.setLazyBodyPacker(bodyPacker);
+            return;
+        }
         Object bodyValue = bodyPacker.unpack(bytes, offset.getValue(), bodyBytesLength);
-        msgPair.getMsgValue().setBodyValue(bodyValue);
+        leafMsgValue.setBodyValue(bodyValue);
     }
 
     protected void replaceWithSibling(MsgPair msgPair, Object tag) {
@@ -574,7 +735,7 @@ public class ValueHolder {
             parentMsgValue.getChildNamesMap().put(newMsgValue.getName(), newMsgValue);
         }
         result.setMsgValue(newMsgValue);
-        newMsgValue.setBitSet(oldMsgValue.getBitSet());
+        newMsgValue.setBitmap(oldMsgValue.getBitmap());
         newMsgValue.setTagBytes(oldMsgValue.getTagBytes());
         newMsgValue.setLengthBytes(oldMsgValue.getLengthBytes());
 
@@ -628,7 +789,7 @@ public class ValueHolder {
     }
 
     protected String getCloneName(String originalName, Map<String, MsgValue> undefinedChildrenMap) {
-        return originalName + "-clone-" + (undefinedChildrenMap.size() + 1);
+        return originalName + MsgField.CLONE_INFIX + (undefinedChildrenMap.size() + 1);
     }
 
     protected List<Integer> getFieldNumsFromBitSet(byte[] bytes, Offset offset, MsgPair msgPair) {
@@ -640,35 +801,27 @@ public class ValueHolder {
                     
         }
         int consumed = bitmapPacker.unpack(msgPair.getMsgValue(), bytes, offset.getValue());
-        byte[] bitMapBytes = new byte[consumed];
-        System.arraycopy(bytes, offset.getValue(), bitMapBytes, 0, consumed);
+        unpackBodyBytes(bytes, offset, msgPair, consumed);
         offset.add(consumed);
-        
-        msgPair.getMsgValue().setBodyBytes(bitMapBytes);
 
         return getFieldNumsAndValidateBitSet(msgPair);
     }
 
     protected MsgField findChildByFieldNumUnsafe(MsgField msgField, int nextFieldNum) {
-        for (MsgField child : msgField.getChildren()) {
-            if (nextFieldNum == child.getFieldNum()) {
-                return child;
-            }
-        }
-        return null;
+        return msgField.findChildByFieldNum(nextFieldNum);
     }
 
     protected List<Integer> getFieldNumsAndValidateBitSet(MsgPair msgPair) {
-        BitSet unpackedBitSet = msgPair.getMsgValue().getBitSet();
+        Bitmap unpackedBitmap = msgPair.getMsgValue().getBitmap();
         List<Integer> fieldNums = new ArrayList<>();
         int maxFieldNum = getMaxFieldNum(msgPair.getMsgField().getChildren(), msgPair.getMsgField());
         boolean secondaryBitmapMarked = false;
         boolean tertiaryBitmapMarked = false;
-        for (int nextFieldNum = 1; nextFieldNum <= maxFieldNum; nextFieldNum++) {
-            MsgField childMsgField = navigator.findByFieldNum(msgPair.getMsgField().getChildren(), nextFieldNum);
-            boolean bitMarked = unpackedBitSet.get(nextFieldNum);
+        for (int nextFieldNum = unpackedBitmap.nextFieldNum(1); nextFieldNum != -1 && nextFieldNum <= maxFieldNum;
+             nextFieldNum = unpackedBitmap.nextFieldNum(nextFieldNum + 1)) {
+            MsgField childMsgField = msgPair.getMsgField().findChildByFieldNum(nextFieldNum);
             // Bits 1 and 65 in a bitmap may be used as flags of a secondary and tertiary bitmaps, as well as flags of used msgFields
-            if (!bitMarked || (childMsgField == null && (nextFieldNum == 65 || nextFieldNum == 1))) {
+            if (childMsgField == null && (nextFieldNum == 65 || nextFieldNum == 1)) {
                 continue;
             }
             if (childMsgField == null) {
@@ -964,15 +1117,97 @@ public class ValueHolder {
      * @return See the {@link #setValue(Object, String...)} method description
      */
     public ValueHolder setValue(Object bodyValue, List<String> absolutePath) {
-        return setValue(bodyValue, absolutePath.toArray(new String[0]));
+        MsgField currentMsgField = msgField;
+        MsgValue currentMsgValue = msgValue;
+
+        jumpAbsolute(absolutePath);
+        setValue(bodyValue);
+
+        this.msgField = currentMsgField;
+        this.msgValue = currentMsgValue;
+        return this;
     }
 
-    protected byte[] setBytes(Object bodyValue) {
-        BodyPacker bodyPacker = msgField.getBodyPacker();
-        if (bodyPacker == null && msgField.getParent() != null) {
-            bodyPacker = msgField.getParent().getChildrenBodyPacker();
+    /**
+     * Call the {@link #setValue(Object)} method. Current positions in the {@link #msgField} and {@link #msgValue}
+     * object graphs remain unchanged.
+     *
+     * @param bodyValue see the {@link #setValue(Object)} method description
+     * @param fieldPath the path compiled for the {@link #msgField} definition
+     * @return See the {@link #setValue(Object)} method description
+     */
+    public ValueHolder setValue(Object bodyValue, FieldPath fieldPath) {
+        MsgField currentMsgField = msgField;
+        MsgValue currentMsgValue = msgValue;
+
+        jumpAbsolute(fieldPath);
+        setValue(bodyValue);
+
+        this.msgField = currentMsgField;
+        this.msgValue = currentMsgValue;
+        return this;
+    }
+
+    /**
+     * Set the value to the current leaf {@link #msgValue} without boxing. The {@link #msgField} should have
+     * a {@link NumericBodyPacker}. When the new value has the same packed length as the previous one, the tag and
+     * length bytes are not packed again, and the body bytes packed by the previous call are rewritten in place if
+     * no one could obtain them, see the {@link MsgValue#setBodyLong(long, NumericBodyPacker, int)} method.
+     * So repeated calls do not allocate. The {@link MsgValue#getBodyValue()} is decoded from the bytes on demand.
+     *
+     * @param value non-negative number
+     * @return The current {@link ValueHolder} with the same {@link #msgValue} and {@link #msgField} in its context.
+     */
+    public ValueHolder setLong(long value) {
+        if (msgField.getChildren() != null && !msgField.getChildren().isEmpty()) {
+            throw new PackerRuntimeException("Cannot set bodyValue to fields with children. Values can only be set to " +
+                    "leaf fields. Field: " + navigator.getPathRecursively(msgField) + ", bodyValue: " + value);
+        }
+        NumericBodyPacker numericBodyPacker = getNumericBodyPacker();
+        int bodyLength = numericBodyPacker.getPackedLength(value);
+        validateBodyLength(bodyLength);
+        boolean sameLength = msgValue.getBodyBytesLength() == bodyLength;
+        msgValue.setBodyLong(value, numericBodyPacker, bodyLength);
+        if (!sameLength) {
+            setTagAndLenBytes(msgValue.getBodyBytes(), msgValue, msgField);
+        }
+        return this;
+    }
+
+    /**
+     * Call the {@link #setLong(long)} method. Current positions in the {@link #msgField} and {@link #msgValue}
+     * object graphs remain unchanged.
+     *
+     * @param value     see the {@link #setLong(long)} method description
+     * @param fieldPath the path compiled for the {@link #msgField} definition
+     * @return The current {@link ValueHolder}.
+     */
+    public ValueHolder setLong(long value, FieldPath fieldPath) {
+        MsgField currentMsgField = msgField;
+        MsgValue currentMsgValue = msgValue;
+
+        try {
+            jumpAbsolute(fieldPath);
+            setLong(value);
+        } finally {
+            this.msgField = currentMsgField;
+            this.msgValue = currentMsgValue;
+        }
+        return this;
+    }
+
+    protected NumericBodyPacker getNumericBodyPacker() {
+        BodyPacker bodyPacker = findBodyPacker();
+        if (!(bodyPacker instanceof NumericBodyPacker)) {
+            throw new PackerRuntimeException("Expected " + NumericBodyPacker.class.getSimpleName() +
+                " but found '" + bodyPacker + "'. Please define a numeric BodyPacker, for example the " +
+                "AsciiNumericBodyPacker. MsgField: " + navigator.getPathRecursively(msgField));
         }
+        return (NumericBodyPacker) bodyPacker;
+    }
 
+    protected byte[] setBytes(Object bodyValue) {
+        BodyPacker bodyPacker = findBodyPacker();
         if (bodyPacker == null) {
             throw new PackerRuntimeException("BodyPacker not found. Please call setBodyPacker(...) " +
                     "method\n" +
@@ -981,7 +1216,33 @@ public class ValueHolder {
         
         byte[] bodyBytes;
         int bodyLength = bodyPacker.getPackedLength(bodyValue);
+        validateBodyLength(bodyLength);
 
+        bodyBytes = new byte[bodyLength];
+        bodyPacker.pack(bodyValue, bodyBytes, 0);
+        msgValue.setBodyBytes(bodyBytes);
+        return bodyBytes;
+    }
+
+    /**
+     * @return The {@link MsgField#getBodyPacker()} of the current {@link #msgField} or the
+     * {@link MsgField#getChildrenBodyPacker()} of its parent or 'null'.
+     */
+    protected BodyPacker findBodyPacker() {
+        BodyPacker bodyPacker = msgField.getBodyPacker();
+        if (bodyPacker == null && msgField.getParent() != null) {
+            bodyPacker = msgField.getParent().getChildrenBodyPacker();
+        }
+        return bodyPacker;
+    }
+
+    /**
+     * Check the bodyLength against the {@link MsgField#getExactlyLength()}, {@link MsgField#getMaxLen()}
+     * and {@link MsgField#getLen()} definitions of the current {@link #msgField}.
+     *
+     * @param bodyLength number of bytes of the packed body value
+     */
+    protected void validateBodyLength(int bodyLength) {
         Integer exactlyLength = msgField.getExactlyLength();
         if (exactlyLength != null && bodyLength != exactlyLength) {
             throw new PackerRuntimeException(THE_MSG_FIELD + navigator.getPathRecursively(msgField) +
@@ -995,18 +1256,13 @@ public class ValueHolder {
                     "' contains the 'maxLen' definition with value '" + maxLen +
                     "', but its bodyValue length '" + bodyLength + "' is greater.");
         }
-        
+
         Integer len = msgField.getLen();
         if (len != null && bodyLength != len) {
             throw new PackerRuntimeException(THE_MSG_FIELD + navigator.getPathRecursively(msgField) +
                 "' contains the 'len' definition with value '" + len +
                 "', but its bodyValue length '" + bodyLength + "' is different.");
         }
-        
-        bodyBytes = new byte[bodyLength];
-        bodyPacker.pack(bodyValue, bodyBytes, 0);
-        msgValue.setBodyBytes(bodyBytes);
-        return bodyBytes;
     }
 
     /**
@@ -1145,9 +1401,16 @@ public class ValueHolder {
      */
     public byte[] pack() {
         try {
+            FieldPlan fieldPlan = messagePlan == null ? null : messagePlan.findPlan(msgField);
+            if (fieldPlan != null) {
+                return PlanPacker.getInstance().pack(msgValue, fieldPlan);
+            }
             ByteArrayOutputStream result = packRecursively(msgValue, msgField);
             return result.toByteArray();
         } catch (Exception e) {
+            if (failFast) {
+                throw newFailFastException("Cannot pack field.", msgField, msgValue, e);
+            }
             if (msgField != null && msgValue != null) {
                 MsgValue rootMsgValue = navigator.findRoot(msgValue);
                 MsgField rootMsgField = navigator.findRoot(msgField);
@@ -1164,6 +1427,66 @@ public class ValueHolder {
         }
     }
 
+    /**
+     * Pack this {@link #msgValue} incrementally. Fields unpacked in the {@link #zeroCopy} mode and not changed after
+     * unpacking are copied from the unpacked bytes. Only changed fields and their ancestors are packed again,
+     * for example length headers and bitmaps of the ancestors, see the {@link PlanPacker#getIncrementalInstance()}
+     * method. So the price of a response created from a request depends on the number of changed fields.
+     * <p>
+     * If the {@link #messagePlan} is not defined, the {@link #msgField} graph will be compiled for every call.
+     * <p>
+     * Messages unpacked by the {@link #unpack(byte[], FieldProjection)} method cannot be packed incrementally,
+     * because their skipped fields would be lost after a change of their ancestors.
+     *
+     * @return Bytes created from the {@link #msgValue} and from the unpacked bytes.
+     */
+    public byte[] repack() {
+        for (MsgValue current = msgValue; current != null; current = current.getParent()) {
+            if (current.isProjected()) {
+                throw new PackerRuntimeException("The MsgValue '" + navigator.getPathRecursively(msgValue) +
+                    "' is a part of a message unpacked with a FieldProjection, it cannot be repacked. " +
+                    "Please unpack the message without a projection.");
+            }
+        }
+        MessagePlan plan = messagePlan != null ? messagePlan : PlanService.getInstance().compile(msgField);
+        FieldPlan fieldPlan = plan.findPlan(msgField);
+        try {
+            return PlanPacker.getIncrementalInstance().pack(msgValue, fieldPlan);
+        } catch (Exception e) {
+            if (failFast) {
+                throw newFailFastException("Cannot pack field.", msgField, msgValue, e);
+            }
+            throw new PackerRuntimeException("Exception: " + e.getMessage() + "\n" +
+                "Cannot pack field '" + navigator.getPathRecursively(msgValue) + "'", e);
+        }
+    }
+
+    /**
+     * Pack this {@link #msgValue} to the buffer from its current position. If the {@link #messagePlan} is defined,
+     * the bytes are written directly to the buffer, see the
+     * {@link PlanPacker#pack(MsgValue, FieldPlan, ByteBuffer)} method.
+     *
+     * @param buffer the target buffer, its position will be moved to the end of the packed bytes.
+     * @return Number of written bytes.
+     */
+    public int pack(ByteBuffer buffer) {
+        FieldPlan fieldPlan = messagePlan == null ? null : messagePlan.findPlan(msgField);
+        if (fieldPlan == null) {
+            byte[] bytes = pack();
+            buffer.put(bytes);
+            return bytes.length;
+        }
+        try {
+            return PlanPacker.getInstance().pack(msgValue, fieldPlan, buffer);
+        } catch (Exception e) {
+            if (failFast) {
+                throw newFailFastException("Cannot pack field.", msgField, msgValue, e);
+            }
+            throw new PackerRuntimeException("Exception: " + e.getMessage() + "\n" +
+                "Cannot pack field '" + navigator.getPathRecursively(msgValue) + "'", e);
+        }
+    }
+
     protected ByteArrayOutputStream packRecursively(MsgValue msgValue, MsgField msgField) throws IOException {
         int maxLen = msgField.getMaxLen() != null ? msgField.getMaxLen() : INITIAL_SIZE_100_BYTES;
         ByteArrayOutputStream messageBytes = new ByteArrayOutputStream(maxLen);
@@ -1200,28 +1523,27 @@ public class ValueHolder {
                 "' '" + MsgFieldType.BIT_SET + "' type. " +
                 "Please call the defineHeaderBitmapPacker(...) method.");
         }
-        BitSet bitSet = new BitSet();
+        Bitmap bitmap = new Bitmap();
         int maxFieldNum = 0;
-        for (MsgField nextMsgField : msgField.getChildren()) {
-            Integer fieldNum = nextMsgField.getFieldNum();
-            MsgValue nextMsgValue = navigator.findByFieldNum(msgValue.getChildren(), fieldNum);
-            if (nextMsgValue != null &&
-                (nextMsgValue.getBodyValue() != null ||
+        for (MsgValue nextMsgValue : msgValue.getChildren()) {
+            Integer fieldNum = nextMsgValue.getFieldNum();
+            if (fieldNum != null && msgField.findChildByFieldNum(fieldNum) != null &&
+                (nextMsgValue.hasBodyValue() ||
                     (nextMsgValue.getChildren() != null && !nextMsgValue.getChildren().isEmpty())
                 )
             ) {
                 maxFieldNum = Math.max(maxFieldNum, fieldNum);
-                bitSet.set(fieldNum);
+                bitmap.set(fieldNum);
             }
         }
         if (maxFieldNum > 64) {
-            bitSet.set(1);
+            bitmap.set(1);
         }
         if (maxFieldNum > 128) {
-            bitSet.set(65);
+            bitmap.set(65);
         }
-        msgValue.setBitSet(bitSet);
-        byte[] bytes = bitmapPacker.pack(bitSet);
+        msgValue.setBitmap(bitmap);
+        byte[] bytes = bitmapPacker.pack(bitmap);
         msgValue.setBodyBytes(bytes);
         messageBytes.write(bytes);
     }
@@ -1349,6 +1671,10 @@ public class ValueHolder {
         clone.createDefaultServices();
         clone.msgValue = msgValue;
         clone.msgField = msgField;
+        clone.messagePlan = messagePlan;
+        clone.zeroCopy = zeroCopy;
+        clone.lazy = lazy;
+        clone.failFast = failFast;
         return clone;
     }
 
@@ -1364,6 +1690,38 @@ public class ValueHolder {
         return msgValue;
     }
 
+    /**
+     * Unpack only fields selected by the projection, other fields are skipped without creating {@link MsgValue}s.
+     * The current {@link #msgField} is unpacked from the offset 0.
+     * <p>
+     * If this instance has no {@link #messagePlan}, the {@link #msgField} graph will be compiled for every call,
+     * so please prefer the {@link #newInstance(MessagePlan)} method for repeated unpacking.
+     *
+     * @param bytes      the source bytes
+     * @param projection selected fields
+     * @return The {@link MsgValue} unpacked from the bytes.
+     */
+    public MsgValue unpack(byte[] bytes, FieldProjection projection) {
+        MessagePlan plan = messagePlan != null ? messagePlan : PlanService.getInstance().compile(msgField);
+        FieldPlan fieldPlan = plan.findPlan(msgField);
+        MsgValue target = msgValue;
+        try {
+            Offset offset = new Offset();
+            PlanUnpacker planUnpacker = getPlanUnpacker();
+            msgValue = planUnpacker.unpackField(bytes, offset, fieldPlan, target.getParent(), target,
+                projection.compile(plan));
+            msgValue.setProjected(true);
+            return msgValue;
+        } catch (Exception e) {
+            if (failFast) {
+                throw newFailFastException("Cannot unpack field.", msgField, target, e);
+            }
+            String dump = PARTIAL_DUMP + visualizer.dumpMsgValue(msgField, target, true) +
+                ROOT_MSG_FIELD + visualizer.dumpMsgField(navigator.findRoot(msgField));
+            throw new PackerRuntimeException("Cannot unpack field: " + navigator.generatePath(target) + dump, e);
+        }
+    }
+
     /**
      * @return Existing {@link #msgField} and {@link #msgValue} created previously by the {@link #newInstance(MsgField)} method.
      */
@@ -1385,6 +1743,9 @@ public class ValueHolder {
                 }
             }
         } catch (Exception e) {
+            if (failFast) {
+                throw newFailFastException("Validation failed.", msgField, msgValue, e);
+            }
             String dump = PARTIAL_DUMP + visualizer.dumpMsgValue(msgField, msgValue, true) +
                 ROOT_MSG_FIELD + visualizer.dumpMsgField(navigator.findRoot(msgField));
             throw new PackerRuntimeException("Validation failed: " + dump, e);
@@ -1434,6 +1795,146 @@ public class ValueHolder {
         return visualizer;
     }
 
+    /**
+     * @param messagePlan see the {@link #messagePlan} field description.
+     */
+    public void setMessagePlan(MessagePlan messagePlan) {
+        this.messagePlan = messagePlan;
+    }
+
+    /**
+     * @return The {@link #messagePlan} value.
+     */
+    public MessagePlan getMessagePlan() {
+        return messagePlan;
+    }
+
+    /**
+     * @param zeroCopy see the {@link #zeroCopy} field description.
+     */
+    public void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+        pooledPlanUnpacker = null;
+    }
+
+    /**
+     * @return The {@link #zeroCopy} value.
+     */
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    /**
+     * @param lazy see the {@link #lazy} field description.
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+        pooledPlanUnpacker = null;
+    }
+
+    /**
+     * @return The {@link #lazy} value.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * @param failFast see the {@link #failFast} field description.
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * @return The {@link #failFast} value.
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * @param msgValuePool see the {@link #msgValuePool} field description.
+     */
+    public void setMsgValuePool(MsgValuePool msgValuePool) {
+        this.msgValuePool = msgValuePool;
+        pooledPlanUnpacker = null;
+    }
+
+    /**
+     * @return The {@link #msgValuePool} value.
+     */
+    public MsgValuePool getMsgValuePool() {
+        return msgValuePool;
+    }
+
+    /**
+     * @return The {@link PlanUnpacker} singleton for the {@link #zeroCopy} and {@link #lazy} modes, or the
+     * {@link #pooledPlanUnpacker} if the {@link #msgValuePool} is defined.
+     */
+    protected PlanUnpacker getPlanUnpacker() {
+        if (msgValuePool == null) {
+            return PlanUnpacker.getInstance(zeroCopy, lazy);
+        }
+        if (pooledPlanUnpacker == null) {
+            pooledPlanUnpacker = PlanUnpacker.newInstance(zeroCopy, lazy, msgValuePool);
+        }
+        return pooledPlanUnpacker;
+    }
+
+    /**
+     * Prepare this instance for the next message. The {@link #msgField} is moved to the root definition and
+     * the {@link #msgValue} is replaced with a new empty root value. The previous graph is returned to the
+     * {@link #msgValuePool} if the pool is defined, so the previous graph should not be used after this call.
+     * <p>
+     * Example of usage:
+     * <pre>
+     *     ValueHolder valueHolder = ValueHolder.newInstance(frozenDefinition);
+     *     valueHolder.setMsgValuePool(new MsgValuePool(1024));
+     *     for (byte[] bytes : messages) {
+     *         valueHolder.reset();
+     *         valueHolder.unpack(bytes);
+     *         ...
+     *     }
+     * </pre>
+     *
+     * @return The current {@link ValueHolder} instance.
+     */
+    public ValueHolder reset() {
+        // The root of a value can be 'null', for example in a tree created by the FieldBuilder
+        MsgValue root = msgValue == null ? null : findRootValue();
+        msgField = navigator.findRoot(msgField);
+        if (msgValuePool == null) {
+            msgValue = navigator.newFromNameAndTag(msgField);
+        } else {
+            msgValuePool.release(root);
+            msgValue = msgValuePool.acquire();
+            msgValue.setName(msgField.getName());
+            msgValue.setTag(msgField.getTag());
+            msgValue.setFieldNum(msgField.getFieldNum());
+        }
+        msgValue.setRoot(msgValue);
+        return this;
+    }
+
+    /**
+     * Create a {@link MalformedMessageException} for the {@link #failFast} mode. The path and the dump
+     * are created lazily.
+     *
+     * @param reason        see the {@link MalformedMessageException#getReason()} method description
+     * @param dumpMsgField  the definition of the dumpMsgValue
+     * @param dumpMsgValue  the failed value
+     * @param cause         the cause
+     * @return The new exception without a stack trace.
+     */
+    protected MalformedMessageException newFailFastException(String reason, MsgField dumpMsgField,
+                                                             MsgValue dumpMsgValue, Exception cause) {
+        return new MalformedMessageException(reason, () -> navigator.generatePath(dumpMsgValue),
+            () -> PARTIAL_DUMP + visualizer.dumpMsgValue(dumpMsgField, dumpMsgValue, true) +
+                ROOT_MSG_FIELD + visualizer.dumpMsgField(navigator.findRoot(dumpMsgField)),
+            cause, false);
+    }
+
     /**
      * Change the actual {@link #msgValue} object graph place (location) to be the same as the {@link #msgField},
      * see the {@link Navigator#synchronizeMessageValue(MsgField, MsgValue)} method description.
@@ -1452,38 +1953,64 @@ public class ValueHolder {
      * @return The current {@link ValueHolder} instance with a new place (location) of the {@link #msgValue}.
      */
     public ValueHolder jumpAbsolute(String ... fieldNames) {
+        return jumpAbsolute(Arrays.asList(fieldNames));
+    }
+
+    /**
+     * Call the {@link #jumpAbsolute(String...)} method.
+     *
+     * @param fieldNames the {@link MsgField#getName()}s of fields from the root of the {@link #msgField}.
+     * @return The current {@link ValueHolder} instance with a new place (location) of the {@link #msgValue}.
+     */
+    public ValueHolder jumpAbsolute(List<String> fieldNames) {
         jumpToRoot();
-        if (!fieldNames[0].equals(msgField.getName())) {
+        if (!fieldNames.get(0).equals(msgField.getName())) {
             String msgFieldDump = visualizer.dumpMsgField(msgField);
-            throw new PackerRuntimeException("MsgField with name '" + fieldNames[0] + "' is not a root field. " +
+            throw new PackerRuntimeException("MsgField with name '" + fieldNames.get(0) + "' is not a root field. " +
                 "Please define the absolute path from the root field. " +
                 "Actual root field name: '" + msgField.getName() + "'." +
                 MSG_FIELD + msgFieldDump);
         }
-        for (int i = 1; i < fieldNames.length; i++) {
-            String name = fieldNames[i];
+        for (int i = 1; i < fieldNames.size(); i++) {
+            String name = fieldNames.get(i);
             if (name == null) {
                 throw new PackerRuntimeException("MsgField name cannot be 'null'. " +
-                    "FieldNames: " + Arrays.toString(fieldNames));
+                    "FieldNames: " + fieldNames);
             }
             try {
                 jumpToChild(name);
             } catch (Exception e) {
                 throw new PackerRuntimeException("Cannot find MsgField with path '" +
-                    Arrays.toString(fieldNames) + "'", e);
+                    fieldNames + "'", e);
             }
         }
         return this;
     }
 
     /**
-     * Call the {@link #jumpAbsolute(String...)} method.
+     * Change the actual object graph places (locations) of the {@link #msgField} and {@link #msgValue}
+     * to the fieldPath. Missing {@link MsgValue}s will be created, the same as in
+     * the {@link #jumpToChild(String)} method.
      *
-     * @param fieldNames the {@link MsgField#getName()}s of fields from the root of the {@link #msgField}.
+     * @param fieldPath the path compiled for the {@link #msgField} definition
      * @return The current {@link ValueHolder} instance with a new place (location) of the {@link #msgValue}.
      */
-    public ValueHolder jumpAbsolute(List<String> fieldNames) {
-        return jumpAbsolute(fieldNames.toArray(new String[0]));
+    public ValueHolder jumpAbsolute(FieldPath fieldPath) {
+        jumpToRoot();
+        if (fieldPath.getRoot() != msgField) {
+            throw new PackerRuntimeException("The " + fieldPath + " has been compiled for another definition. " +
+                "Actual root field name: '" + msgField.getName() + "'.");
+        }
+        for (int depth = 1; depth < fieldPath.size(); depth++) {
+            String name = fieldPath.getName(depth);
+            MsgValue msgValueChild = msgValue.getChildNamesMap().get(name);
+            if (msgValueChild == null) {
+                msgValueChild = createChildren(name);
+            }
+            this.msgValue = msgValueChild;
+            this.msgField = fieldPath.getMsgField(depth);
+        }
+        return this;
     }
 
     /**
@@ -1508,24 +2035,8 @@ public class ValueHolder {
      * @param absolutePath the {@link MsgValue#getName()}s of fields from the root of the {@link #msgValue}.
      * @return the {@link MsgValue#getBodyValue()} casted to <i>T</i> or 'null'.
      */
-    @SuppressWarnings("unchecked")
     public <T> T getValue(String... absolutePath) {
-        MsgField currentMsgField = this.msgField;
-        MsgValue currentMsgValue = this.msgValue;
-
-        jumpAbsolute(absolutePath);
-        
-        Object bodyValue = this.msgValue.getBodyValue();
-        
-        if (bodyValue == null) {
-            return null;
-        }
-        T value = (T) getValue(bodyValue.getClass());
-        
-        this.msgField = currentMsgField;
-        this.msgValue = currentMsgValue;
-        
-        return value;
+        return getValue(Arrays.asList(absolutePath));
     }
 
     /**
@@ -1535,7 +2046,67 @@ public class ValueHolder {
      * @return the {@link MsgValue#getBodyValue()} casted to <i>T</i> or 'null'.
      */
     public <T> T getValue(List<String> absolutePath) {
-        return getValue(absolutePath.toArray(new String[0]));
+        MsgField currentMsgField = this.msgField;
+        MsgValue currentMsgValue = this.msgValue;
+        try {
+            jumpAbsolute(absolutePath);
+            return getValue();
+        } finally {
+            this.msgField = currentMsgField;
+            this.msgValue = currentMsgValue;
+        }
+    }
+
+    /**
+     * Call the {@link #getValue(Class)} method with the type of {@link #msgValue} body value. Current positions in the
+     * {@link #msgField} and {@link #msgValue} object graphs remain unchanged.
+     *
+     * @param <T>       to be used for casting the returned value
+     * @param fieldPath the path compiled for the {@link #msgField} definition
+     * @return the {@link MsgValue#getBodyValue()} casted to <i>T</i> or 'null'.
+     */
+    public <T> T getValue(FieldPath fieldPath) {
+        MsgField currentMsgField = this.msgField;
+        MsgValue currentMsgValue = this.msgValue;
+        try {
+            jumpAbsolute(fieldPath);
+            return getValue();
+        } finally {
+            this.msgField = currentMsgField;
+            this.msgValue = currentMsgValue;
+        }
+    }
+
+    /**
+     * Read the current {@link #msgValue} as a primitive number. If the {@link MsgValue#getBodyValue()} is not decoded
+     * yet, the number is unpacked from the body bytes by the {@link NumericBodyPacker} without boxing.
+     *
+     * @return The value of the current field.
+     */
+    public long getLong() {
+        BodyPacker bodyPacker = findBodyPacker();
+        NumericBodyPacker numericBodyPacker = bodyPacker instanceof NumericBodyPacker ?
+            (NumericBodyPacker) bodyPacker : null;
+        return msgValue.getBodyLong(numericBodyPacker);
+    }
+
+    /**
+     * Call the {@link #getLong()} method. Current positions in the {@link #msgField} and {@link #msgValue}
+     * object graphs remain unchanged.
+     *
+     * @param fieldPath the path compiled for the {@link #msgField} definition
+     * @return The value of the field on the fieldPath.
+     */
+    public long getLong(FieldPath fieldPath) {
+        MsgField currentMsgField = this.msgField;
+        MsgValue currentMsgValue = this.msgValue;
+        try {
+            jumpAbsolute(fieldPath);
+            return getLong();
+        } finally {
+            this.msgField = currentMsgField;
+            this.msgValue = currentMsgValue;
+        }
     }
 
     /**
@@ -1545,34 +2116,64 @@ public class ValueHolder {
      * @return 'true' if the field on the path has some value.
      */
     public boolean hasValue(String... absolutePath) {
-        if (absolutePath.length < 2) {
+        return hasValue(Arrays.asList(absolutePath));
+    }
+
+    /**
+     * Call the {@link #hasValue(String...)} method.
+     * @param absolutePath see the {@link #hasValue(String...)} method description.
+     * @return See the {@link #hasValue(String...)} method description.
+     */
+    public boolean hasValue(List<String> absolutePath) {
+        if (absolutePath.size() < 2) {
             throw new PackerRuntimeException("Please define absolutePath as a path, for example 'ROOT', 'field1' ...");
         }
+        MsgValue currentMsgValue = findRootValue();
+        for (int i = 1; i < absolutePath.size() && currentMsgValue != null; i++) {
+            currentMsgValue = findChildWithValue(currentMsgValue, absolutePath.get(i));
+        }
+        return currentMsgValue != null;
+    }
+
+    /**
+     * Call the {@link #hasValue(String...)} method.
+     * @param fieldPath the path compiled for the {@link #msgField} definition.
+     * @return See the {@link #hasValue(String...)} method description.
+     */
+    public boolean hasValue(FieldPath fieldPath) {
+        if (fieldPath.size() < 2) {
+            throw new PackerRuntimeException("Please define absolutePath as a path, for example 'ROOT', 'field1' ...");
+        }
+        MsgValue currentMsgValue = findRootValue();
+        for (int depth = 1; depth < fieldPath.size() && currentMsgValue != null; depth++) {
+            currentMsgValue = findChildWithValue(currentMsgValue, fieldPath.getName(depth));
+        }
+        return currentMsgValue != null;
+    }
+
+    private MsgValue findRootValue() {
         MsgValue currentMsgValue = msgValue;
         while (currentMsgValue.getParent() != null) {
             currentMsgValue = currentMsgValue.getParent();
         }
-        for (int i = 1; i < absolutePath.length; i++) {
-            List<MsgValue> children = currentMsgValue.getChildren();
-            if (currentMsgValue.getBodyValue() == null && children == null) {
-                return false;
-            }
-            currentMsgValue = navigator.findByName(children, absolutePath[i]);
-            if (currentMsgValue == null ||
-                (currentMsgValue.getBodyValue() == null && currentMsgValue.getChildren() == null)) {
-                return false;
-            }
-        }
-        return true;
+        return currentMsgValue;
     }
 
     /**
-     * Call the {@link #hasValue(String...)} method.
-     * @param absolutePath see the {@link #hasValue(String...)} method description.
-     * @return See the {@link #hasValue(String...)} method description.
+     * @param parent    the {@link MsgValue} with or without children
+     * @param childName the {@link MsgValue#getName()} of the child
+     * @return The child from the {@link MsgValue#getChildNamesMap()} if the child has some body value or children,
+     * else 'null'.
      */
-    public boolean hasValue(List<String> absolutePath) {
-        return hasValue(absolutePath.toArray(new String[0]));
+    private static MsgValue findChildWithValue(MsgValue parent, String childName) {
+        if (!parent.hasBodyValue() && parent.getChildren() == null) {
+            return null;
+        }
+        MsgValue child = parent.getChildNamesMap().get(childName);
+        if (child == null || (!child.hasBodyValue() && child.getChildren() == null)) {
+            return null;
+        }
+        return child;
     }
 
     /**
@@ -24,6 +24,11 @@ public class AsciiLengthPacker implements LengthPacker {
     private static final Charset ISO_88591 = StandardCharsets.ISO_8859_1;
 
     private static final char PAD_CHAR_0 = '0';
+
+    /**
+     * Nine decimal digits always fit to int.
+     */
+    private static final int MAX_DIGITS_WITHOUT_OVERFLOW = 9;
     
     /**
      * Contains created instances. Each instance is a Singleton.
@@ -73,10 +78,20 @@ public class AsciiLengthPacker implements LengthPacker {
             throw new PackerRuntimeException("Required bytes length '" + numBytes +
                 "' is greater than available sourceData length '" + availableBytes + "'");
         }
-        byte[] lenBytes = new byte[numBytes];
-        System.arraycopy(messageBytes, offset, lenBytes, 0, numBytes);
-        String number = new String(lenBytes, ISO_88591);
-        return Integer.parseInt(number);
+        if (numBytes <= MAX_DIGITS_WITHOUT_OVERFLOW) {
+            // Digits are decoded without a String, other characters are reported by the Integer.parseInt method
+            int length = 0;
+            int end = offset + numBytes;
+            for (int i = offset; i < end; i++) {
+                int digit = messageBytes[i] - PAD_CHAR_0;
+                if (digit < 0 || digit > 9) {
+                    return Integer.parseInt(new String(messageBytes, offset, numBytes, ISO_88591));
+                }
+                length = length * 10 + digit;
+            }
+            return length;
+        }
+        return Integer.parseInt(new String(messageBytes, offset, numBytes, ISO_88591));
     }
 
     @Override
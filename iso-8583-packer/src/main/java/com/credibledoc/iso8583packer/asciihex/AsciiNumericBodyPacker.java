@@ -0,0 +1,53 @@
+package com.credibledoc.iso8583packer.asciihex;
+
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.body.ZonedDecimalBodyPacker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implements ASCII {@link NumericBodyPacker} of Long values. Numbers are converted to and from ASCII digits
+ * without {@link String}s, for example 123 is converted into 3 bytes: 0x31, 0x32, 0x33.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     FieldBuilder.builder(MsgFieldType.VAL)
+ *         .defineName("STAN")
+ *         .defineLen(6)
+ *         .defineBodyPacker(AsciiNumericBodyPacker.getInstance(6));
+ * </pre>
+ *
+ * @author Kyrylo Semenko
+ */
+public class AsciiNumericBodyPacker extends ZonedDecimalBodyPacker {
+
+    private static final int ASCII_ZERO = 0x30;
+
+    /**
+     * Contains created instances. Each instance is Singleton.
+     */
+    private static final Map<Integer, AsciiNumericBodyPacker> instances = new ConcurrentHashMap<>();
+
+    private AsciiNumericBodyPacker(int numDigits) {
+        super(ASCII_ZERO, numDigits);
+    }
+
+    /**
+     * Static factory. Creates and returns singletons.
+     *
+     * @param numDigits number of digits of packed values, they are padded with '0' from the left.
+     *                  0 for variable length values without padding.
+     * @return Existing instance from the {@link #instances} map or a newly created instance.
+     */
+    public static AsciiNumericBodyPacker getInstance(int numDigits) {
+        return instances.computeIfAbsent(numDigits, AsciiNumericBodyPacker::new);
+    }
+
+    /**
+     * @return The variable length instance, see the {@link #getInstance(int)} method.
+     */
+    public static AsciiNumericBodyPacker getInstance() {
+        return getInstance(0);
+    }
+}
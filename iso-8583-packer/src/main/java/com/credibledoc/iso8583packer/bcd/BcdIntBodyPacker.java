@@ -1,9 +1,10 @@
 package com.credibledoc.iso8583packer.bcd;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.body.ZonedDecimalBodyPacker;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.message.MsgValue;
-import com.credibledoc.iso8583packer.string.StringUtils;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -12,12 +13,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * Implements BCD {@link BodyPacker} with padding. Integers are converted
  * to and from BCD bytes. Thus, "1234" is converted into 2 bytes: 0x12, 0x34.
  * <p>
+ * Digits are converted arithmetically, see the {@link NumericBodyPacker} methods.
+ * <p>
  * More examples
  * <a href="https://github.com/credibledoc/credible-doc/blob/master/iso-8583-packer/doc/bcd/bcd-int-body-packer.md">bcd-int-body-packer.md</a>
  *
  * @author Kyrylo Semenko
  */
-public class BcdIntBodyPacker implements BodyPacker {
+public class BcdIntBodyPacker implements NumericBodyPacker {
 
     /**
      * Contains created instances. Each instance is Singleton.
@@ -65,14 +68,7 @@ public class BcdIntBodyPacker implements BodyPacker {
             throw new PackerRuntimeException("Expected Integer but found " + object.getClass().getName());
         }
 
-        String value = Integer.toString((Integer) object);
-        if (value.length() > numBytes * 2) {
-            throw new PackerRuntimeException("Length '" + value.length() + "' of value '" + value +
-                "' is greater than the packer is able to pack because it has defined numBytes '" + numBytes + "'.");
-        }
-        String leftPadded = StringUtils.leftPad(value, numBytes * 2, FILLER_0);
-
-        BcdService.str2bcd(leftPadded, false, bytes, offset);
+        packLong((Integer) object, bytes, offset);
     }
 
     /**
@@ -84,8 +80,53 @@ public class BcdIntBodyPacker implements BodyPacker {
     @Override
     @SuppressWarnings("unchecked")
     public Integer unpack(byte[] sourceData, int offset, int bytesCount) {
-        String result = BcdService.bcd2str(sourceData, offset, bytesCount * 2, false);
-        return Integer.valueOf(result);
+        long result = unpackLong(sourceData, offset, bytesCount);
+        if (result > Integer.MAX_VALUE) {
+            throw new PackerRuntimeException("Value '" + result + "' is greater than Integer.MAX_VALUE. " +
+                "Please use the unpackLong method.");
+        }
+        return (int) result;
+    }
+
+    @Override
+    public void packLong(long value, byte[] bytes, int offset) {
+        getPackedLength(value);
+        for (int index = offset + numBytes - 1; index >= offset; index--) {
+            int low = (int) (value % 10);
+            value /= 10;
+            int high = (int) (value % 10);
+            value /= 10;
+            bytes[index] = (byte) ((high << 4) | low);
+        }
+    }
+
+    @Override
+    public long unpackLong(byte[] sourceData, int offset, int bytesCount) {
+        long result = 0;
+        for (int index = offset; index < offset + bytesCount; index++) {
+            int high = (sourceData[index] & 0xF0) >> 4;
+            int low = sourceData[index] & 0x0F;
+            if (high > 9 || low > 9) {
+                throw new PackerRuntimeException("Byte '" + (sourceData[index] & 0xFF) + "' at index '" + index +
+                    "' is not a BCD byte.");
+            }
+            if (result > (Long.MAX_VALUE - high * 10 - low) / 100) {
+                throw new PackerRuntimeException("The value with " + bytesCount * 2 + " digits is greater than " +
+                    Long.MAX_VALUE + ".");
+            }
+            result = result * 100 + high * 10 + low;
+        }
+        return result;
+    }
+
+    @Override
+    public int getPackedLength(long value) {
+        int digits = ZonedDecimalBodyPacker.countDigits(value);
+        if (digits > numBytes * 2) {
+            throw new PackerRuntimeException("Length '" + digits + "' of value '" + value +
+                "' is greater than the packer is able to pack because it has defined numBytes '" + numBytes + "'.");
+        }
+        return numBytes;
     }
 
     /**
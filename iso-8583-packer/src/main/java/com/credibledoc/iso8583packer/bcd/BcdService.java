@@ -11,6 +11,22 @@ import com.credibledoc.iso8583packer.string.StringUtils;
  */
 public class BcdService {
 
+    private static final int BYTE_VALUES = 256;
+
+    /**
+     * Two characters of every byte value, digits 0-9, letters A-F and the '=' separator instead of the 'D' nibble.
+     * Characters of the byte {@code b} are stored at the {@code (b & 0xFF) * 2} and {@code (b & 0xFF) * 2 + 1}
+     * indexes.
+     */
+    private static final char[] BYTE_TO_CHARS = new char[BYTE_VALUES * 2];
+
+    static {
+        for (int i = 0; i < BYTE_VALUES; i++) {
+            BYTE_TO_CHARS[i * 2] = nibbleToChar(i >> 4);
+            BYTE_TO_CHARS[i * 2 + 1] = nibbleToChar(i & 0x0F);
+        }
+    }
+
     private BcdService() {
         throw new PackerRuntimeException("Please do not instantiate this static helper.");
     }
@@ -81,17 +97,97 @@ public class BcdService {
      * @return the String representation of the number
      */
     static String bcd2str(byte[] b, int offset, int len, boolean padLeft) {
-        StringBuilder d = new StringBuilder(len);
+        char[] chars = new char[len];
+        bcd2chars(b, offset, len, padLeft, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Converts a BCD representation of a number to characters without intermediate objects.
+     *
+     * @param b            BCD representation
+     * @param offset       starting offset
+     * @param len          number of nibbles
+     * @param padLeft      was padLeft packed? The first nibble is skipped if the len is odd.
+     * @param target       the destination with at least len characters after the targetOffset
+     * @param targetOffset index of the first character in the target
+     * @return Number of written characters.
+     */
+    public static int bcd2chars(byte[] b, int offset, int len, boolean padLeft, char[] target, int targetOffset) {
+        int index = targetOffset;
+        int remaining = len;
+        int byteIndex = offset;
+        if ((len & 1) == 1 && padLeft) {
+            target[index++] = BYTE_TO_CHARS[((b[byteIndex++] & 0xFF) << 1) + 1];
+            remaining--;
+        }
+        int end = byteIndex + (remaining >> 1);
+        while (byteIndex < end) {
+            int tableIndex = (b[byteIndex++] & 0xFF) << 1;
+            target[index++] = BYTE_TO_CHARS[tableIndex];
+            target[index++] = BYTE_TO_CHARS[tableIndex + 1];
+        }
+        if ((remaining & 1) == 1) {
+            target[index] = BYTE_TO_CHARS[(b[byteIndex] & 0xFF) << 1];
+        }
+        return len;
+    }
+
+    /**
+     * Converts a BCD representation of a number to ASCII characters, see the
+     * {@link #bcd2chars(byte[], int, int, boolean, char[], int)} method.
+     *
+     * @param b            BCD representation
+     * @param offset       starting offset
+     * @param len          number of nibbles
+     * @param padLeft      was padLeft packed?
+     * @param target       the destination with at least len bytes after the targetOffset
+     * @param targetOffset index of the first character in the target
+     * @return Number of written bytes.
+     */
+    public static int bcd2ascii(byte[] b, int offset, int len, boolean padLeft, byte[] target, int targetOffset) {
+        int index = targetOffset;
+        int remaining = len;
+        int byteIndex = offset;
+        if ((len & 1) == 1 && padLeft) {
+            target[index++] = (byte) BYTE_TO_CHARS[((b[byteIndex++] & 0xFF) << 1) + 1];
+            remaining--;
+        }
+        int end = byteIndex + (remaining >> 1);
+        while (byteIndex < end) {
+            int tableIndex = (b[byteIndex++] & 0xFF) << 1;
+            target[index++] = (byte) BYTE_TO_CHARS[tableIndex];
+            target[index++] = (byte) BYTE_TO_CHARS[tableIndex + 1];
+        }
+        if ((remaining & 1) == 1) {
+            target[index] = (byte) BYTE_TO_CHARS[(b[byteIndex] & 0xFF) << 1];
+        }
+        return len;
+    }
+
+    /**
+     * Converts ASCII digits to BCD without intermediate Strings. The target bytes should be zeros, nibbles are
+     * added by the OR operation like in the {@link #str2bcd(String, boolean, byte[], int)} method.
+     *
+     * @param ascii        source ASCII digits
+     * @param offset       index of the first digit
+     * @param len          number of digits
+     * @param padLeft      flag indicating left/right padding of odd number of digits
+     * @param target       the destination with at least (len + 1) / 2 bytes after the targetOffset
+     * @param targetOffset index of the first byte in the target
+     * @return Number of written bytes.
+     */
+    public static int ascii2bcd(byte[] ascii, int offset, int len, boolean padLeft, byte[] target, int targetOffset) {
         int start = (((len & 1) == 1) && padLeft) ? 1 : 0;
         for (int i = start; i < len + start; i++) {
-            int shift = ((i & 1) == 1 ? 0 : 4);
-            char c = Character.forDigit(((b[offset + (i >> 1)] >> shift) & 0x0F), 16);
-            if (c == 'd') {
-                c = '=';
-            }
-            d.append(Character.toUpperCase(c));
+            target[targetOffset + (i >> 1)] |= (ascii[offset + i - start] - '0') << ((i & 1) == 1 ? 0 : 4);
         }
-        return d.toString();
+        return (len + 1) >> 1;
+    }
+
+    private static char nibbleToChar(int nibble) {
+        char c = Character.toUpperCase(Character.forDigit(nibble, 16));
+        return c == 'D' ? '=' : c;
     }
 
     public static void validateIsStringBcdNumber(MsgValue msgValue) {
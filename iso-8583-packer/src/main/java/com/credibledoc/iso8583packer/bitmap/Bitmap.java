@@ -0,0 +1,300 @@
+package com.credibledoc.iso8583packer.bitmap;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexService;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Primary, secondary and tertiary <a href="https://en.wikipedia.org/wiki/ISO_8583#Bitmaps">bitmaps</a>
+ * stored in three primitive {@code long}s. This is a lightweight alternative of the {@link BitSet} used
+ * by {@link BitmapPacker}s.
+ * <p>
+ * Field numbers start from 1 like in the ISO 8583 specification. The fieldNum 1 is the most significant bit of the
+ * first byte of a packed bitmap, the fieldNum 192 is the least significant bit of the 24th byte.
+ * <p>
+ * Set fields can be iterated without boxing, for example
+ * <pre>
+ *     for (int fieldNum = bitmap.nextFieldNum(1); fieldNum != -1; fieldNum = bitmap.nextFieldNum(fieldNum + 1)) {
+ *         ...
+ *     }
+ * </pre>
+ *
+ * @author Kyrylo Semenko
+ */
+public final class Bitmap {
+
+    /**
+     * The maximal fieldNum of the tertiary bitmap.
+     */
+    public static final int MAX_FIELD_NUM = 192;
+
+    private static final int WORDS_NUMBER = 3;
+    private static final int WORD_BITS = 64;
+    private static final int WORD_BYTES = 8;
+
+    /**
+     * Bits of fieldNums 1-64, 65-128 and 129-192. The fieldNum 1 is the lowest bit of the first word,
+     * so the {@link Long#numberOfTrailingZeros(long)} method returns the lowest set fieldNum minus 1.
+     */
+    private final long[] words = new long[WORDS_NUMBER];
+
+    /**
+     * Create a new {@link Bitmap} from a packed binary representation.
+     *
+     * @param bytes  the source
+     * @param offset index of the first byte of the bitmap in the bytes
+     * @param length number of bytes of the bitmap, from 1 to 24
+     * @return The new instance.
+     */
+    public static Bitmap fromBytes(byte[] bytes, int offset, int length) {
+        checkBytesLength(length);
+        Bitmap bitmap = new Bitmap();
+        for (int word = 0; word * WORD_BYTES < length; word++) {
+            int wordBytes = Math.min(WORD_BYTES, length - word * WORD_BYTES);
+            long bigEndian = 0;
+            int wordOffset = offset + word * WORD_BYTES;
+            for (int i = 0; i < wordBytes; i++) {
+                bigEndian = (bigEndian << 8) | (bytes[wordOffset + i] & 0xFF);
+            }
+            bigEndian <<= (WORD_BYTES - wordBytes) * 8;
+            bitmap.words[word] = Long.reverse(bigEndian);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Create a new {@link Bitmap} from an ASCII hexadecimal representation, for example '7234054128C28805'.
+     *
+     * @param hex       the source with ASCII hexadecimal digits
+     * @param offset    index of the first digit of the bitmap in the hex
+     * @param hexLength number of digits, from 2 to 48
+     * @return The new instance.
+     */
+    public static Bitmap fromHex(byte[] hex, int offset, int hexLength) {
+        checkBytesLength((hexLength + 1) / 2);
+        Bitmap bitmap = new Bitmap();
+        for (int word = 0; word * WORD_BYTES * 2 < hexLength; word++) {
+            int wordDigits = Math.min(WORD_BYTES * 2, hexLength - word * WORD_BYTES * 2);
+            long bigEndian = 0;
+            int wordOffset = offset + word * WORD_BYTES * 2;
+            for (int i = 0; i < wordDigits; i++) {
+                int digit = Character.digit((char) hex[wordOffset + i], 16);
+                if (digit < 0) {
+                    throw new PackerRuntimeException("Character '" + (char) hex[wordOffset + i] +
+                        "' at index '" + (wordOffset + i) + "' is not a hexadecimal digit.");
+                }
+                bigEndian = (bigEndian << 4) | digit;
+            }
+            bigEndian <<= (WORD_BYTES * 2 - wordDigits) * 4;
+            bitmap.words[word] = Long.reverse(bigEndian);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param bitSet the source, bits from 1 to {@link #MAX_FIELD_NUM} are copied, the bit 0 is ignored
+     * @return A new {@link Bitmap} with the same bits as the bitSet.
+     */
+    public static Bitmap fromBitSet(BitSet bitSet) {
+        int maxFieldNum = bitSet.length() - 1;
+        if (maxFieldNum > MAX_FIELD_NUM) {
+            throw new PackerRuntimeException("Maximal allowed fieldNum is " + MAX_FIELD_NUM +
+                ". Current field num is " + maxFieldNum);
+        }
+        Bitmap bitmap = new Bitmap();
+        long[] longs = bitSet.get(1, MAX_FIELD_NUM + 1).toLongArray();
+        System.arraycopy(longs, 0, bitmap.words, 0, longs.length);
+        return bitmap;
+    }
+
+    /**
+     * @return A new {@link BitSet} with the same bits as this {@link Bitmap}.
+     */
+    public BitSet toBitSet() {
+        // BitSet indexes are equal to fieldNums, so the words are shifted by one bit
+        return BitSet.valueOf(new long[] {
+            words[0] << 1,
+            (words[1] << 1) | (words[0] >>> 63),
+            (words[2] << 1) | (words[1] >>> 63),
+            words[2] >>> 63
+        });
+    }
+
+    /**
+     * Write this bitmap to the target in the packed binary representation.
+     *
+     * @param target the destination
+     * @param offset index of the first byte of the bitmap in the target
+     * @param length number of bytes, from 1 to 24. Fields greater than length * 8 are not written.
+     */
+    public void toBytes(byte[] target, int offset, int length) {
+        checkBytesLength(length);
+        for (int word = 0; word * WORD_BYTES < length; word++) {
+            int wordBytes = Math.min(WORD_BYTES, length - word * WORD_BYTES);
+            long bigEndian = Long.reverse(words[word]);
+            int wordOffset = offset + word * WORD_BYTES;
+            for (int i = 0; i < wordBytes; i++) {
+                target[wordOffset + i] = (byte) (bigEndian >>> (WORD_BITS - 8 - i * 8));
+            }
+        }
+    }
+
+    /**
+     * @param length number of bytes, from 1 to 24
+     * @return A new array with the packed binary representation, see the {@link #toBytes(byte[], int, int)} method.
+     */
+    public byte[] toBytes(int length) {
+        byte[] result = new byte[length];
+        toBytes(result, 0, length);
+        return result;
+    }
+
+    /**
+     * @param length number of bytes of the binary representation, from 1 to 24
+     * @return A new array with length * 2 ASCII uppercase hexadecimal digits.
+     */
+    public byte[] toHex(int length) {
+        byte[] bytes = toBytes(length);
+        byte[] result = new byte[length * 2];
+        HexService.bytesToHex(bytes, 0, length, result, 0);
+        return result;
+    }
+
+    /**
+     * @param fieldNum from 1 to {@link #MAX_FIELD_NUM}
+     */
+    public void set(int fieldNum) {
+        checkFieldNum(fieldNum);
+        words[(fieldNum - 1) >> 6] |= 1L << (fieldNum - 1);
+    }
+
+    /**
+     * @param fieldNum from 1 to {@link #MAX_FIELD_NUM}
+     */
+    public void clear(int fieldNum) {
+        checkFieldNum(fieldNum);
+        words[(fieldNum - 1) >> 6] &= ~(1L << (fieldNum - 1));
+    }
+
+    /**
+     * Clear all fields greater than the maxFieldNum.
+     *
+     * @param maxFieldNum from 0 to {@link #MAX_FIELD_NUM}
+     */
+    public void clearAbove(int maxFieldNum) {
+        for (int word = 0; word < WORDS_NUMBER; word++) {
+            int first = word * WORD_BITS;
+            if (maxFieldNum <= first) {
+                words[word] = 0;
+            } else if (maxFieldNum < first + WORD_BITS) {
+                words[word] &= (1L << (maxFieldNum - first)) - 1;
+            }
+        }
+    }
+
+    /**
+     * @param fieldNum any number
+     * @return 'true' if the fieldNum is set.
+     */
+    public boolean get(int fieldNum) {
+        if (fieldNum < 1 || fieldNum > MAX_FIELD_NUM) {
+            return false;
+        }
+        return (words[(fieldNum - 1) >> 6] & (1L << (fieldNum - 1))) != 0;
+    }
+
+    /**
+     * @param fromFieldNum the first fieldNum to check
+     * @return The first set fieldNum that is equal or greater than fromFieldNum or -1 if not found.
+     */
+    public int nextFieldNum(int fromFieldNum) {
+        int index = Math.max(fromFieldNum, 1) - 1;
+        int word = index >> 6;
+        if (word >= WORDS_NUMBER) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << index);
+        while (true) {
+            if (bits != 0) {
+                return word * WORD_BITS + Long.numberOfTrailingZeros(bits) + 1;
+            }
+            if (++word == WORDS_NUMBER) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * @return The greatest set fieldNum or 0 if the bitmap is empty.
+     */
+    public int getMaxFieldNum() {
+        for (int word = WORDS_NUMBER - 1; word >= 0; word--) {
+            if (words[word] != 0) {
+                return word * WORD_BITS + WORD_BITS - Long.numberOfLeadingZeros(words[word]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Number of set fields.
+     */
+    public int cardinality() {
+        return Long.bitCount(words[0]) + Long.bitCount(words[1]) + Long.bitCount(words[2]);
+    }
+
+    /**
+     * @return 'true' if no field is set.
+     */
+    public boolean isEmpty() {
+        return (words[0] | words[1] | words[2]) == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(words, ((Bitmap) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    /**
+     * @return The same format as the {@link BitSet#toString()} method returns, for example {2, 3, 55}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{");
+        for (int fieldNum = nextFieldNum(1); fieldNum != -1; fieldNum = nextFieldNum(fieldNum + 1)) {
+            if (stringBuilder.length() > 1) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(fieldNum);
+        }
+        return stringBuilder.append('}').toString();
+    }
+
+    private static void checkFieldNum(int fieldNum) {
+        if (fieldNum < 1 || fieldNum > MAX_FIELD_NUM) {
+            throw new PackerRuntimeException("Expected fieldNum is from 1 to " + MAX_FIELD_NUM +
+                ". Current fieldNum is " + fieldNum);
+        }
+    }
+
+    private static void checkBytesLength(int length) {
+        if (length < 1 || length > WORDS_NUMBER * WORD_BYTES) {
+            throw new PackerRuntimeException("Expected bitmap bytes length is from 1 to " +
+                WORDS_NUMBER * WORD_BYTES + ". Current length is " + length);
+        }
+    }
+}
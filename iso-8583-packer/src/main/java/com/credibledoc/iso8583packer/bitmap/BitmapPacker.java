@@ -21,7 +21,19 @@ public interface BitmapPacker {
     byte[] pack (BitSet bitSet);
 
     /**
-     * @param msgValue where the unpacked {@link BitSet} will be stored
+     * The default implementation converts the bitmap to the {@link BitSet} and calls the {@link #pack(BitSet)}
+     * method. Implementations should override it without the conversion.
+     *
+     * @param bitmap the {@link Bitmap} for packing
+     * @return packed {@link Bitmap}
+     */
+    default byte[] pack(Bitmap bitmap) {
+        return pack(bitmap.toBitSet());
+    }
+
+    /**
+     * @param msgValue where the unpacked {@link Bitmap} will be stored, see the {@link MsgValue#setBitmap(Bitmap)}
+     *                 method
      * @param bytes the data source
      * @param offset starting offset within the bytes
      * @return number of consumed bytes
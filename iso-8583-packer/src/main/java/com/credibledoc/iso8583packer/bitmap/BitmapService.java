@@ -3,7 +3,6 @@ package com.credibledoc.iso8583packer.bitmap;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
 import java.util.BitSet;
-import java.util.OptionalInt;
 
 /**
  * Static service. Converts <a href="https://en.wikipedia.org/wiki/ISO_8583#Bitmaps">Bitmap</a> data.
@@ -24,17 +23,21 @@ public class BitmapService {
      * @return binary representation
      */
     public static byte[] bitSet2byte(BitSet bitSet, int bytesNumber) {
-        int len = bytesNumber * 8;
+        return bitmap2byte(Bitmap.fromBitSet(bitSet), bytesNumber);
+    }
 
-        byte[] bytes = new byte[bytesNumber];
-        for (int i = 0; i < len; i++) {
-            if (bitSet.get(i + 1)) {
-                bytes[i >> 3] |= (0x80 >> (i % 8));
-            }
-        }
-        OptionalInt optionalInt = bitSet.stream().max();
-        if (optionalInt.isPresent()) {
-            int maxBit = optionalInt.getAsInt();
+    /**
+     * Convert a {@link Bitmap} into a binary field. The flags of secondary and tertiary bitmaps
+     * are set in the result if required.
+     *
+     * @param bitmap      the source
+     * @param bytesNumber number of bytes to return
+     * @return binary representation
+     */
+    public static byte[] bitmap2byte(Bitmap bitmap, int bytesNumber) {
+        byte[] bytes = bitmap.toBytes(bytesNumber);
+        if (!bitmap.isEmpty()) {
+            int maxBit = bitmap.getMaxFieldNum();
             if (maxBit > 64 || bytesNumber == 16) {
                 bytes[0] |= 0x80;
             }
@@ -55,20 +58,27 @@ public class BitmapService {
      * @return java BitSet object
      */
     public static BitSet hex2BitSet(byte[] b, int offset, int maxBits) {
+        return hex2Bitmap(b, offset, maxBits).toBitSet();
+    }
+
+    /**
+     * Converts an ASCII representation of a Bitmap field into a {@link Bitmap}.
+     *
+     * @param b       hex representation
+     * @param offset  starting offset
+     * @param maxBits max number of bits (supports 8, 16, 24, 32, 48, 52, 64,.. 128 or 192)
+     * @return The new {@link Bitmap}.
+     */
+    public static Bitmap hex2Bitmap(byte[] b, int offset, int maxBits) {
         int shiftedLength = Character.digit((char) b[offset], 16) & 0x08;
         int decidedLength = shiftedLength == 8 ? 128 : 64;
         int len = maxBits > 64 ? decidedLength : maxBits;
-        BitSet bmap = new BitSet(len);
-        for (int i = 0; i < len; i++) {
-            int digit = Character.digit((char) b[offset + (i >> 2)], 16);
-            if ((digit & (0x08 >> (i % 4))) > 0) {
-                bmap.set(i + 1);
-                if (i == 65 && maxBits > 128) {
-                    len = 192;
-                }
-            }
+        if (len == 128 && maxBits > 128 && (Character.digit((char) b[offset + 16], 16) & 0x08) == 0x08) {
+            len = 192;
         }
-        return bmap;
+        Bitmap bitmap = Bitmap.fromHex(b, offset, (len + 3) >> 2);
+        bitmap.clearAbove(len);
+        return bitmap;
     }
 
     /**
@@ -80,21 +90,27 @@ public class BitmapService {
      * @return java BitSet object
      */
     public static BitSet byte2BitSet(byte[] bytes, int offset, int maxBits) {
+        return byte2Bitmap(bytes, offset, maxBits).toBitSet();
+    }
+
+    /**
+     * Converts a binary representation of a Bitmap field into a {@link Bitmap}.
+     *
+     * @param bytes   binary representation
+     * @param offset  staring offset
+     * @param maxBits max number of bits (supports 64,128 or 192)
+     * @return The new {@link Bitmap}.
+     */
+    public static Bitmap byte2Bitmap(byte[] bytes, int offset, int maxBits) {
         int decidedLength = (bytes[offset] & 0x80) == 0x80 ? 128 : 64;
         int len = maxBits > 64 ? decidedLength : maxBits;
 
         if (maxBits > 128 && bytes.length > offset + 8 && (bytes[offset + 8] & 0x80) == 0x80) {
             len = 192;
         }
-        BitSet bmap = new BitSet(len);
-        for (int i = 0; i < len; i++) {
-            int shifted = i >> 3;
-            int shiftedOffset = offset + shifted;
-            if (((bytes[shiftedOffset] & 0xff) & (0x80 >> (i % 8))) > 0) {
-                bmap.set(i + 1);
-            }
-        }
-        return bmap;
+        Bitmap bitmap = Bitmap.fromBytes(bytes, offset, (len + 7) >> 3);
+        bitmap.clearAbove(len);
+        return bitmap;
     }
 
     /**
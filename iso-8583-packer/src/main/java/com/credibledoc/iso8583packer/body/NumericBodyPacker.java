@@ -0,0 +1,40 @@
+package com.credibledoc.iso8583packer.body;
+
+/**
+ * A {@link BodyPacker} of non-negative integer values, for example amounts and STANs. In addition to the
+ * {@link BodyPacker} methods with {@link Object}s the interface has methods with primitive {@code long}s.
+ * The methods convert digits arithmetically without boxing and without intermediate {@link String}s.
+ * <p>
+ * See the {@link com.credibledoc.iso8583packer.ValueHolder#setLong(long)} and
+ * {@link com.credibledoc.iso8583packer.ValueHolder#getLong()} methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface NumericBodyPacker extends BodyPacker {
+
+    /**
+     * Converts the value into bytes.
+     *
+     * @param value  non-negative number to be packed.
+     * @param bytes  an empty or partially filled bytes with at least {@link #getPackedLength(long)} bytes
+     *               after the offset.
+     * @param offset the index of the first unfilled byte in the bytes array from start packing at.
+     */
+    void packLong(long value, byte[] bytes, int offset);
+
+    /**
+     * The method reverses the {@link #packLong(long, byte[], int)} method.
+     *
+     * @param sourceData the packed source data.
+     * @param offset     the index in sourceData to start unpacking at.
+     * @param bytesCount the number of bytes to unpack.
+     * @return The unpacked number.
+     */
+    long unpackLong(byte[] sourceData, int offset, int bytesCount);
+
+    /**
+     * @param value the number for packing.
+     * @return The number of bytes required to pack the value.
+     */
+    int getPackedLength(long value);
+}
@@ -0,0 +1,131 @@
+package com.credibledoc.iso8583packer.body;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+
+/**
+ * A base of {@link NumericBodyPacker}s where every decimal digit occupies one byte with a zone in the high nibble,
+ * for example ASCII digits 0x30 - 0x39 or EBCDIC digits 0xF0 - 0xF9.
+ * <p>
+ * Fixed length packers pad values with zeros from the left. Variable length packers use the minimal number
+ * of digits.
+ *
+ * @author Kyrylo Semenko
+ */
+public abstract class ZonedDecimalBodyPacker implements NumericBodyPacker {
+
+    private static final int MAX_LONG_DIGITS = 19;
+
+    /**
+     * Value of the digit 0, for example 0x30 in ASCII.
+     */
+    private final int zero;
+
+    /**
+     * Number of digits of the packed value. 0 for variable length values.
+     */
+    private final int numDigits;
+
+    /**
+     * @param zero      see the {@link #zero} field description
+     * @param numDigits see the {@link #numDigits} field description
+     */
+    protected ZonedDecimalBodyPacker(int zero, int numDigits) {
+        if (numDigits < 0 || numDigits > MAX_LONG_DIGITS) {
+            throw new PackerRuntimeException("Expected numDigits is from 0 to " + MAX_LONG_DIGITS +
+                ". Current value: " + numDigits);
+        }
+        this.zero = zero;
+        this.numDigits = numDigits;
+    }
+
+    @Override
+    public void packLong(long value, byte[] bytes, int offset) {
+        int length = getPackedLength(value);
+        for (int index = offset + length - 1; index >= offset; index--) {
+            bytes[index] = (byte) (zero + (int) (value % 10));
+            value /= 10;
+        }
+    }
+
+    @Override
+    public long unpackLong(byte[] sourceData, int offset, int bytesCount) {
+        long result = 0;
+        for (int index = offset; index < offset + bytesCount; index++) {
+            int digit = (sourceData[index] & 0xFF) - zero;
+            if (digit < 0 || digit > 9) {
+                throw new PackerRuntimeException("Byte '" + (sourceData[index] & 0xFF) + "' at index '" + index +
+                    "' is not a decimal digit of the " + getClass().getSimpleName() + ".");
+            }
+            if (result > (Long.MAX_VALUE - digit) / 10) {
+                throw new PackerRuntimeException("The value with " + bytesCount + " digits is greater than " +
+                    Long.MAX_VALUE + ".");
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    @Override
+    public int getPackedLength(long value) {
+        int digits = countDigits(value);
+        if (numDigits == 0) {
+            return digits;
+        }
+        if (digits > numDigits) {
+            throw new PackerRuntimeException("Length '" + digits + "' of value '" + value +
+                "' is greater than the packer is able to pack because it has defined numDigits '" + numDigits + "'.");
+        }
+        return numDigits;
+    }
+
+    @Override
+    public void pack(Object object, byte[] bytes, int offset) {
+        if (object == null) {
+            return;
+        }
+        packLong(toLong(object), bytes, offset);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Long unpack(byte[] sourceData, int offset, int bytesCount) {
+        return unpackLong(sourceData, offset, bytesCount);
+    }
+
+    @Override
+    public int getPackedLength(Object object) {
+        return getPackedLength(toLong(object));
+    }
+
+    /**
+     * @return The {@link #numDigits} field value.
+     */
+    public int getNumDigits() {
+        return numDigits;
+    }
+
+    /**
+     * @param value non-negative number
+     * @return Number of decimal digits of the value, 1 for 0.
+     */
+    public static int countDigits(long value) {
+        if (value < 0) {
+            throw new PackerRuntimeException("Negative values cannot be packed. Value: " + value);
+        }
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static long toLong(Object object) {
+        if (!(object instanceof Long || object instanceof Integer || object instanceof Short ||
+                object instanceof Byte)) {
+            throw new PackerRuntimeException("Expected Long or Integer but found " +
+                (object == null ? "null" : object.getClass().getName()));
+        }
+        return ((Number) object).longValue();
+    }
+}
@@ -0,0 +1,620 @@
+package com.credibledoc.iso8583packer.codegen;
+
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.plan.FieldPlan;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
+import com.credibledoc.iso8583packer.plan.PlanService;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the Java source of a typed message class from a {@link MsgField} definition. The generated class
+ * has a field with a getter and a setter for every leaf of the definition and a nested {@code Codec} class with
+ * pack and unpack methods. The methods call the {@link BodyPacker}s, {@link com.credibledoc.iso8583packer.length.LengthPacker}s
+ * and {@link com.credibledoc.iso8583packer.bitmap.BitmapPacker}s of the definition directly, without
+ * {@link com.credibledoc.iso8583packer.message.MsgValue} graphs, string paths and reflection. The packed bytes
+ * are the same as the bytes packed by the {@link com.credibledoc.iso8583packer.ValueHolder}.
+ * <p>
+ * Definitions are created by code, so the generator is called from a build step or a test rather than from
+ * an annotation processor, for example
+ * <pre>
+ *     MessageClassGenerator.getInstance().write(isoMsgField, "com.example.iso", "AuthorizationRequest",
+ *         Paths.get("src/main/java"));
+ * </pre>
+ * and the generated class is used with the same definition
+ * <pre>
+ *     AuthorizationRequest.Codec codec = new AuthorizationRequest.Codec(PlanService.getInstance().compile(isoMsgField));
+ *     AuthorizationRequest request = codec.unpack(bytes);
+ * </pre>
+ * The generator supports {@link MsgFieldType#MSG} fields, {@link MsgFieldType#BIT_SET} fields with leaf
+ * children, {@link MsgFieldType#VAL} leaves with the {@link MsgField#getLen()} definition and
+ * {@link MsgFieldType#LEN_VAL} leaves. Leaves with a {@link NumericBodyPacker} have {@code long} values, types of
+ * other leaves are return types of the {@link BodyPacker#unpack(byte[], int, int)} methods of their packers.
+ * Other field types are reported by a {@link PackerRuntimeException}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MessageClassGenerator {
+    private static final String UNPACK_METHOD_NAME = "unpack";
+    private static final String JAVA_LANG_PREFIX = "java.lang.";
+
+    /**
+     * Singleton.
+     */
+    private static final MessageClassGenerator instance = new MessageClassGenerator();
+
+    /**
+     * @return The {@link MessageClassGenerator} singleton.
+     */
+    public static MessageClassGenerator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Generate the source and write it to the file in the package directory of the sourceRoot.
+     *
+     * @param definition  the message definition, its root is used
+     * @param packageName the package of the generated class, can be empty
+     * @param className   the simple name of the generated class
+     * @param sourceRoot  the root directory of sources, for example 'src/main/java'
+     * @return The written file.
+     */
+    public Path write(MsgField definition, String packageName, String className, Path sourceRoot) {
+        String source = generate(definition, packageName, className);
+        Path directory = packageName.isEmpty() ? sourceRoot : sourceRoot.resolve(packageName.replace('.', '/'));
+        Path file = directory.resolve(className + ".java");
+        try {
+            Files.createDirectories(directory);
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            return file;
+        } catch (IOException e) {
+            throw new PackerRuntimeException("Cannot write the generated class to the file " + file, e);
+        }
+    }
+
+    /**
+     * Generate the source of the message class.
+     *
+     * @param definition  the message definition, its root is used
+     * @param packageName the package of the generated class, can be empty
+     * @param className   the simple name of the generated class
+     * @return The Java source.
+     */
+    public String generate(MsgField definition, String packageName, String className) {
+        if (!SourceVersion.isName(className) || className.contains(".")) {
+            throw new PackerRuntimeException("The className '" + className + "' is not a simple Java name.");
+        }
+        MessagePlan messagePlan = PlanService.getInstance().compile(definition);
+        Generation generation = new Generation(messagePlan, className);
+        generation.collect(messagePlan.getRoot());
+        return generation.render(packageName);
+    }
+
+    /**
+     * The state of a single {@link #generate(MsgField, String, String)} call.
+     */
+    private static class Generation {
+        private final MessagePlan messagePlan;
+        private final String className;
+        private final Map<FieldPlan, String> javaNames = new IdentityHashMap<>();
+        private final Set<String> usedNames = new HashSet<>();
+        private final SourceWriter fields = new SourceWriter();
+        private final SourceWriter accessors = new SourceWriter();
+        private final SourceWriter codecFields = new SourceWriter();
+        private final SourceWriter codecConstructor = new SourceWriter();
+        private final SourceWriter measure = new SourceWriter();
+        private final SourceWriter write = new SourceWriter();
+        private final SourceWriter unpack = new SourceWriter();
+
+        private Generation(MessagePlan messagePlan, String className) {
+            this.messagePlan = messagePlan;
+            this.className = className;
+        }
+
+        /**
+         * Check the fieldPlan and assign unique Java names to the fieldPlan and its descendants.
+         */
+        private void collect(FieldPlan fieldPlan) {
+            MsgFieldType type = fieldPlan.getType();
+            boolean parentIsBitSet = fieldPlan.getParent() != null &&
+                fieldPlan.getParent().getType() == MsgFieldType.BIT_SET;
+            if (type == MsgFieldType.MSG || type == MsgFieldType.BIT_SET) {
+                if (parentIsBitSet) {
+                    throw unsupported(fieldPlan, "Children of BIT_SET fields should be leaves.");
+                }
+                if (fieldPlan.getChildren().length == 0) {
+                    throw unsupported(fieldPlan, "The field has no children.");
+                }
+            } else if (type == MsgFieldType.VAL) {
+                if (fieldPlan.getBodyLen() == null) {
+                    throw unsupported(fieldPlan, "VAL fields should have the 'len' definition.");
+                }
+            } else if (type != MsgFieldType.LEN_VAL) {
+                throw unsupported(fieldPlan, "Fields of the " + type + " type are not supported.");
+            }
+            if ((type == MsgFieldType.VAL || type == MsgFieldType.LEN_VAL) && !fieldPlan.isLeaf()) {
+                throw unsupported(fieldPlan, "Fields of the " + type + " type should be leaves.");
+            }
+            if (parentIsBitSet && fieldPlan.getMsgField().getFieldNum() == null) {
+                throw unsupported(fieldPlan, "Children of BIT_SET fields should have the 'fieldNum' definition.");
+            }
+            if (fieldPlan.isLeaf() && fieldPlan.getBodyPacker() == null) {
+                throw unsupported(fieldPlan, "The BodyPacker is not defined.");
+            }
+            if (type == MsgFieldType.LEN_VAL && fieldPlan.getLengthPacker() == null) {
+                throw unsupported(fieldPlan, "The LengthPacker is not defined.");
+            }
+            javaNames.put(fieldPlan, uniqueJavaName(fieldPlan.getMsgField().getName()));
+            for (FieldPlan child : fieldPlan.getChildren()) {
+                collect(child);
+            }
+        }
+
+        private PackerRuntimeException unsupported(FieldPlan fieldPlan, String reason) {
+            return new PackerRuntimeException("The field '" + path(fieldPlan) +
+                "' cannot be generated. " + reason);
+        }
+
+        private String uniqueJavaName(String name) {
+            StringBuilder stringBuilder = new StringBuilder();
+            boolean upper = false;
+            for (char next : name.toCharArray()) {
+                if (!Character.isLetterOrDigit(next)) {
+                    upper = stringBuilder.length() > 0;
+                } else if (upper) {
+                    stringBuilder.append(Character.toUpperCase(next));
+                    upper = false;
+                } else {
+                    stringBuilder.append(Character.toLowerCase(next));
+                }
+            }
+            if (stringBuilder.length() == 0 || !Character.isJavaIdentifierStart(stringBuilder.charAt(0))) {
+                stringBuilder.insert(0, "field");
+            }
+            String base = stringBuilder.toString();
+            if (SourceVersion.isKeyword(base)) {
+                base = base + "Field";
+            }
+            String result = base;
+            int suffix = 2;
+            while (!usedNames.add(result)) {
+                result = base + suffix++;
+            }
+            return result;
+        }
+
+        private String render(String packageName) {
+            FieldPlan root = messagePlan.getRoot();
+            unpack.line("int offset = startOffset;");
+            generateNode(root, false);
+            SourceWriter source = new SourceWriter();
+            if (!packageName.isEmpty()) {
+                source.line("package " + packageName + ";").line("");
+            }
+            source.line("import com.credibledoc.iso8583packer.bitmap.Bitmap;")
+                .line("import com.credibledoc.iso8583packer.bitmap.BitmapPacker;")
+                .line("import com.credibledoc.iso8583packer.body.BodyPacker;")
+                .line("import com.credibledoc.iso8583packer.body.NumericBodyPacker;")
+                .line("import com.credibledoc.iso8583packer.exception.MalformedMessageException;")
+                .line("import com.credibledoc.iso8583packer.exception.PackerRuntimeException;")
+                .line("import com.credibledoc.iso8583packer.length.LengthPacker;")
+                .line("import com.credibledoc.iso8583packer.message.MsgValue;")
+                .line("import com.credibledoc.iso8583packer.plan.FieldPlan;")
+                .line("import com.credibledoc.iso8583packer.plan.MessagePlan;")
+                .line("")
+                .line("/**")
+                .line(" * The '" + root.getMsgField().getName() + "' message. The class is generated by the")
+                .line(" * {@link com.credibledoc.iso8583packer.codegen.MessageClassGenerator}, please do not change it.")
+                .line(" */")
+                .line("public class " + className + " {")
+                .indent()
+                .append(fields)
+                .line("")
+                .append(accessors)
+                .line("")
+                .line("/**")
+                .line(" * Packs and unpacks the {@link " + className + "} by packers of the message definition.")
+                .line(" * The instance is stateless if the packers are stateless.")
+                .line(" */")
+                .line("public static class Codec {")
+                .indent()
+                .append(codecFields)
+                .line("")
+                .line("/**")
+                .line(" * @param messagePlan the compiled definition, the generated class was created from")
+                .line(" */")
+                .line("public Codec(MessagePlan messagePlan) {")
+                .indent()
+                .append(codecConstructor)
+                .outdent()
+                .line("}")
+                .line("")
+                .line("/**")
+                .line(" * @param message the source data")
+                .line(" * @return Packed bytes.")
+                .line(" */")
+                .line("public byte[] pack(" + className + " message) {")
+                .indent()
+                .line("int length = 0;")
+                .append(measure)
+                .line("byte[] bytes = new byte[length];")
+                .line("int offset = 0;")
+                .append(write)
+                .line("return bytes;")
+                .outdent()
+                .line("}")
+                .line("")
+                .line("/**")
+                .line(" * @param bytes the packed message")
+                .line(" * @return The unpacked message.")
+                .line(" */")
+                .line("public " + className + " unpack(byte[] bytes) {")
+                .indent()
+                .line("return unpack(bytes, 0);")
+                .outdent()
+                .line("}")
+                .line("")
+                .line("/**")
+                .line(" * @param bytes       the packed message")
+                .line(" * @param startOffset index of the message in the bytes")
+                .line(" * @return The unpacked message.")
+                .line(" */")
+                .line("public " + className + " unpack(byte[] bytes, int startOffset) {")
+                .indent()
+                .line(className + " message = new " + className + "();")
+                .append(unpack)
+                .line("return message;")
+                .outdent()
+                .line("}")
+                .line("")
+                .line("private static FieldPlan findPlan(MessagePlan messagePlan, int index, String name) {")
+                .indent()
+                .line("FieldPlan fieldPlan = index < messagePlan.size() ? messagePlan.getNode(index) : null;")
+                .line("if (fieldPlan == null || !name.equals(fieldPlan.getMsgField().getName())) {")
+                .indent()
+                .line("throw new PackerRuntimeException(\"The MessagePlan does not contain the field '\" + name +")
+                .line("    \"' at index \" + index + \". The class " + className +
+                    " should be generated again.\");")
+                .outdent()
+                .line("}")
+                .line("return fieldPlan;")
+                .outdent()
+                .line("}")
+                .line("")
+                .line("private static void checkLength(int bodyLength, int expected, String path) {")
+                .indent()
+                .line("if (bodyLength != expected) {")
+                .indent()
+                .line("throw new PackerRuntimeException(\"The field '\" + path + \"' requires the length '\" +")
+                .line("    expected + \"', but its bodyValue length '\" + bodyLength + \"' is different.\");")
+                .outdent()
+                .line("}")
+                .outdent()
+                .line("}")
+                .line("")
+                .line("private static void checkMaxLength(int bodyLength, int maxLen, String path) {")
+                .indent()
+                .line("if (bodyLength > maxLen) {")
+                .indent()
+                .line("throw new PackerRuntimeException(\"The field '\" + path + \"' contains the 'maxLen' \" +")
+                .line("    \"definition with value '\" + maxLen + \"', but its bodyValue length '\" + bodyLength +")
+                .line("    \"' is greater.\");")
+                .outdent()
+                .line("}")
+                .outdent()
+                .line("}")
+                .line("")
+                .line("private static void checkRemaining(byte[] bytes, int offset, int length, String path) {")
+                .indent()
+                .line("if (length < 0 || length > bytes.length - offset) {")
+                .indent()
+                .line("throw new MalformedMessageException(\"Cannot unpack bytes because the remaining data \" +")
+                .line("    \"length of the byte array is less than required.\", () -> path, offset, length,")
+                .line("    bytes.length - offset);")
+                .outdent()
+                .line("}")
+                .outdent()
+                .line("}")
+                .outdent()
+                .line("}")
+                .outdent()
+                .line("}");
+            return source.toString();
+        }
+
+        private void generateNode(FieldPlan fieldPlan, boolean inBitSet) {
+            MsgFieldType type = fieldPlan.getType();
+            if (type == MsgFieldType.MSG) {
+                for (FieldPlan child : fieldPlan.getChildren()) {
+                    generateNode(child, false);
+                }
+            } else if (type == MsgFieldType.BIT_SET) {
+                generateBitSet(fieldPlan);
+            } else {
+                generateLeaf(fieldPlan, inBitSet);
+            }
+        }
+
+        private void generateBitSet(FieldPlan fieldPlan) {
+            String name = javaNames.get(fieldPlan);
+            String packer = name + "BitmapPacker";
+            codecFields.line("private final BitmapPacker " + packer + ";");
+            codecConstructor.line(packer + " = findPlan(messagePlan, " + fieldPlan.getIndex() + ", " +
+                literal(fieldPlan.getMsgField().getName()) + ").getBitmapPacker();");
+
+            String bitmapBytes = name + "BitmapBytes";
+            write.line("if (" + bitmapBytes + " != null) {").indent()
+                .line("System.arraycopy(" + bitmapBytes + ", 0, bytes, offset, " + bitmapBytes + ".length);")
+                .line("offset += " + bitmapBytes + ".length;")
+                .outdent().line("}");
+
+            String bitmap = name + "Bitmap";
+            unpack.line("MsgValue " + name + "Value = new MsgValue();")
+                .line("offset += " + packer + ".unpack(" + name + "Value, bytes, offset);")
+                .line("Bitmap " + bitmap + " = " + name + "Value.getBitmap();")
+                .line("for (int fieldNum = " + bitmap + ".nextFieldNum(1); fieldNum != -1 && fieldNum <= " +
+                    fieldPlan.getMaxFieldNum() + ";")
+                .line("        fieldNum = " + bitmap + ".nextFieldNum(fieldNum + 1)) {").indent()
+                .line("switch (fieldNum) {").indent();
+
+            for (FieldPlan child : fieldPlan.getChildren()) {
+                unpack.line("case " + child.getMsgField().getFieldNum() + ": {").indent();
+                generateNode(child, true);
+                unpack.line("break;").outdent().line("}");
+            }
+            if (fieldPlan.findChildByFieldNum(1) == null) {
+                unpack.line("case 1:");
+            }
+            if (fieldPlan.findChildByFieldNum(65) == null) {
+                unpack.line("case 65:");
+            }
+            unpack.line("    // Bits 1 and 65 may be used as flags of a secondary and tertiary bitmaps")
+                .line("    break;")
+                .line("default:").indent()
+                .line("throw new PackerRuntimeException(\"Unpacked bitSet contains fieldNum '\" + fieldNum +")
+                .line("    \"', but the field " + literal(path(fieldPlan)).replace("\"", "'") +
+                    " has no child with such fieldNum.\");")
+                .outdent().outdent().line("}").outdent().line("}");
+
+            measure.line("Bitmap " + bitmap + " = new Bitmap();");
+            for (FieldPlan child : fieldPlan.getChildren()) {
+                measure.line("if (" + javaNames.get(child) + "Length >= 0) {").indent()
+                    .line(bitmap + ".set(" + child.getMsgField().getFieldNum() + ");")
+                    .outdent().line("}");
+            }
+            measure.line("byte[] " + bitmapBytes + " = null;")
+                .line("if (!" + bitmap + ".isEmpty()) {").indent()
+                .line("int maxFieldNum = " + bitmap + ".getMaxFieldNum();")
+                .line("if (maxFieldNum > 64) {").indent().line(bitmap + ".set(1);").outdent().line("}")
+                .line("if (maxFieldNum > 128) {").indent().line(bitmap + ".set(65);").outdent().line("}")
+                .line(bitmapBytes + " = " + packer + ".pack(" + bitmap + ");")
+                .line("length += " + bitmapBytes + ".length;")
+                .outdent().line("}");
+        }
+
+        private void generateLeaf(FieldPlan fieldPlan, boolean inBitSet) {
+            String name = javaNames.get(fieldPlan);
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            String path = literal(path(fieldPlan));
+            MsgField msgField = fieldPlan.getMsgField();
+            boolean numeric = fieldPlan.getBodyPacker() instanceof NumericBodyPacker;
+            String javaType = numeric ? "long" : javaType(fieldPlan.getBodyPacker());
+            String bodyPacker = name + "BodyPacker";
+            String lengthPacker = name + "LengthPacker";
+            boolean lengthType = fieldPlan.getType() == MsgFieldType.LEN_VAL;
+            String findPlan = "findPlan(messagePlan, " + fieldPlan.getIndex() + ", " + literal(msgField.getName()) + ")";
+            String localLength = name + "Length";
+
+            fields.line("/**")
+                .line(" * The '" + path(fieldPlan) + "' field value.")
+                .line(" */")
+                .line("private " + javaType + " " + name + ";")
+                .line("");
+            if (numeric) {
+                fields.line("/**")
+                    .line(" * 'true' if the {@link #" + name + "} value is defined.")
+                    .line(" */")
+                    .line("private boolean " + name + "Defined;")
+                    .line("");
+            }
+            accessors.line("/**")
+                .line(" * @return The {@link #" + name + "} field value.")
+                .line(" */")
+                .line("public " + javaType + " get" + capitalized + "() {").indent()
+                .line("return " + name + ";")
+                .outdent().line("}")
+                .line("")
+                .line("/**")
+                .line(" * @param " + name + " see the {@link #" + name + "} field description" +
+                    (numeric ? "" : ", 'null' if the field is not present"))
+                .line(" */")
+                .line("public void set" + capitalized + "(" + javaType + " " + name + ") {").indent()
+                .line("this." + name + " = " + name + ";");
+            if (numeric) {
+                accessors.line("this." + name + "Defined = true;");
+            }
+            accessors.outdent().line("}").line("");
+            if (numeric) {
+                accessors.line("/**")
+                    .line(" * @return The {@link #" + name + "Defined} field value.")
+                    .line(" */")
+                    .line("public boolean has" + capitalized + "() {").indent()
+                    .line("return " + name + "Defined;")
+                    .outdent().line("}")
+                    .line("")
+                    .line("/**")
+                    .line(" * Remove the {@link #" + name + "} value from the message.")
+                    .line(" */")
+                    .line("public void clear" + capitalized + "() {").indent()
+                    .line("this." + name + " = 0;")
+                    .line("this." + name + "Defined = false;")
+                    .outdent().line("}")
+                    .line("");
+            }
+
+            String packerType = numeric ? "NumericBodyPacker" : "BodyPacker";
+            codecFields.line("private final " + packerType + " " + bodyPacker + ";");
+            codecConstructor.line(bodyPacker + " = " + (numeric ? "(NumericBodyPacker) " : "") + findPlan +
+                ".getBodyPacker();");
+            if (lengthType) {
+                codecFields.line("private final LengthPacker " + lengthPacker + ";");
+                codecConstructor.line(lengthPacker + " = " + findPlan + ".getLengthPacker();");
+            }
+
+            String value = "message." + name;
+            measure.line("int " + localLength + " = -1;");
+            if (lengthType) {
+                measure.line("byte[] " + name + "LengthBytes = null;");
+            }
+            measure.line("if (" + (numeric ? value + "Defined" : value + " != null") + ") {").indent()
+                .line(localLength + " = " + bodyPacker + ".getPackedLength(" + value + ");");
+            if (msgField.getExactlyLength() != null) {
+                measure.line("checkLength(" + localLength + ", " + msgField.getExactlyLength() + ", " + path + ");");
+            }
+            if (msgField.getMaxLen() != null) {
+                measure.line("checkMaxLength(" + localLength + ", " + msgField.getMaxLen() + ", " + path + ");");
+            }
+            if (msgField.getLen() != null) {
+                measure.line("checkLength(" + localLength + ", " + msgField.getLen() + ", " + path + ");");
+            }
+            if (lengthType) {
+                measure.line(name + "LengthBytes = " + lengthPacker + ".pack(" + localLength + ");")
+                    .line("length += " + name + "LengthBytes.length;");
+            }
+            measure.line("length += " + localLength + ";").outdent().line("}");
+
+            write.line("if (" + localLength + " >= 0) {").indent();
+            if (lengthType) {
+                write.line("System.arraycopy(" + name + "LengthBytes, 0, bytes, offset, " + name +
+                    "LengthBytes.length);")
+                    .line("offset += " + name + "LengthBytes.length;");
+            }
+            write.line(bodyPacker + (numeric ? ".packLong(" : ".pack(") + value + ", bytes, offset);")
+                .line("offset += " + localLength + ";")
+                .outdent().line("}");
+
+            if (!inBitSet) {
+                unpack.line("{").indent();
+            }
+            if (lengthType) {
+                unpack.line("checkRemaining(bytes, offset, 1, " + path + ");")
+                    .line("int lengthLength = " + lengthPacker + ".calculateLenLength(bytes, offset);")
+                    .line("checkRemaining(bytes, offset, lengthLength, " + path + ");")
+                    .line("int bodyLength = " + lengthPacker + ".unpack(bytes, offset);")
+                    .line("offset += lengthLength;");
+            } else {
+                unpack.line("int bodyLength = " + fieldPlan.getBodyLen() + ";");
+            }
+            unpack.line("checkRemaining(bytes, offset, bodyLength, " + path + ");");
+            if (numeric) {
+                unpack.line(value + " = " + bodyPacker + ".unpackLong(bytes, offset, bodyLength);")
+                    .line(value + "Defined = true;");
+            } else {
+                unpack.line(value + " = " + bodyPacker + ".<" + javaType + ">unpack(bytes, offset, bodyLength);");
+            }
+            unpack.line("offset += bodyLength;");
+            if (!inBitSet) {
+                unpack.outdent().line("}");
+            }
+        }
+
+        private String path(FieldPlan fieldPlan) {
+            return NavigatorService.getInstance().getPathRecursively(fieldPlan.getMsgField());
+        }
+    }
+
+    /**
+     * @return The return type of the {@link BodyPacker#unpack(byte[], int, int)} method of the packer class,
+     * for example {@code String} or {@code byte[]}.
+     */
+    static String javaType(BodyPacker bodyPacker) {
+        try {
+            Class<?> type = bodyPacker.getClass()
+                .getMethod(UNPACK_METHOD_NAME, byte[].class, int.class, int.class).getReturnType();
+            String name = type.getCanonicalName();
+            if (name == null) {
+                return Object.class.getSimpleName();
+            }
+            if (name.startsWith(JAVA_LANG_PREFIX) && name.indexOf('.', JAVA_LANG_PREFIX.length()) < 0) {
+                return name.substring(JAVA_LANG_PREFIX.length());
+            }
+            return name;
+        } catch (NoSuchMethodException e) {
+            throw new PackerRuntimeException("Cannot find the unpack method of " + bodyPacker.getClass(), e);
+        }
+    }
+
+    static String literal(String value) {
+        StringBuilder stringBuilder = new StringBuilder("\"");
+        for (char next : value.toCharArray()) {
+            if (next == '"' || next == '\\') {
+                stringBuilder.append('\\').append(next);
+            } else if (next < ' ' || next > '~') {
+                stringBuilder.append(String.format("\\u%04x", (int) next));
+            } else {
+                stringBuilder.append(next);
+            }
+        }
+        return stringBuilder.append('"').toString();
+    }
+
+    /**
+     * Collects lines of the generated source with indentation.
+     */
+    private static class SourceWriter {
+        private static final String INDENT = "    ";
+        private final StringBuilder stringBuilder = new StringBuilder();
+        private int depth;
+
+        private SourceWriter line(String line) {
+            if (!line.isEmpty()) {
+                for (int i = 0; i < depth; i++) {
+                    stringBuilder.append(INDENT);
+                }
+            }
+            stringBuilder.append(line).append('\n');
+            return this;
+        }
+
+        private SourceWriter indent() {
+            depth++;
+            return this;
+        }
+
+        private SourceWriter outdent() {
+            depth--;
+            return this;
+        }
+
+        /**
+         * Append lines of the other writer with the current indentation.
+         */
+        private SourceWriter append(SourceWriter other) {
+            if (other.stringBuilder.length() == 0) {
+                return this;
+            }
+            for (String line : other.stringBuilder.toString().split("\n")) {
+                line(line);
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return stringBuilder.toString();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.credibledoc.iso8583packer.dump;
+
+import com.credibledoc.iso8583packer.message.MsgValue;
+
+/**
+ * Layouts of the {@link DumpService#dumpMsgValue(com.credibledoc.iso8583packer.message.MsgField, MsgValue,
+ * Appendable, DumpLayout, boolean)} method. Both layouts are single-line and contain names and values of fields.
+ * Bitmaps, tags and lengths are omitted because they are derived from the values. Values without
+ * a {@link MsgValue#getBodyValue()} are written as hexadecimal digits of their body bytes with the '0x' prefix.
+ *
+ * @author Kyrylo Semenko
+ */
+public enum DumpLayout {
+    /**
+     * For example <b>MSG{MTI=0200 BIT_SET{PAN=1234************ STAN=000001}}</b>
+     */
+    COMPACT,
+
+    /**
+     * For example <b>{"MSG":{"MTI":"0200","BIT_SET":{"PAN":"1234************","STAN":"000001"}}}</b>
+     */
+    JSON
+}
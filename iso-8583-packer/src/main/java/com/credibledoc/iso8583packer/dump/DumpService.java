@@ -1,5 +1,6 @@
 package com.credibledoc.iso8583packer.dump;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.masking.AnyMasker;
@@ -17,9 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -44,6 +45,25 @@ public class DumpService implements Visualizer {
      */
     protected static final String TRUNCATED = "... truncated ...";
 
+    /**
+     * Buffers of the {@link #dumpMsgValue(MsgField, MsgValue, DumpLayout, boolean)} method are not cached
+     * if they grow bigger than this number of characters.
+     */
+    protected static final int MAX_CACHED_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+
+    /**
+     * Reusable buffers of the {@link #dumpMsgValue(MsgField, MsgValue, DumpLayout, boolean)} method.
+     */
+    private static final ThreadLocal<StringBuilder> buffers =
+        ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    /**
+     * Masks anonymous undefined fields, which have no {@link MsgField}.
+     */
+    private static final Masker ANY_MASKER = new AnyMasker();
+
     protected Navigator navigator;
 
     /**
@@ -288,6 +308,137 @@ public class DumpService implements Visualizer {
         printContent(msgField, msgValue, printStream, indent, indentForChildren, maskPrivateData, content);
     }
 
+    /**
+     * Call the {@link #dumpMsgValue(MsgField, MsgValue, Appendable, DumpLayout, boolean)} method with a buffer
+     * reused by the current thread.
+     *
+     * @param msgField        the definition of the msgValue
+     * @param msgValue        the dumped value
+     * @param layout          format of the dump
+     * @param maskPrivateData 'true' if values of fields with a {@link Masker} should be masked
+     * @return The single-line dump.
+     */
+    public String dumpMsgValue(MsgField msgField, MsgValue msgValue, DumpLayout layout, boolean maskPrivateData) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        try {
+            dumpMsgValue(msgField, msgValue, buffer, layout, maskPrivateData);
+            return buffer.toString();
+        } catch (Exception e) {
+            String message = "Error in dump method.";
+            logger.error(message, e);
+            // Do nothing, it's just logging.
+            return message + " Error message: " + e.getMessage();
+        } finally {
+            if (buffer.capacity() > MAX_CACHED_BUFFER_CAPACITY) {
+                buffers.remove();
+            }
+        }
+    }
+
+    /**
+     * Write the single-line dump of the msgValue directly to the target, for example to a {@link java.io.Writer}
+     * of an audit log. Values are masked by {@link Masker}s of their {@link MsgField}s while they are written,
+     * without intermediate {@link String}s of the whole dump.
+     *
+     * @param msgField        the definition of the msgValue
+     * @param msgValue        the dumped value
+     * @param target          the destination of the dump
+     * @param layout          format of the dump
+     * @param maskPrivateData 'true' if values of fields with a {@link Masker} should be masked
+     * @throws IOException from the target
+     */
+    public void dumpMsgValue(MsgField msgField, MsgValue msgValue, Appendable target, DumpLayout layout,
+                             boolean maskPrivateData) throws IOException {
+        if (msgField != null && !Objects.equals(msgField.getName(), msgValue.getName())) {
+            msgValue = navigator.synchronizeMessageValue(msgField, msgValue);
+        }
+        if (layout == DumpLayout.JSON) {
+            target.append('{');
+            appendField(msgField, msgValue, target, new JsonEscapingAppendable(target), true, maskPrivateData);
+            target.append('}');
+        } else {
+            appendField(msgField, msgValue, target, target, false, maskPrivateData);
+        }
+    }
+
+    /**
+     * Append the name and value of a field in the {@link DumpLayout#COMPACT} or {@link DumpLayout#JSON} layout.
+     * Values waiting for lazy decoding are decoded by the {@link MsgValue#peekBodyValue()} method without storing,
+     * so the dump is the same before and after reading of the values, and does not change the {@link MsgValue}s.
+     * Fields with body bytes and without values are written as hexadecimal bytes.
+     *
+     * @param valueTarget the target for names and values, it escapes special characters in the JSON layout
+     */
+    protected void appendField(MsgField msgField, MsgValue msgValue, Appendable target, Appendable valueTarget,
+                               boolean json, boolean maskPrivateData) throws IOException {
+        if (json) {
+            target.append('"');
+            valueTarget.append(msgValue.getName());
+            target.append("\":");
+        } else {
+            target.append(msgValue.getName());
+        }
+        if (msgValue.getChildren() != null) {
+            appendChildren(msgField, msgValue, target, valueTarget, json, maskPrivateData);
+            return;
+        }
+        if (!json) {
+            target.append('=');
+        }
+        Masker masker = msgField == null ? ANY_MASKER : msgField.getMasker();
+        boolean mask = maskPrivateData && masker != null;
+        if (json) {
+            target.append('"');
+        }
+        if (msgValue.hasBodyValue()) {
+            Object bodyValue = msgValue.peekBodyValue();
+            if (mask) {
+                masker.maskValue(bodyValue, valueTarget);
+            } else {
+                Stringer stringer = msgField == null ? StringStringer.getInstance() : msgField.getStringer();
+                valueTarget.append(String.valueOf(stringer.convert(bodyValue)));
+            }
+        } else if (msgValue.getBodyBytesLength() >= 0) {
+            target.append("0x");
+            byte[] array = msgValue.getBodyArray();
+            int offset = msgValue.getBodyArrayOffset();
+            int length = msgValue.getBodyBytesLength();
+            if (mask) {
+                masker.maskHex(array, offset, length, valueTarget);
+            } else {
+                HexService.appendHex(array, offset, length, target);
+            }
+        }
+        if (json) {
+            target.append('"');
+        }
+    }
+
+    private void appendChildren(MsgField msgField, MsgValue msgValue, Appendable target, Appendable valueTarget,
+                                boolean json, boolean maskPrivateData) throws IOException {
+        if (msgField != null && msgField.getDepth() >= getMaxDepthForLogging()) {
+            target.append(json ? "\"" + TRUNCATED + "\"" : "=" + TRUNCATED);
+            return;
+        }
+        target.append('{');
+        boolean first = true;
+        List<MsgField> list = msgField == null ? null : msgField.getChildren();
+        for (MsgValue childMsgValue : msgValue.getChildren()) {
+            if (hasChildren(childMsgValue) || childMsgValue.hasBodyValue() ||
+                childMsgValue.getBodyBytesLength() >= 0) {
+
+                if (!first) {
+                    target.append(json ? ',' : ' ');
+                }
+                first = false;
+                MsgField childMsgField = list == null ? null : navigator.findByName(list, childMsgValue.getName());
+                appendField(childMsgField, childMsgValue, target, valueTarget, json, maskPrivateData);
+            }
+        }
+        target.append('}');
+    }
+
     protected String getAttributeString(Object object, String attribute) {
         return object == null ? "" : attribute + object + "\"";
     }
@@ -314,9 +465,9 @@ public class DumpService implements Visualizer {
 
     protected String createBitmapString(MsgField msgField, MsgValue msgValue) {
         String bitmapString;
-        BitSet bitSet = msgValue.getBitSet();
-        if (msgField != null && bitSet != null) {
-            byte[] bytes = msgField.getBitMapPacker().pack(msgValue.getBitSet());
+        Bitmap bitmap = msgValue.getBitmap();
+        if (msgField != null && bitmap != null) {
+            byte[] bytes = msgField.getBitMapPacker().pack(bitmap);
             bitmapString = " bitmapHex=\"" + HexService.bytesToHex(bytes) + "\"";
         } else {
             bitmapString = "";
@@ -326,9 +477,9 @@ public class DumpService implements Visualizer {
 
     protected String createBitSetString(MsgField msgField, MsgValue msgValue) {
         String bitSetString;
-        if (msgField != null && msgValue.getBitSet() != null) {
-            BitSet bitSet = msgValue.getBitSet();
-            bitSetString = " bitSet=\"" + bitSet + "\"";
+        Bitmap bitmap = msgValue.getBitmap();
+        if (msgField != null && bitmap != null) {
+            bitSetString = " bitSet=\"" + bitmap + "\"";
         } else {
             bitSetString = "";
         }
@@ -387,8 +538,8 @@ public class DumpService implements Visualizer {
             if (msgField.getDepth() < getMaxDepthForLogging()) {
                 for (MsgValue childMsgValue : msgValue.getChildren()) {
                     MsgField childMsgField = navigator.findByName(list, childMsgValue.getName());
-                    if (hasChildren(childMsgValue) || childMsgValue.getBodyValue() != null ||
-                        childMsgValue.getBodyBytes() != null || childMsgValue.getBitSet() != null) {
+                    if (hasChildren(childMsgValue) || childMsgValue.hasBodyValue() ||
+                        childMsgValue.getBodyBytes() != null || childMsgValue.getBitmap() != null) {
                         
                         dumpMsgValue(childMsgField, childMsgValue, printStream, indent + indentForChildren, indentForChildren, maskPrivateData);
                     }
@@ -406,6 +557,43 @@ public class DumpService implements Visualizer {
         return childMsgValue.getChildren() != null && !childMsgValue.getChildren().isEmpty();
     }
 
+    /**
+     * Escapes characters of JSON strings and writes them to the target.
+     */
+    private static class JsonEscapingAppendable implements Appendable {
+        private final Appendable target;
+
+        private JsonEscapingAppendable(Appendable target) {
+            this.target = target;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (c == '"' || c == '\\') {
+                target.append('\\').append(c);
+            } else if (c < 0x20) {
+                target.append("\\u00");
+                HexService.appendHex(c, target);
+            } else {
+                target.append(c);
+            }
+            return this;
+        }
+    }
+
     @Override
     public void setNavigator(Navigator navigator) {
         this.navigator = navigator;
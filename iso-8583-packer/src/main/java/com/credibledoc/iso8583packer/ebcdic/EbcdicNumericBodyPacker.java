@@ -0,0 +1,53 @@
+package com.credibledoc.iso8583packer.ebcdic;
+
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.body.ZonedDecimalBodyPacker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implements EBCDIC {@link NumericBodyPacker} of Long values. Numbers are converted to and from EBCDIC zoned digits
+ * without {@link String}s, for example 123 is converted into 3 bytes: 0xF1, 0xF2, 0xF3.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     FieldBuilder.builder(MsgFieldType.VAL)
+ *         .defineName("STAN")
+ *         .defineLen(6)
+ *         .defineBodyPacker(EbcdicNumericBodyPacker.getInstance(6));
+ * </pre>
+ *
+ * @author Kyrylo Semenko
+ */
+public class EbcdicNumericBodyPacker extends ZonedDecimalBodyPacker {
+
+    private static final int EBCDIC_ZERO = 0xF0;
+
+    /**
+     * Contains created instances. Each instance is Singleton.
+     */
+    private static final Map<Integer, EbcdicNumericBodyPacker> instances = new ConcurrentHashMap<>();
+
+    private EbcdicNumericBodyPacker(int numDigits) {
+        super(EBCDIC_ZERO, numDigits);
+    }
+
+    /**
+     * Static factory. Creates and returns singletons.
+     *
+     * @param numDigits number of digits of packed values, they are padded with '0' from the left.
+     *                  0 for variable length values without padding.
+     * @return Existing instance from the {@link #instances} map or a newly created instance.
+     */
+    public static EbcdicNumericBodyPacker getInstance(int numDigits) {
+        return instances.computeIfAbsent(numDigits, EbcdicNumericBodyPacker::new);
+    }
+
+    /**
+     * @return The variable length instance, see the {@link #getInstance(int)} method.
+     */
+    public static EbcdicNumericBodyPacker getInstance() {
+        return getInstance(0);
+    }
+}
@@ -2,7 +2,10 @@ package com.credibledoc.iso8583packer.ebcdic;
 
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Static service for conversions of <a href="https://en.wikipedia.org/wiki/EBCDIC">EBCDIC</a> data format.
@@ -157,13 +160,105 @@ public class EbcdicService {
     }
 
     static String ebcdicToAscii(byte[] e, int offset, int len, Charset charset) {
-        return new String(ebcdicToAsciiBytes(e, offset, len), charset);
+        if (StandardCharsets.ISO_8859_1.equals(charset)) {
+            // Every ISO-8859-1 byte is a char with the same value, so the intermediate byte array is not needed
+            char[] chars = new char[len];
+            ebcdicToAscii(e, offset, len, chars, 0);
+            return new String(chars);
+        }
+        byte[] a = new byte[len];
+        ebcdicToAscii(e, offset, len, a, 0);
+        return new String(a, charset);
     }
 
-    private static byte[] ebcdicToAsciiBytes(byte[] e, int offset, int len) {
-        byte[] a = new byte[len];
-        for (int i=0; i<len; i++)
-            a[i] = EBCDIC2ASCII[e[offset+i]&0xFF];
-        return a;
+    /**
+     * Convert ASCII bytes to EBCDIC bytes.
+     *
+     * @param ascii        the source
+     * @param offset       index of the first byte in the ascii
+     * @param len          number of bytes
+     * @param target       the destination, can be the same array as the source
+     * @param targetOffset index of the first byte in the target
+     */
+    public static void asciiToEbcdic(byte[] ascii, int offset, int len, byte[] target, int targetOffset) {
+        for (int i = 0; i < len; i++) {
+            target[targetOffset + i] = ASCII2EBCDIC[ascii[offset + i] & 0xFF];
+        }
+    }
+
+    /**
+     * Convert EBCDIC bytes to ASCII bytes.
+     *
+     * @param ebcdic       the source
+     * @param offset       index of the first byte in the ebcdic
+     * @param len          number of bytes
+     * @param target       the destination, can be the same array as the source
+     * @param targetOffset index of the first byte in the target
+     */
+    public static void ebcdicToAscii(byte[] ebcdic, int offset, int len, byte[] target, int targetOffset) {
+        for (int i = 0; i < len; i++) {
+            target[targetOffset + i] = EBCDIC2ASCII[ebcdic[offset + i] & 0xFF];
+        }
+    }
+
+    /**
+     * Convert EBCDIC bytes to ISO-8859-1 characters.
+     *
+     * @param ebcdic       the source
+     * @param offset       index of the first byte in the ebcdic
+     * @param len          number of bytes
+     * @param target       the destination
+     * @param targetOffset index of the first character in the target
+     */
+    public static void ebcdicToAscii(byte[] ebcdic, int offset, int len, char[] target, int targetOffset) {
+        for (int i = 0; i < len; i++) {
+            target[targetOffset + i] = (char) (EBCDIC2ASCII[ebcdic[offset + i] & 0xFF] & 0xFF);
+        }
+    }
+
+    /**
+     * Convert EBCDIC bytes to ASCII bytes. Heap buffers are written through their arrays.
+     *
+     * @param ebcdic the source
+     * @param offset index of the first byte in the ebcdic
+     * @param len    number of bytes
+     * @param target the destination, its position is moved by len
+     */
+    public static void ebcdicToAscii(byte[] ebcdic, int offset, int len, ByteBuffer target) {
+        if (target.hasArray()) {
+            int position = target.position();
+            if (target.remaining() < len) {
+                throw new BufferOverflowException();
+            }
+            ebcdicToAscii(ebcdic, offset, len, target.array(), target.arrayOffset() + position);
+            target.position(position + len);
+            return;
+        }
+        for (int i = 0; i < len; i++) {
+            target.put(EBCDIC2ASCII[ebcdic[offset + i] & 0xFF]);
+        }
+    }
+
+    /**
+     * Convert ASCII bytes to EBCDIC bytes. Heap buffers are written through their arrays.
+     *
+     * @param ascii  the source
+     * @param offset index of the first byte in the ascii
+     * @param len    number of bytes
+     * @param target the destination, its position is moved by len
+     */
+    public static void asciiToEbcdic(byte[] ascii, int offset, int len, ByteBuffer target) {
+        if (target.hasArray()) {
+            int position = target.position();
+            if (target.remaining() < len) {
+                throw new BufferOverflowException();
+            }
+            asciiToEbcdic(ascii, offset, len, target.array(), target.arrayOffset() + position);
+            target.position(position + len);
+            return;
+        }
+        for (int i = 0; i < len; i++) {
+            target.put(ASCII2EBCDIC[ascii[offset + i] & 0xFF]);
+        }
     }
 }
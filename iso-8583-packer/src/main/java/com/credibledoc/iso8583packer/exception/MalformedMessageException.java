@@ -0,0 +1,206 @@
+package com.credibledoc.iso8583packer.exception;
+
+import java.util.function.Supplier;
+
+/**
+ * Structured exception about a message, which cannot be unpacked, packed or validated. The exception contains
+ * the path of the failed field, the offset in the source bytes and the expected and actual lengths.
+ * <p>
+ * The path and the message text are generated lazily when they are requested first time, for example by the
+ * {@link #getMessage()} or {@link #printStackTrace()} methods. So malformed messages can be rejected without
+ * building text dumps, see the {@link com.credibledoc.iso8583packer.ValueHolder#setFailFast(boolean)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+@SuppressWarnings("serial")
+public class MalformedMessageException extends PackerRuntimeException {
+
+    /**
+     * The value of the {@link #offset}, {@link #expectedLength} and {@link #actualLength} fields if they are unknown.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * Short description of the problem.
+     */
+    private final String reason;
+
+    /**
+     * Creates the {@link #path}. Cleared after the first call.
+     */
+    private transient Supplier<String> pathSupplier;
+
+    /**
+     * The path of the failed field, for example 'MSG.BIT_SET.PAN'. See the {@link #getPath()} method.
+     */
+    private String path;
+
+    /**
+     * Index of the failed field in the source bytes or {@link #UNKNOWN}.
+     */
+    private final int offset;
+
+    /**
+     * Number of bytes required by the field definition or {@link #UNKNOWN}.
+     */
+    private final int expectedLength;
+
+    /**
+     * Number of available bytes or {@link #UNKNOWN}.
+     */
+    private final int actualLength;
+
+    /**
+     * Creates a text dump of the message and its definition for the {@link #getMessage()} method.
+     * Cleared after the first call.
+     */
+    private transient Supplier<String> dumpSupplier;
+
+    /**
+     * The rendered {@link #getMessage()}.
+     */
+    private String message;
+
+    /**
+     * Create a new exception without a stack trace. The exception reports wrong source data, not a programming
+     * error, so the unpacker does not pay for the {@link #fillInStackTrace()} call for every malformed message.
+     * Callers which need the stack trace wrap this exception, see the
+     * {@link com.credibledoc.iso8583packer.ValueHolder#setFailFast(boolean)} method.
+     *
+     * @param reason         see the {@link #reason} field description
+     * @param pathSupplier   see the {@link #pathSupplier} field description
+     * @param offset         see the {@link #offset} field description
+     * @param expectedLength see the {@link #expectedLength} field description
+     * @param actualLength   see the {@link #actualLength} field description
+     */
+    public MalformedMessageException(String reason, Supplier<String> pathSupplier, int offset, int expectedLength,
+                                     int actualLength) {
+        super(null, null, true, false);
+        this.reason = reason;
+        this.pathSupplier = pathSupplier;
+        this.offset = offset;
+        this.expectedLength = expectedLength;
+        this.actualLength = actualLength;
+    }
+
+    /**
+     * Create a new exception with data of the first {@link MalformedMessageException} in the chain of causes.
+     *
+     * @param reason             see the {@link #reason} field description
+     * @param pathSupplier       used if the cause has no path, see the {@link #pathSupplier} field description
+     * @param dumpSupplier       see the {@link #dumpSupplier} field description, can be 'null'
+     * @param cause              the cause
+     * @param writableStackTrace 'false' for exceptions without stack traces, they are cheaper to create.
+     */
+    public MalformedMessageException(String reason, Supplier<String> pathSupplier, Supplier<String> dumpSupplier,
+                                     Throwable cause, boolean writableStackTrace) {
+        super(null, cause, true, writableStackTrace);
+        this.reason = reason;
+        this.dumpSupplier = dumpSupplier;
+        MalformedMessageException malformed = findMalformed(cause);
+        if (malformed != null) {
+            this.pathSupplier = malformed::getPath;
+            this.offset = malformed.offset;
+            this.expectedLength = malformed.expectedLength;
+            this.actualLength = malformed.actualLength;
+        } else {
+            this.pathSupplier = pathSupplier;
+            this.offset = UNKNOWN;
+            this.expectedLength = UNKNOWN;
+            this.actualLength = UNKNOWN;
+        }
+    }
+
+    private static MalformedMessageException findMalformed(Throwable cause) {
+        Throwable current = cause;
+        while (current != null) {
+            if (current instanceof MalformedMessageException) {
+                return (MalformedMessageException) current;
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return null;
+    }
+
+    /**
+     * Render the message text when it is called first time.
+     *
+     * @return The {@link #reason}, the {@link #path}, the lengths, the cause message and the dump.
+     */
+    @Override
+    public synchronized String getMessage() {
+        if (message == null) {
+            StringBuilder stringBuilder = new StringBuilder(reason);
+            String fieldPath = getPath();
+            if (fieldPath != null) {
+                stringBuilder.append(" Path: '").append(fieldPath).append("'.");
+            }
+            appendIfKnown(stringBuilder, " Offset: ", offset);
+            appendIfKnown(stringBuilder, " Expected length: ", expectedLength);
+            appendIfKnown(stringBuilder, " Actual length: ", actualLength);
+            Throwable cause = getCause();
+            if (cause != null) {
+                stringBuilder.append("\nException: ").append(cause.getMessage());
+            }
+            if (dumpSupplier != null) {
+                try {
+                    stringBuilder.append(dumpSupplier.get());
+                } catch (RuntimeException e) {
+                    stringBuilder.append("\nThe dump cannot be created: ").append(e.getMessage());
+                }
+                dumpSupplier = null;
+            }
+            message = stringBuilder.toString();
+        }
+        return message;
+    }
+
+    private static void appendIfKnown(StringBuilder stringBuilder, String label, int value) {
+        if (value != UNKNOWN) {
+            stringBuilder.append(label).append(value).append('.');
+        }
+    }
+
+    /**
+     * @return The {@link #path} field value, it is created when the method is called first time.
+     */
+    public synchronized String getPath() {
+        if (pathSupplier != null) {
+            try {
+                path = pathSupplier.get();
+            } catch (RuntimeException e) {
+                path = null;
+            }
+            pathSupplier = null;
+        }
+        return path;
+    }
+
+    /**
+     * @return The {@link #reason} field value.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @return The {@link #offset} field value.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The {@link #expectedLength} field value.
+     */
+    public int getExpectedLength() {
+        return expectedLength;
+    }
+
+    /**
+     * @return The {@link #actualLength} field value.
+     */
+    public int getActualLength() {
+        return actualLength;
+    }
+}
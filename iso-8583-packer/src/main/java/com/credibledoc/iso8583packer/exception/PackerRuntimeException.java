@@ -41,5 +41,19 @@ public class PackerRuntimeException extends RuntimeException {
     public PackerRuntimeException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Call a super {@link RuntimeException#RuntimeException(String, Throwable, boolean, boolean)} constructor
+     *
+     * @param message            see the {@link RuntimeException#RuntimeException(String, Throwable, boolean, boolean)}
+     *                           method description
+     * @param cause              the cause
+     * @param enableSuppression  whether or not suppression is enabled
+     * @param writableStackTrace whether or not the stack trace should be writable
+     */
+    protected PackerRuntimeException(String message, Throwable cause, boolean enableSuppression,
+                                     boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
     
 }
@@ -3,7 +3,6 @@ package com.credibledoc.iso8583packer.hex;
 import com.credibledoc.iso8583packer.body.BodyPacker;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
-import java.util.Arrays;
 
 /**
  * Implements {@link BodyPacker} where hexadecimal chars '0'..'9', 'A'..'F' converted to and from bytes. Thus, "12CD" is
@@ -68,8 +67,7 @@ public class HexBodyPacker implements BodyPacker {
             throw new PackerRuntimeException("Available bytes number '" + available +
                 "' is less than required bytesCount '" + bytesCount + "' from the parameter.");
         }
-        byte[] bytes = Arrays.copyOfRange(rawData, offset, offset + bytesCount);
-        return HexService.bytesToHex(bytes);
+        return HexService.bytesToHex(rawData, offset, bytesCount);
 	}
 
 	@Override
@@ -2,6 +2,10 @@ package com.credibledoc.iso8583packer.hex;
 
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 /**
  * Static service for conversions of <a href="https://en.wikipedia.org/wiki/Hexadecimal">HEX</a> data format.
  * 
@@ -9,19 +13,35 @@ import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
  */
 public class HexService {
 
-    private static final String[] hexStrings;
+    private static final int BYTE_VALUES = 256;
+    private static final int INVALID = -1;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Two uppercase hexadecimal digits of every byte value. Digits of the byte {@code b} are stored at the
+     * {@code (b & 0xFF) * 2} and {@code (b & 0xFF) * 2 + 1} indexes.
+     */
+    private static final char[] BYTE_TO_HEX = new char[BYTE_VALUES * 2];
+
+    /**
+     * Byte values of all pairs of ASCII hexadecimal digits, the index is {@code (high << 8) | low}.
+     * The {@link #INVALID} value for pairs with other characters.
+     */
+    private static final short[] HEX_PAIR_TO_BYTE = new short[BYTE_VALUES * BYTE_VALUES];
 
     static {
-        hexStrings = new String[256];
-        for (int i = 0; i < 256; i++ ) {
-            StringBuilder d = new StringBuilder(2);
-            char ch = Character.forDigit((byte)i >> 4 & 0x0F, 16);
-            d.append(Character.toUpperCase(ch));
-            ch = Character.forDigit((byte)i & 0x0F, 16);
-            d.append(Character.toUpperCase(ch));
-            HexService.hexStrings[i] = d.toString();
+        for (int i = 0; i < BYTE_VALUES; i++) {
+            BYTE_TO_HEX[i * 2] = HEX_DIGITS[i >> 4];
+            BYTE_TO_HEX[i * 2 + 1] = HEX_DIGITS[i & 0x0F];
+        }
+        for (int high = 0; high < BYTE_VALUES; high++) {
+            int highDigit = Character.digit((char) high, 16);
+            for (int low = 0; low < BYTE_VALUES; low++) {
+                int lowDigit = Character.digit((char) low, 16);
+                HEX_PAIR_TO_BYTE[(high << 8) | low] =
+                    (short) (highDigit < 0 || lowDigit < 0 ? INVALID : (highDigit << 4) | lowDigit);
+            }
         }
-
     }
 
     private HexService() {
@@ -38,11 +58,116 @@ public class HexService {
         if (bytes == null) {
             return "";
         }
-        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
-        for (byte aB : bytes) {
-            stringBuilder.append(hexStrings[(int) aB & 0xFF]);
+        return bytesToHex(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Convert a part of the byte array to a hex string without copying of the part.
+     *
+     * @param bytes  a byte array
+     * @param offset index of the first byte
+     * @param len    number of bytes
+     * @return String representation with len * 2 characters
+     */
+    public static String bytesToHex(byte[] bytes, int offset, int len) {
+        char[] chars = new char[len * 2];
+        bytesToHex(bytes, offset, len, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Write uppercase hexadecimal digits of the bytes to the target.
+     *
+     * @param bytes        a byte array
+     * @param offset       index of the first byte
+     * @param len          number of bytes
+     * @param target       the destination with at least len * 2 characters after the targetOffset
+     * @param targetOffset index of the first character in the target
+     * @return Number of written characters.
+     */
+    public static int bytesToHex(byte[] bytes, int offset, int len, char[] target, int targetOffset) {
+        int end = offset + len;
+        int index = targetOffset;
+        for (int i = offset; i < end; i++) {
+            int tableIndex = (bytes[i] & 0xFF) << 1;
+            target[index++] = BYTE_TO_HEX[tableIndex];
+            target[index++] = BYTE_TO_HEX[tableIndex + 1];
         }
-        return stringBuilder.toString();
+        return len * 2;
+    }
+
+    /**
+     * Write uppercase hexadecimal digits of the bytes to the target as ASCII bytes.
+     *
+     * @param bytes        a byte array
+     * @param offset       index of the first byte
+     * @param len          number of bytes
+     * @param target       the destination with at least len * 2 bytes after the targetOffset
+     * @param targetOffset index of the first ASCII digit in the target
+     * @return Number of written bytes.
+     */
+    public static int bytesToHex(byte[] bytes, int offset, int len, byte[] target, int targetOffset) {
+        int end = offset + len;
+        int index = targetOffset;
+        for (int i = offset; i < end; i++) {
+            int tableIndex = (bytes[i] & 0xFF) << 1;
+            target[index++] = (byte) BYTE_TO_HEX[tableIndex];
+            target[index++] = (byte) BYTE_TO_HEX[tableIndex + 1];
+        }
+        return len * 2;
+    }
+
+    /**
+     * Write uppercase hexadecimal digits of the bytes to the target as ASCII bytes. Heap buffers are written
+     * through their arrays.
+     *
+     * @param bytes  a byte array
+     * @param offset index of the first byte
+     * @param len    number of bytes
+     * @param target the destination, its position is moved by len * 2
+     */
+    public static void bytesToHex(byte[] bytes, int offset, int len, ByteBuffer target) {
+        if (target.hasArray()) {
+            int position = target.position();
+            if (target.remaining() < len * 2) {
+                throw new BufferOverflowException();
+            }
+            bytesToHex(bytes, offset, len, target.array(), target.arrayOffset() + position);
+            target.position(position + len * 2);
+            return;
+        }
+        for (int i = offset; i < offset + len; i++) {
+            int tableIndex = (bytes[i] & 0xFF) << 1;
+            target.put((byte) BYTE_TO_HEX[tableIndex]).put((byte) BYTE_TO_HEX[tableIndex + 1]);
+        }
+    }
+
+    /**
+     * Append uppercase hexadecimal digits of the bytes to the target without creating a {@link String}.
+     *
+     * @param bytes  a byte array
+     * @param offset index of the first byte
+     * @param len    number of bytes
+     * @param target the destination, for example a {@link StringBuilder} or a {@link java.io.Writer}
+     * @throws IOException from the target
+     */
+    public static void appendHex(byte[] bytes, int offset, int len, Appendable target) throws IOException {
+        for (int i = offset; i < offset + len; i++) {
+            int tableIndex = (bytes[i] & 0xFF) << 1;
+            target.append(BYTE_TO_HEX[tableIndex]).append(BYTE_TO_HEX[tableIndex + 1]);
+        }
+    }
+
+    /**
+     * Append two uppercase hexadecimal digits of the single byte to the target.
+     *
+     * @param value  the byte, only its lowest 8 bits are used
+     * @param target the destination, for example a {@link StringBuilder} or a {@link java.io.Writer}
+     * @throws IOException from the target
+     */
+    public static void appendHex(int value, Appendable target) throws IOException {
+        int tableIndex = (value & 0xFF) << 1;
+        target.append(BYTE_TO_HEX[tableIndex]).append(BYTE_TO_HEX[tableIndex + 1]);
     }
 
     /**
@@ -52,10 +177,10 @@ public class HexService {
      * @return String representation
      */
     public static String bytesToHex(byte[] bytes, String separator) {
-        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * (2 + separator.length()));
         for (int i = 0; i < bytes.length; i++) {
-            byte nextByte = bytes[i];
-            stringBuilder.append(hexStrings[(int) nextByte & 0xFF]);
+            int tableIndex = (bytes[i] & 0xFF) << 1;
+            stringBuilder.append(BYTE_TO_HEX[tableIndex]).append(BYTE_TO_HEX[tableIndex + 1]);
             if (i < bytes.length - 1) {
                 stringBuilder.append(separator);
             }
@@ -71,13 +196,35 @@ public class HexService {
      */
     public static byte[] hex2byte(byte[] b, int offset, int len) {
         byte[] d = new byte[len];
-        for (int i = 0; i < len * 2; i++) {
-            int shift = i % 2 == 1 ? 0 : 4;
-            d[i >> 1] |= Character.digit((char) b[offset + i], 16) << shift;
-        }
+        hex2byte(b, offset, len, d, 0);
         return d;
     }
 
+    /**
+     * Convert ASCII hexadecimal digits to bytes without intermediate arrays.
+     *
+     * @param b            source byte array with ASCII hexadecimal digits
+     * @param offset       index of the first digit
+     * @param len          number of bytes in the target (processes len*2 digits)
+     * @param target       the destination
+     * @param targetOffset index of the first byte in the target
+     * @return Number of written bytes.
+     */
+    public static int hex2byte(byte[] b, int offset, int len, byte[] target, int targetOffset) {
+        for (int i = 0; i < len; i++) {
+            int high = b[offset + i * 2] & 0xFF;
+            int low = b[offset + i * 2 + 1] & 0xFF;
+            int value = HEX_PAIR_TO_BYTE[(high << 8) | low];
+            if (value == INVALID) {
+                // The same result as the Character.digit conversion of invalid characters
+                value = Character.digit((char) b[offset + i * 2], 16) << 4 |
+                    Character.digit((char) b[offset + i * 2 + 1], 16);
+            }
+            target[targetOffset + i] = (byte) value;
+        }
+        return len;
+    }
+
     /**
      * Convert a hex string into a byte array.
      *
@@ -1,22 +1,19 @@
 package com.credibledoc.iso8583packer.ifa;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
-import com.credibledoc.iso8583packer.bitmap.BitmapService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
 import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * The {@link BitmapPacker} implementation for IFA format. It uses {@link #ISO_88591} charset.
+ * The {@link BitmapPacker} implementation for IFA format. It uses ASCII hexadecimal digits.
  * <p>
  * Actual documentation and examples
  * <a href="https://github.com/credibledoc/credible-doc/blob/master/iso-8583-packer/doc/ifa/ifa-bitmap-packer.md">ifa-bitmap-packer.md</a>.
@@ -24,7 +21,6 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author Kyrylo Semenko
  */
 public class IfaBitmapPacker implements BitmapPacker {
-    private static final Charset ISO_88591 = StandardCharsets.ISO_8859_1;
 
     /**
      * Contains created instances. Each instance is a Singleton. Key is the {@link #bitsetBytesLength} value.
@@ -108,8 +104,19 @@ public class IfaBitmapPacker implements BitmapPacker {
      */
     @Override
     public byte[] pack(BitSet bitSet) {
-        byte[] ifb = ifbBitmapPacker.pack(bitSet);
-        return HexService.bytesToHex(ifb).getBytes(ISO_88591);
+        return pack(Bitmap.fromBitSet(bitSet));
+    }
+
+    /**
+     * @param bitmap for packing
+     * @return Packed bytes
+     */
+    @Override
+    public byte[] pack(Bitmap bitmap) {
+        byte[] ifb = ifbBitmapPacker.pack(bitmap);
+        byte[] result = new byte[ifb.length * 2];
+        HexService.bytesToHex(ifb, 0, ifb.length, result, 0);
+        return result;
     }
 
     /**
@@ -121,9 +128,7 @@ public class IfaBitmapPacker implements BitmapPacker {
     @Override
     public int unpack(MsgValue msgValue, byte[] bytes, int offset) {
         int resolvedLen = resolvePackedLen(bytes, offset);
-        byte[] ifaBytes = Arrays.copyOfRange(bytes, offset, offset + resolvedLen);
-        String ifbString = new String(ifaBytes, ISO_88591);
-        byte[] ifbBytes = HexService.hex2byte(ifbString);
+        byte[] ifbBytes = HexService.hex2byte(bytes, offset, resolvedLen / 2);
         int unpackedLen = ifbBitmapPacker.unpack(msgValue, ifbBytes, 0);
         if (bitsetBytesLength != -1 && unpackedLen != bitsetBytesLength) {
             throw new PackerRuntimeException("Result bytes length '" + unpackedLen +
@@ -151,10 +156,7 @@ public class IfaBitmapPacker implements BitmapPacker {
         if (bytes.length < offset + 2) {
             return false;
         }
-        byte[] ifaBytes = Arrays.copyOfRange(bytes, offset, offset + 2);
-        String ifbString = new String(ifaBytes, ISO_88591);
-        byte[] ifbBytes = HexService.hex2byte(ifbString);
-        return BitmapService.hasFlag(ifbBytes[0]);
+        return (Character.digit((char) bytes[offset], 16) & 0x08) == 0x08;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.credibledoc.iso8583packer.ifb;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.bitmap.BitmapService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
@@ -8,7 +9,6 @@ import com.credibledoc.iso8583packer.message.MsgValue;
 
 import java.util.BitSet;
 import java.util.Map;
-import java.util.OptionalInt;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -21,7 +21,6 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class IfbBitmapPacker implements BitmapPacker {
 
-    private static final int MAX_FIELD_NUM_192 = 192;
     /**
      * Contains created instances. Each instance is a Singleton.
      */
@@ -78,6 +77,15 @@ public class IfbBitmapPacker implements BitmapPacker {
      */
     @Override
     public byte[] pack(BitSet bitSet) {
+        return pack(Bitmap.fromBitSet(bitSet));
+    }
+
+    /**
+     * @param bitmap for packing
+     * @return packed bytes
+     */
+    @Override
+    public byte[] pack(Bitmap bitmap) {
         // 1 byte max fieldNum 8
         // 2 bytes max fieldNum 16
         // 3 bytes max fieldNum 24
@@ -86,14 +94,11 @@ public class IfbBitmapPacker implements BitmapPacker {
         // 16 bytes max fieldNum 128
         // 24 bytes max fieldNum 192
 
-        checkMaxBitSetSize(bitSet);
+        int maxFieldNum = bitmap.getMaxFieldNum();
+        checkMaxBitmapSize(maxFieldNum);
 
         int resolvedBytesLength;
         if (getPackedBytesLength() == -1) {
-            int maxFieldNum = bitSet.previousSetBit(MAX_FIELD_NUM_192 + 1);
-            if (maxFieldNum > 192) {
-                throw new PackerRuntimeException("Maximal allowed fieldNum is 192. Current field num is " + maxFieldNum);
-            }
             if (maxFieldNum > 128) {
                 resolvedBytesLength = 24;
             } else if (maxFieldNum > 64) {
@@ -104,7 +109,6 @@ public class IfbBitmapPacker implements BitmapPacker {
         } else {
             resolvedBytesLength = getPackedBytesLength();
             if (resolvedBytesLength == SINGLE_BITMAP_LENGTH_8) {
-                int maxFieldNum = bitSet.previousSetBit(MAX_FIELD_NUM_192 + 1);
                 if (maxFieldNum > 128) {
                     resolvedBytesLength = SINGLE_BITMAP_LENGTH_8 * 3;
                 } else if (maxFieldNum > 64) {
@@ -113,33 +117,27 @@ public class IfbBitmapPacker implements BitmapPacker {
             }
         }
         int maxPossibleSetBit = resolvedBytesLength * SINGLE_BITMAP_LENGTH_8;
-        int bitOutOfBoundary = bitSet.nextSetBit(maxPossibleSetBit + 1);
-        boolean existsBitOutOfBoundary = bitOutOfBoundary > -1;
-        if (existsBitOutOfBoundary) {
-            throw new PackerRuntimeException("BitSet '" + bitSet + "' contains bit '" + bitOutOfBoundary +
+        if (maxFieldNum > maxPossibleSetBit) {
+            throw new PackerRuntimeException("Bitmap '" + bitmap + "' contains bit '" + maxFieldNum +
                 "' that is greater than maximum possible bit '" + maxPossibleSetBit +
                 "' that can be encoded to a bytes array with length '" + resolvedBytesLength + "'.");
         }
 
-        return BitmapService.bitSet2byte(bitSet, resolvedBytesLength);
+        return BitmapService.bitmap2byte(bitmap, resolvedBytesLength);
     }
 
-    private void checkMaxBitSetSize(BitSet bitSet) {
+    private void checkMaxBitmapSize(int maxBit) {
         if (packedBytesLength != -1) {
-            OptionalInt optionalInt = bitSet.stream().max();
-            if (optionalInt.isPresent()) {
-                int maxBit = optionalInt.getAsInt();
-                int maxAllowedBit = packedBytesLength * 8;
-                if (maxAllowedBit < maxBit) {
-                    throw new PackerRuntimeException("Maximal allowed bit in bitSet is '" + maxAllowedBit + "'. " +
-                        "Current max bit in bitSet is " + maxBit);
-                }
+            int maxAllowedBit = packedBytesLength * 8;
+            if (maxAllowedBit < maxBit) {
+                throw new PackerRuntimeException("Maximal allowed bit in bitSet is '" + maxAllowedBit + "'. " +
+                    "Current max bit in bitSet is " + maxBit);
             }
         }
     }
 
     /**
-     * @param msgValue the target container for storing the unpacked {@link BitSet}
+     * @param msgValue the target container for storing the unpacked {@link Bitmap}
      * @param bytes       the source bytes
      * @param offset      starting offset within the bytes
      * @return consumed bytes number
@@ -147,21 +145,21 @@ public class IfbBitmapPacker implements BitmapPacker {
     @Override
     public int unpack(MsgValue msgValue, byte[] bytes, int offset) {
         int maxFieldNum = resolveMaxFieldNum(bytes, offset);
-        BitSet bitSet = BitmapService.byte2BitSet(bytes, offset, maxFieldNum);
+        Bitmap bitmap = BitmapService.byte2Bitmap(bytes, offset, maxFieldNum);
         int unpackedBytesLength = SINGLE_BITMAP_LENGTH_8;
-        if (packedBytesLength == -1 && bitSet.get(1)) {
+        if (packedBytesLength == -1 && bitmap.get(1)) {
             maxFieldNum = 128;
-            bitSet = BitmapService.byte2BitSet(bytes, offset, maxFieldNum);
+            bitmap = BitmapService.byte2Bitmap(bytes, offset, maxFieldNum);
             unpackedBytesLength = unpackedBytesLength + SINGLE_BITMAP_LENGTH_8;
-            if (bitSet.get(65)) {
+            if (bitmap.get(65)) {
                 maxFieldNum = 192;
-                bitSet = BitmapService.byte2BitSet(bytes, offset, maxFieldNum);
+                bitmap = BitmapService.byte2Bitmap(bytes, offset, maxFieldNum);
                 unpackedBytesLength = unpackedBytesLength + SINGLE_BITMAP_LENGTH_8;
             }
         } else if (packedBytesLength != -1) { // TODO Kyrylo Semenko - test
             unpackedBytesLength = packedBytesLength;
         }
-        msgValue.setBitSet(bitSet);
+        msgValue.setBitmap(bitmap);
         return unpackedBytesLength;
     }
 
@@ -2,6 +2,8 @@ package com.credibledoc.iso8583packer.masking;
 
 import com.credibledoc.iso8583packer.string.StringUtils;
 
+import java.io.IOException;
+
 /**
  * Replace all bytes with '99' and value.toString() with '*'.
  * 
@@ -17,4 +19,21 @@ public class AnyMasker implements Masker {
     public String maskValue(Object value) {
         return StringUtils.leftPad("", value.toString().length(), '*');
     }
+
+    @Override
+    public void maskHex(byte[] bytes, int offset, int length, Appendable target) throws IOException {
+        appendFiller(target, '9', length * 2);
+    }
+
+    @Override
+    public void maskValue(Object value, Appendable target) throws IOException {
+        int length = value instanceof CharSequence ? ((CharSequence) value).length() : value.toString().length();
+        appendFiller(target, '*', length);
+    }
+
+    private static void appendFiller(Appendable target, char filler, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            target.append(filler);
+        }
+    }
 }
@@ -1,7 +1,10 @@
 package com.credibledoc.iso8583packer.masking;
 
+import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.io.IOException;
+
 /**
  * Uses for masking of private sensitive data for logging purposes.
  * 
@@ -25,4 +28,30 @@ public interface Masker {
      * @return For example 123******
      */
     String maskValue(Object value);
+
+    /**
+     * Append masked hexadecimal digits of the bytes to the target. The default implementation calls
+     * the {@link #maskHex(String)} method, implementations may override it and write masked digits directly.
+     *
+     * @param bytes  the {@link MsgValue#getBodyArray()} array
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @param target the destination of the masked digits
+     * @throws IOException from the target
+     */
+    default void maskHex(byte[] bytes, int offset, int length, Appendable target) throws IOException {
+        target.append(maskHex(HexService.bytesToHex(bytes, offset, length)));
+    }
+
+    /**
+     * Append the masked value to the target. The default implementation calls the {@link #maskValue(Object)} method,
+     * implementations may override it and write masked characters directly.
+     *
+     * @param value  the {@link MsgValue#getBodyValue()} field
+     * @param target the destination of the masked value
+     * @throws IOException from the target
+     */
+    default void maskValue(Object value, Appendable target) throws IOException {
+        target.append(maskValue(value));
+    }
 }
@@ -0,0 +1,135 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An absolute path of {@link MsgField#getName()}s resolved once against a {@link MsgField} definition.
+ * The path is used in the {@link com.credibledoc.iso8583packer.ValueHolder} methods instead of the
+ * {@link String} arrays, for example
+ * <pre>
+ *     private static final FieldPath ARQC = FieldPath.compile(definition, "Msg", "Field_55", "9F26");
+ *     ...
+ *     valueHolder.setValue(arqc, ARQC);
+ * </pre>
+ * The {@link MsgField}s on the path are stored, so the {@link com.credibledoc.iso8583packer.ValueHolder} does not
+ * search definitions by names. {@link MsgValue}s are found in the {@link MsgValue#getChildNamesMap()} maps, because
+ * their order may differ from the order of definitions, for example in bitmaps or in unordered TLV fields.
+ * <p>
+ * The path should be compiled when the definition is complete. Instances are immutable and can be shared
+ * between threads.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FieldPath {
+
+    /**
+     * The {@link MsgField#getName()}s from the root to the target field.
+     */
+    private final String[] names;
+
+    /**
+     * The {@link MsgField}s from the root to the target field.
+     */
+    private final MsgField[] msgFields;
+
+    private FieldPath(String[] names, MsgField[] msgFields) {
+        this.names = names;
+        this.msgFields = msgFields;
+    }
+
+    /**
+     * Resolve the absolutePath in the definition.
+     *
+     * @param definition   any {@link MsgField} of the definition, its root will be found
+     * @param absolutePath the {@link MsgField#getName()}s from the root field
+     * @return The new {@link FieldPath}.
+     */
+    public static FieldPath compile(MsgField definition, String... absolutePath) {
+        if (absolutePath.length == 0) {
+            throw new PackerRuntimeException("Please define absolutePath as a path, for example 'ROOT', 'field1' ...");
+        }
+        MsgField root = NavigatorService.getInstance().findRoot(definition);
+        if (!absolutePath[0].equals(root.getName())) {
+            throw new PackerRuntimeException("MsgField with name '" + absolutePath[0] + "' is not a root field. " +
+                "Please define the absolute path from the root field. " +
+                "Actual root field name: '" + root.getName() + "'.");
+        }
+        MsgField[] msgFields = new MsgField[absolutePath.length];
+        msgFields[0] = root;
+        for (int i = 1; i < absolutePath.length; i++) {
+            MsgField child = msgFields[i - 1].findChildByName(absolutePath[i]);
+            if (child == null) {
+                throw new PackerRuntimeException("Cannot find MsgField with path '" +
+                    Arrays.toString(absolutePath) + "'. The field '" + absolutePath[i - 1] +
+                    "' has no child named '" + absolutePath[i] + "'.");
+            }
+            msgFields[i] = child;
+        }
+        return new FieldPath(absolutePath.clone(), msgFields);
+    }
+
+    /**
+     * Call the {@link #compile(MsgField, String...)} method.
+     *
+     * @param definition   see the {@link #compile(MsgField, String...)} method description
+     * @param absolutePath the {@link MsgField#getName()}s from the root field
+     * @return The new {@link FieldPath}.
+     */
+    public static FieldPath compile(MsgField definition, List<String> absolutePath) {
+        return compile(definition, absolutePath.toArray(new String[0]));
+    }
+
+    @Override
+    public String toString() {
+        return "FieldPath{" + Arrays.toString(names) + '}';
+    }
+
+    /**
+     * @return Number of fields on the path including the root.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return The unmodifiable list of the {@link #names}.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * @param depth 0 for the root
+     * @return The {@link MsgField#getName()} on the depth.
+     */
+    public String getName(int depth) {
+        return names[depth];
+    }
+
+    /**
+     * @param depth 0 for the root
+     * @return The {@link MsgField} on the depth.
+     */
+    public MsgField getMsgField(int depth) {
+        return msgFields[depth];
+    }
+
+    /**
+     * @return The root {@link MsgField} of the definition.
+     */
+    public MsgField getRoot() {
+        return msgFields[0];
+    }
+
+    /**
+     * @return The last {@link MsgField} on the path.
+     */
+    public MsgField getTarget() {
+        return msgFields[msgFields.length - 1];
+    }
+}
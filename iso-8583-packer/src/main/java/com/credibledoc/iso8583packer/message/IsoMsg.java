@@ -359,7 +359,7 @@ public class IsoMsg {
 
         for (int i = firstBitSet.getChildren().size() - 1; i >= 0; i--) {
             MsgValue msgValue = firstBitSet.getChildren().get(i);
-            if (msgValue.getBodyValue() != null || msgValue.getBodyBytes() != null ||
+            if (msgValue.hasBodyValue() || msgValue.getBodyBytesLength() >= 0 ||
                 (msgValue.getChildren() != null && !msgValue.getChildren().isEmpty())) {
                 
                 if (msgValue.getFieldNum() == null) {
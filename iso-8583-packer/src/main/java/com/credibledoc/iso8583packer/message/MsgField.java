@@ -4,13 +4,21 @@ import com.credibledoc.iso8583packer.FieldBuilder;
 import com.credibledoc.iso8583packer.ValueHolder;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.masking.Masker;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
 import com.credibledoc.iso8583packer.stringer.StringStringer;
 import com.credibledoc.iso8583packer.stringer.Stringer;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 /**
  * The data object describes a data structure.
@@ -26,6 +34,13 @@ import java.util.List;
  */
 public class MsgField implements Msg {
 
+    /**
+     * Names of undefined TLV and LTV fields consist of the name of the original sibling, this infix and a number,
+     * for example 'tag-3-clone-1'. The original sibling is the defined child on the same position as the undefined
+     * field, or the last defined child.
+     */
+    public static final String CLONE_INFIX = "-clone-";
+
     /**
      * See the {@link Msg#getFieldNum()} description.
      */
@@ -150,6 +165,24 @@ public class MsgField implements Msg {
      * See the {@link Msg#getRoot()} method description.
      */
     private MsgField root;
+
+    /**
+     * Lookup tables of the {@link #children}, see the {@link #findChildByName(String)},
+     * {@link #findChildByFieldNum(Integer)} and {@link #findChildByTag(Object)} methods. Created lazily and dropped
+     * when the {@link #children} list, or a name, a fieldNum or a tag of some child is changed.
+     * Changes of the list are counted by the {@link ChildrenList}.
+     */
+    private volatile ChildrenIndex childrenIndex;
+
+    /**
+     * The field and all its children cannot be changed, see the {@link #freeze()} method.
+     */
+    private volatile boolean frozen;
+
+    /**
+     * The compiled definition of the frozen root field, see the {@link #setMessagePlan(MessagePlan)} method.
+     */
+    private volatile MessagePlan messagePlan;
     
     public MsgField() {
         this.stringer = StringStringer.getInstance();
@@ -199,7 +232,9 @@ public class MsgField implements Msg {
      * @param fieldNum see the {@link #fieldNum} field description.
      */
     public void setFieldNum(Integer fieldNum) {
+        checkNotFrozen();
         this.fieldNum = fieldNum;
+        invalidateParentIndex();
     }
 
     /**
@@ -223,7 +258,9 @@ public class MsgField implements Msg {
      * @param tag see the {@link #tag} field description.
      */
     public void setTag(Object tag) {
+        checkNotFrozen();
         this.tag = tag;
+        invalidateParentIndex();
     }
 
     /**
@@ -238,7 +275,9 @@ public class MsgField implements Msg {
      * @param name see the {@link #name} field description.
      */
     public void setName(String name) {
+        checkNotFrozen();
         this.name = name;
+        invalidateParentIndex();
     }
 
     /**
@@ -253,7 +292,10 @@ public class MsgField implements Msg {
      * @param parent see the {@link #parent} field description.
      */
     public void setParent(MsgField parent) {
+        checkNotFrozen();
+        invalidateParentIndex();
         this.parent = parent;
+        invalidateParentIndex();
     }
 
     /**
@@ -265,10 +307,153 @@ public class MsgField implements Msg {
     }
 
     /**
-     * @param children see the {@link #children} field description.
+     * @param children see the {@link #children} field description. The list is wrapped by a {@link ChildrenList},
+     * so changes made by the {@link #getChildren()} list are visible to the {@link #childrenIndex}.
      */
     public void setChildren(List<MsgField> children) {
-        this.children = children;
+        checkNotFrozen();
+        if (children == null || children instanceof ChildrenList) {
+            this.children = children;
+        } else {
+            this.children = new ChildrenList(children);
+        }
+        this.childrenIndex = null;
+    }
+
+    /**
+     * Find a child by its name in constant time. The same as the
+     * {@link com.credibledoc.iso8583packer.navigator.NavigatorService#findByName(List, String)} method
+     * with the {@link #children} argument.
+     *
+     * @param childName the {@link #name} of the child
+     * @return The first child with the childName or 'null' if not found.
+     */
+    public MsgField findChildByName(String childName) {
+        if (childName == null || children == null) {
+            return null;
+        }
+        return getChildrenIndex().byName.get(childName);
+    }
+
+    /**
+     * Find a child by its fieldNum in constant time. The same as the
+     * {@link com.credibledoc.iso8583packer.navigator.NavigatorService#findByFieldNum(List, Integer)} method
+     * with the {@link #children} argument.
+     *
+     * @param childFieldNum the {@link #fieldNum} of the child
+     * @return The first child with the childFieldNum or 'null' if not found.
+     */
+    public MsgField findChildByFieldNum(Integer childFieldNum) {
+        if (childFieldNum == null || children == null) {
+            return null;
+        }
+        ChildrenIndex index = getChildrenIndex();
+        if (childFieldNum >= 0 && childFieldNum < index.byFieldNum.length) {
+            return index.byFieldNum[childFieldNum];
+        }
+        return index.byOtherFieldNum.get(childFieldNum);
+    }
+
+    /**
+     * Find a child by its tag in constant time.
+     *
+     * @param childTag the {@link #tag} of the child
+     * @return The first child with the childTag or 'null' if not found.
+     */
+    public MsgField findChildByTag(Object childTag) {
+        if (childTag == null || children == null) {
+            return null;
+        }
+        return getChildrenIndex().byTag.get(childTag);
+    }
+
+    /**
+     * @return The maximal {@link #fieldNum} of the {@link #children} or 0 if the children have no fieldNums.
+     */
+    public int getMaxChildFieldNum() {
+        if (children == null) {
+            return 0;
+        }
+        return getChildrenIndex().maxFieldNum;
+    }
+
+    /**
+     * Make this field and all its children immutable. Setters of frozen fields throw the
+     * {@link PackerRuntimeException} and their {@link #children} lists are unmodifiable, so the frozen definition can
+     * be shared between threads without cloning. Definitions of undefined fields, for example incoming TLV fields
+     * with unknown tags, are created in the unpacking methods for every message and are not added to the frozen
+     * definition.
+     * <p>
+     * The method is called from the {@link FieldBuilder#validateStructure(boolean)} method.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        if (children != null) {
+            children = Collections.unmodifiableList(new ArrayList<>(children));
+            childrenIndex = new ChildrenIndex(children);
+            for (MsgField child : children) {
+                child.freeze();
+            }
+        }
+        frozen = true;
+    }
+
+    /**
+     * @return The {@link #frozen} field value.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return The {@link #messagePlan} field value.
+     */
+    public MessagePlan getMessagePlan() {
+        return messagePlan;
+    }
+
+    /**
+     * The only property that can be set to a frozen field. It can be set only once.
+     *
+     * @param messagePlan the compiled definition of this frozen root field
+     */
+    public void setMessagePlan(MessagePlan messagePlan) {
+        if (!frozen) {
+            throw new PackerRuntimeException("MessagePlan can only be set to a frozen MsgField. " +
+                "Please call the FieldBuilder.validateStructure(true) method.");
+        }
+        if (this.messagePlan != null && this.messagePlan != messagePlan) {
+            throw new PackerRuntimeException("MessagePlan is already set to the MsgField '" + name + "'.");
+        }
+        this.messagePlan = messagePlan;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new PackerRuntimeException("The MsgField '" + name + "' is frozen and cannot be changed. " +
+                "Please create a new definition by the FieldBuilder.");
+        }
+    }
+
+    /**
+     * @return The current {@link #childrenIndex} or a new one if the {@link #children} list has been changed.
+     */
+    private ChildrenIndex getChildrenIndex() {
+        ChildrenIndex index = childrenIndex;
+        if (index == null || index.children != children || index.size != children.size() ||
+                index.modCount != ChildrenList.getModCount(children)) {
+            index = new ChildrenIndex(children);
+            childrenIndex = index;
+        }
+        return index;
+    }
+
+    private void invalidateParentIndex() {
+        if (parent != null && !parent.frozen) {
+            parent.childrenIndex = null;
+        }
     }
 
     /**
@@ -282,6 +467,7 @@ public class MsgField implements Msg {
      * @param maxLen see the {@link #maxLen} field description.
      */
     public void setMaxLen(Integer maxLen) {
+        checkNotFrozen();
         this.maxLen = maxLen;
     }
 
@@ -296,6 +482,7 @@ public class MsgField implements Msg {
      * @param len see the {@link #len} field description.
      */
     public void setLen(Integer len) {
+        checkNotFrozen();
         this.len = len;
     }
 
@@ -310,6 +497,7 @@ public class MsgField implements Msg {
      * @param bodyPacker see the {@link #bodyPacker} field description.
      */
     public void setBodyPacker(BodyPacker bodyPacker) {
+        checkNotFrozen();
         this.bodyPacker = bodyPacker;
     }
 
@@ -324,6 +512,7 @@ public class MsgField implements Msg {
      * @param childrenBodyLen see the {@link #childrenBodyLen} field description.
      */
     public void setChildrenBodyLen(Integer childrenBodyLen) {
+        checkNotFrozen();
         this.childrenBodyLen = childrenBodyLen;
     }
 
@@ -338,6 +527,7 @@ public class MsgField implements Msg {
      * @param tagPacker see the {@link #tagPacker} field description.
      */
     public void setTagPacker(TagPacker tagPacker) {
+        checkNotFrozen();
         this.tagPacker = tagPacker;
     }
 
@@ -352,6 +542,7 @@ public class MsgField implements Msg {
      * @param childrenTagPacker see the {@link #childrenTagPacker} field description.
      */
     public void setChildrenTagPacker(TagPacker childrenTagPacker) {
+        checkNotFrozen();
         this.childrenTagPacker = childrenTagPacker;
     }
 
@@ -366,6 +557,7 @@ public class MsgField implements Msg {
      * @param childrenLengthPacker see the {@link #childrenLengthPacker} field description.
      */
     public void setChildrenLengthPacker(LengthPacker childrenLengthPacker) {
+        checkNotFrozen();
         this.childrenLengthPacker = childrenLengthPacker;
     }
 
@@ -380,6 +572,7 @@ public class MsgField implements Msg {
      * @param childrenBodyPacker see the {@link #childrenBodyPacker} field description.
      */
     public void setChildrenBodyPacker(BodyPacker childrenBodyPacker) {
+        checkNotFrozen();
         this.childrenBodyPacker = childrenBodyPacker;
     }
 
@@ -394,6 +587,7 @@ public class MsgField implements Msg {
      * @param exactlyLength see the {@link #exactlyLength} field description.
      */
     public void setExactlyLength(Integer exactlyLength) {
+        checkNotFrozen();
         this.exactlyLength = exactlyLength;
     }
 
@@ -408,6 +602,7 @@ public class MsgField implements Msg {
      * @param type see the {@link #type} field description.
      */
     public void setType(MsgFieldType type) {
+        checkNotFrozen();
         this.type = type;
     }
 
@@ -422,6 +617,7 @@ public class MsgField implements Msg {
      * @param masker see the {@link #masker} field description.
      */
     public void setMasker(Masker masker) {
+        checkNotFrozen();
         this.masker = masker;
     }
 
@@ -436,6 +632,7 @@ public class MsgField implements Msg {
      * @param stringer see the {@link #stringer} field description.
      */
     public void setStringer(Stringer stringer) {
+        checkNotFrozen();
         this.stringer = stringer;
     }
 
@@ -450,6 +647,7 @@ public class MsgField implements Msg {
      * @param lengthPacker see the {@link #lengthPacker} field description.
      */
     public void setLengthPacker(LengthPacker lengthPacker) {
+        checkNotFrozen();
         this.lengthPacker = lengthPacker;
     }
 
@@ -464,6 +662,7 @@ public class MsgField implements Msg {
      * @param bitMapPacker see the {@link #bitMapPacker} field description.
      */
     public void setBitMapPacker(BitmapPacker bitMapPacker) {
+        checkNotFrozen();
         this.bitMapPacker = bitMapPacker;
     }
 
@@ -478,6 +677,7 @@ public class MsgField implements Msg {
      * @param depth see the {@link #depth} field description.
      */
     public void setDepth(int depth) {
+        checkNotFrozen();
         this.depth = depth;
     }
 
@@ -493,6 +693,116 @@ public class MsgField implements Msg {
      * @param root see the {@link #root} field description.
      */
     public void setRoot(MsgField root) {
+        checkNotFrozen();
         this.root = root;
     }
+
+    /**
+     * The mutable {@link #children} list. It counts additions, removals and replacements of its elements,
+     * including the sorting, so the {@link #childrenIndex} is rebuilt after such changes even if the size
+     * of the list remains the same.
+     */
+    private static class ChildrenList extends AbstractList<MsgField> implements RandomAccess {
+        private final List<MsgField> list;
+
+        private ChildrenList(List<MsgField> list) {
+            this.list = list;
+        }
+
+        /**
+         * @param children the {@link #children} list
+         * @return Number of changes of the {@link ChildrenList}, or -1 for other lists.
+         */
+        private static int getModCount(List<MsgField> children) {
+            return children instanceof ChildrenList ? ((ChildrenList) children).modCount : -1;
+        }
+
+        @Override
+        public MsgField get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public MsgField set(int index, MsgField element) {
+            modCount++;
+            return list.set(index, element);
+        }
+
+        @Override
+        public void add(int index, MsgField element) {
+            modCount++;
+            list.add(index, element);
+        }
+
+        @Override
+        public MsgField remove(int index) {
+            modCount++;
+            return list.remove(index);
+        }
+    }
+
+    /**
+     * Immutable lookup tables of the {@link #children} list. Instances are shared between threads,
+     * so they are never changed after creation.
+     */
+    private static class ChildrenIndex {
+        /**
+         * The largest fieldNum stored in the {@link #byFieldNum} array. Bitmaps have up to 192 fields.
+         */
+        private static final int MAX_DENSE_FIELD_NUM = 192;
+
+        private final List<MsgField> children;
+        private final int size;
+        private final int modCount;
+        private final Map<String, MsgField> byName;
+        private final Map<Object, MsgField> byTag;
+        private final MsgField[] byFieldNum;
+        private final Map<Integer, MsgField> byOtherFieldNum;
+        private final int maxFieldNum;
+
+        private ChildrenIndex(List<MsgField> children) {
+            this.children = children;
+            this.size = children.size();
+            this.modCount = ChildrenList.getModCount(children);
+            Map<String, MsgField> names = new HashMap<>(size * 2);
+            Map<Object, MsgField> tags = new HashMap<>();
+            Map<Integer, MsgField> others = new HashMap<>();
+            int max = 0;
+            for (MsgField child : children) {
+                if (child.getName() != null && !names.containsKey(child.getName())) {
+                    names.put(child.getName(), child);
+                }
+                if (child.getTag() != null && !tags.containsKey(child.getTag())) {
+                    tags.put(child.getTag(), child);
+                }
+                if (child.getFieldNum() != null) {
+                    max = Math.max(max, child.getFieldNum());
+                }
+            }
+            MsgField[] dense = new MsgField[Math.min(max, MAX_DENSE_FIELD_NUM) + 1];
+            for (MsgField child : children) {
+                Integer childFieldNum = child.getFieldNum();
+                if (childFieldNum == null) {
+                    continue;
+                }
+                if (childFieldNum >= 0 && childFieldNum < dense.length) {
+                    if (dense[childFieldNum] == null) {
+                        dense[childFieldNum] = child;
+                    }
+                } else if (!others.containsKey(childFieldNum)) {
+                    others.put(childFieldNum, child);
+                }
+            }
+            this.byName = names;
+            this.byTag = tags;
+            this.byFieldNum = dense;
+            this.byOtherFieldNum = others;
+            this.maxFieldNum = max;
+        }
+    }
 }
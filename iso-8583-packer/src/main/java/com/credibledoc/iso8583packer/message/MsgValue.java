@@ -1,5 +1,9 @@
 package com.credibledoc.iso8583packer.message;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.hex.HexService;
 
 import java.util.BitSet;
@@ -76,9 +80,19 @@ public class MsgValue implements Msg {
      * <p>
      * The bit set can be 'null' for some nodes or leaves,
      * but cannot be 'null' for a field of the {@link MsgFieldType#BIT_SET} type.
+     * <p>
+     * Packers store the {@link #bitmap}, this value is created from it on demand,
+     * see the {@link #getBitSet()} method. Changes of this {@link BitSet} are ignored after the {@link #bitmap}
+     * has been created from it, please use the {@link #setBitSet(BitSet)} method for changing of the bits.
      */
     private BitSet bitSet;
 
+    /**
+     * The same data as the {@link #bitSet} in primitive {@code long}s. Packers and unpackers use this value.
+     * It is created from the {@link #bitSet} once, see the {@link #getBitmap()} method.
+     */
+    private Bitmap bitmap;
+
     /**
      * Caution: this map ha no all repeated values with same names, only last one.
      * Example of repeated values is a product basket with multiple repeated products.
@@ -87,8 +101,10 @@ public class MsgValue implements Msg {
      * and the child instance as a value.
      * <p>
      * Else the map is empty.
+     * <p>
+     * The map is created on the first call of the {@link #getChildNamesMap()} method.
      */
-    private final Map<String, MsgValue> childNamesMap = new HashMap<>();
+    private Map<String, MsgValue> childNamesMap;
 
     /**
      * See the {@link Msg#getRoot()} method description.
@@ -99,14 +115,95 @@ public class MsgValue implements Msg {
      * In case of {@link MsgFieldType#TAG_LEN_VAL} and {@link MsgFieldType#LEN_TAG_VAL} some {@link MsgValue}s
      * may have no defined {@link MsgField}. Their length and tag packers are defined in their parent. Such {@link MsgValue}s
      * have generated names.
+     * <p>
+     * The map is created on the first call of the {@link #getUndefinedChildrenMap()} method.
+     */
+    private Map<String, MsgValue> undefinedChildrenMap;
+
+    /**
+     * The unpacked source bytes shared by all {@link MsgValue}s of a message unpacked in the zero-copy mode.
+     * The {@link #tagBytes}, {@link #lengthBytes} and {@link #bodyBytes} are created from this array lazily,
+     * see the {@link #setTagSlice(byte[], int, int)}, {@link #setLengthSlice(byte[], int, int)}
+     * and {@link #setBodySlice(byte[], int, int)} methods.
+     */
+    private byte[] source;
+
+    /**
+     * Index of the {@link #tagBytes} in the {@link #source}.
+     */
+    private int tagOffset;
+
+    /**
+     * Length of the {@link #tagBytes} in the {@link #source}, or -1 if the {@link #source} contains no tag bytes.
+     */
+    private int tagLength = -1;
+
+    /**
+     * Index of the {@link #lengthBytes} in the {@link #source}.
+     */
+    private int lengthOffset;
+
+    /**
+     * Length of the {@link #lengthBytes} in the {@link #source}, or -1 if the {@link #source} contains
+     * no length bytes.
+     */
+    private int lengthLength = -1;
+
+    /**
+     * Index of the {@link #bodyBytes} in the {@link #source}.
+     */
+    private int bodyOffset;
+
+    /**
+     * Length of the {@link #bodyBytes} in the {@link #source}, or -1 if the {@link #source} contains no body bytes.
+     */
+    private int bodyLength = -1;
+
+    /**
+     * The array with the whole packed field, see the {@link #setRawSlice(byte[], int, int)} method. It is usually
+     * the same array as the {@link #source}, but the {@link #source} of a node is replaced when the node is packed
+     * again, while its raw bytes still belong to the unpacked message.
+     */
+    private byte[] rawSource;
+
+    /**
+     * Index of the first byte of the whole packed field, including its tag and length headers and children,
+     * in the {@link #rawSource}.
+     */
+    private int rawOffset;
+
+    /**
+     * Length of the whole packed field in the {@link #rawSource}, or -1 if the field or some of its descendants
+     * have been changed after unpacking. See the {@link #setRawSlice(byte[], int, int)} method.
+     */
+    private int rawLength = -1;
+
+    /**
+     * Decodes the {@link #bodyValue} from the {@link #bodyBytes} when the {@link #getBodyValue()} is called first
+     * time, see the {@link #setLazyBodyPacker(BodyPacker)} method. 'null' if the {@link #bodyValue} is decoded
+     * or set already.
+     */
+    private BodyPacker lazyBodyPacker;
+
+    /**
+     * 'true' if the field has been unpacked with a {@link com.credibledoc.iso8583packer.plan.FieldProjection},
+     * so skipped descendants are missing in this graph and exist only in the {@link #source}.
+     * Such fields cannot be packed incrementally, see the {@link com.credibledoc.iso8583packer.ValueHolder#repack()}
+     * method.
      */
-    private final Map<String, MsgValue> undefinedChildrenMap = new HashMap<>();
+    private boolean projected;
+
+    /**
+     * 'true' if the {@link #bodyBytes} have been created by the {@link #setBodyLong(long, NumericBodyPacker, int)}
+     * method and have not been returned from this instance since then, so they can be rewritten in place.
+     */
+    private boolean bodyBytesPrivate;
 
     @Override
     public String toString() {
-        String tagBytesString = tagBytes == null ? "null" : HexService.bytesToHex(tagBytes);
-        String lengthBytesString = lengthBytes == null ? "null" : HexService.bytesToHex(lengthBytes);
-        String bytesString = bodyBytes == null ? "null" : HexService.bytesToHex(bodyBytes);
+        String tagBytesString = bytesToString(tagBytes, tagOffset, tagLength);
+        String lengthBytesString = bytesToString(lengthBytes, lengthOffset, lengthLength);
+        String bytesString = bytesToString(bodyBytes, bodyOffset, bodyLength);
         String parentString = parent == null ? "null" : parent.getName();
         String childrenSizeString = children == null ? "0" : Integer.toString(children.size());
         return "Field{" +
@@ -117,12 +214,27 @@ public class MsgValue implements Msg {
             ", lengthBytes=" + lengthBytesString +
             ", bodyBytes=" + bytesString +
             ", parent=" + parentString +
-            ", value=" + bodyValue +
+            ", value=" + (lazyBodyPacker != null ? "<not decoded>" : bodyValue) +
             ", childrenSize=" + childrenSizeString +
-            ", bitSet=" + bitSet +
+            ", bitSet=" + (bitSet != null ? bitSet : bitmap) +
             '}';
     }
 
+    /**
+     * Describe the bytes without creating them from the {@link #source}.
+     *
+     * @param bytes       the tag, length or body bytes
+     * @param sliceOffset index of the slice in the {@link #source}
+     * @param sliceLength length of the slice in the {@link #source}, or -1 if the bytes are not a slice
+     * @return Hex representation of the bytes, or offset and length of the slice in the {@link #source}.
+     */
+    private static String bytesToString(byte[] bytes, int sliceOffset, int sliceLength) {
+        if (sliceLength >= 0) {
+            return "source[" + sliceOffset + ", " + sliceLength + "]";
+        }
+        return bytes == null ? "null" : HexService.bytesToHex(bytes);
+    }
+
     /**
      * @return The {@link #fieldNum} field value.
      */
@@ -160,12 +272,18 @@ public class MsgValue implements Msg {
      */
     public void setTag(Object tag) {
         this.tag = tag;
+        invalidateRawSlice();
     }
 
     /**
-     * @return The {@link #tagBytes} field value.
+     * @return The {@link #tagBytes} field value. If the bytes are a slice of the {@link #source},
+     * they will be copied from the {@link #source} on the first call.
      */
     public byte[] getTagBytes() {
+        if (tagLength >= 0) {
+            tagBytes = copyFromSource(tagOffset, tagLength);
+            tagLength = -1;
+        }
         return tagBytes;
     }
 
@@ -174,12 +292,33 @@ public class MsgValue implements Msg {
      */
     public void setTagBytes(byte[] tagBytes) {
         this.tagBytes = tagBytes;
+        this.tagLength = -1;
+        invalidateRawSlice();
+    }
+
+    /**
+     * Set the {@link #tagBytes} as a view of the source bytes without copying.
+     *
+     * @param source the unpacked bytes, see the {@link #source} field description
+     * @param offset index of the tag bytes in the source
+     * @param length number of the tag bytes
+     */
+    public void setTagSlice(byte[] source, int offset, int length) {
+        bindSource(source);
+        this.tagBytes = null;
+        this.tagOffset = offset;
+        this.tagLength = length;
     }
 
     /**
-     * @return The {@link #lengthBytes} field value.
+     * @return The {@link #lengthBytes} field value. If the bytes are a slice of the {@link #source},
+     * they will be copied from the {@link #source} on the first call.
      */
     public byte[] getLengthBytes() {
+        if (lengthLength >= 0) {
+            lengthBytes = copyFromSource(lengthOffset, lengthLength);
+            lengthLength = -1;
+        }
         return lengthBytes;
     }
 
@@ -188,12 +327,38 @@ public class MsgValue implements Msg {
      */
     public void setLengthBytes(byte[] lengthBytes) {
         this.lengthBytes = lengthBytes;
+        this.lengthLength = -1;
+        invalidateRawSlice();
     }
 
     /**
-     * @return The {@link #bodyBytes} field value.
+     * Set the {@link #lengthBytes} as a view of the source bytes without copying.
+     *
+     * @param source the unpacked bytes, see the {@link #source} field description
+     * @param offset index of the length bytes in the source
+     * @param length number of the length bytes
+     */
+    public void setLengthSlice(byte[] source, int offset, int length) {
+        bindSource(source);
+        this.lengthBytes = null;
+        this.lengthOffset = offset;
+        this.lengthLength = length;
+    }
+
+    /**
+     * @return The {@link #bodyBytes} field value. If the bytes are a slice of the {@link #source},
+     * they will be copied from the {@link #source} on the first call.
+     * <p>
+     * The returned array is not a copy, it should not be changed. Please use the {@link #setBodyBytes(byte[])}
+     * method for changing of the bytes, or call the {@link #invalidateRawSlice()} method after changing of the
+     * array, otherwise the incremental packing copies the unpacked bytes.
      */
     public byte[] getBodyBytes() {
+        if (bodyLength >= 0) {
+            bodyBytes = copyFromSource(bodyOffset, bodyLength);
+            bodyLength = -1;
+        }
+        bodyBytesPrivate = false;
         return bodyBytes;
     }
 
@@ -202,15 +367,318 @@ public class MsgValue implements Msg {
      */
     public void setBodyBytes(byte[] bodyBytes) {
         this.bodyBytes = bodyBytes;
+        this.bodyLength = -1;
+        this.bodyBytesPrivate = false;
+        invalidateRawSlice();
+    }
+
+    /**
+     * Set the {@link #bodyBytes} as a view of the source bytes without copying.
+     *
+     * @param source the unpacked bytes, see the {@link #source} field description
+     * @param offset index of the body bytes in the source
+     * @param length number of the body bytes
+     */
+    public void setBodySlice(byte[] source, int offset, int length) {
+        bindSource(source);
+        this.bodyBytes = null;
+        this.bodyOffset = offset;
+        this.bodyLength = length;
+        this.bodyBytesPrivate = false;
+    }
+
+    /**
+     * @return Number of the {@link #bodyBytes} without copying them from the {@link #source},
+     * or -1 if the {@link #bodyBytes} are 'null'.
+     */
+    public int getBodyBytesLength() {
+        if (bodyLength >= 0) {
+            return bodyLength;
+        }
+        return bodyBytes == null ? -1 : bodyBytes.length;
+    }
+
+    /**
+     * @return Number of the {@link #tagBytes} without copying them from the {@link #source},
+     * or -1 if the {@link #tagBytes} are 'null'.
+     */
+    public int getTagBytesLength() {
+        if (tagLength >= 0) {
+            return tagLength;
+        }
+        return tagBytes == null ? -1 : tagBytes.length;
+    }
+
+    /**
+     * @return Number of the {@link #lengthBytes} without copying them from the {@link #source},
+     * or -1 if the {@link #lengthBytes} are 'null'.
+     */
+    public int getLengthBytesLength() {
+        if (lengthLength >= 0) {
+            return lengthLength;
+        }
+        return lengthBytes == null ? -1 : lengthBytes.length;
+    }
+
+    /**
+     * Copy the {@link #tagBytes} to the target without creating them from the {@link #source}.
+     *
+     * @param target       the destination array
+     * @param targetOffset index in the target
+     * @return Number of copied bytes.
+     */
+    public int copyTagBytes(byte[] target, int targetOffset) {
+        if (tagLength >= 0) {
+            System.arraycopy(source, tagOffset, target, targetOffset, tagLength);
+            return tagLength;
+        }
+        return copyArray(tagBytes, target, targetOffset);
+    }
+
+    /**
+     * Copy the {@link #lengthBytes} to the target without creating them from the {@link #source}.
+     *
+     * @param target       the destination array
+     * @param targetOffset index in the target
+     * @return Number of copied bytes.
+     */
+    public int copyLengthBytes(byte[] target, int targetOffset) {
+        if (lengthLength >= 0) {
+            System.arraycopy(source, lengthOffset, target, targetOffset, lengthLength);
+            return lengthLength;
+        }
+        return copyArray(lengthBytes, target, targetOffset);
+    }
+
+    /**
+     * Copy the {@link #bodyBytes} to the target without creating them from the {@link #source}.
+     *
+     * @param target       the destination array
+     * @param targetOffset index in the target
+     * @return Number of copied bytes.
+     */
+    public int copyBodyBytes(byte[] target, int targetOffset) {
+        if (bodyLength >= 0) {
+            System.arraycopy(source, bodyOffset, target, targetOffset, bodyLength);
+            return bodyLength;
+        }
+        return copyArray(bodyBytes, target, targetOffset);
+    }
+
+    /**
+     * @return The array with the {@link #bodyBytes}, it is the shared {@link #source} in case of a body slice.
+     * See the {@link #getBodyArrayOffset()} and {@link #getBodyBytesLength()} methods.
+     */
+    public byte[] getBodyArray() {
+        if (bodyLength >= 0) {
+            return source;
+        }
+        bodyBytesPrivate = false;
+        return bodyBytes;
+    }
+
+    /**
+     * @return Index of the first body byte in the {@link #getBodyArray()}.
+     */
+    public int getBodyArrayOffset() {
+        return bodyLength >= 0 ? bodyOffset : 0;
+    }
+
+    /**
+     * @return The array with the {@link #lengthBytes}, it is the shared {@link #source} in case of a length slice.
+     * See the {@link #getLengthArrayOffset()} and {@link #getLengthBytesLength()} methods.
+     */
+    public byte[] getLengthArray() {
+        return lengthLength >= 0 ? source : lengthBytes;
+    }
+
+    /**
+     * @return Index of the first length byte in the {@link #getLengthArray()}.
+     */
+    public int getLengthArrayOffset() {
+        return lengthLength >= 0 ? lengthOffset : 0;
+    }
+
+    /**
+     * Remember the whole packed field in the source bytes. The field can be packed again by copying of these bytes,
+     * until the field or some of its descendants are changed, see the
+     * {@link com.credibledoc.iso8583packer.plan.PlanPacker#getIncrementalInstance()} method.
+     *
+     * @param source the unpacked bytes, see the {@link #rawSource} field description
+     * @param offset index of the first byte of the field in the source
+     * @param length number of bytes of the field with its headers and children
+     */
+    public void setRawSlice(byte[] source, int offset, int length) {
+        this.rawSource = source;
+        this.rawOffset = offset;
+        this.rawLength = length;
+    }
+
+    /**
+     * @return Number of bytes of the whole packed field in the {@link #rawSource}, or -1 if the field has been
+     * changed after unpacking or it has not been unpacked in the zero-copy mode.
+     */
+    public int getRawLength() {
+        return rawLength;
+    }
+
+    /**
+     * Copy the whole packed field from the {@link #rawSource} to the target.
+     *
+     * @param target       the destination array
+     * @param targetOffset index in the target
+     * @return Number of copied bytes.
+     */
+    public int copyRawBytes(byte[] target, int targetOffset) {
+        if (rawLength < 0) {
+            throw new PackerRuntimeException("The MsgValue '" + name + "' has no raw bytes.");
+        }
+        System.arraycopy(rawSource, rawOffset, target, targetOffset, rawLength);
+        return rawLength;
+    }
+
+    /**
+     * Forget the raw bytes of this field and its ancestors, because they have to be packed again.
+     * The method is called by setters of this class. Call it after changing of an array returned by the
+     * {@link #getBodyBytes()}, {@link #getTagBytes()} or {@link #getLengthBytes()} methods.
+     */
+    public void invalidateRawSlice() {
+        MsgValue current = this;
+        while (current != null) {
+            current.rawLength = -1;
+            current = current.parent;
+        }
+    }
+
+    private static int copyArray(byte[] bytes, byte[] target, int targetOffset) {
+        if (bytes == null) {
+            return 0;
+        }
+        System.arraycopy(bytes, 0, target, targetOffset, bytes.length);
+        return bytes.length;
+    }
+
+    /**
+     * Set the {@link #source}. Existing slices of another array are copied first, because their offsets
+     * do not belong to the new array.
+     */
+    private void bindSource(byte[] newSource) {
+        if (source != null && source != newSource) {
+            getTagBytes();
+            getLengthBytes();
+            if (bodyLength >= 0) {
+                bodyBytes = copyFromSource(bodyOffset, bodyLength);
+                bodyLength = -1;
+            }
+        }
+        source = newSource;
+    }
+
+    private byte[] copyFromSource(int offset, int length) {
+        byte[] result = new byte[length];
+        System.arraycopy(source, offset, result, 0, length);
+        return result;
     }
 
     /**
-     * @return The {@link #bodyValue} field value.
+     * @return The {@link #bodyValue} field value. In case of the {@link #lazyBodyPacker} the value will be decoded
+     * from the {@link #bodyBytes} first.
      */
     public Object getBodyValue() {
+        if (lazyBodyPacker != null) {
+            BodyPacker bodyPacker = lazyBodyPacker;
+            lazyBodyPacker = null;
+            if (bodyLength >= 0) {
+                bodyValue = bodyPacker.unpack(source, bodyOffset, bodyLength);
+            } else {
+                bodyValue = bodyPacker.unpack(bodyBytes, 0, bodyBytes.length);
+            }
+        }
         return bodyValue;
     }
 
+    /**
+     * @return The {@link #bodyValue} field value. In case of the {@link #lazyBodyPacker} the value is decoded
+     * from the {@link #bodyBytes}, but it is not stored, so this {@link MsgValue} stays not decoded.
+     * Used by dumps, which should not change the state of dumped values.
+     */
+    public Object peekBodyValue() {
+        if (lazyBodyPacker == null) {
+            return bodyValue;
+        }
+        if (bodyLength >= 0) {
+            return lazyBodyPacker.unpack(source, bodyOffset, bodyLength);
+        }
+        return lazyBodyPacker.unpack(bodyBytes, 0, bodyBytes.length);
+    }
+
+    /**
+     * @return 'true' if the {@link #bodyValue} is not 'null' or if it will be decoded by the {@link #lazyBodyPacker}.
+     * The method does not decode the {@link #bodyValue}.
+     */
+    public boolean hasBodyValue() {
+        return lazyBodyPacker != null || bodyValue != null;
+    }
+
+    /**
+     * @return 'true' if the {@link #bodyValue} is not 'null' and it is not waiting for decoding by the
+     * {@link #lazyBodyPacker}. The method does not decode the {@link #bodyValue}.
+     */
+    public boolean isBodyValueDecoded() {
+        return lazyBodyPacker == null && bodyValue != null;
+    }
+
+    /**
+     * Postpone decoding of the {@link #bodyValue} to the first call of the {@link #getBodyValue()} method.
+     * The {@link #bodyBytes} or the body slice should be set before.
+     *
+     * @param lazyBodyPacker see the {@link #lazyBodyPacker} field description.
+     */
+    public void setLazyBodyPacker(BodyPacker lazyBodyPacker) {
+        this.bodyValue = null;
+        this.lazyBodyPacker = lazyBodyPacker;
+    }
+
+    /**
+     * Read the value as a primitive number. Not decoded body bytes are unpacked by the numericBodyPacker without
+     * boxing and the {@link #bodyValue} stays not decoded. Decoded values should be {@link Number}s.
+     *
+     * @param numericBodyPacker used when the {@link #bodyValue} is not decoded, can be 'null' for decoded values
+     * @return The value as a {@code long}.
+     */
+    public long getBodyLong(NumericBodyPacker numericBodyPacker) {
+        if (lazyBodyPacker == null && bodyValue instanceof Number) {
+            return ((Number) bodyValue).longValue();
+        }
+        if (numericBodyPacker == null || getBodyBytesLength() < 0) {
+            throw new PackerRuntimeException("Cannot get a number from the MsgValue '" + name + "', value: '" +
+                getBodyValue() + "'. The field has no value or its BodyPacker is not a NumericBodyPacker.");
+        }
+        if (bodyLength >= 0) {
+            return numericBodyPacker.unpackLong(source, bodyOffset, bodyLength);
+        }
+        return numericBodyPacker.unpackLong(bodyBytes, 0, bodyBytes.length);
+    }
+
+    /**
+     * Pack the number to the {@link #bodyBytes} and postpone its decoding, see the {@link #lazyBodyPacker}.
+     * The {@link #bodyBytes} are rewritten in place only if they have been created by this method, have the same
+     * length and have not been returned by the {@link #getBodyBytes()} or {@link #getBodyArray()} methods since then.
+     * Otherwise a new array is created, because other objects may refer to the old one.
+     *
+     * @param value the number to pack
+     * @param numericBodyPacker packs the number and decodes it later
+     * @param packedLength number of the body bytes
+     */
+    public void setBodyLong(long value, NumericBodyPacker numericBodyPacker, int packedLength) {
+        boolean reusable = bodyBytesPrivate && bodyBytes != null && bodyBytes.length == packedLength;
+        byte[] target = reusable ? bodyBytes : new byte[packedLength];
+        numericBodyPacker.packLong(value, target, 0);
+        setBodyBytes(target);
+        bodyBytesPrivate = true;
+        setLazyBodyPacker(numericBodyPacker);
+    }
+
     /**
      * @param type required type of returned {@link #bodyValue}.
      * @param <T> the required type.
@@ -225,6 +693,8 @@ public class MsgValue implements Msg {
      */
     public void setBodyValue(Object bodyValue) {
         this.bodyValue = bodyValue;
+        this.lazyBodyPacker = null;
+        invalidateRawSlice();
     }
 
     /**
@@ -270,12 +740,25 @@ public class MsgValue implements Msg {
      */
     public void setChildren(List<MsgValue> children) {
         this.children = children;
+        invalidateRawSlice();
+        if (childNamesMap != null) {
+            childNamesMap.clear();
+        }
+        if (children != null) {
+            for (MsgValue child : children) {
+                getChildNamesMap().put(child.getName(), child);
+            }
+        }
     }
 
     /**
      * @return The {@link #bitSet} field value.
      */
     public BitSet getBitSet() {
+        // The packers create bitmaps from children, so changes of the returned BitSet are not packed
+        if (bitSet == null && bitmap != null) {
+            bitSet = bitmap.toBitSet();
+        }
         return bitSet;
     }
 
@@ -284,12 +767,37 @@ public class MsgValue implements Msg {
      */
     public void setBitSet(BitSet bitSet) {
         this.bitSet = bitSet;
+        this.bitmap = null;
+        invalidateRawSlice();
+    }
+
+    /**
+     * @return The {@link #bitmap} field value. If only the {@link #bitSet} has been set, the {@link #bitmap}
+     * is created from it on the first call and cached.
+     */
+    public Bitmap getBitmap() {
+        if (bitmap == null && bitSet != null) {
+            bitmap = Bitmap.fromBitSet(bitSet);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param bitmap see the {@link #bitmap} field description.
+     */
+    public void setBitmap(Bitmap bitmap) {
+        this.bitmap = bitmap;
+        this.bitSet = null;
+        invalidateRawSlice();
     }
 
     /**
      * @return The {@link #childNamesMap} field value.
      */
     public Map<String, MsgValue> getChildNamesMap() {
+        if (childNamesMap == null) {
+            childNamesMap = new HashMap<>();
+        }
         return childNamesMap;
     }
 
@@ -312,7 +820,58 @@ public class MsgValue implements Msg {
      * @return The {@link #undefinedChildrenMap} field value.
      */
     public Map<String, MsgValue> getUndefinedChildrenMap() {
+        if (undefinedChildrenMap == null) {
+            undefinedChildrenMap = new HashMap<>();
+        }
         return undefinedChildrenMap;
     }
 
+    /**
+     * Set all fields to their initial values for reusing of this instance, see the {@link MsgValuePool}.
+     * The {@link #childNamesMap} and {@link #undefinedChildrenMap} are cleared, but not deleted.
+     */
+    public void clear() {
+        fieldNum = null;
+        tag = null;
+        tagBytes = null;
+        lengthBytes = null;
+        bodyBytes = null;
+        bodyValue = null;
+        name = null;
+        parent = null;
+        children = null;
+        bitSet = null;
+        bitmap = null;
+        root = null;
+        source = null;
+        rawSource = null;
+        tagLength = -1;
+        lengthLength = -1;
+        bodyLength = -1;
+        rawLength = -1;
+        lazyBodyPacker = null;
+        projected = false;
+        bodyBytesPrivate = false;
+        if (childNamesMap != null) {
+            childNamesMap.clear();
+        }
+        if (undefinedChildrenMap != null) {
+            undefinedChildrenMap.clear();
+        }
+    }
+
+    /**
+     * @return The {@link #projected} field value.
+     */
+    public boolean isProjected() {
+        return projected;
+    }
+
+    /**
+     * @param projected see the {@link #projected} field description.
+     */
+    public void setProjected(boolean projected) {
+        this.projected = projected;
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pool of {@link MsgValue} nodes and their children lists. The pool allows to unpack many messages
+ * without creating new {@link MsgValue} graphs for every message, see the
+ * {@link com.credibledoc.iso8583packer.ValueHolder#setMsgValuePool(MsgValuePool)} and
+ * {@link com.credibledoc.iso8583packer.ValueHolder#reset()} methods.
+ * <p>
+ * The pool is not thread-safe. Please use one pool per thread, for example in a {@link ThreadLocal}.
+ * Released {@link MsgValue}s should not be used after the {@link #release(MsgValue)} method call.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MsgValuePool {
+
+    /**
+     * Maximal number of idle {@link MsgValue}s in the pool. Released nodes above this limit are left
+     * for the garbage collector.
+     */
+    private final int maxSize;
+
+    /**
+     * Idle {@link MsgValue}s, cleared by the {@link MsgValue#clear()} method.
+     */
+    private final ArrayDeque<MsgValue> msgValues;
+
+    /**
+     * Idle empty lists for {@link MsgValue#getChildren()}.
+     */
+    private final ArrayDeque<List<MsgValue>> lists;
+
+    /**
+     * @param maxSize see the {@link #maxSize} field description
+     */
+    public MsgValuePool(int maxSize) {
+        if (maxSize < 1) {
+            throw new PackerRuntimeException("Expected maxSize is greater than 0. Current value: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.msgValues = new ArrayDeque<>(maxSize);
+        this.lists = new ArrayDeque<>();
+    }
+
+    /**
+     * @return An idle {@link MsgValue} from the pool or a new one if the pool is empty.
+     */
+    public MsgValue acquire() {
+        MsgValue msgValue = msgValues.pollLast();
+        return msgValue != null ? msgValue : new MsgValue();
+    }
+
+    /**
+     * @return An idle empty list from the pool or a new {@link ArrayList} if the pool is empty.
+     */
+    public List<MsgValue> acquireList() {
+        List<MsgValue> list = lists.pollLast();
+        return list != null ? list : new ArrayList<>();
+    }
+
+    /**
+     * Clear the {@link MsgValue} and all its children and return them to the pool. The {@link ArrayList}s
+     * of children are returned to the pool as well.
+     *
+     * @param msgValue the released graph, can be 'null'.
+     */
+    public void release(MsgValue msgValue) {
+        if (msgValue == null) {
+            return;
+        }
+        List<MsgValue> children = msgValue.getChildren();
+        if (children != null) {
+            for (MsgValue child : children) {
+                release(child);
+            }
+            if (children instanceof ArrayList && lists.size() < maxSize) {
+                children.clear();
+                lists.addLast(children);
+            }
+        }
+        msgValue.clear();
+        if (msgValues.size() < maxSize) {
+            msgValues.addLast(msgValue);
+        }
+    }
+
+    /**
+     * @return Number of idle {@link MsgValue}s in the pool.
+     */
+    public int getIdleCount() {
+        return msgValues.size();
+    }
+
+    /**
+     * @return The {@link #maxSize} field value.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -45,6 +45,10 @@ public class NavigatorService implements Navigator {
         if (msgList == null) {
             return null;
         }
+        MsgField parent = getParentOfChildren(msgList);
+        if (parent != null) {
+            return (T) parent.findChildByName(name);
+        }
         for (Msg nextMsgField : msgList) {
             if (name.equals(nextMsgField.getName())) {
                 return (T) nextMsgField;
@@ -53,6 +57,23 @@ public class NavigatorService implements Navigator {
         return null;
     }
 
+    /**
+     * @param msgList a list of {@link Msg}s
+     * @return The {@link MsgField} which contains the msgList as its {@link MsgField#getChildren()} list,
+     * or 'null' if the msgList is not such list. Children of the returned {@link MsgField} can be found
+     * by its lookup tables.
+     */
+    protected MsgField getParentOfChildren(List<? extends Msg> msgList) {
+        if (msgList.isEmpty() || !(msgList.get(0) instanceof MsgField)) {
+            return null;
+        }
+        MsgField parent = ((MsgField) msgList.get(0)).getParent();
+        if (parent != null && parent.getChildren() == msgList) {
+            return parent;
+        }
+        return null;
+    }
+
     @Override
     public MsgField getChildOrThrowException(String childName, MsgField currentMsgField) {
         List<MsgField> msgFields = currentMsgField.getChildren();
@@ -232,6 +253,10 @@ public class NavigatorService implements Navigator {
         if (msgList == null) {
             return null;
         }
+        MsgField parent = getParentOfChildren(msgList);
+        if (parent != null) {
+            return (T) parent.findChildByFieldNum(fieldNum);
+        }
         for (Msg nextMsgField : msgList) {
             if (fieldNum.equals(nextMsgField.getFieldNum())) {
                 return (T) nextMsgField;
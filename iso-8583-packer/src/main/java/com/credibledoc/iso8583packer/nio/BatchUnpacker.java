@@ -0,0 +1,299 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Unpacks many length-prefixed messages in parallel, for example captured traffic files for regression analysis.
+ * Frames are extracted by the {@link FrameCodec} and unpacked in a {@link ForkJoinPool} against the shared
+ * {@link MessagePlan}. The results are delivered to the {@link MessageListener} in the same order as
+ * the frames follow in the source, in the calling thread.
+ * <p>
+ * At most {@link #maxInFlight} frames are unpacked concurrently, so memory usage does not depend on the source size.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     MessagePlan messagePlan = PlanService.getInstance().compile(isoMsgField);
+ *     BatchUnpacker batchUnpacker = new BatchUnpacker(messagePlan,
+ *         new FrameCodec(BinaryLengthPacker.getInstance(2), 8192), ForkJoinPool.commonPool(), 1024);
+ *     try (FileChannel channel = FileChannel.open(capturePath)) {
+ *         long count = batchUnpacker.unpack(channel, (index, frame, msgValue) -&gt; ...);
+ *     }
+ * </pre>
+ * The instance is stateless and can be shared between threads.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BatchUnpacker {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The compiled definition of messages. It is shared by all unpacking tasks and should not be changed.
+     */
+    private final MessagePlan messagePlan;
+
+    /**
+     * Extracts frames from the source bytes.
+     */
+    private final FrameCodec frameCodec;
+
+    /**
+     * Unpacks the frames. The pool is not shut down by this instance.
+     */
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * Maximal number of frames submitted to the {@link #forkJoinPool} and not delivered
+     * to the {@link MessageListener} yet.
+     */
+    private final int maxInFlight;
+
+    /**
+     * @param messagePlan  see the {@link #messagePlan} field description
+     * @param frameCodec   see the {@link #frameCodec} field description
+     * @param forkJoinPool see the {@link #forkJoinPool} field description
+     * @param maxInFlight  see the {@link #maxInFlight} field description
+     */
+    public BatchUnpacker(MessagePlan messagePlan, FrameCodec frameCodec, ForkJoinPool forkJoinPool,
+                         int maxInFlight) {
+        if (messagePlan == null || frameCodec == null || forkJoinPool == null) {
+            throw new PackerRuntimeException("The messagePlan, frameCodec and forkJoinPool are mandatory.");
+        }
+        if (maxInFlight < 1) {
+            throw new PackerRuntimeException("The maxInFlight should be positive. Current value: " + maxInFlight);
+        }
+        this.messagePlan = messagePlan;
+        this.frameCodec = frameCodec;
+        this.forkJoinPool = forkJoinPool;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Unpack all frames from the buffer. Heap buffers are decoded directly from their arrays, other buffers,
+     * for example buffers created by the {@link java.nio.channels.FileChannel#map} method, are copied to a chunk
+     * first. In both cases every frame is copied to its own array by the {@link FrameCodec}, because the frame
+     * is unpacked in another thread.
+     *
+     * @param buffer   concatenated length-prefixed frames in the read mode. After the call the buffer has
+     *                 no remaining bytes.
+     * @param listener receives unpacked messages in the order of the frames
+     * @return Number of unpacked frames.
+     */
+    public long unpack(ByteBuffer buffer, MessageListener listener) {
+        Batch batch = new Batch(listener);
+        try {
+            int remaining;
+            if (buffer.hasArray()) {
+                frameCodec.decode(buffer, batch);
+                remaining = buffer.remaining();
+            } else {
+                remaining = unpackChunks(target -> copy(buffer, target), batch);
+            }
+            batch.finish(remaining);
+        } catch (IOException e) {
+            throw new PackerRuntimeException("Unexpected exception from a buffer copying.", e);
+        } finally {
+            batch.cancel();
+        }
+        return batch.count;
+    }
+
+    /**
+     * Read the channel to its end and unpack all frames from it.
+     *
+     * @param channel  concatenated length-prefixed frames, for example a {@link java.nio.channels.FileChannel}.
+     *                 The channel is not closed by this method.
+     * @param listener receives unpacked messages in the order of the frames
+     * @return Number of unpacked frames.
+     * @throws IOException in case of the channel reading problem
+     */
+    public long unpack(ReadableByteChannel channel, MessageListener listener) throws IOException {
+        Batch batch = new Batch(listener);
+        try {
+            batch.finish(unpackChunks(channel::read, batch));
+        } finally {
+            batch.cancel();
+        }
+        return batch.count;
+    }
+
+    /**
+     * @return Number of bytes of an incomplete frame at the end of the source.
+     */
+    private int unpackChunks(ChunkReader chunkReader, Batch batch) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(DEFAULT_CHUNK_SIZE);
+        while (chunkReader.read(chunk) >= 0) {
+            chunk.flip();
+            frameCodec.decode(chunk, batch);
+            chunk.compact();
+            if (!chunk.hasRemaining()) {
+                // a frame greater than the chunk
+                ByteBuffer greater = ByteBuffer.allocate(chunk.capacity() * 2);
+                chunk.flip();
+                greater.put(chunk);
+                chunk = greater;
+            }
+        }
+        return chunk.position();
+    }
+
+    private static int copy(ByteBuffer source, ByteBuffer target) {
+        if (!source.hasRemaining()) {
+            return -1;
+        }
+        int length = Math.min(source.remaining(), target.remaining());
+        ByteBuffer slice = source.duplicate();
+        slice.limit(slice.position() + length);
+        target.put(slice);
+        source.position(source.position() + length);
+        return length;
+    }
+
+    /**
+     * @return The {@link #messagePlan} field value.
+     */
+    public MessagePlan getMessagePlan() {
+        return messagePlan;
+    }
+
+    /**
+     * @return The {@link #maxInFlight} field value.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Receives unpacked messages from the {@link #unpack(ByteBuffer, MessageListener)} and
+     * {@link #unpack(ReadableByteChannel, MessageListener)} methods in the calling thread.
+     */
+    public interface MessageListener {
+        /**
+         * @param index    zero-based index of the frame in the source
+         * @param frame    the message bytes without the length prefix
+         * @param msgValue the unpacked message
+         */
+        void onMessage(long index, byte[] frame, MsgValue msgValue);
+
+        /**
+         * Called when a frame cannot be unpacked. The default implementation throws the exception, so the
+         * unpacking is stopped.
+         *
+         * @param index     zero-based index of the frame in the source
+         * @param frame     the message bytes without the length prefix
+         * @param exception the cause
+         */
+        default void onError(long index, byte[] frame, RuntimeException exception) {
+            throw exception;
+        }
+    }
+
+    private interface ChunkReader {
+        int read(ByteBuffer target) throws IOException;
+    }
+
+    /**
+     * The state of a single {@link #unpack(ByteBuffer, MessageListener)} call. Submitted tasks are kept
+     * in the order of frames.
+     */
+    private class Batch implements FrameCodec.FrameListener {
+        private final MessageListener listener;
+        private final ArrayDeque<UnpackTask> tasks = new ArrayDeque<>();
+        private long count;
+
+        private Batch(MessageListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onFrame(byte[] frame) {
+            drain(maxInFlight - 1);
+            UnpackTask task = new UnpackTask(count++, frame);
+            tasks.addLast(task);
+            forkJoinPool.execute(task);
+        }
+
+        /**
+         * Deliver the oldest results until the number of tasks is not greater than the limit.
+         */
+        private void drain(int limit) {
+            while (tasks.size() > limit) {
+                UnpackTask task = tasks.pollFirst();
+                task.quietlyJoin();
+                if (task.exception != null) {
+                    listener.onError(task.index, task.frame, task.exception);
+                } else {
+                    listener.onMessage(task.index, task.frame, task.msgValue);
+                }
+            }
+        }
+
+        /**
+         * Deliver all results and check the end of the source.
+         *
+         * @param remaining number of bytes of an incomplete frame at the end of the source
+         */
+        private void finish(int remaining) {
+            drain(0);
+            if (remaining > 0) {
+                throw new PackerRuntimeException("The source ends with an incomplete frame, remaining bytes: " +
+                    remaining + ". Number of unpacked frames: " + count + ".");
+            }
+        }
+
+        private void cancel() {
+            for (UnpackTask task : tasks) {
+                task.cancel(false);
+            }
+            tasks.clear();
+        }
+    }
+
+    /**
+     * Unpacks a single frame. Exceptions are stored for the {@link MessageListener#onError(long, byte[],
+     * RuntimeException)} method.
+     */
+    @SuppressWarnings("serial")
+    private class UnpackTask extends ForkJoinTask<MsgValue> {
+        private final long index;
+        private final byte[] frame;
+        private MsgValue msgValue;
+        private RuntimeException exception;
+
+        private UnpackTask(long index, byte[] frame) {
+            this.index = index;
+            this.frame = frame;
+        }
+
+        @Override
+        public MsgValue getRawResult() {
+            return msgValue;
+        }
+
+        @Override
+        protected void setRawResult(MsgValue value) {
+            msgValue = value;
+        }
+
+        @Override
+        protected boolean exec() {
+            try {
+                ValueHolder valueHolder = ValueHolder.newInstance(messagePlan);
+                msgValue = valueHolder.unpack(frame);
+            } catch (RuntimeException e) {
+                exception = e;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of heap {@link ByteBuffer}s with the same capacity. Buffers are reused by connections of the
+ * {@link NioFrameServer}, so a new connection does not allocate a new read buffer.
+ * <p>
+ * The instance is thread-safe.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BufferPool {
+
+    /**
+     * Capacity of all buffers.
+     */
+    private final int bufferCapacity;
+
+    /**
+     * Maximal number of idle buffers stored in the {@link #buffers}. Other released buffers are left to the garbage
+     * collector.
+     */
+    private final int maxIdleBuffers;
+
+    /**
+     * Idle buffers.
+     */
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of buffers in the {@link #buffers} queue, the {@link Queue#size()} method is not constant-time.
+     */
+    private final AtomicInteger idleBuffers = new AtomicInteger();
+
+    /**
+     * @param bufferCapacity see the {@link #bufferCapacity} field description
+     * @param maxIdleBuffers see the {@link #maxIdleBuffers} field description
+     */
+    public BufferPool(int bufferCapacity, int maxIdleBuffers) {
+        if (bufferCapacity < 1) {
+            throw new PackerRuntimeException("The bufferCapacity should be positive. Current value: " +
+                bufferCapacity);
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.maxIdleBuffers = maxIdleBuffers;
+    }
+
+    /**
+     * @return A cleared buffer from the pool or a new buffer if the pool is empty.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(bufferCapacity);
+        }
+        idleBuffers.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return the buffer to the pool. The buffer should not be used after this call.
+     *
+     * @param buffer a buffer obtained from the {@link #acquire()} method
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferCapacity) {
+            return;
+        }
+        if (idleBuffers.incrementAndGet() > maxIdleBuffers) {
+            idleBuffers.decrementAndGet();
+            return;
+        }
+        buffers.offer(buffer);
+    }
+
+    /**
+     * @return Number of idle buffers in the pool.
+     */
+    public int getIdleBuffers() {
+        return idleBuffers.get();
+    }
+
+    /**
+     * @return The {@link #bufferCapacity} field value.
+     */
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+}
@@ -0,0 +1,122 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits a stream of bytes to length-prefixed frames and adds length prefixes to outgoing messages.
+ * The prefix is packed and unpacked by a {@link LengthPacker}, for example
+ * <pre>
+ *     new FrameCodec(BinaryLengthPacker.getInstance(2), 8192);
+ *     new FrameCodec(AsciiLengthPacker.getInstance(4), 8192);
+ * </pre>
+ * The prefix contains the message length without the prefix itself.
+ * <p>
+ * The instance is stateless and can be shared between connections and threads.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FrameCodec {
+
+    /**
+     * Packs and unpacks the frame length prefix.
+     */
+    private final LengthPacker lengthPacker;
+
+    /**
+     * Maximal allowed message length without the prefix. Frames with greater lengths are considered as a broken
+     * stream.
+     */
+    private final int maxFrameLength;
+
+    /**
+     * @param lengthPacker   see the {@link #lengthPacker} field description
+     * @param maxFrameLength see the {@link #maxFrameLength} field description
+     */
+    public FrameCodec(LengthPacker lengthPacker, int maxFrameLength) {
+        if (lengthPacker == null) {
+            throw new PackerRuntimeException("The lengthPacker is mandatory.");
+        }
+        if (maxFrameLength < 1) {
+            throw new PackerRuntimeException("The maxFrameLength should be positive. Current value: " +
+                maxFrameLength);
+        }
+        this.lengthPacker = lengthPacker;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * Extract all complete frames from the buffer. An incomplete frame at the end of the buffer stays in the buffer.
+     *
+     * @param buffer   a heap buffer with {@link ByteBuffer#array()}, it is in the read mode, for example after
+     *                 {@link ByteBuffer#flip()}. After the call the buffer position is after the last complete frame.
+     * @param listener receives the frames without their prefixes, the frames are new arrays
+     * @return Number of extracted frames.
+     */
+    public int decode(ByteBuffer buffer, FrameListener listener) {
+        byte[] array = buffer.array();
+        int frames = 0;
+        while (buffer.hasRemaining()) {
+            int offset = buffer.arrayOffset() + buffer.position();
+            int lenLength = lengthPacker.calculateLenLength(array, offset);
+            if (buffer.remaining() < lenLength) {
+                break;
+            }
+            int frameLength = lengthPacker.unpack(array, offset);
+            if (frameLength < 0 || frameLength > maxFrameLength) {
+                throw new PackerRuntimeException("Frame length '" + frameLength + "' is out of range from 0 to " +
+                    maxFrameLength + ". The stream cannot be decoded.");
+            }
+            if (buffer.remaining() < lenLength + frameLength) {
+                break;
+            }
+            byte[] frame = new byte[frameLength];
+            System.arraycopy(array, offset + lenLength, frame, 0, frameLength);
+            buffer.position(buffer.position() + lenLength + frameLength);
+            frames++;
+            listener.onFrame(frame);
+        }
+        return frames;
+    }
+
+    /**
+     * @param message the message without the length prefix
+     * @return A new buffer in the read mode with the length prefix and the message.
+     */
+    public ByteBuffer encode(byte[] message) {
+        if (message.length > maxFrameLength) {
+            throw new PackerRuntimeException("Message length '" + message.length +
+                "' is greater than the maxFrameLength '" + maxFrameLength + "'.");
+        }
+        byte[] prefix = lengthPacker.pack(message.length);
+        ByteBuffer buffer = ByteBuffer.allocate(prefix.length + message.length);
+        buffer.put(prefix).put(message).flip();
+        return buffer;
+    }
+
+    /**
+     * @return The {@link #lengthPacker} field value.
+     */
+    public LengthPacker getLengthPacker() {
+        return lengthPacker;
+    }
+
+    /**
+     * @return The {@link #maxFrameLength} field value.
+     */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    /**
+     * Receives frames from the {@link #decode(ByteBuffer, FrameListener)} method.
+     */
+    public interface FrameListener {
+        /**
+         * @param frame a message without the length prefix
+         */
+        void onFrame(byte[] frame);
+    }
+}
@@ -0,0 +1,25 @@
+package com.credibledoc.iso8583packer.nio;
+
+/**
+ * Processes incoming frames in worker threads of the {@link NioFrameServer}, for example
+ * <pre>
+ *     frame -&gt; {
+ *         ValueHolder valueHolder = ValueHolder.newInstance(frozenDefinition);
+ *         valueHolder.unpack(frame);
+ *         ...
+ *         return valueHolder.jumpToRoot().pack();
+ *     }
+ * </pre>
+ * The handler is called concurrently from many threads, so it should use a frozen definition,
+ * see the {@link com.credibledoc.iso8583packer.FieldBuilder#validateStructure(boolean)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface FrameHandler {
+
+    /**
+     * @param frame an incoming message without the length prefix
+     * @return The response without the length prefix or 'null' if no response should be sent.
+     */
+    byte[] handle(byte[] frame);
+}
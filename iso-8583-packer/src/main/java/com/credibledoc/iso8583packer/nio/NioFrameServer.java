@@ -0,0 +1,354 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A TCP server for length-prefixed messages, for example ISO 8583 messages with 2-byte binary or 4-byte ASCII
+ * length headers.
+ * <p>
+ * A single selector thread accepts connections and reads their bytes by non-blocking {@link SocketChannel}s
+ * to buffers from the {@link BufferPool}. The {@link FrameCodec} extracts frames and they are processed by the
+ * {@link FrameHandler} in worker threads of the {@link Executor}. A client can send many requests without waiting
+ * for responses (pipelining), responses are written in the same order as the requests were received.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     NioFrameServer server = new NioFrameServer(new InetSocketAddress("localhost", 0),
+ *         new FrameCodec(BinaryLengthPacker.getInstance(2), 8192), frameHandler, executorService,
+ *         new BufferPool(16384, 64), 1024).start();
+ *     ...
+ *     server.close();
+ * </pre>
+ *
+ * @author Kyrylo Semenko
+ */
+public class NioFrameServer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(NioFrameServer.class);
+
+    /**
+     * Extracts frames from incoming bytes and encodes responses.
+     */
+    private final FrameCodec frameCodec;
+
+    /**
+     * Processes frames in the {@link #workers}.
+     */
+    private final FrameHandler frameHandler;
+
+    /**
+     * Worker threads. The {@link Executor} is not shut down by the {@link #close()} method.
+     */
+    private final Executor workers;
+
+    /**
+     * Source of read buffers of connections.
+     */
+    private final BufferPool bufferPool;
+
+    /**
+     * Maximal number of frames of one connection waiting for their responses. Reading of the connection
+     * is suspended when the limit is reached.
+     */
+    private final int maxPipelinedFrames;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Connections with completed responses, filled by workers and processed by the selector thread.
+     */
+    private final Queue<Connection> completedConnections = new ConcurrentLinkedQueue<>();
+
+    private final Thread selectorThread;
+
+    private volatile boolean running;
+
+    /**
+     * Bind the server socket. Connections are accepted after the {@link #start()} method call.
+     *
+     * @param address            the local address, port 0 means an ephemeral port, see the {@link #getPort()} method
+     * @param frameCodec         see the {@link #frameCodec} field description
+     * @param frameHandler       see the {@link #frameHandler} field description
+     * @param workers            see the {@link #workers} field description
+     * @param bufferPool         see the {@link #bufferPool} field description
+     * @param maxPipelinedFrames see the {@link #maxPipelinedFrames} field description
+     */
+    public NioFrameServer(InetSocketAddress address, FrameCodec frameCodec, FrameHandler frameHandler,
+                          Executor workers, BufferPool bufferPool, int maxPipelinedFrames) {
+        this.frameCodec = frameCodec;
+        this.frameHandler = frameHandler;
+        this.workers = workers;
+        this.bufferPool = bufferPool;
+        this.maxPipelinedFrames = maxPipelinedFrames;
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(address);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new PackerRuntimeException("Cannot bind the server to the address " + address, e);
+        }
+        selectorThread = new Thread(this::run, NioFrameServer.class.getSimpleName() + "-" + getPort());
+        selectorThread.setDaemon(true);
+    }
+
+    /**
+     * Start the selector thread.
+     *
+     * @return This instance.
+     */
+    public NioFrameServer start() {
+        running = true;
+        selectorThread.start();
+        return this;
+    }
+
+    /**
+     * @return The local port of the server socket.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stop the selector thread and close the server socket and all connections.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            if (selectorThread.isAlive()) {
+                selectorThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                ((Connection) key.attachment()).close();
+            }
+        }
+        closeQuietly(serverChannel);
+        closeQuietly(selector);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Connection completed;
+                while ((completed = completedConnections.poll()) != null) {
+                    writeCompletedResponses(completed);
+                }
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    processKey(key);
+                }
+            } catch (Exception e) {
+                logger.error("Selector loop error", e);
+            }
+        }
+    }
+
+    private void writeCompletedResponses(Connection connection) {
+        try {
+            connection.writeCompletedResponses();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Connection {} will be closed.", connection.socketChannel, e);
+            connection.close();
+        }
+    }
+
+    private void processKey(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            SocketChannel socketChannel = serverChannel.accept();
+            if (socketChannel != null) {
+                socketChannel.configureBlocking(false);
+                socketChannel.socket().setTcpNoDelay(true);
+                SelectionKey connectionKey = socketChannel.register(selector, SelectionKey.OP_READ);
+                connectionKey.attach(new Connection(connectionKey, socketChannel));
+            }
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Connection {} will be closed.", connection.socketChannel, e);
+            connection.close();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Cannot close {}", closeable, e);
+        }
+    }
+
+    /**
+     * State of a client connection. All methods except the {@link ResponseTask#done()} are called
+     * by the selector thread only.
+     */
+    private class Connection {
+        private final SelectionKey key;
+        private final SocketChannel socketChannel;
+        private final ArrayDeque<ResponseTask> pendingResponses = new ArrayDeque<>();
+        private final ArrayDeque<ByteBuffer> outgoing = new ArrayDeque<>();
+        private ByteBuffer readBuffer;
+
+        /**
+         * The client has closed its output (half-close). The connection is closed after all
+         * {@link #pendingResponses} have been written.
+         */
+        private boolean inputClosed;
+
+        private Connection(SelectionKey key, SocketChannel socketChannel) {
+            this.key = key;
+            this.socketChannel = socketChannel;
+            this.readBuffer = bufferPool.acquire();
+        }
+
+        private void read() throws IOException {
+            int read = socketChannel.read(readBuffer);
+            if (read < 0) {
+                inputClosed = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                closeIfFlushed();
+                return;
+            }
+            readBuffer.flip();
+            frameCodec.decode(readBuffer, this::submit);
+            readBuffer.compact();
+            if (!readBuffer.hasRemaining()) {
+                // A frame is greater than the pooled buffer, the bigger buffer will not be returned to the pool
+                ByteBuffer bigger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                bigger.put(readBuffer);
+                bufferPool.release(readBuffer);
+                readBuffer = bigger;
+            }
+            if (pendingResponses.size() >= maxPipelinedFrames) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+
+        private void submit(byte[] frame) {
+            ResponseTask responseTask = new ResponseTask(this, frame);
+            pendingResponses.add(responseTask);
+            workers.execute(responseTask);
+        }
+
+        private void writeCompletedResponses() throws IOException {
+            if (!key.isValid()) {
+                return;
+            }
+            while (!pendingResponses.isEmpty() && pendingResponses.peek().isDone()) {
+                byte[] response;
+                try {
+                    response = pendingResponses.poll().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    logger.error("Frame handler failed, connection {} will be closed.", socketChannel, e.getCause());
+                    close();
+                    return;
+                }
+                if (response != null) {
+                    outgoing.add(frameCodec.encode(response));
+                }
+            }
+            if (!inputClosed && pendingResponses.size() < maxPipelinedFrames) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            }
+            write();
+        }
+
+        private void write() throws IOException {
+            while (!outgoing.isEmpty()) {
+                ByteBuffer buffer = outgoing.peek();
+                socketChannel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                outgoing.poll();
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            closeIfFlushed();
+        }
+
+        /**
+         * Close the half-closed connection when its last response has been written.
+         */
+        private void closeIfFlushed() {
+            if (inputClosed && pendingResponses.isEmpty() && outgoing.isEmpty()) {
+                close();
+            }
+        }
+
+        private void close() {
+            key.cancel();
+            closeQuietly(socketChannel);
+            for (ResponseTask responseTask : pendingResponses) {
+                responseTask.cancel(false);
+            }
+            pendingResponses.clear();
+            outgoing.clear();
+            if (readBuffer != null) {
+                bufferPool.release(readBuffer);
+                readBuffer = null;
+            }
+        }
+    }
+
+    /**
+     * Calls the {@link #frameHandler} and notifies the selector thread about the result.
+     */
+    private class ResponseTask extends FutureTask<byte[]> {
+        private final Connection connection;
+
+        private ResponseTask(Connection connection, byte[] frame) {
+            super(() -> frameHandler.handle(frame));
+            this.connection = connection;
+        }
+
+        @Override
+        protected void done() {
+            completedConnections.offer(connection);
+            selector.wakeup();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.credibledoc.iso8583packer.pan;
 
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.masking.Masker;
 
+import java.io.IOException;
+
 /**
  * See {@link #maskHex(String)} and {@link #maskValue(Object)} methods.
  * 
@@ -35,6 +38,13 @@ public class PanMasker implements Masker {
     
     private static final String FILLER = "*";
 
+    private static final char FILLER_CHAR = '*';
+
+    /**
+     * Number of characters which are not masked.
+     */
+    private static final int VISIBLE_CHARS = 4;
+
     /**
      * @return For example 1234***************
      */
@@ -60,10 +70,43 @@ public class PanMasker implements Masker {
         return mask((String) value);
     }
 
+    /**
+     * Append the first two bytes as hexadecimal digits and fillers instead of other digits, for example 1234********.
+     */
+    @Override
+    public void maskHex(byte[] bytes, int offset, int length, Appendable target) throws IOException {
+        int visibleBytes = Math.min(length, VISIBLE_CHARS / 2);
+        HexService.appendHex(bytes, offset, visibleBytes, target);
+        appendFiller(target, (length - visibleBytes) * 2);
+    }
+
+    /**
+     * Append the first four characters of the value and fillers instead of other characters, for example 1234********.
+     */
+    @Override
+    public void maskValue(Object value, Appendable target) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!(value instanceof String)) {
+            throw new PackerRuntimeException("Expected String but found " + value.getClass().getSimpleName());
+        }
+        String string = (String) value;
+        int visibleChars = Math.min(string.length(), VISIBLE_CHARS);
+        target.append(string, 0, visibleChars);
+        appendFiller(target, string.length() - visibleChars);
+    }
+
+    private static void appendFiller(Appendable target, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            target.append(FILLER_CHAR);
+        }
+    }
+
     private String mask(String hex) {
         StringBuilder stringBuilder = new StringBuilder(hex.length());
         for (int i = 0; i < hex.length(); i++) {
-            if (i < 4) {
+            if (i < VISIBLE_CHARS) {
                 stringBuilder.append(hex.charAt(i));
             } else {
                 stringBuilder.append(FILLER);
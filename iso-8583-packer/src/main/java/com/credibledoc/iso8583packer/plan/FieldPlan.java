@@ -0,0 +1,372 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.tag.TagPacker;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled form of a single {@link MsgField}. All structural facts, which the
+ * {@link com.credibledoc.iso8583packer.ValueHolder} derives from the {@link MsgField} graph for every packed
+ * or unpacked field, are resolved here once, for example packers inherited from a parent, field kinds,
+ * fixed lengths and child index tables.
+ * <p>
+ * Instances are created by the {@link PlanService#compile(MsgField)} method and they are not changed after
+ * the compilation.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FieldPlan {
+
+    /**
+     * The compiled definition.
+     */
+    private final MsgField msgField;
+
+    /**
+     * The {@link MsgField#getType()} value.
+     */
+    private final MsgFieldType type;
+
+    /**
+     * The parent plan or 'null' for the root.
+     */
+    private final FieldPlan parent;
+
+    /**
+     * Order of the plan in the {@link MessagePlan#getNode(int)} array, or -1 for plans of undefined fields,
+     * see the {@link PlanService#createUndefined(FieldPlan, Object, String)} method.
+     */
+    private final int index;
+
+    /**
+     * 'true' for {@link MsgFieldType#getTaggedTypes()}.
+     */
+    private final boolean tagged;
+
+    /**
+     * 'true' for {@link MsgFieldType#getLengthTypes()}.
+     */
+    private final boolean lengthType;
+
+    /**
+     * 'true' for {@link MsgFieldType#getLengthFirstTypes()}.
+     */
+    private final boolean lengthFirst;
+
+    /**
+     * 'true' for the {@link MsgFieldType#LEN_TAG_VAL} type, where the length contains the tag length too.
+     */
+    private final boolean lengthPrecedesTag;
+
+    /**
+     * 'true' if the {@link MsgField#getChildren()} is 'null'.
+     */
+    private final boolean leaf;
+
+    /**
+     * The {@link MsgField#getTagPacker()} or the parent {@link MsgField#getChildrenTagPacker()}.
+     */
+    private final TagPacker tagPacker;
+
+    /**
+     * The parent {@link MsgField#getChildrenLengthPacker()} or the {@link MsgField#getLengthPacker()}.
+     */
+    private final LengthPacker lengthPacker;
+
+    /**
+     * The {@link MsgField#getBodyPacker()} or the parent {@link MsgField#getChildrenBodyPacker()}.
+     */
+    private final BodyPacker bodyPacker;
+
+    /**
+     * The {@link MsgField#getBitMapPacker()} value.
+     */
+    private final BitmapPacker bitmapPacker;
+
+    /**
+     * The {@link MsgField#getLen()} value. For other than {@link MsgFieldType#VAL} fields without the
+     * {@link MsgField#getLen()} it is the parent {@link MsgField#getChildrenBodyLen()}. 'null' if not defined.
+     */
+    private final Integer bodyLen;
+
+    /**
+     * Packs the length of the parent field, used for {@link MsgFieldType#VAL} fields without the
+     * {@link MsgField#getLen()} value. It is the parent {@link MsgField#getLengthPacker()} or the grandparent
+     * {@link MsgField#getChildrenLengthPacker()}.
+     */
+    private final LengthPacker parentLengthPacker;
+
+    /**
+     * The {@link TagPacker#getPackedLength()} of the {@link #tagPacker}, or 0.
+     */
+    private final int tagPackedLength;
+
+    /**
+     * Sum of children {@link MsgField#getLen()} values of the {@link MsgFieldType#MSG} field with
+     * the {@link MsgFieldType#VAL} children only, else -1.
+     */
+    private int childrenLenSum = -1;
+
+    /**
+     * Compiled {@link MsgField#getChildren()}.
+     */
+    private FieldPlan[] children = new FieldPlan[0];
+
+    /**
+     * Children of the {@link MsgFieldType#BIT_SET} field indexed by {@link MsgField#getFieldNum()}.
+     */
+    private FieldPlan[] childrenByFieldNum = new FieldPlan[0];
+
+    /**
+     * First children with a {@link MsgField#getName()}.
+     */
+    private Map<String, FieldPlan> childrenByName = Collections.emptyMap();
+
+    /**
+     * First children with a {@link MsgField#getTag()}.
+     */
+    private Map<Object, FieldPlan> childrenByTag = Collections.emptyMap();
+
+    FieldPlan(MsgField msgField, FieldPlan parent, int index, TagPacker tagPacker, LengthPacker lengthPacker,
+              BodyPacker bodyPacker, Integer bodyLen, LengthPacker parentLengthPacker) {
+        this.msgField = msgField;
+        this.type = msgField.getType();
+        this.parent = parent;
+        this.index = index;
+        this.tagged = MsgFieldType.isTaggedType(msgField);
+        this.lengthType = MsgFieldType.isLengthType(msgField);
+        this.lengthFirst = MsgFieldType.getLengthFirstTypes().contains(type);
+        this.lengthPrecedesTag = type == MsgFieldType.LEN_TAG_VAL;
+        this.leaf = msgField.getChildren() == null;
+        this.tagPacker = tagPacker;
+        this.tagPackedLength = tagPacker == null ? 0 : tagPacker.getPackedLength();
+        this.lengthPacker = lengthPacker;
+        this.bodyPacker = bodyPacker;
+        this.bitmapPacker = msgField.getBitMapPacker();
+        this.bodyLen = bodyLen;
+        this.parentLengthPacker = parentLengthPacker;
+    }
+
+    /**
+     * Set the compiled children and their index tables, called during compilation only.
+     *
+     * @param childPlans compiled {@link MsgField#getChildren()}
+     */
+    void setChildren(FieldPlan[] childPlans) {
+        this.children = childPlans;
+        Map<String, FieldPlan> byName = new HashMap<>();
+        Map<Object, FieldPlan> byTag = new HashMap<>();
+        int maxFieldNum = 0;
+        boolean allVal = true;
+        int lenSum = 0;
+        for (FieldPlan child : childPlans) {
+            MsgField childField = child.getMsgField();
+            if (childField.getName() != null && !byName.containsKey(childField.getName())) {
+                byName.put(childField.getName(), child);
+            }
+            if (childField.getTag() != null && !byTag.containsKey(childField.getTag())) {
+                byTag.put(childField.getTag(), child);
+            }
+            if (childField.getFieldNum() != null) {
+                maxFieldNum = Math.max(maxFieldNum, childField.getFieldNum());
+            }
+            if (child.getType() != MsgFieldType.VAL || childField.getLen() == null) {
+                allVal = false;
+            } else {
+                lenSum += childField.getLen();
+            }
+        }
+        this.childrenByName = byName;
+        this.childrenByTag = byTag;
+        if (type == MsgFieldType.BIT_SET) {
+            FieldPlan[] byFieldNum = new FieldPlan[maxFieldNum + 1];
+            for (FieldPlan child : childPlans) {
+                Integer fieldNum = child.getMsgField().getFieldNum();
+                if (fieldNum != null && byFieldNum[fieldNum] == null) {
+                    byFieldNum[fieldNum] = child;
+                }
+            }
+            this.childrenByFieldNum = byFieldNum;
+        }
+        if (type == MsgFieldType.MSG && allVal) {
+            this.childrenLenSum = lenSum;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldPlan{" +
+            "index=" + index +
+            ", name=" + msgField.getName() +
+            ", type=" + type +
+            ", childrenSize=" + children.length +
+            '}';
+    }
+
+    /**
+     * @param name the {@link MsgField#getName()} of a child
+     * @return The first child with the name or 'null'.
+     */
+    public FieldPlan findChildByName(String name) {
+        return childrenByName.get(name);
+    }
+
+    /**
+     * @param tag the {@link MsgField#getTag()} of a child
+     * @return The first child with the tag or 'null'.
+     */
+    public FieldPlan findChildByTag(Object tag) {
+        return childrenByTag.get(tag);
+    }
+
+    /**
+     * @param fieldNum the {@link MsgField#getFieldNum()} of a child of the {@link MsgFieldType#BIT_SET} field
+     * @return The first child with the fieldNum or 'null'.
+     */
+    public FieldPlan findChildByFieldNum(int fieldNum) {
+        if (fieldNum < 0 || fieldNum >= childrenByFieldNum.length) {
+            return null;
+        }
+        return childrenByFieldNum[fieldNum];
+    }
+
+    /**
+     * @return The maximal {@link MsgField#getFieldNum()} of children of the {@link MsgFieldType#BIT_SET} field.
+     */
+    public int getMaxFieldNum() {
+        return childrenByFieldNum.length - 1;
+    }
+
+    /**
+     * @return The {@link #msgField} field value.
+     */
+    public MsgField getMsgField() {
+        return msgField;
+    }
+
+    /**
+     * @return The {@link #type} field value.
+     */
+    public MsgFieldType getType() {
+        return type;
+    }
+
+    /**
+     * @return The {@link #parent} field value.
+     */
+    public FieldPlan getParent() {
+        return parent;
+    }
+
+    /**
+     * @return The {@link #index} field value.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The {@link #tagged} field value.
+     */
+    public boolean isTagged() {
+        return tagged;
+    }
+
+    /**
+     * @return The {@link #lengthType} field value.
+     */
+    public boolean isLengthType() {
+        return lengthType;
+    }
+
+    /**
+     * @return The {@link #lengthFirst} field value.
+     */
+    public boolean isLengthFirst() {
+        return lengthFirst;
+    }
+
+    /**
+     * @return The {@link #lengthPrecedesTag} field value.
+     */
+    public boolean isLengthPrecedesTag() {
+        return lengthPrecedesTag;
+    }
+
+    /**
+     * @return The {@link #leaf} field value.
+     */
+    public boolean isLeaf() {
+        return leaf;
+    }
+
+    /**
+     * @return The {@link #tagPacker} field value.
+     */
+    public TagPacker getTagPacker() {
+        return tagPacker;
+    }
+
+    /**
+     * @return The {@link #tagPackedLength} field value.
+     */
+    public int getTagPackedLength() {
+        return tagPackedLength;
+    }
+
+    /**
+     * @return The {@link #lengthPacker} field value.
+     */
+    public LengthPacker getLengthPacker() {
+        return lengthPacker;
+    }
+
+    /**
+     * @return The {@link #bodyPacker} field value.
+     */
+    public BodyPacker getBodyPacker() {
+        return bodyPacker;
+    }
+
+    /**
+     * @return The {@link #bitmapPacker} field value.
+     */
+    public BitmapPacker getBitmapPacker() {
+        return bitmapPacker;
+    }
+
+    /**
+     * @return The {@link #bodyLen} field value.
+     */
+    public Integer getBodyLen() {
+        return bodyLen;
+    }
+
+    /**
+     * @return The {@link #parentLengthPacker} field value.
+     */
+    public LengthPacker getParentLengthPacker() {
+        return parentLengthPacker;
+    }
+
+    /**
+     * @return The {@link #childrenLenSum} field value.
+     */
+    public int getChildrenLenSum() {
+        return childrenLenSum;
+    }
+
+    /**
+     * @return The {@link #children} field value. The returned array is shared, please do not modify it.
+     */
+    public FieldPlan[] getChildren() {
+        return children;
+    }
+}
@@ -0,0 +1,210 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A set of fields, which should be unpacked, other fields will be skipped by their length headers or fixed lengths,
+ * see the {@link com.credibledoc.iso8583packer.ValueHolder#unpack(byte[], FieldProjection)} method.
+ * <p>
+ * Fields can be selected by their field numbers, for example field numbers 2, 3, 4, 11 and 41 of ISO 8583
+ * messages, and by their absolute paths. Field numbers are searched in children of the {@link MsgFieldType#BIT_SET}
+ * fields nearest to the root. Selected fields are unpacked with all their subfields.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     FieldProjection projection = new FieldProjection()
+ *         .addFieldNums(2, 3, 4, 11, 41)
+ *         .addPath("MSG", "MTI");
+ *     valueHolder.unpack(bytes, projection);
+ * </pre>
+ * <p>
+ * The instance can be shared between threads when it is filled.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FieldProjection {
+
+    /**
+     * The {@link FieldPlan} is not selected and will be skipped.
+     */
+    public static final byte SKIP = 0;
+
+    /**
+     * The {@link FieldPlan} is a parent of a selected field. It will be unpacked, but its unselected children
+     * will be skipped.
+     */
+    public static final byte PASS = 1;
+
+    /**
+     * The {@link FieldPlan} is selected and will be unpacked with all its children.
+     */
+    public static final byte FULL = 2;
+
+    /**
+     * The selected {@link com.credibledoc.iso8583packer.message.MsgField#getFieldNum()}s.
+     */
+    private final Set<Integer> fieldNums = new LinkedHashSet<>();
+
+    /**
+     * The selected absolute paths of {@link com.credibledoc.iso8583packer.message.MsgField#getName()}s.
+     */
+    private final List<List<String>> paths = new ArrayList<>();
+
+    /**
+     * Compiled masks, see the {@link #compile(MessagePlan)} method.
+     */
+    private final Map<MessagePlan, byte[]> masks = Collections.synchronizedMap(new WeakHashMap<MessagePlan, byte[]>());
+
+    @Override
+    public String toString() {
+        return "FieldProjection{" +
+            "fieldNums=" + fieldNums +
+            ", paths=" + paths +
+            '}';
+    }
+
+    /**
+     * @param fieldNums the {@link com.credibledoc.iso8583packer.message.MsgField#getFieldNum()}s of fields
+     *                  to be unpacked
+     * @return The current instance.
+     */
+    public FieldProjection addFieldNums(int... fieldNums) {
+        for (int fieldNum : fieldNums) {
+            this.fieldNums.add(fieldNum);
+        }
+        masks.clear();
+        return this;
+    }
+
+    /**
+     * @param absolutePath the {@link com.credibledoc.iso8583packer.message.MsgField#getName()}s from the root
+     *                     to the field to be unpacked
+     * @return The current instance.
+     */
+    public FieldProjection addPath(String... absolutePath) {
+        if (absolutePath.length == 0) {
+            throw new PackerRuntimeException("Please define absolutePath as a path, for example 'ROOT', 'field1' ...");
+        }
+        paths.add(Arrays.asList(absolutePath));
+        masks.clear();
+        return this;
+    }
+
+    /**
+     * Create or return a cached mask with the {@link #SKIP}, {@link #PASS} or {@link #FULL} state
+     * of every {@link FieldPlan} of the messagePlan.
+     *
+     * @param messagePlan the compiled definition
+     * @return States indexed by the {@link FieldPlan#getIndex()}.
+     */
+    public byte[] compile(MessagePlan messagePlan) {
+        byte[] mask = masks.get(messagePlan);
+        if (mask == null) {
+            mask = createMask(messagePlan);
+            masks.put(messagePlan, mask);
+        }
+        return mask;
+    }
+
+    protected byte[] createMask(MessagePlan messagePlan) {
+        byte[] mask = new byte[messagePlan.size()];
+        if (!fieldNums.isEmpty()) {
+            for (FieldPlan bitSet : findNearestBitSets(messagePlan)) {
+                for (int fieldNum : fieldNums) {
+                    FieldPlan child = bitSet.findChildByFieldNum(fieldNum);
+                    if (child != null) {
+                        select(mask, child);
+                    }
+                }
+            }
+        }
+        for (List<String> path : paths) {
+            select(mask, findByPath(messagePlan, path));
+        }
+        mask[messagePlan.getRoot().getIndex()] = (byte) Math.max(PASS, mask[messagePlan.getRoot().getIndex()]);
+        for (int i = 0; i < mask.length; i++) {
+            if (mask[i] == PASS && hasValChildWithoutLen(messagePlan.getNode(i))) {
+                // The length of such child depends on lengths of its siblings, so the siblings cannot be skipped
+                mask[i] = FULL;
+            }
+        }
+        return mask;
+    }
+
+    protected void select(byte[] mask, FieldPlan fieldPlan) {
+        mask[fieldPlan.getIndex()] = FULL;
+        FieldPlan parent = fieldPlan.getParent();
+        while (parent != null && mask[parent.getIndex()] == SKIP) {
+            mask[parent.getIndex()] = PASS;
+            parent = parent.getParent();
+        }
+    }
+
+    protected List<FieldPlan> findNearestBitSets(MessagePlan messagePlan) {
+        List<FieldPlan> result = new ArrayList<>();
+        int minDepth = Integer.MAX_VALUE;
+        for (int i = 0; i < messagePlan.size(); i++) {
+            FieldPlan fieldPlan = messagePlan.getNode(i);
+            if (fieldPlan.getType() != MsgFieldType.BIT_SET) {
+                continue;
+            }
+            int depth = depth(fieldPlan);
+            if (depth < minDepth) {
+                result.clear();
+                minDepth = depth;
+            }
+            if (depth == minDepth) {
+                result.add(fieldPlan);
+            }
+        }
+        return result;
+    }
+
+    protected FieldPlan findByPath(MessagePlan messagePlan, List<String> path) {
+        FieldPlan fieldPlan = messagePlan.getRoot();
+        if (!path.get(0).equals(fieldPlan.getMsgField().getName())) {
+            throw new PackerRuntimeException("MsgField with name '" + path.get(0) + "' is not a root field. " +
+                "Please define the absolute path from the root field. " +
+                "Actual root field name: '" + fieldPlan.getMsgField().getName() + "'.");
+        }
+        for (int i = 1; i < path.size(); i++) {
+            fieldPlan = fieldPlan.findChildByName(path.get(i));
+            if (fieldPlan == null) {
+                throw new PackerRuntimeException("Cannot find MsgField with path '" + path + "'");
+            }
+        }
+        return fieldPlan;
+    }
+
+    private static boolean hasValChildWithoutLen(FieldPlan fieldPlan) {
+        if (!fieldPlan.isLengthType()) {
+            return false;
+        }
+        for (FieldPlan child : fieldPlan.getChildren()) {
+            if (child.getType() == MsgFieldType.VAL && child.getBodyLen() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int depth(FieldPlan fieldPlan) {
+        int depth = 0;
+        FieldPlan parent = fieldPlan.getParent();
+        while (parent != null) {
+            depth++;
+            parent = parent.getParent();
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,81 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.message.MsgField;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The compiled {@link MsgField} graph created by the {@link PlanService#compile(MsgField)} method.
+ * It contains the {@link FieldPlan} of every {@link MsgField} of the graph in a flat array ordered
+ * from the root in depth-first order.
+ * <p>
+ * The instance is not changed after compilation, so it can be shared between
+ * {@link com.credibledoc.iso8583packer.ValueHolder} instances.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MessagePlan {
+
+    /**
+     * The compiled root {@link MsgField}.
+     */
+    private final FieldPlan root;
+
+    /**
+     * All {@link FieldPlan}s, where the array index is the {@link FieldPlan#getIndex()} value.
+     */
+    private final FieldPlan[] nodes;
+
+    /**
+     * Contains {@link MsgField}s as keys and their compiled forms as values.
+     */
+    private final Map<MsgField, FieldPlan> plansByField;
+
+    MessagePlan(FieldPlan root, FieldPlan[] nodes) {
+        this.root = root;
+        this.nodes = nodes;
+        this.plansByField = new IdentityHashMap<>(nodes.length * 2);
+        for (FieldPlan node : nodes) {
+            plansByField.put(node.getMsgField(), node);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MessagePlan{" +
+            "root=" + root +
+            ", nodesSize=" + nodes.length +
+            '}';
+    }
+
+    /**
+     * @param msgField a field of the compiled graph
+     * @return The compiled form of the {@link MsgField} or 'null' if the field is not a part of the compiled graph.
+     */
+    public FieldPlan findPlan(MsgField msgField) {
+        return plansByField.get(msgField);
+    }
+
+    /**
+     * @return The {@link #root} field value.
+     */
+    public FieldPlan getRoot() {
+        return root;
+    }
+
+    /**
+     * @param index the {@link FieldPlan#getIndex()} value
+     * @return The {@link FieldPlan} from the {@link #nodes} array.
+     */
+    public FieldPlan getNode(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * @return The number of {@link #nodes}.
+     */
+    public int size() {
+        return nodes.length;
+    }
+}
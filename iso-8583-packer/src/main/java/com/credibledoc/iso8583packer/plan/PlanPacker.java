@@ -0,0 +1,330 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
+import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packs a {@link MsgValue} graph to bytes by the compiled {@link FieldPlan}s. The result is the same
+ * as the result of the {@link com.credibledoc.iso8583packer.ValueHolder#pack()} method, but
+ * packers and child definitions are taken from the {@link FieldPlan}s instead of searching them in the
+ * {@link MsgField} graph for every packed field.
+ * <p>
+ * Packing has two phases. The first phase computes sizes of all fields from leaves to the root and creates
+ * tag and length headers. The second phase writes headers and bodies to a single preallocated array at their
+ * final offsets, so the bytes of nested fields are not copied once per depth level.
+ * <p>
+ * The {@link #getIncrementalInstance()} packer copies unchanged fields unpacked in the zero-copy mode from their
+ * source bytes, see the {@link MsgValue#setRawSlice(byte[], int, int)} method. Only changed fields and their
+ * ancestors are packed again, including length headers and bitmaps of the ancestors.
+ *
+ * @author Kyrylo Semenko
+ */
+public class PlanPacker {
+
+    /**
+     * Singleton.
+     */
+    private static final PlanPacker instance = new PlanPacker(false);
+
+    /**
+     * Singleton of the {@link #incremental} packer.
+     */
+    private static final PlanPacker incrementalInstance = new PlanPacker(true);
+
+    /**
+     * If 'true', fields with {@link MsgValue#getRawLength()} are copied from their source bytes instead of packing.
+     */
+    private final boolean incremental;
+
+    protected PlanPacker(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * @return The {@link PlanPacker} singleton.
+     */
+    public static PlanPacker getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return The {@link PlanPacker} singleton, which copies unchanged fields from their source bytes,
+     * see the {@link #incremental} field description.
+     */
+    public static PlanPacker getIncrementalInstance() {
+        return incrementalInstance;
+    }
+
+    /**
+     * Pack the {@link MsgValue} and its children to a new byte array. Body bytes of packed nodes are views of
+     * the returned array, so the array should not be changed if the msgValue will be used later.
+     *
+     * @param msgValue  the source data
+     * @param fieldPlan the compiled definition of the msgValue
+     * @return Packed bytes.
+     */
+    public byte[] pack(MsgValue msgValue, FieldPlan fieldPlan) {
+        Sizes sizes = new Sizes();
+        int length = measure(msgValue, fieldPlan, sizes);
+        byte[] result = new byte[length];
+        sizes.position = 0;
+        write(msgValue, fieldPlan, result, 0, sizes, true);
+        return result;
+    }
+
+    /**
+     * Pack the {@link MsgValue} and its children to the buffer from its current position.
+     * The buffer position will be moved to the end of the packed bytes. Body bytes of nodes are not changed,
+     * because the buffer can be reused by the caller.
+     *
+     * @param msgValue  the source data
+     * @param fieldPlan the compiled definition of the msgValue
+     * @param buffer    the target buffer
+     * @return Number of written bytes.
+     */
+    public int pack(MsgValue msgValue, FieldPlan fieldPlan, ByteBuffer buffer) {
+        Sizes sizes = new Sizes();
+        int length = measure(msgValue, fieldPlan, sizes);
+        if (buffer.remaining() < length) {
+            throw new PackerRuntimeException("The buffer has not enough space for packing. " +
+                "Remaining: '" + buffer.remaining() + "', required: '" + length + "'.");
+        }
+        sizes.position = 0;
+        if (buffer.hasArray() && !buffer.isReadOnly()) {
+            write(msgValue, fieldPlan, buffer.array(), buffer.arrayOffset() + buffer.position(), sizes, false);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            write(msgValue, fieldPlan, bytes, 0, sizes, true);
+            buffer.put(bytes);
+        }
+        return length;
+    }
+
+    /**
+     * The first phase. Compute the packed length of the {@link MsgValue}, pack bitmaps, tag and length headers
+     * of nodes and store lengths of children of nodes to the {@link Sizes}.
+     *
+     * @param msgValue  the source data
+     * @param fieldPlan the compiled definition of the msgValue
+     * @param sizes     lengths of children of nodes in the depth-first order
+     * @return The packed length of the msgValue with its header.
+     */
+    protected int measure(MsgValue msgValue, FieldPlan fieldPlan, Sizes sizes) {
+        if (incremental && msgValue.getRawLength() >= 0) {
+            return msgValue.getRawLength();
+        }
+        List<MsgValue> children = msgValue.getChildren();
+        if (children == null) {
+            int bodyLength = msgValue.getBodyBytesLength();
+            if (bodyLength < 0) {
+                // Do not pack empty fields
+                return 0;
+            }
+            return Math.max(0, msgValue.getTagBytesLength()) + Math.max(0, msgValue.getLengthBytesLength()) +
+                bodyLength;
+        }
+        int slot = sizes.reserve();
+        int bitmapLength = 0;
+        if (fieldPlan.getType() == MsgFieldType.BIT_SET) {
+            bitmapLength = packBitmap(msgValue, fieldPlan);
+        }
+        int childrenLength = 0;
+        for (MsgValue child : children) {
+            childrenLength += measure(child, findChildPlan(fieldPlan, child), sizes);
+        }
+        sizes.values[slot] = childrenLength;
+        if (childrenLength == 0) {
+            return bitmapLength;
+        }
+        return bitmapLength + packHeader(msgValue, fieldPlan, childrenLength) + childrenLength;
+    }
+
+    /**
+     * The second phase. Write the {@link MsgValue} to the target.
+     *
+     * @param msgValue     the source data
+     * @param fieldPlan    the compiled definition of the msgValue
+     * @param target       the destination array
+     * @param offset       index of the msgValue in the target
+     * @param sizes        lengths computed in the {@link #measure(MsgValue, FieldPlan, Sizes)} method
+     * @param ownsTarget   'true' if the target is not shared with a caller, so children bytes of nodes can be
+     *                     referenced as slices of the target, see the {@link MsgValue#setBodySlice(byte[], int, int)}
+     *                     method. 'false' if the target is a caller's buffer, which can be reused, so body bytes
+     *                     of nodes are left unchanged
+     * @return The offset after the written bytes.
+     */
+    protected int write(MsgValue msgValue, FieldPlan fieldPlan, byte[] target, int offset, Sizes sizes,
+                        boolean ownsTarget) {
+        if (incremental && msgValue.getRawLength() >= 0) {
+            return offset + msgValue.copyRawBytes(target, offset);
+        }
+        List<MsgValue> children = msgValue.getChildren();
+        if (children == null) {
+            if (msgValue.getBodyBytesLength() < 0) {
+                return offset;
+            }
+            if (fieldPlan.isLengthPrecedesTag()) {
+                offset += msgValue.copyLengthBytes(target, offset);
+                offset += msgValue.copyTagBytes(target, offset);
+            } else {
+                offset += msgValue.copyTagBytes(target, offset);
+                offset += msgValue.copyLengthBytes(target, offset);
+            }
+            return offset + msgValue.copyBodyBytes(target, offset);
+        }
+        int childrenLength = sizes.values[sizes.position++];
+        if (fieldPlan.getType() == MsgFieldType.BIT_SET) {
+            offset += msgValue.copyBodyBytes(target, offset);
+        }
+        if (childrenLength == 0) {
+            return offset;
+        }
+        if (fieldPlan.isLengthPrecedesTag()) {
+            offset += copyIfAllowed(fieldPlan.isLengthType(), msgValue.getLengthBytes(), target, offset);
+            offset += copyIfAllowed(fieldPlan.isTagged(), msgValue.getTagBytes(), target, offset);
+        } else {
+            offset += copyIfAllowed(fieldPlan.isTagged(), msgValue.getTagBytes(), target, offset);
+            offset += copyIfAllowed(fieldPlan.isLengthType(), msgValue.getLengthBytes(), target, offset);
+        }
+        int childrenOffset = offset;
+        for (MsgValue child : children) {
+            offset = write(child, findChildPlan(fieldPlan, child), target, offset, sizes, ownsTarget);
+        }
+        if (ownsTarget) {
+            msgValue.setBodySlice(target, childrenOffset, childrenLength);
+        }
+        return offset;
+    }
+
+    protected FieldPlan findChildPlan(FieldPlan fieldPlan, MsgValue child) {
+        FieldPlan childPlan = fieldPlan.findChildByName(child.getName());
+        if (childPlan == null && child.getParent() != null &&
+                child.getParent().getUndefinedChildrenMap().get(child.getName()) == child) {
+            childPlan = createUndefinedPlan(fieldPlan, child);
+        }
+        if (childPlan == null) {
+            throw new PackerRuntimeException("Cannot find a definition of the MsgValue with path '" +
+                NavigatorService.getInstance().getPathRecursively(child) + "'.");
+        }
+        return childPlan;
+    }
+
+    /**
+     * Undefined TLV and LTV fields are not added to the definition, see the
+     * {@link PlanUnpacker#createUndefinedPlan(FieldPlan, Object, MsgValue)} method. Their {@link FieldPlan}s
+     * are created again from the original sibling, its name is the prefix of the clone name.
+     */
+    protected FieldPlan createUndefinedPlan(FieldPlan fieldPlan, MsgValue child) {
+        String name = child.getName();
+        int cloneIndex = name.lastIndexOf(MsgField.CLONE_INFIX);
+        FieldPlan original = cloneIndex < 0 ? null : fieldPlan.findChildByName(name.substring(0, cloneIndex));
+        if (original == null) {
+            return null;
+        }
+        return PlanService.getInstance().createUndefined(original, child.getTag(), name);
+    }
+
+    /**
+     * Create the bitmap from children of the {@link MsgFieldType#BIT_SET} field and set it to the msgValue.
+     *
+     * @return Length of the packed bitmap.
+     */
+    protected int packBitmap(MsgValue msgValue, FieldPlan fieldPlan) {
+        BitmapPacker bitmapPacker = fieldPlan.getBitmapPacker();
+        if (bitmapPacker == null) {
+            throw new PackerRuntimeException("The value of '" + BitmapPacker.class.getSimpleName() +
+                "' type is mandatory for '" + MsgFieldType.class.getSimpleName() +
+                "' '" + MsgFieldType.BIT_SET + "' type. " +
+                "Please call the defineHeaderBitmapPacker(...) method.");
+        }
+        Bitmap bitmap = new Bitmap();
+        int maxFieldNum = 0;
+        for (MsgValue nextMsgValue : msgValue.getChildren()) {
+            Integer fieldNum = nextMsgValue.getFieldNum();
+            boolean hasData = nextMsgValue.hasBodyValue() ||
+                (nextMsgValue.getChildren() != null && !nextMsgValue.getChildren().isEmpty());
+            if (fieldNum != null && hasData && fieldPlan.findChildByFieldNum(fieldNum) != null) {
+                maxFieldNum = Math.max(maxFieldNum, fieldNum);
+                bitmap.set(fieldNum);
+            }
+        }
+        if (maxFieldNum > 64) {
+            bitmap.set(1);
+        }
+        if (maxFieldNum > 128) {
+            bitmap.set(65);
+        }
+        msgValue.setBitmap(bitmap);
+        byte[] bytes = bitmapPacker.pack(bitmap);
+        msgValue.setBodyBytes(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Set tag and length bytes of a node.
+     *
+     * @return Length of the header.
+     */
+    protected int packHeader(MsgValue msgValue, FieldPlan fieldPlan, int childrenLength) {
+        int headerLength = 0;
+        if (fieldPlan.isTagged()) {
+            if (fieldPlan.getTagPacker() == null) {
+                throw new PackerRuntimeException("TagPacker not found for MsgField with path '" +
+                    NavigatorService.getInstance().getPathRecursively(fieldPlan.getMsgField()) + "'.");
+            }
+            byte[] tagBytes = fieldPlan.getTagPacker().pack(msgValue.getTag());
+            msgValue.setTagBytes(tagBytes);
+            headerLength += tagBytes.length;
+        }
+        if (fieldPlan.isLengthType()) {
+            LengthPacker lengthPacker = fieldPlan.getLengthPacker();
+            if (lengthPacker == null) {
+                throw new PackerRuntimeException("Property lengthPacker is not defined. Please define it by " +
+                    "calling the .defineHeaderLengthPacker() method. Current MsgField: " +
+                    NavigatorService.getInstance().getPathRecursively(fieldPlan.getMsgField()));
+            }
+            int bytesLength = childrenLength;
+            if (fieldPlan.isLengthPrecedesTag()) {
+                bytesLength += msgValue.getTagBytesLength();
+            }
+            byte[] lengthBytes = lengthPacker.pack(bytesLength);
+            msgValue.setLengthBytes(lengthBytes);
+            headerLength += lengthBytes.length;
+        }
+        return headerLength;
+    }
+
+    protected int copyIfAllowed(boolean allowed, byte[] bytes, byte[] target, int offset) {
+        if (!allowed) {
+            return 0;
+        }
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+        return bytes.length;
+    }
+
+    /**
+     * Lengths of children of nodes, stored in the first phase and read in the second phase in the same order.
+     */
+    protected static class Sizes {
+        private int[] values = new int[16];
+        private int position;
+
+        int reserve() {
+            if (position == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            return position++;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.tag.TagPacker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The service compiles a {@link MsgField} graph to a {@link MessagePlan}, see the {@link #compile(MsgField)} method.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     MessagePlan messagePlan = PlanService.getInstance().compile(isoMsgField);
+ *     ValueHolder valueHolder = ValueHolder.newInstance(messagePlan);
+ * </pre>
+ *
+ * @author Kyrylo Semenko
+ */
+public class PlanService {
+
+    /**
+     * Singleton.
+     */
+    private static final PlanService instance = new PlanService();
+
+    /**
+     * @return The {@link PlanService} singleton.
+     */
+    public static PlanService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Validate the {@link MsgField} graph, see the {@link FieldBuilder#validateStructure(MsgField)} method, and
+     * compile it to a {@link MessagePlan}. The graph is compiled from its {@link MsgField#getRoot()}.
+     * <p>
+     * The {@link MsgField} graph should not be changed after the compilation, else the {@link MessagePlan}
+     * should be compiled again.
+     *
+     * @param msgField a field of the definition graph
+     * @return A new {@link MessagePlan}.
+     */
+    public MessagePlan compile(MsgField msgField) {
+        if (msgField == null) {
+            throw new PackerRuntimeException("MsgField definition cannot be 'null'.");
+        }
+        MsgField root = msgField.getRoot() == null ? msgField : msgField.getRoot();
+        FieldBuilder.validateStructure(root);
+        List<FieldPlan> nodes = new ArrayList<>();
+        FieldPlan rootPlan = compileRecursively(root, null, nodes);
+        return new MessagePlan(rootPlan, nodes.toArray(new FieldPlan[0]));
+    }
+
+    protected FieldPlan compileRecursively(MsgField msgField, FieldPlan parentPlan, List<FieldPlan> nodes) {
+        FieldPlan fieldPlan = new FieldPlan(msgField, parentPlan, nodes.size(), resolveTagPacker(msgField),
+            resolveLengthPacker(msgField), resolveBodyPacker(msgField), resolveBodyLen(msgField),
+            resolveParentLengthPacker(msgField));
+        nodes.add(fieldPlan);
+        List<MsgField> children = msgField.getChildren();
+        if (children != null) {
+            FieldPlan[] childPlans = new FieldPlan[children.size()];
+            for (int i = 0; i < childPlans.length; i++) {
+                MsgField child = children.get(i);
+                if (msgField.getType() == MsgFieldType.BIT_SET && child.getFieldNum() == null) {
+                    throw new PackerRuntimeException("The MsgField with path '" +
+                        NavigatorService.getInstance().getPathRecursively(child) + "' " +
+                        "has no 'fieldNum' property defined. " +
+                        "Please call the defineFieldNum(...) value to the MsgField. " +
+                        "The value is mandatory because its parent has the '" + MsgFieldType.class.getSimpleName() +
+                        "." + MsgFieldType.BIT_SET + "' type.");
+                }
+                childPlans[i] = compileRecursively(child, fieldPlan, nodes);
+            }
+            fieldPlan.setChildren(childPlans);
+        }
+        return fieldPlan;
+    }
+
+    /**
+     * Create a {@link FieldPlan} for an undefined field. Such fields are created during unpacking of
+     * {@link MsgFieldType#TAG_LEN_VAL} and {@link MsgFieldType#LEN_TAG_VAL} fields with unknown tags,
+     * their packers are defined in their parent. The created {@link MsgField} is not added to children
+     * of its parent, so the compiled {@link MsgField} graph remains unchanged.
+     *
+     * @param original the plan of the defined field on the same position
+     * @param tag      the unpacked tag
+     * @param name     a generated name of the undefined field
+     * @return A new {@link FieldPlan} with the -1 {@link FieldPlan#getIndex()} value.
+     */
+    public FieldPlan createUndefined(FieldPlan original, Object tag, String name) {
+        MsgField originalField = original.getMsgField();
+        MsgField parent = originalField.getParent();
+        MsgField undefinedMsgField = new MsgField();
+        undefinedMsgField.setName(name);
+        undefinedMsgField.setParent(parent);
+        undefinedMsgField.setDepth(originalField.getDepth());
+        undefinedMsgField.setBodyPacker(originalField.getBodyPacker() != null ?
+            originalField.getBodyPacker() : parent.getChildrenBodyPacker());
+        undefinedMsgField.setLengthPacker(originalField.getLengthPacker() != null ?
+            originalField.getLengthPacker() : parent.getChildrenLengthPacker());
+        undefinedMsgField.setTagPacker(originalField.getTagPacker() != null ?
+            originalField.getTagPacker() : parent.getChildrenTagPacker());
+        undefinedMsgField.setLen(originalField.getLen() != null ?
+            originalField.getLen() : parent.getChildrenBodyLen());
+        undefinedMsgField.setType(originalField.getType());
+        undefinedMsgField.setTag(tag);
+        return new FieldPlan(undefinedMsgField, original.getParent(), -1, resolveTagPacker(undefinedMsgField),
+            resolveLengthPacker(undefinedMsgField), resolveBodyPacker(undefinedMsgField),
+            resolveBodyLen(undefinedMsgField), resolveParentLengthPacker(undefinedMsgField));
+    }
+
+    /**
+     * The same rules as in the {@link NavigatorService#getTagPacker(MsgField)} method.
+     */
+    protected TagPacker resolveTagPacker(MsgField msgField) {
+        if (MsgFieldType.isNotTaggedType(msgField)) {
+            return null;
+        }
+        if (msgField.getTagPacker() != null) {
+            return msgField.getTagPacker();
+        }
+        if (msgField.getParent() != null) {
+            return msgField.getParent().getChildrenTagPacker();
+        }
+        return null;
+    }
+
+    protected LengthPacker resolveLengthPacker(MsgField msgField) {
+        if (msgField.getParent() != null && msgField.getParent().getChildrenLengthPacker() != null) {
+            return msgField.getParent().getChildrenLengthPacker();
+        }
+        return msgField.getLengthPacker();
+    }
+
+    protected BodyPacker resolveBodyPacker(MsgField msgField) {
+        if (msgField.getBodyPacker() != null) {
+            return msgField.getBodyPacker();
+        }
+        if (msgField.getParent() != null) {
+            return msgField.getParent().getChildrenBodyPacker();
+        }
+        return null;
+    }
+
+    protected Integer resolveBodyLen(MsgField msgField) {
+        if (msgField.getLen() != null || msgField.getType() == MsgFieldType.VAL) {
+            return msgField.getLen();
+        }
+        if (msgField.getParent() != null) {
+            return msgField.getParent().getChildrenBodyLen();
+        }
+        return null;
+    }
+
+    protected LengthPacker resolveParentLengthPacker(MsgField msgField) {
+        MsgField parent = msgField.getParent();
+        if (parent == null) {
+            return null;
+        }
+        if (parent.getLengthPacker() != null) {
+            return parent.getLengthPacker();
+        }
+        if (parent.getParent() != null) {
+            return parent.getParent().getChildrenLengthPacker();
+        }
+        return null;
+    }
+}
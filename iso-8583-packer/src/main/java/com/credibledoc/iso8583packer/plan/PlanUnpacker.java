@@ -0,0 +1,568 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
+import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.exception.MalformedMessageException;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.message.MsgValuePool;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.offset.Offset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Unpacks bytes to a {@link MsgValue} graph by the compiled {@link FieldPlan}s. The result is the same
+ * as the result of the {@link com.credibledoc.iso8583packer.ValueHolder#unpack(byte[])} method, but
+ * packers, field kinds and lengths are taken from the {@link FieldPlan}s instead of resolving them from the
+ * {@link MsgField} graph for every field.
+ *
+ * @author Kyrylo Semenko
+ */
+public class PlanUnpacker {
+
+    /**
+     * Singletons for all combinations of the {@link #zeroCopy} and {@link #lazy} modes,
+     * see the {@link #getInstance(boolean, boolean)} method.
+     */
+    private static final PlanUnpacker[] instances = {
+        new PlanUnpacker(false, false),
+        new PlanUnpacker(true, false),
+        new PlanUnpacker(false, true),
+        new PlanUnpacker(true, true)
+    };
+
+    /**
+     * If 'true', the unpacked {@link MsgValue}s contain views of the source bytes, see the
+     * {@link MsgValue#setBodySlice(byte[], int, int)} method. The bytes are copied when they are read first time.
+     * The source bytes should not be changed after unpacking in this mode. Unchanged fields can be packed again
+     * by copying of their source bytes, see the {@link MsgValue#setRawSlice(byte[], int, int)} method.
+     */
+    private final boolean zeroCopy;
+
+    /**
+     * If 'true', leaf values are not decoded during unpacking. The {@link BodyPacker} of a leaf decodes
+     * its value when the {@link MsgValue#getBodyValue()} method is called first time,
+     * see the {@link MsgValue#setLazyBodyPacker(BodyPacker)} method.
+     */
+    private final boolean lazy;
+
+    /**
+     * If not 'null', new {@link MsgValue}s and their children lists are taken from this pool,
+     * see the {@link #newInstance(boolean, boolean, MsgValuePool)} method.
+     */
+    private final MsgValuePool msgValuePool;
+
+    protected PlanUnpacker(boolean zeroCopy, boolean lazy) {
+        this(zeroCopy, lazy, null);
+    }
+
+    protected PlanUnpacker(boolean zeroCopy, boolean lazy, MsgValuePool msgValuePool) {
+        this.zeroCopy = zeroCopy;
+        this.lazy = lazy;
+        this.msgValuePool = msgValuePool;
+    }
+
+    /**
+     * @return The {@link PlanUnpacker} singleton, which copies unpacked bytes and decodes all leaf values.
+     */
+    public static PlanUnpacker getInstance() {
+        return instances[0];
+    }
+
+    /**
+     * @return The {@link PlanUnpacker} singleton, which does not copy unpacked bytes,
+     * see the {@link #zeroCopy} field description.
+     */
+    public static PlanUnpacker getZeroCopyInstance() {
+        return instances[1];
+    }
+
+    /**
+     * @param zeroCopy see the {@link #zeroCopy} field description
+     * @param lazy     see the {@link #lazy} field description
+     * @return The {@link PlanUnpacker} singleton with the requested modes.
+     */
+    public static PlanUnpacker getInstance(boolean zeroCopy, boolean lazy) {
+        return instances[(zeroCopy ? 1 : 0) + (lazy ? 2 : 0)];
+    }
+
+    /**
+     * Create a new {@link PlanUnpacker}, which takes {@link MsgValue}s from the pool. The instance has the same
+     * thread-safety as the pool, so it should be used by a single thread only.
+     *
+     * @param zeroCopy     see the {@link #zeroCopy} field description
+     * @param lazy         see the {@link #lazy} field description
+     * @param msgValuePool see the {@link #msgValuePool} field description
+     * @return The new {@link PlanUnpacker}.
+     */
+    public static PlanUnpacker newInstance(boolean zeroCopy, boolean lazy, MsgValuePool msgValuePool) {
+        if (msgValuePool == null) {
+            return getInstance(zeroCopy, lazy);
+        }
+        return new PlanUnpacker(zeroCopy, lazy, msgValuePool);
+    }
+
+    /**
+     * @return The {@link #msgValuePool} field value.
+     */
+    public MsgValuePool getMsgValuePool() {
+        return msgValuePool;
+    }
+
+    /**
+     * Unpack the bytes started from offset to a new {@link MsgValue}.
+     *
+     * @param bytes     the source bytes
+     * @param offset    the index where the field starts in the bytes
+     * @param fieldPlan the compiled definition of the field
+     * @return The unpacked {@link MsgValue}.
+     */
+    public MsgValue unpack(byte[] bytes, int offset, FieldPlan fieldPlan) {
+        Offset offsetObject = new Offset();
+        offsetObject.setValue(offset);
+        return unpackField(bytes, offsetObject, fieldPlan, null, null);
+    }
+
+    /**
+     * Unpack a single field and its children.
+     *
+     * @param bytes       the source bytes
+     * @param offset      the index where the field starts in the bytes, it will be moved to the end of the field
+     * @param fieldPlan   the compiled definition of the field
+     * @param parentValue the parent of the unpacked field or 'null'
+     * @param target      an existing {@link MsgValue} for filling, or 'null' if a new {@link MsgValue} should be
+     *                    created and added to the parentValue
+     * @return The unpacked {@link MsgValue}, it may be different from the target in case when the unpacked tag
+     * belongs to a sibling of the fieldPlan.
+     */
+    public MsgValue unpackField(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue parentValue,
+                                MsgValue target) {
+        return unpackField(bytes, offset, fieldPlan, parentValue, target, null);
+    }
+
+    /**
+     * Unpack a single field and its children, but only fields selected by the mask. Other fields are skipped
+     * by their length headers or fixed lengths without creating {@link MsgValue}s,
+     * see the {@link FieldProjection#compile(MessagePlan)} method.
+     *
+     * @param bytes       the source bytes
+     * @param offset      the index where the field starts in the bytes, it will be moved to the end of the field
+     * @param fieldPlan   the compiled definition of the field
+     * @param parentValue the parent of the unpacked field or 'null'
+     * @param target      an existing {@link MsgValue} for filling, or 'null' if a new {@link MsgValue} should be
+     *                    created and added to the parentValue. The target is unpacked regardless of the mask.
+     * @param mask        states of {@link FieldPlan}s indexed by {@link FieldPlan#getIndex()}, or 'null' if
+     *                    all fields should be unpacked
+     * @return The unpacked {@link MsgValue} or 'null' if the field is skipped.
+     */
+    public MsgValue unpackField(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue parentValue,
+                                MsgValue target, byte[] mask) {
+        int rawOffset = offset.getValue();
+        MsgValue msgValue = unpackFieldAndChildren(bytes, offset, fieldPlan, parentValue, target, mask);
+        if (zeroCopy && msgValue != null) {
+            msgValue.setRawSlice(bytes, rawOffset, offset.getValue() - rawOffset);
+        }
+        return msgValue;
+    }
+
+    /**
+     * See the {@link #unpackField(byte[], Offset, FieldPlan, MsgValue, MsgValue, byte[])} method. The whole
+     * field bytes are remembered in the unpacked {@link MsgValue} by the caller in the {@link #zeroCopy} mode.
+     */
+    protected MsgValue unpackFieldAndChildren(byte[] bytes, Offset offset, FieldPlan fieldPlan,
+                                              MsgValue parentValue, MsgValue target, byte[] mask) {
+        MsgFieldType type = fieldPlan.getType();
+        if (mask != null && !MsgFieldType.isTaggedType(fieldPlan.getMsgField()) && !fieldPlan.isLengthType()) {
+            byte state = mask[fieldPlan.getIndex()];
+            if (state == FieldProjection.SKIP && target == null &&
+                    skipField(bytes, offset, fieldPlan, parentValue, mask)) {
+                return null;
+            }
+            if (state == FieldProjection.FULL) {
+                mask = null;
+            }
+        }
+        MsgValue msgValue;
+        int rawDataLength;
+        if (type == MsgFieldType.MSG) {
+            msgValue = attach(target, fieldPlan, parentValue);
+            int childrenLenSum = fieldPlan.getChildrenLenSum();
+            rawDataLength = childrenLenSum >= 0 ? childrenLenSum : bytes.length - offset.getValue();
+        } else if (type == MsgFieldType.BIT_SET) {
+            msgValue = attach(target, fieldPlan, parentValue);
+            unpackBitmap(bytes, offset, fieldPlan, msgValue, mask);
+            rawDataLength = 0;
+        } else if (type == MsgFieldType.VAL) {
+            msgValue = attach(target, fieldPlan, parentValue);
+            rawDataLength = resolveValLength(bytes, offset, fieldPlan, msgValue);
+            setBody(msgValue, bytes, offset.getValue(), rawDataLength, fieldPlan);
+        } else {
+            return unpackHeaderAndBody(bytes, offset, fieldPlan, parentValue, target, mask);
+        }
+        unpackLeafOrChildren(bytes, offset, fieldPlan, msgValue, rawDataLength, mask);
+        return msgValue;
+    }
+
+    /**
+     * Move the offset to the end of the field without creating a {@link MsgValue}.
+     *
+     * @return 'false' if the field length cannot be resolved without unpacking of its siblings,
+     * in this case the offset is not changed.
+     */
+    protected boolean skipField(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue parentValue,
+                                byte[] mask) {
+        MsgFieldType type = fieldPlan.getType();
+        if (type == MsgFieldType.VAL) {
+            Integer bodyLen = fieldPlan.getBodyLen();
+            if (bodyLen == null) {
+                if (parentValue != null && parentValue.getLengthBytesLength() >= 0) {
+                    return false;
+                }
+                bodyLen = bytes.length - offset.getValue();
+            }
+            checkBounds(bytes, offset.getValue(), bodyLen, fieldPlan);
+            offset.add(bodyLen);
+        } else if (type == MsgFieldType.MSG) {
+            int childrenLenSum = fieldPlan.getChildrenLenSum();
+            offset.setValue(childrenLenSum >= 0 ? offset.getValue() + childrenLenSum : bytes.length);
+        } else {
+            // The bitmap is unpacked to a temporary MsgValue, all children are skipped by the same mask
+            unpackBitmap(bytes, offset, fieldPlan, newMsgValue(fieldPlan), mask);
+        }
+        return true;
+    }
+
+    protected MsgValue unpackHeaderAndBody(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue parentValue,
+                                           MsgValue target, byte[] mask) {
+        Integer rawDataLength = null;
+        int lengthOffset = -1;
+        int lengthLength = 0;
+        if (fieldPlan.isLengthFirst() && fieldPlan.isLengthType()) {
+            LengthPacker lengthPacker = getLengthPackerOrThrowException(fieldPlan);
+            lengthOffset = offset.getValue();
+            lengthLength = unpackLengthLength(bytes, offset, lengthPacker, fieldPlan);
+            rawDataLength = lengthPacker.unpack(bytes, lengthOffset) - fieldPlan.getTagPackedLength();
+        }
+
+        FieldPlan actualPlan = fieldPlan;
+        Object tag = null;
+        if (fieldPlan.isTagged()) {
+            tag = fieldPlan.getTagPacker() == null ? fieldPlan.getMsgField().getTag() :
+                fieldPlan.getTagPacker().unpack(bytes, offset.getValue());
+        }
+        boolean undefined = false;
+        if (tag != null && !Objects.equals(tag, fieldPlan.getMsgField().getTag())) {
+            actualPlan = findSiblingByTag(fieldPlan, tag);
+            undefined = actualPlan == null;
+        }
+        boolean skip = false;
+        if (mask != null) {
+            skip = target == null && (undefined || mask[actualPlan.getIndex()] == FieldProjection.SKIP);
+            if (!skip && !undefined && mask[actualPlan.getIndex()] == FieldProjection.FULL) {
+                mask = null;
+            }
+        }
+        if (undefined) {
+            // lengths of undefined fields are defined by the same packers as for the original field
+            actualPlan = skip ? fieldPlan : createUndefinedPlan(fieldPlan, tag, parentValue);
+        }
+
+        int tagOffset = offset.getValue();
+        int tagLength = 0;
+        if (actualPlan.isTagged()) {
+            tagLength = fieldPlan.getTagPackedLength();
+            checkBounds(bytes, tagOffset, tagLength, fieldPlan);
+            offset.add(tagLength);
+        }
+
+        if (!actualPlan.isLengthFirst() && actualPlan.isLengthType()) {
+            LengthPacker lengthPacker = getLengthPackerOrThrowException(actualPlan);
+            lengthOffset = offset.getValue();
+            lengthLength = unpackLengthLength(bytes, offset, lengthPacker, actualPlan);
+            rawDataLength = lengthPacker.unpack(bytes, lengthOffset);
+        }
+
+        if (actualPlan.getBodyLen() != null) {
+            rawDataLength = actualPlan.getBodyLen();
+        }
+
+        if (rawDataLength == null) {
+            throw new PackerRuntimeException("Cannot find rawDataLength of the msgField with path '" +
+                getPath(actualPlan) + "'");
+        }
+
+        if (skip) {
+            checkBounds(bytes, offset.getValue(), rawDataLength, actualPlan);
+            offset.add(rawDataLength);
+            return null;
+        }
+
+        MsgValue msgValue = target;
+        if (msgValue == null || actualPlan != fieldPlan) {
+            msgValue = replace(target, actualPlan, parentValue);
+        }
+        if (actualPlan.isTagged()) {
+            msgValue.setTag(tag);
+            setTag(msgValue, bytes, tagOffset, tagLength);
+        }
+        if (lengthOffset >= 0) {
+            setLength(msgValue, bytes, lengthOffset, lengthLength);
+        }
+        if (undefined) {
+            msgValue.getParent().getUndefinedChildrenMap().put(msgValue.getName(), msgValue);
+        }
+        setBody(msgValue, bytes, offset.getValue(), rawDataLength, actualPlan);
+        unpackLeafOrChildren(bytes, offset, actualPlan, msgValue, rawDataLength, mask);
+        return msgValue;
+    }
+
+    protected void unpackLeafOrChildren(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue msgValue,
+                                        int rawDataLength, byte[] mask) {
+        if (fieldPlan.isLeaf()) {
+            BodyPacker bodyPacker = fieldPlan.getBodyPacker();
+            if (bodyPacker == null) {
+                throw new PackerRuntimeException("BodyPacker not found for MsgField with path '" + getPath(fieldPlan) +
+                    "'. Please call the defineBodyPacker(...) method " +
+                    "of the FieldBuilder class, for example " +
+                    "MsgField subfield35 = FieldBuilder.builder(...).defineBodyPacker(...).");
+            }
+            if (lazy && msgValue.getBodyBytesLength() == rawDataLength) {
+                msgValue.setLazyBodyPacker(bodyPacker);
+            } else {
+                msgValue.setBodyValue(bodyPacker.unpack(bytes, offset.getValue(), rawDataLength));
+            }
+            offset.add(rawDataLength);
+        } else {
+            unpackChildren(bytes, offset, fieldPlan, msgValue, rawDataLength, mask);
+        }
+    }
+
+    protected void unpackChildren(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue msgValue,
+                                  int rawDataLength, byte[] mask) {
+        int offsetWithChildren = offset.getValue() + rawDataLength;
+        FieldPlan[] children = fieldPlan.getChildren();
+        if (rawDataLength > 0 && children.length == 0) {
+            throw new PackerRuntimeException("The MsgField with path '" + getPath(fieldPlan) +
+                "' has no children, but its body contains '" + rawDataLength + "' bytes.");
+        }
+        int childNum = 0;
+        while (offset.getValue() < offsetWithChildren) {
+            FieldPlan nextChild = children[childNum];
+            if (children.length > childNum + 1) {
+                childNum++; // the number of real children may be higher than defined in MsgField
+                // for example for repeated values or undefined TLV and LTV values
+            }
+            unpackField(bytes, offset, nextChild, msgValue, null, mask);
+        }
+        if (offset.getValue() != offsetWithChildren) {
+            throw new MalformedMessageException("Expected end of children is '" + offsetWithChildren +
+                "' but current offset is '" + offset.getValue() + "'. These values should be equal.",
+                () -> getPath(fieldPlan), offsetWithChildren - rawDataLength, rawDataLength,
+                offset.getValue() - offsetWithChildren + rawDataLength);
+        }
+    }
+
+    protected void unpackBitmap(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue msgValue, byte[] mask) {
+        BitmapPacker bitmapPacker = fieldPlan.getBitmapPacker();
+        if (bitmapPacker == null) {
+            throw new PackerRuntimeException("Please call the defineHeaderBitmapPacker(...) " +
+                "method for this field " + getPath(fieldPlan));
+        }
+        int consumed = bitmapPacker.unpack(msgValue, bytes, offset.getValue());
+        setBody(msgValue, bytes, offset.getValue(), consumed, fieldPlan);
+        offset.add(consumed);
+
+        Bitmap bitmap = msgValue.getBitmap();
+        int maxFieldNum = fieldPlan.getMaxFieldNum();
+        for (int fieldNum = bitmap.nextFieldNum(1); fieldNum != -1 && fieldNum <= maxFieldNum;
+             fieldNum = bitmap.nextFieldNum(fieldNum + 1)) {
+            FieldPlan child = fieldPlan.findChildByFieldNum(fieldNum);
+            if (child == null) {
+                // Bits 1 and 65 in a bitmap may be used as flags of a secondary and tertiary bitmaps
+                if (fieldNum == 1 || fieldNum == 65) {
+                    continue;
+                }
+                throw new PackerRuntimeException("Unpacked bitSet contains fieldNum '" + fieldNum + "', " +
+                    "but the MsgField with path '" + getPath(fieldPlan) + "' has no child with such fieldNum. " +
+                    "Please set the defineFieldNum(" + fieldNum + ") value " +
+                    "to one of the field '" + getPath(fieldPlan) + "' children.");
+            }
+            unpackField(bytes, offset, child, msgValue, null, mask);
+        }
+    }
+
+    protected int resolveValLength(byte[] bytes, Offset offset, FieldPlan fieldPlan, MsgValue msgValue) {
+        Integer rawDataLength = fieldPlan.getBodyLen();
+        if (rawDataLength == null) {
+            MsgValue parentValue = msgValue.getParent();
+            if (parentValue != null && parentValue.getLengthBytesLength() >= 0) {
+                LengthPacker parentLengthPacker = fieldPlan.getParentLengthPacker();
+                if (parentLengthPacker == null) {
+                    throw new PackerRuntimeException("Cannot find a LengthPacker of the parent of the MsgField " +
+                        "with path '" + getPath(fieldPlan) + "'.");
+                }
+                int parentLength = parentLengthPacker.unpack(parentValue.getLengthArray(),
+                    parentValue.getLengthArrayOffset());
+                rawDataLength = parentLength - calculateLengthUpTo(parentValue.getChildren(), msgValue);
+            } else {
+                rawDataLength = bytes.length - offset.getValue();
+            }
+        }
+        int remaining = bytes.length - offset.getValue();
+        if (rawDataLength > remaining) {
+            throw new MalformedMessageException("Cannot unpack bytes because the remaining data length " +
+                "of the byte array is less than defined 'len' value.", () -> getPath(fieldPlan), offset.getValue(),
+                rawDataLength, remaining);
+        }
+        return rawDataLength;
+    }
+
+    protected int calculateLengthUpTo(List<MsgValue> siblings, MsgValue currentSibling) {
+        int length = 0;
+        for (MsgValue sibling : siblings) {
+            if (sibling == currentSibling) {
+                return length;
+            }
+            length += sibling.getBodyBytesLength();
+        }
+        throw new PackerRuntimeException("It is expected, that the siblings' list contains the current sibling, " +
+            "but the current sibling cannot be found in the list.\n" +
+            "Siblings: '" + siblings + "'.\n" +
+            "Current sibling: '" + currentSibling + "'.");
+    }
+
+    protected int unpackLengthLength(byte[] bytes, Offset offset, LengthPacker lengthPacker, FieldPlan fieldPlan) {
+        int lenLength = lengthPacker.calculateLenLength(bytes, offset.getValue());
+        checkBounds(bytes, offset.getValue(), lenLength, fieldPlan);
+        offset.add(lenLength);
+        return lenLength;
+    }
+
+    protected LengthPacker getLengthPackerOrThrowException(FieldPlan fieldPlan) {
+        LengthPacker lengthPacker = fieldPlan.getLengthPacker();
+        if (lengthPacker == null) {
+            throw new PackerRuntimeException("Property lengthPacker is not defined. Please define it by calling " +
+                "the .defineHeaderLengthPacker() method. " +
+                "Current MsgField: " + getPath(fieldPlan));
+        }
+        return lengthPacker;
+    }
+
+    protected FieldPlan findSiblingByTag(FieldPlan fieldPlan, Object tag) {
+        FieldPlan parentPlan = fieldPlan.getParent();
+        if (parentPlan == null) {
+            return null;
+        }
+        return parentPlan.findChildByTag(tag);
+    }
+
+    protected FieldPlan createUndefinedPlan(FieldPlan fieldPlan, Object tag, MsgValue parentValue) {
+        MsgField parent = fieldPlan.getMsgField().getParent();
+        if (parent == null || parent.getChildrenTagPacker() == null || parentValue == null) {
+            throw new PackerRuntimeException("Cannot find a sibling with tag '" + tag +
+                "' for the '" + getPath(fieldPlan) + "' field. Its parent has no child with such tag. " +
+                "Unknown TLV and LTV tags should have tag, length and body packers in the parent.");
+        }
+        String cloneName = fieldPlan.getMsgField().getName() + MsgField.CLONE_INFIX +
+            (parentValue.getUndefinedChildrenMap().size() + 1);
+        return PlanService.getInstance().createUndefined(fieldPlan, tag, cloneName);
+    }
+
+    /**
+     * Create a new {@link MsgValue} from the {@link FieldPlan} and replace the target with the new value.
+     */
+    protected MsgValue replace(MsgValue target, FieldPlan fieldPlan, MsgValue parentValue) {
+        if (target == null) {
+            return attach(null, fieldPlan, parentValue);
+        }
+        MsgValue newMsgValue = newMsgValue(fieldPlan);
+        MsgValue targetParent = target.getParent();
+        if (targetParent != null) {
+            List<MsgValue> siblings = targetParent.getChildren();
+            siblings.set(siblings.indexOf(target), newMsgValue);
+            newMsgValue.setParent(targetParent);
+            newMsgValue.setRoot(targetParent.getRoot());
+            targetParent.getChildNamesMap().put(newMsgValue.getName(), newMsgValue);
+        } else {
+            newMsgValue.setRoot(newMsgValue);
+        }
+        return newMsgValue;
+    }
+
+    /**
+     * Return the target or a new {@link MsgValue} created from the {@link FieldPlan} and added to the parent.
+     */
+    protected MsgValue attach(MsgValue target, FieldPlan fieldPlan, MsgValue parentValue) {
+        if (target != null) {
+            return target;
+        }
+        MsgValue msgValue = newMsgValue(fieldPlan);
+        if (parentValue == null) {
+            msgValue.setRoot(msgValue);
+            return msgValue;
+        }
+        List<MsgValue> children = parentValue.getChildren();
+        if (children == null) {
+            children = msgValuePool == null ? new ArrayList<>() : msgValuePool.acquireList();
+            parentValue.setChildren(children);
+        }
+        children.add(msgValue);
+        msgValue.setParent(parentValue);
+        msgValue.setRoot(parentValue.getRoot());
+        parentValue.getChildNamesMap().put(msgValue.getName(), msgValue);
+        return msgValue;
+    }
+
+    protected MsgValue newMsgValue(FieldPlan fieldPlan) {
+        MsgField msgField = fieldPlan.getMsgField();
+        MsgValue msgValue = msgValuePool == null ? new MsgValue() : msgValuePool.acquire();
+        msgValue.setName(msgField.getName());
+        msgValue.setTag(msgField.getTag());
+        msgValue.setFieldNum(msgField.getFieldNum());
+        return msgValue;
+    }
+
+    protected void setTag(MsgValue msgValue, byte[] bytes, int offset, int length) {
+        if (zeroCopy) {
+            msgValue.setTagSlice(bytes, offset, length);
+        } else {
+            msgValue.setTagBytes(Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+    }
+
+    protected void setLength(MsgValue msgValue, byte[] bytes, int offset, int length) {
+        if (zeroCopy) {
+            msgValue.setLengthSlice(bytes, offset, length);
+        } else {
+            msgValue.setLengthBytes(Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+    }
+
+    protected void setBody(MsgValue msgValue, byte[] bytes, int offset, int length, FieldPlan fieldPlan) {
+        checkBounds(bytes, offset, length, fieldPlan);
+        if (zeroCopy) {
+            msgValue.setBodySlice(bytes, offset, length);
+        } else {
+            msgValue.setBodyBytes(Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+    }
+
+    protected void checkBounds(byte[] bytes, int offset, int length, FieldPlan fieldPlan) {
+        if (length < 0 || offset + length > bytes.length) {
+            throw new MalformedMessageException("The source bytes are shorter than the rawDataLength.",
+                () -> getPath(fieldPlan), offset, length, bytes.length - offset);
+        }
+    }
+
+    protected String getPath(FieldPlan fieldPlan) {
+        return NavigatorService.getInstance().getPathRecursively(fieldPlan.getMsgField());
+    }
+}
@@ -0,0 +1,479 @@
+package com.credibledoc.iso8583packer.tlv;
+
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.exception.MalformedMessageException;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.navigator.Navigator;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.tag.TagPacker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of {@link MsgFieldType#TAG_LEN_VAL} or {@link MsgFieldType#LEN_TAG_VAL} sub-fields, for example EMV tags
+ * of the field 55. The bytes are scanned once by the {@link TagPacker} and {@link LengthPacker} into primitive arrays
+ * of tags, offsets and lengths. Neither {@link MsgValue}s nor {@link MsgField}s of undefined tags are created.
+ * <p>
+ * Tags are looked up by a binary search of tag keys. A tag key is the packed tag bytes as a big-endian number,
+ * for example the EMV tag <b>9F26</b> has the key 0x9F26. The {@link MsgValue} tree is created on request only,
+ * see the {@link #toMsgValue()} method.
+ * <p>
+ * Example of usage:
+ * <pre>
+ *     TlvIndex tlvIndex = TlvIndex.scan(field55, bytes, bodyOffset, bodyLength);
+ *     int entry = tlvIndex.indexOfKey(0x9F26);
+ *     if (entry != TlvIndex.NOT_FOUND) {
+ *         byte[] cryptogram = tlvIndex.getBodyBytes(entry);
+ *     }
+ * </pre>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author Kyrylo Semenko
+ */
+public class TlvIndex {
+
+    /**
+     * Returned from the {@link #indexOf(Object)} and {@link #indexOfKey(long)} methods if the tag is not found.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int MAX_TAG_LENGTH = 8;
+
+    /**
+     * The definition of the field with the scanned sub-fields. It is 'null' if the index is created without
+     * a definition, see the {@link #scan(byte[], int, int, MsgFieldType, TagPacker, LengthPacker)} method.
+     */
+    private final MsgField parentField;
+
+    /**
+     * The scanned bytes, they are not copied.
+     */
+    private final byte[] source;
+
+    /**
+     * {@link MsgFieldType#TAG_LEN_VAL} or {@link MsgFieldType#LEN_TAG_VAL}.
+     */
+    private final MsgFieldType type;
+
+    private final TagPacker tagPacker;
+
+    private final LengthPacker lengthPacker;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Tag keys in the order of the source bytes.
+     */
+    private long[] tagKeys = new long[INITIAL_CAPACITY];
+
+    /**
+     * Indexes of the first tag bytes in the {@link #source}.
+     */
+    private int[] tagOffsets = new int[INITIAL_CAPACITY];
+
+    /**
+     * Indexes of the first length bytes in the {@link #source}.
+     */
+    private int[] lengthOffsets = new int[INITIAL_CAPACITY];
+
+    /**
+     * Indexes of the first body bytes in the {@link #source}.
+     */
+    private int[] bodyOffsets = new int[INITIAL_CAPACITY];
+
+    private int[] bodyLengths = new int[INITIAL_CAPACITY];
+
+    /**
+     * Entries sorted by their {@link #tagKeys}, entries with the same keys are in the order of the source bytes.
+     */
+    private int[] sortedEntries;
+
+    private TlvIndex(MsgField parentField, byte[] source, MsgFieldType type, TagPacker tagPacker,
+                     LengthPacker lengthPacker) {
+        if (type != MsgFieldType.TAG_LEN_VAL && type != MsgFieldType.LEN_TAG_VAL) {
+            throw new PackerRuntimeException("Expected " + MsgFieldType.TAG_LEN_VAL + " or " +
+                MsgFieldType.LEN_TAG_VAL + " type but found " + type);
+        }
+        if (tagPacker == null || lengthPacker == null) {
+            throw new PackerRuntimeException("TagPacker and LengthPacker are mandatory. TagPacker: " + tagPacker +
+                ", LengthPacker: " + lengthPacker);
+        }
+        if (tagPacker.getPackedLength() > MAX_TAG_LENGTH) {
+            throw new PackerRuntimeException("Tags longer than " + MAX_TAG_LENGTH + " bytes are not supported. " +
+                "TagPacker packedLength: " + tagPacker.getPackedLength());
+        }
+        this.parentField = parentField;
+        this.source = source;
+        this.type = type;
+        this.tagPacker = tagPacker;
+        this.lengthPacker = lengthPacker;
+    }
+
+    /**
+     * Scan the sub-fields of the parentField. The type and packers are taken from the first child of the parentField,
+     * or from the {@link MsgField#getChildrenTagPacker()} and {@link MsgField#getChildrenLengthPacker()} of the
+     * parentField.
+     *
+     * @param parentField the definition with {@link MsgFieldType#TAG_LEN_VAL} or {@link MsgFieldType#LEN_TAG_VAL}
+     *                    children, for example the field 55
+     * @param bytes       the source bytes
+     * @param offset      index of the first byte of the first sub-field
+     * @param length      number of bytes of all sub-fields
+     * @return The new index.
+     */
+    public static TlvIndex scan(MsgField parentField, byte[] bytes, int offset, int length) {
+        List<MsgField> children = parentField.getChildren();
+        MsgField firstChild = children == null || children.isEmpty() ? null : children.get(0);
+        MsgFieldType type = firstChild == null ? MsgFieldType.TAG_LEN_VAL : firstChild.getType();
+        TagPacker tagPacker = parentField.getChildrenTagPacker();
+        LengthPacker lengthPacker = parentField.getChildrenLengthPacker();
+        if (firstChild != null && firstChild.getTagPacker() != null) {
+            tagPacker = firstChild.getTagPacker();
+        }
+        if (firstChild != null && firstChild.getLengthPacker() != null) {
+            lengthPacker = firstChild.getLengthPacker();
+        }
+        TlvIndex tlvIndex = new TlvIndex(parentField, bytes, type, tagPacker, lengthPacker);
+        tlvIndex.scan(offset, length);
+        return tlvIndex;
+    }
+
+    /**
+     * Scan sub-fields without a definition. Such index cannot create {@link MsgValue}s.
+     *
+     * @param bytes        the source bytes
+     * @param offset       index of the first byte of the first sub-field
+     * @param length       number of bytes of all sub-fields
+     * @param type         {@link MsgFieldType#TAG_LEN_VAL} or {@link MsgFieldType#LEN_TAG_VAL}
+     * @param tagPacker    unpacks tags
+     * @param lengthPacker unpacks lengths
+     * @return The new index.
+     */
+    public static TlvIndex scan(byte[] bytes, int offset, int length, MsgFieldType type, TagPacker tagPacker,
+                                LengthPacker lengthPacker) {
+        TlvIndex tlvIndex = new TlvIndex(null, bytes, type, tagPacker, lengthPacker);
+        tlvIndex.scan(offset, length);
+        return tlvIndex;
+    }
+
+    private void scan(int offset, int length) {
+        int end = offset + length;
+        if (offset < 0 || end > source.length) {
+            throw new MalformedMessageException("The TLV region is out of the source bytes.", this::getParentPath,
+                offset, length, source.length - offset);
+        }
+        int tagLength = tagPacker.getPackedLength();
+        boolean lengthFirst = type == MsgFieldType.LEN_TAG_VAL;
+        int position = offset;
+        while (position < end) {
+            int tagOffset;
+            int lengthOffset;
+            int bodyLength;
+            if (lengthFirst) {
+                lengthOffset = position;
+                checkAvailable(position, 1, end);
+                int lenLength = lengthPacker.calculateLenLength(source, position);
+                checkAvailable(position, lenLength, end);
+                bodyLength = lengthPacker.unpack(source, position) - tagLength;
+                position += lenLength;
+                tagOffset = position;
+                checkAvailable(position, tagLength, end);
+                position += tagLength;
+            } else {
+                tagOffset = position;
+                checkAvailable(position, tagLength, end);
+                position += tagLength;
+                lengthOffset = position;
+                checkAvailable(position, 1, end);
+                int lenLength = lengthPacker.calculateLenLength(source, position);
+                checkAvailable(position, lenLength, end);
+                bodyLength = lengthPacker.unpack(source, position);
+                position += lenLength;
+            }
+            if (bodyLength < 0) {
+                throw new MalformedMessageException("Negative length of the TLV value.", this::getParentPath,
+                    position, bodyLength, end - position);
+            }
+            checkAvailable(position, bodyLength, end);
+            add(toTagKey(source, tagOffset, tagLength), tagOffset, lengthOffset, position, bodyLength);
+            position += bodyLength;
+        }
+        sortEntries();
+    }
+
+    private void checkAvailable(int position, int required, int end) {
+        if (position + required > end) {
+            throw new MalformedMessageException("The TLV sub-field is longer than the remaining bytes.",
+                this::getParentPath, position, required, end - position);
+        }
+    }
+
+    private String getParentPath() {
+        return parentField == null ? null : NavigatorService.getInstance().getPathRecursively(parentField);
+    }
+
+    private void add(long tagKey, int tagOffset, int lengthOffset, int bodyOffset, int bodyLength) {
+        if (size == tagKeys.length) {
+            int capacity = size * 2;
+            tagKeys = Arrays.copyOf(tagKeys, capacity);
+            tagOffsets = Arrays.copyOf(tagOffsets, capacity);
+            lengthOffsets = Arrays.copyOf(lengthOffsets, capacity);
+            bodyOffsets = Arrays.copyOf(bodyOffsets, capacity);
+            bodyLengths = Arrays.copyOf(bodyLengths, capacity);
+        }
+        tagKeys[size] = tagKey;
+        tagOffsets[size] = tagOffset;
+        lengthOffsets[size] = lengthOffset;
+        bodyOffsets[size] = bodyOffset;
+        bodyLengths[size] = bodyLength;
+        size++;
+    }
+
+    /**
+     * Stable insertion sort, TLV regions usually contain tens of entries.
+     */
+    private void sortEntries() {
+        sortedEntries = new int[size];
+        for (int i = 0; i < size; i++) {
+            int entry = i;
+            int j = i - 1;
+            while (j >= 0 && tagKeys[sortedEntries[j]] > tagKeys[entry]) {
+                sortedEntries[j + 1] = sortedEntries[j];
+                j--;
+            }
+            sortedEntries[j + 1] = entry;
+        }
+    }
+
+    /**
+     * @param bytes  contains packed tag bytes
+     * @param offset index of the first tag byte
+     * @param length number of tag bytes, up to 8
+     * @return The tag bytes as a big-endian number.
+     */
+    public static long toTagKey(byte[] bytes, int offset, int length) {
+        long key = 0;
+        for (int i = offset; i < offset + length; i++) {
+            key = (key << 8) | (bytes[i] & 0xFF);
+        }
+        return key;
+    }
+
+    /**
+     * Find the first entry with the tag.
+     *
+     * @param tag for example Integer 0x9F26 for the {@link com.credibledoc.iso8583packer.hex.HexTagPacker}
+     * @return Index of the entry in the order of the source bytes or {@link #NOT_FOUND}.
+     */
+    public int indexOf(Object tag) {
+        byte[] tagBytes = tagPacker.pack(tag);
+        return indexOfKey(toTagKey(tagBytes, 0, tagBytes.length));
+    }
+
+    /**
+     * Find the first entry with the tag key by the binary search without allocations.
+     *
+     * @param tagKey see the {@link #toTagKey(byte[], int, int)} method
+     * @return Index of the entry in the order of the source bytes or {@link #NOT_FOUND}.
+     */
+    public int indexOfKey(long tagKey) {
+        int low = 0;
+        int high = size - 1;
+        int found = NOT_FOUND;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = tagKeys[sortedEntries[middle]];
+            if (middleKey < tagKey) {
+                low = middle + 1;
+            } else {
+                if (middleKey == tagKey) {
+                    found = sortedEntries[middle];
+                }
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return Number of scanned sub-fields.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param entry index of the entry in the order of the source bytes
+     * @return The tag key of the entry, see the {@link #toTagKey(byte[], int, int)} method.
+     */
+    public long getTagKey(int entry) {
+        checkEntry(entry);
+        return tagKeys[entry];
+    }
+
+    /**
+     * @param entry index of the entry in the order of the source bytes
+     * @param <T>   the tag type of the {@link #tagPacker}
+     * @return The tag unpacked by the {@link #tagPacker}.
+     */
+    public <T> T getTag(int entry) {
+        return tagPacker.unpack(source, getTagOffset(entry));
+    }
+
+    /**
+     * @param entry index of the entry in the order of the source bytes
+     * @return Index of the first body byte in the source bytes.
+     */
+    public int getBodyOffset(int entry) {
+        checkEntry(entry);
+        return bodyOffsets[entry];
+    }
+
+    /**
+     * @param entry index of the entry in the order of the source bytes
+     * @return Number of body bytes of the entry.
+     */
+    public int getBodyLength(int entry) {
+        checkEntry(entry);
+        return bodyLengths[entry];
+    }
+
+    /**
+     * @param entry index of the entry in the order of the source bytes
+     * @return A copy of the body bytes of the entry.
+     */
+    public byte[] getBodyBytes(int entry) {
+        int offset = getBodyOffset(entry);
+        return Arrays.copyOfRange(source, offset, offset + bodyLengths[entry]);
+    }
+
+    /**
+     * Decode the body of the entry by the {@link BodyPacker} of its definition.
+     *
+     * @param entry index of the entry in the order of the source bytes
+     * @param <T>   the value type
+     * @return The decoded value.
+     */
+    public <T> T getBodyValue(int entry) {
+        BodyPacker bodyPacker = findBodyPacker(findChildField(getTag(entry)), entry);
+        return bodyPacker.unpack(source, getBodyOffset(entry), bodyLengths[entry]);
+    }
+
+    /**
+     * @return The {@link #source} field value.
+     */
+    public byte[] getSource() {
+        return source;
+    }
+
+    /**
+     * @return The {@link #parentField} field value.
+     */
+    public MsgField getParentField() {
+        return parentField;
+    }
+
+    /**
+     * Create the {@link MsgValue} tree of the {@link #parentField} with children of all entries. The children refer
+     * to the {@link #source} bytes without copying and their values are decoded lazily. Undefined tags get names
+     * of clones of the defined child on the same position, or of the last defined child, like in the
+     * {@link com.credibledoc.iso8583packer.ValueHolder#unpack(byte[])} method, see the {@link MsgField#CLONE_INFIX}.
+     *
+     * @return The new parent {@link MsgValue} without a parent.
+     */
+    public MsgValue toMsgValue() {
+        if (parentField == null) {
+            throw new PackerRuntimeException("The index has been created without a definition. " +
+                "Please use the scan(MsgField, byte[], int, int) method.");
+        }
+        Navigator navigator = NavigatorService.getInstance();
+        MsgValue parent = navigator.newFromNameAndTag(parentField);
+        parent.setRoot(parent);
+        List<MsgValue> children = new ArrayList<>(size);
+        parent.setChildren(children);
+        for (int entry = 0; entry < size; entry++) {
+            Object tag = getTag(entry);
+            MsgField childField = findChildField(tag);
+            MsgValue child;
+            if (childField != null) {
+                child = navigator.newFromNameAndTag(childField);
+            } else {
+                child = new MsgValue();
+                child.setTag(tag);
+                child.setName(getOriginalField(entry).getName() + MsgField.CLONE_INFIX +
+                    (parent.getUndefinedChildrenMap().size() + 1));
+                parent.getUndefinedChildrenMap().put(child.getName(), child);
+            }
+            int tagOffset = getTagOffset(entry);
+            child.setTagSlice(source, tagOffset, tagPacker.getPackedLength());
+            int lengthOffset = lengthOffsets[entry];
+            child.setLengthSlice(source, lengthOffset, lengthPacker.calculateLenLength(source, lengthOffset));
+            child.setBodySlice(source, bodyOffsets[entry], bodyLengths[entry]);
+            child.setLazyBodyPacker(findBodyPacker(childField, entry));
+            child.setParent(parent);
+            child.setRoot(parent);
+            children.add(child);
+            parent.getChildNamesMap().put(child.getName(), child);
+        }
+        return parent;
+    }
+
+    private int getTagOffset(int entry) {
+        checkEntry(entry);
+        return tagOffsets[entry];
+    }
+
+    private MsgField findChildField(Object tag) {
+        if (parentField == null) {
+            return null;
+        }
+        return parentField.findChildByTag(tag);
+    }
+
+    /**
+     * @param entry index of an undefined entry
+     * @return The defined child on the entry position or the last defined child, its clone describes the entry.
+     */
+    private MsgField getOriginalField(int entry) {
+        List<MsgField> children = parentField.getChildren();
+        if (children == null || children.isEmpty()) {
+            throw new PackerRuntimeException("The MsgField '" + parentField.getName() +
+                "' has no children, names of undefined tags cannot be created.");
+        }
+        return children.get(Math.min(entry, children.size() - 1));
+    }
+
+    private BodyPacker findBodyPacker(MsgField childField, int entry) {
+        BodyPacker bodyPacker = null;
+        if (childField != null) {
+            bodyPacker = childField.getBodyPacker();
+        } else if (parentField != null && parentField.getChildren() != null && !parentField.getChildren().isEmpty()) {
+            bodyPacker = getOriginalField(entry).getBodyPacker();
+        }
+        if (bodyPacker == null && parentField != null) {
+            bodyPacker = parentField.getChildrenBodyPacker();
+        }
+        if (bodyPacker == null) {
+            throw new PackerRuntimeException("BodyPacker not found. Please define it in the children " +
+                "or in the parent MsgField by the defineChildrenBodyPacker(...) method.");
+        }
+        return bodyPacker;
+    }
+
+    private void checkEntry(int entry) {
+        if (entry < 0 || entry >= size) {
+            throw new PackerRuntimeException("Entry '" + entry + "' is out of range 0 - " + (size - 1));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.credibledoc.iso8583packer.bcd;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link BcdService} conversions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BcdServiceTest {
+
+    @Test
+    public void bcd2strTest() {
+        byte[] bcd = {0x01, 0x23, 0x4D, (byte) 0x9F};
+        assertEquals("01234=9F", BcdService.bcd2str(bcd, 0, 8, false));
+        assertEquals("1234=9F", BcdService.bcd2str(bcd, 0, 7, true));
+        assertEquals("01234=9", BcdService.bcd2str(bcd, 0, 7, false));
+        assertEquals("234", BcdService.bcd2str(bcd, 1, 3, false));
+
+        char[] chars = new char[5];
+        assertEquals(3, BcdService.bcd2chars(bcd, 1, 3, true, chars, 2));
+        assertEquals("34=", new String(chars, 2, 3));
+
+        byte[] ascii = new byte[7];
+        BcdService.bcd2ascii(bcd, 0, 7, true, ascii, 0);
+        assertArrayEquals("1234=9F".getBytes(), ascii);
+    }
+
+    @Test
+    public void ascii2bcdTest() {
+        byte[] target = new byte[3];
+        assertEquals(2, BcdService.ascii2bcd("x123".getBytes(), 1, 3, true, target, 1));
+        assertArrayEquals(new byte[] {0, 0x01, 0x23}, target);
+        byte[] rightPadded = new byte[3];
+        BcdService.ascii2bcd("12345".getBytes(), 0, 5, false, rightPadded, 0);
+        assertArrayEquals(BcdService.str2bcd("12345", false), rightPadded);
+    }
+}
@@ -0,0 +1,93 @@
+package com.credibledoc.iso8583packer.bitmap;
+
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link Bitmap} conversions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BitmapTest {
+
+    @Test
+    public void bytesTest() {
+        String hex = "F234054128C28805" + "8000000000000001" + "8000000000000000";
+        byte[] bytes = HexService.hex2byte(hex);
+        Bitmap bitmap = Bitmap.fromBytes(bytes, 0, 24);
+        assertTrue(bitmap.get(1));
+        assertTrue(bitmap.get(2));
+        assertFalse(bitmap.get(5));
+        assertTrue(bitmap.get(64));
+        assertTrue(bitmap.get(65));
+        assertTrue(bitmap.get(128));
+        assertTrue(bitmap.get(129));
+        assertEquals(129, bitmap.getMaxFieldNum());
+        assertArrayEquals(bytes, bitmap.toBytes(24));
+        assertEquals(hex, new String(bitmap.toHex(24), StandardCharsets.ISO_8859_1));
+        assertEquals(bitmap, Bitmap.fromHex(hex.getBytes(StandardCharsets.ISO_8859_1), 0, 48));
+
+        BitSet bitSet = BitmapService.byte2BitSet(bytes, 0, 192);
+        assertEquals(bitSet, bitmap.toBitSet());
+        assertEquals(bitmap, Bitmap.fromBitSet(bitSet));
+        assertEquals(bitSet.toString(), bitmap.toString());
+        assertEquals(bitSet.cardinality(), bitmap.cardinality());
+    }
+
+    @Test
+    public void iterationTest() {
+        Bitmap bitmap = new Bitmap();
+        int[] fieldNums = {1, 3, 63, 64, 65, 127, 128, 129, 192};
+        for (int fieldNum : fieldNums) {
+            bitmap.set(fieldNum);
+        }
+        int index = 0;
+        for (int fieldNum = bitmap.nextFieldNum(1); fieldNum != -1; fieldNum = bitmap.nextFieldNum(fieldNum + 1)) {
+            assertEquals(fieldNums[index++], fieldNum);
+        }
+        assertEquals(fieldNums.length, index);
+
+        bitmap.clear(192);
+        bitmap.clearAbove(64);
+        assertEquals("{1, 3, 63, 64}", bitmap.toString());
+        assertArrayEquals(HexService.hex2byte("A0"), bitmap.toBytes(1));
+    }
+
+    @Test
+    public void shortBitmapTest() {
+        byte[] bytes = HexService.hex2byte("5000");
+        Bitmap bitmap = Bitmap.fromBytes(bytes, 1, 1);
+        assertTrue(bitmap.isEmpty());
+        bitmap = Bitmap.fromBytes(bytes, 0, 1);
+        assertEquals("{2, 4}", bitmap.toString());
+        assertEquals(BitmapService.byte2BitSet(bytes, 0, 8), bitmap.toBitSet());
+    }
+
+    @Test
+    public void msgValueBitSetTest() {
+        MsgValue msgValue = new MsgValue();
+        BitSet bitSet = new BitSet();
+        bitSet.set(2);
+        msgValue.setBitSet(bitSet);
+        Bitmap bitmap = msgValue.getBitmap();
+        assertEquals("{2}", bitmap.toString());
+        // The Bitmap is created from the BitSet only once
+        assertSame(bitmap, msgValue.getBitmap());
+
+        bitSet.set(3);
+        msgValue.setBitSet(bitSet);
+        assertNotSame(bitmap, msgValue.getBitmap());
+        assertEquals("{2, 3}", msgValue.getBitmap().toString());
+    }
+}
@@ -0,0 +1,124 @@
+package com.credibledoc.iso8583packer.body;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiNumericBodyPacker;
+import com.credibledoc.iso8583packer.bcd.BcdIntBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicNumericBodyPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.message.FieldPath;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Tests for the {@link NumericBodyPacker} implementations and the {@link ValueHolder#setLong(long)} and
+ * {@link ValueHolder#getLong()} methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public class NumericBodyPackerTest {
+
+    @Test
+    public void packLongTest() {
+        byte[] bytes = new byte[6];
+        AsciiNumericBodyPacker.getInstance(6).packLong(1234, bytes, 0);
+        assertEquals("001234", new String(bytes));
+        assertEquals(1234, AsciiNumericBodyPacker.getInstance(6).unpackLong(bytes, 0, 6));
+        assertEquals(3, AsciiNumericBodyPacker.getInstance().getPackedLength(999L));
+        assertEquals(Long.MAX_VALUE, AsciiNumericBodyPacker.getInstance()
+            .unpackLong(Long.toString(Long.MAX_VALUE).getBytes(), 0, 19));
+
+        EbcdicNumericBodyPacker.getInstance(4).packLong(56, bytes, 1);
+        assertEquals("F0F0F5F6", HexService.bytesToHex(bytes).substring(2, 10));
+        assertEquals(56, EbcdicNumericBodyPacker.getInstance(4).unpackLong(bytes, 1, 4));
+
+        BcdIntBodyPacker.getInstance(6).packLong(123456789012L, bytes, 0);
+        assertEquals("123456789012", HexService.bytesToHex(bytes));
+        assertEquals(123456789012L, BcdIntBodyPacker.getInstance(6).unpackLong(bytes, 0, 6));
+        assertEquals(Long.valueOf(7), AsciiNumericBodyPacker.getInstance().unpack(new byte[] {0x37}, 0, 1));
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void tooLongTest() {
+        AsciiNumericBodyPacker.getInstance(2).getPackedLength(100L);
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void notDigitTest() {
+        AsciiNumericBodyPacker.getInstance().unpackLong("1A".getBytes(), 0, 2);
+    }
+
+    @Test
+    public void valueHolderTest() {
+        MsgField definition = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("MSG")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineBodyPacker(AsciiNumericBodyPacker.getInstance(6))
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName("AMOUNT")
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(EbcdicNumericBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("COUNT")
+            .defineBodyPacker(BcdIntBodyPacker.getInstance(2))
+            .defineLen(2)
+
+            .jumpToRoot()
+            .getCurrentField();
+        FieldPath stan = FieldPath.compile(definition, "MSG", "STAN");
+        FieldPath amount = FieldPath.compile(definition, "MSG", "AMOUNT");
+        FieldPath count = FieldPath.compile(definition, "MSG", "COUNT");
+
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0200", "MSG", "MTI");
+        valueHolder.setLong(42, stan);
+        valueHolder.setLong(1500, amount);
+        valueHolder.setLong(7, count);
+        byte[] bytes = valueHolder.jumpToRoot().pack();
+        assertEquals("0200" + HexService.bytesToHex("000042".getBytes()) + HexService.bytesToHex("04".getBytes()) +
+            "F1F5F0F0" + "0007", HexService.bytesToHex(bytes));
+        assertEquals(Long.valueOf(42), valueHolder.getValue(stan));
+        assertEquals(Integer.valueOf(7), valueHolder.getValue(count));
+
+        // The same length, but the body bytes have been obtained by a caller, so they are not rewritten
+        byte[] stanBytes = valueHolder.jumpAbsolute(stan).getCurrentMsgValue().getBodyBytes();
+        valueHolder.setLong(43, stan);
+        assertNotSame(stanBytes, valueHolder.jumpAbsolute(stan).getCurrentMsgValue().getBodyBytes());
+        assertEquals("000042", new String(stanBytes));
+        assertEquals(43, valueHolder.getLong(stan));
+
+        ValueHolder incoming = ValueHolder.newInstance(definition);
+        incoming.unpack(bytes);
+        incoming.setLong(44, stan);
+        assertEquals(44, incoming.getLong(stan));
+        incoming.setLong(42, stan);
+        assertEquals(42, incoming.getLong(stan));
+        assertEquals(1500, incoming.getLong(amount));
+        assertEquals(7, incoming.getLong(count));
+
+        // A longer value changes the length header
+        incoming.setLong(123456, amount);
+        ValueHolder repacked = ValueHolder.newInstance(definition);
+        repacked.unpack(incoming.jumpToRoot().pack());
+        assertEquals(123456, repacked.getLong(amount));
+        assertEquals("F1F2F3F4F5F6",
+            HexService.bytesToHex(repacked.jumpAbsolute(amount).getCurrentMsgValue().getBodyBytes()));
+    }
+}
@@ -0,0 +1,294 @@
+package com.credibledoc.iso8583packer.codegen;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiNumericBodyPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.literal.LiteralBodyPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.plan.MessagePlan;
+import com.credibledoc.iso8583packer.plan.PlanService;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link MessageClassGenerator}. The generated source is compiled in memory and its output is
+ * compared with the output of the {@link ValueHolder}. The test uses reflection for calling of the generated
+ * methods, the generated class itself does not.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MessageClassGeneratorTest {
+    private static final String PACKAGE_NAME = "com.credibledoc.iso8583packer.generated";
+    private static final String CLASS_NAME = "AuthorizationRequest";
+    private static final String MSG = "MSG";
+    private static final String MTI = "MTI";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String PAN = "PAN";
+    private static final String AMOUNT = "AMOUNT";
+    private static final String STAN = "STAN";
+    private static final String RESPONSE_CODE = "RESPONSE_CODE";
+    private static final String ICC_DATA = "ICC_DATA";
+    private static final String NETWORK_CODE = "NETWORK_CODE";
+    private static final byte[] ICC_BYTES = {(byte) 0x9F, 0x02, 0x06, 0, 0, 0, 0, 0x10, 0};
+
+    private static MsgField definition;
+    private static MessagePlan messagePlan;
+    private static Class<?> messageClass;
+    private static Class<?> codecClass;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeTrue("The JDK compiler is not available", compiler != null);
+        definition = defineMessage();
+        messagePlan = PlanService.getInstance().compile(definition);
+        String source = MessageClassGenerator.getInstance().generate(definition, PACKAGE_NAME, CLASS_NAME);
+        ClassLoader classLoader = compile(compiler, PACKAGE_NAME + "." + CLASS_NAME, source);
+        messageClass = classLoader.loadClass(PACKAGE_NAME + "." + CLASS_NAME);
+        codecClass = classLoader.loadClass(PACKAGE_NAME + "." + CLASS_NAME + "$Codec");
+    }
+
+    @Test
+    public void packTest() throws Exception {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0100", MSG, MTI);
+        valueHolder.setValue(5000L, MSG, BIT_SET, AMOUNT);
+        valueHolder.setValue("4761739001010010", MSG, BIT_SET, PAN);
+        valueHolder.setValue(123L, MSG, BIT_SET, STAN);
+        valueHolder.setValue(ICC_BYTES, MSG, BIT_SET, ICC_DATA);
+        byte[] expected = valueHolder.jumpToRoot().pack();
+
+        Object message = messageClass.newInstance();
+        set(message, "setMti", String.class, "0100");
+        set(message, "setPan", String.class, "4761739001010010");
+        set(message, "setAmount", long.class, 5000L);
+        set(message, "setStan", long.class, 123L);
+        set(message, "setIccData", byte[].class, ICC_BYTES);
+        Object codec = newCodec();
+        byte[] actual = (byte[]) codecClass.getMethod("pack", messageClass).invoke(codec, message);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void secondaryBitmapTest() throws Exception {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0110", MSG, MTI);
+        valueHolder.setValue(77L, MSG, BIT_SET, STAN);
+        valueHolder.setValue("00", MSG, BIT_SET, RESPONSE_CODE);
+        valueHolder.setValue("301", MSG, BIT_SET, NETWORK_CODE);
+        byte[] expected = valueHolder.jumpToRoot().pack();
+
+        Object message = messageClass.newInstance();
+        set(message, "setMti", String.class, "0110");
+        set(message, "setStan", long.class, 77L);
+        set(message, "setResponseCode", String.class, "00");
+        set(message, "setNetworkCode", String.class, "301");
+        Object codec = newCodec();
+        byte[] actual = (byte[]) codecClass.getMethod("pack", messageClass).invoke(codec, message);
+        assertArrayEquals(expected, actual);
+
+        Object unpacked = codecClass.getMethod("unpack", byte[].class).invoke(codec, expected);
+        assertEquals("0110", get(unpacked, "getMti"));
+        assertEquals(77L, get(unpacked, "getStan"));
+        assertTrue((Boolean) get(unpacked, "hasStan"));
+        assertFalse((Boolean) get(unpacked, "hasAmount"));
+        assertNull(get(unpacked, "getPan"));
+        assertEquals("00", get(unpacked, "getResponseCode"));
+        assertEquals("301", get(unpacked, "getNetworkCode"));
+    }
+
+    @Test
+    public void unpackTest() throws Exception {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0100", MSG, MTI);
+        valueHolder.setValue("4761739001010010", MSG, BIT_SET, PAN);
+        valueHolder.setValue(5000L, MSG, BIT_SET, AMOUNT);
+        valueHolder.setValue(ICC_BYTES, MSG, BIT_SET, ICC_DATA);
+        byte[] bytes = valueHolder.jumpToRoot().pack();
+
+        Object codec = newCodec();
+        Object message = codecClass.getMethod("unpack", byte[].class).invoke(codec, bytes);
+        assertEquals("0100", get(message, "getMti"));
+        assertEquals("4761739001010010", get(message, "getPan"));
+        assertEquals(5000L, get(message, "getAmount"));
+        assertArrayEquals(ICC_BYTES, (byte[]) get(message, "getIccData"));
+        assertArrayEquals(bytes, (byte[]) codecClass.getMethod("pack", messageClass).invoke(codec, message));
+    }
+
+    @Test
+    public void maxLenTest() throws Exception {
+        Object message = messageClass.newInstance();
+        set(message, "setMti", String.class, "0100");
+        set(message, "setPan", String.class, "47617390010100101234");
+        try {
+            codecClass.getMethod("pack", messageClass).invoke(newCodec(), message);
+            fail("PackerRuntimeException expected");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof PackerRuntimeException);
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("maxLen"));
+        }
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void unsupportedTest() {
+        MsgField withoutLen = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+            .createChild(MsgFieldType.VAL)
+            .defineName("REST")
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .jumpToRoot()
+            .getCurrentField();
+        MessageClassGenerator.getInstance().generate(withoutLen, PACKAGE_NAME, "Unsupported");
+    }
+
+    private Object newCodec() throws Exception {
+        return codecClass.getConstructor(MessagePlan.class).newInstance(messagePlan);
+    }
+
+    private static void set(Object target, String methodName, Class<?> type, Object value) throws Exception {
+        messageClass.getMethod(methodName, type).invoke(target, value);
+    }
+
+    private static Object get(Object target, String methodName) throws Exception {
+        return messageClass.getMethod(methodName).invoke(target);
+    }
+
+    private static ClassLoader compile(JavaCompiler compiler, String className, String source) {
+        final Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        ForwardingJavaFileManager<StandardJavaFileManager> fileManager =
+            new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+                @Override
+                public JavaFileObject getJavaFileForOutput(Location location, final String name,
+                                                           JavaFileObject.Kind kind, FileObject sibling) {
+                    return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') +
+                            kind.extension), kind) {
+                        @Override
+                        public OutputStream openOutputStream() {
+                            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                            classes.put(name, outputStream);
+                            return outputStream;
+                        }
+                    };
+                }
+            };
+        JavaFileObject sourceObject = new SimpleJavaFileObject(URI.create("string:///" +
+                className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        String classpath = new File(MsgField.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+            .getPath();
+        Boolean success = compiler.getTask(null, fileManager, diagnostics,
+            Arrays.asList("-classpath", classpath), null, Collections.singletonList(sourceObject)).call();
+        if (!success) {
+            StringBuilder stringBuilder = new StringBuilder("Compilation failed:\n");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                stringBuilder.append(diagnostic).append('\n');
+            }
+            throw new IllegalStateException(stringBuilder.append(source).toString());
+        }
+        return new ClassLoader(MessageClassGeneratorTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                ByteArrayOutputStream outputStream = classes.get(name);
+                if (outputStream == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                byte[] bytes = outputStream.toByteArray();
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+    }
+
+    private static MsgField defineMessage() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(MTI)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(-1))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName(PAN)
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineMaxLen(19)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(AMOUNT)
+            .defineFieldNum(4)
+            .defineBodyPacker(AsciiNumericBodyPacker.getInstance(12))
+            .defineLen(12)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(STAN)
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiNumericBodyPacker.getInstance(6))
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(RESPONSE_CODE)
+            .defineFieldNum(39)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName(ICC_DATA)
+            .defineFieldNum(55)
+            .defineHeaderLengthPacker(BinaryLengthPacker.getInstance(1))
+            .defineBodyPacker(LiteralBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(NETWORK_CODE)
+            .defineFieldNum(70)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(3)
+
+            .jumpToRoot();
+        return fieldBuilder.getCurrentField();
+    }
+}
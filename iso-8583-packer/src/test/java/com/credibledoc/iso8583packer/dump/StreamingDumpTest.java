@@ -0,0 +1,129 @@
+package com.credibledoc.iso8583packer.dump;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.pan.PanMasker;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link DumpService#dumpMsgValue(MsgField, MsgValue, Appendable, DumpLayout, boolean)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class StreamingDumpTest {
+    private static final String MSG = "MSG";
+    private static final String BIT_SET = "BIT_SET";
+
+    @Test
+    public void compactTest() {
+        MsgField msgField = defineMessage();
+        MsgValue msgValue = createMessage(msgField);
+        DumpService dumpService = DumpService.getInstance();
+
+        assertEquals("MSG{MTI=0200 BIT_SET{PAN=1234567890123456 STAN=00\"01\"}}",
+            dumpService.dumpMsgValue(msgField, msgValue, DumpLayout.COMPACT, false));
+        assertEquals("MSG{MTI=0200 BIT_SET{PAN=1234************ STAN=00\"01\"}}",
+            dumpService.dumpMsgValue(msgField, msgValue, DumpLayout.COMPACT, true));
+    }
+
+    @Test
+    public void jsonTest() throws Exception {
+        MsgField msgField = defineMessage();
+        MsgValue msgValue = createMessage(msgField);
+        DumpService dumpService = DumpService.getInstance();
+
+        String expected = "{\"MSG\":{\"MTI\":\"0200\",\"BIT_SET\":{\"PAN\":\"1234************\"," +
+            "\"STAN\":\"00\\\"01\\\"\"}}}";
+        assertEquals(expected, dumpService.dumpMsgValue(msgField, msgValue, DumpLayout.JSON, true));
+
+        StringWriter writer = new StringWriter();
+        dumpService.dumpMsgValue(msgField, msgValue, writer, DumpLayout.JSON, true);
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void zeroCopyTest() {
+        MsgField msgField = defineMessage();
+        MsgValue source = createMessage(msgField);
+        byte[] bytes = ValueHolder.newInstance(source, msgField).pack();
+        ValueHolder valueHolder = ValueHolder.newInstance(msgField);
+        valueHolder.setZeroCopy(true);
+        valueHolder.setLazy(true);
+        MsgValue msgValue = valueHolder.unpack(bytes);
+
+        // Not decoded values are dumped the same way as decoded ones and stay not decoded
+        String expected = "MSG{MTI=0200 BIT_SET{PAN=1234************ STAN=00\"01\"}}";
+        DumpService dumpService = DumpService.getInstance();
+        assertEquals(expected, dumpService.dumpMsgValue(msgField, msgValue, DumpLayout.COMPACT, true));
+        MsgValue mti = msgValue.getChildren().get(0);
+        assertFalse(mti.isBodyValueDecoded());
+
+        assertEquals("0200", mti.getBodyValue());
+        assertTrue(mti.isBodyValueDecoded());
+        assertEquals(expected, dumpService.dumpMsgValue(msgField, msgValue, DumpLayout.COMPACT, true));
+    }
+
+    @Test
+    public void bodySliceTest() {
+        MsgValue msgValue = new MsgValue();
+        msgValue.setName("RAW");
+        msgValue.setBodySlice(new byte[] {1, 2, 3, 4}, 1, 2);
+        DumpService dumpService = DumpService.getInstance();
+
+        assertEquals("RAW=0x0203", dumpService.dumpMsgValue(null, msgValue, DumpLayout.COMPACT, false));
+        // Undefined fields are masked by the AnyMasker
+        assertEquals("RAW=0x9999", dumpService.dumpMsgValue(null, msgValue, DumpLayout.COMPACT, true));
+    }
+
+    private MsgValue createMessage(MsgField msgField) {
+        ValueHolder valueHolder = ValueHolder.newInstance(msgField);
+        valueHolder.setValue("0200", MSG, "MTI");
+        valueHolder.setValue("1234567890123456", MSG, BIT_SET, "PAN");
+        valueHolder.setValue("00\"01\"", MSG, BIT_SET, "STAN");
+        return valueHolder.jumpToRoot().getCurrentMsgValue();
+    }
+
+    private MsgField defineMessage() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineMasker(PanMasker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure();
+        return fieldBuilder.getCurrentField();
+    }
+}
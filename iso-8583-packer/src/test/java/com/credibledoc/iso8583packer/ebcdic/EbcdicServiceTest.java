@@ -0,0 +1,43 @@
+package com.credibledoc.iso8583packer.ebcdic;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link EbcdicService} conversions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class EbcdicServiceTest {
+
+    @Test
+    public void roundTripTest() {
+        byte[] ascii = new byte[256];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+        byte[] ebcdic = new byte[256];
+        EbcdicService.asciiToEbcdic(ascii, 0, ascii.length, ebcdic, 0);
+        assertEquals((byte) 0xF1, ebcdic['1']);
+
+        byte[] back = new byte[256];
+        EbcdicService.ebcdicToAscii(ebcdic, 0, ebcdic.length, back, 0);
+        assertArrayEquals(ascii, back);
+
+        String latin = new String(ascii, StandardCharsets.ISO_8859_1);
+        assertEquals(latin, EbcdicService.ebcdicToAscii(ebcdic, 0, ebcdic.length, StandardCharsets.ISO_8859_1));
+        assertEquals("ABC", EbcdicService.ebcdicToAscii(ebcdic, 'A', 3, StandardCharsets.UTF_8));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(3);
+        EbcdicService.ebcdicToAscii(ebcdic, '0', 3, buffer);
+        buffer.flip();
+        byte[] digits = new byte[3];
+        buffer.get(digits);
+        assertArrayEquals("012".getBytes(), digits);
+    }
+}
@@ -0,0 +1,121 @@
+package com.credibledoc.iso8583packer.exception;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link MalformedMessageException} and the {@link ValueHolder#setFailFast(boolean)} mode.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MalformedMessageExceptionTest {
+    private static final String PAN = "PAN";
+
+    /** The PAN declares 16 bytes but only 4 bytes follow. */
+    private static final byte[] TRUNCATED = "01161234".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Test
+    public void failFastTest() {
+        ValueHolder valueHolder = ValueHolder.newInstance(defineMessage(false));
+        valueHolder.setFailFast(true);
+        MalformedMessageException exception = unpackTruncated(valueHolder);
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertNotNull(exception.getCause());
+        assertEquals(0, exception.getCause().getStackTrace().length);
+        assertEquals(4, exception.getOffset());
+        assertEquals(16, exception.getExpectedLength());
+        assertEquals(4, exception.getActualLength());
+        assertNotNull(exception.getPath());
+        assertTrue(exception.getPath().contains(PAN));
+        assertTrue(exception.getMessage().contains("Partial dump"));
+        assertTrue(exception.getMessage().contains("Expected length: 16."));
+    }
+
+    @Test
+    public void failFastPlanTest() {
+        ValueHolder valueHolder = ValueHolder.newInstance(defineMessage(true));
+        valueHolder.setFailFast(true);
+        MalformedMessageException exception = unpackTruncated(valueHolder);
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertNotNull(exception.getCause());
+        assertEquals(0, exception.getCause().getStackTrace().length);
+        assertEquals(4, exception.getOffset());
+        assertEquals(16, exception.getExpectedLength());
+        assertEquals(4, exception.getActualLength());
+        assertTrue(exception.getPath().contains(PAN));
+    }
+
+    @Test
+    public void defaultModeTest() {
+        ValueHolder valueHolder = ValueHolder.newInstance(defineMessage(false));
+        assertFalse(valueHolder.isFailFast());
+        try {
+            valueHolder.unpack(TRUNCATED);
+            fail("PackerRuntimeException expected");
+        } catch (PackerRuntimeException e) {
+            assertFalse(e instanceof MalformedMessageException);
+            assertTrue(e.getMessage().contains("Partial dump"));
+            assertTrue(e.getStackTrace().length > 0);
+        }
+    }
+
+    @Test
+    public void lazyMessageTest() {
+        int[] calls = new int[1];
+        MalformedMessageException exception = new MalformedMessageException("Wrong data.", () -> {
+            calls[0]++;
+            return "MSG.PAN";
+        }, () -> {
+            calls[0]++;
+            return "\nDump";
+        }, null, false);
+        assertEquals(0, calls[0]);
+        assertEquals("Wrong data. Path: 'MSG.PAN'.\nDump", exception.getMessage());
+        assertEquals("Wrong data. Path: 'MSG.PAN'.\nDump", exception.getMessage());
+        assertEquals(2, calls[0]);
+        assertEquals(MalformedMessageException.UNKNOWN, exception.getOffset());
+    }
+
+    private MalformedMessageException unpackTruncated(ValueHolder valueHolder) {
+        try {
+            valueHolder.unpack(TRUNCATED);
+        } catch (MalformedMessageException e) {
+            return e;
+        }
+        throw new AssertionError("MalformedMessageException expected");
+    }
+
+    private MsgField defineMessage(boolean frozen) {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("MSG")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName(PAN)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure(frozen);
+        return fieldBuilder.getCurrentField();
+    }
+}
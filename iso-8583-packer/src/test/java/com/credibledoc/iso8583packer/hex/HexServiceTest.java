@@ -0,0 +1,63 @@
+package com.credibledoc.iso8583packer.hex;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link HexService} conversions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class HexServiceTest {
+
+    @Test
+    public void allBytesTest() {
+        byte[] bytes = new byte[256];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+            expected.append(String.format("%02X", i));
+        }
+        assertEquals(expected.toString(), HexService.bytesToHex(bytes));
+        assertEquals(expected.substring(20, 40), HexService.bytesToHex(bytes, 10, 10));
+        assertArrayEquals(bytes, HexService.hex2byte(expected.toString()));
+        assertArrayEquals(bytes, HexService.hex2byte(expected.toString().toLowerCase()));
+
+        byte[] target = new byte[6];
+        assertEquals(2, HexService.hex2byte("xxA1b2".getBytes(), 2, 2, target, 3));
+        assertArrayEquals(new byte[] {0, 0, 0, (byte) 0xA1, (byte) 0xB2, 0}, target);
+        assertEquals("01 0A FF", HexService.bytesToHex(new byte[] {1, 10, -1}, " "));
+    }
+
+    @Test
+    public void targetsTest() {
+        byte[] bytes = {0x12, (byte) 0xAB, (byte) 0xFF};
+        char[] chars = new char[8];
+        assertEquals(4, HexService.bytesToHex(bytes, 1, 2, chars, 2));
+        assertEquals("ABFF", new String(chars, 2, 4));
+
+        ByteBuffer heapBuffer = ByteBuffer.allocate(10);
+        heapBuffer.put((byte) '-');
+        HexService.bytesToHex(bytes, 0, 3, heapBuffer);
+        assertEquals(7, heapBuffer.position());
+        assertEquals("-12ABFF", new String(heapBuffer.array(), 0, 7));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(6);
+        HexService.bytesToHex(bytes, 0, 3, directBuffer);
+        directBuffer.flip();
+        byte[] direct = new byte[6];
+        directBuffer.get(direct);
+        assertEquals("12ABFF", new String(direct));
+    }
+
+    @Test
+    public void invalidDigitsTest() {
+        // Invalid characters are converted the same way as by the Character.digit method
+        byte[] expected = {(byte) (Character.digit('G', 16) << 4 | Character.digit('1', 16))};
+        assertArrayEquals(expected, HexService.hex2byte("G1".getBytes(), 0, 1));
+    }
+}
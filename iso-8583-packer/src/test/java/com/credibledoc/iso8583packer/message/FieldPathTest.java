@@ -0,0 +1,141 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link FieldPath} and its usage in the {@link ValueHolder}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FieldPathTest {
+
+    private static final String MSG = "MSG";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String EMV = "EMV";
+
+    @Test
+    public void setAndGetTest() {
+        MsgField definition = defineMessage();
+        FieldPath mti = FieldPath.compile(definition, MSG, "MTI");
+        FieldPath pan = FieldPath.compile(definition, MSG, BIT_SET, "PAN");
+        FieldPath tag3 = FieldPath.compile(definition, Arrays.asList(MSG, BIT_SET, EMV, "tag-3"));
+        assertSame(definition, tag3.getRoot());
+        assertEquals("tag-3", tag3.getTarget().getName());
+        assertEquals(4, tag3.size());
+
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0200", mti);
+        valueHolder.setValue("123456", pan);
+        valueHolder.setValue("33", tag3);
+        assertFalse(valueHolder.hasValue(FieldPath.compile(definition, MSG, BIT_SET, EMV, "tag-1")));
+        assertTrue(valueHolder.hasValue(tag3));
+        assertEquals("33", valueHolder.getValue(tag3));
+
+        ValueHolder expected = ValueHolder.newInstance(definition);
+        expected.setValue("0200", MSG, "MTI");
+        expected.setValue("123456", MSG, BIT_SET, "PAN");
+        expected.setValue("33", MSG, BIT_SET, EMV, "tag-3");
+        byte[] bytes = expected.jumpToRoot().pack();
+        assertArrayEquals(bytes, valueHolder.jumpToRoot().pack());
+
+        ValueHolder incoming = ValueHolder.newInstance(definition);
+        incoming.unpack(bytes);
+        assertEquals("123456", incoming.getValue(pan));
+        assertEquals("33", incoming.jumpAbsolute(tag3).getValue());
+        assertSame(tag3.getTarget(), incoming.getCurrentMsgField());
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void unknownNameTest() {
+        FieldPath.compile(defineMessage(), MSG, BIT_SET, "unknown");
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void otherDefinitionTest() {
+        FieldPath mti = FieldPath.compile(defineMessage(), MSG, "MTI");
+        ValueHolder.newInstance(defineMessage()).setValue("0200", mti);
+    }
+
+    @Test
+    public void restorePositionTest() {
+        MsgField definition = defineMessage();
+        FieldPath mti = FieldPath.compile(definition, MSG, "MTI");
+        FieldPath pan = FieldPath.compile(definition, MSG, BIT_SET, "PAN");
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0200", mti);
+        MsgField currentMsgField = valueHolder.getCurrentMsgField();
+        MsgValue currentMsgValue = valueHolder.getCurrentMsgValue();
+
+        assertNull(valueHolder.getValue(pan));
+        assertSame(currentMsgField, valueHolder.getCurrentMsgField());
+        assertSame(currentMsgValue, valueHolder.getCurrentMsgValue());
+
+        try {
+            valueHolder.getValue(FieldPath.compile(defineMessage(), MSG, "MTI"));
+            fail("The path of another definition should be rejected");
+        } catch (PackerRuntimeException e) {
+            assertSame(currentMsgField, valueHolder.getCurrentMsgField());
+            assertSame(currentMsgValue, valueHolder.getCurrentMsgValue());
+        }
+    }
+
+    private MsgField defineMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName(EMV)
+            .defineFieldNum(55)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(3))
+            .defineChildrenLengthPacker(EbcdicDecimalLengthPacker.getInstance(2))
+            .defineChildrenTagPacker(EbcdicDecimalTagPacker.getInstance(2))
+
+            .createChild(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(1)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-1")
+
+            .createSibling(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(3)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-3")
+
+            .jumpToRoot()
+            .getCurrentField();
+    }
+}
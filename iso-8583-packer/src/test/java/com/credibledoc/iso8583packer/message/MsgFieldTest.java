@@ -0,0 +1,86 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the {@link MsgField} children lookup methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MsgFieldTest {
+
+    @Test
+    public void findChildTest() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.BIT_SET)
+            .defineName("bitSet")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(16))
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("first")
+            .defineFieldNum(2)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(1)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("second")
+            .defineFieldNum(120)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(1)
+
+            .jumpToParent();
+        MsgField bitSet = fieldBuilder.getCurrentField();
+
+        MsgField first = bitSet.getChildren().get(0);
+        MsgField second = bitSet.getChildren().get(1);
+        assertSame(first, bitSet.findChildByName("first"));
+        assertSame(second, bitSet.findChildByFieldNum(120));
+        assertNull(bitSet.findChildByFieldNum(3));
+        assertNull(bitSet.findChildByName("third"));
+        assertEquals(120, bitSet.getMaxChildFieldNum());
+        assertSame(second, NavigatorService.getInstance().findByName(bitSet.getChildren(), "second"));
+
+        // The lookup tables follow changes of the children
+        second.setName("renamed");
+        second.setFieldNum(300);
+        assertNull(bitSet.findChildByName("second"));
+        assertSame(second, bitSet.findChildByName("renamed"));
+        assertSame(second, bitSet.findChildByFieldNum(300));
+        assertNull(bitSet.findChildByFieldNum(120));
+
+        MsgField third = fieldBuilder.jumpToChild("first")
+            .createSibling(MsgFieldType.VAL)
+            .defineName("third")
+            .defineFieldNum(3)
+            .getCurrentField();
+        assertSame(third, bitSet.findChildByFieldNum(3));
+        assertSame(third, NavigatorService.getInstance().findByFieldNum(bitSet.getChildren(), 3));
+
+        // Changes of the list with the same size
+        MsgField fourth = new MsgField();
+        fourth.setName("fourth");
+        fourth.setFieldNum(4);
+        bitSet.getChildren().set(bitSet.getChildren().indexOf(third), fourth);
+        assertNull(bitSet.findChildByName("third"));
+        assertSame(fourth, bitSet.findChildByFieldNum(4));
+
+        bitSet.getChildren().remove(fourth);
+        bitSet.getChildren().add(third);
+        assertNull(bitSet.findChildByName("fourth"));
+        assertSame(third, bitSet.findChildByName("third"));
+
+        bitSet.getChildren().sort(Comparator.comparing(MsgField::getName));
+        bitSet.getChildren().set(0, fourth);
+        assertSame(fourth, bitSet.findChildByName("fourth"));
+        assertNull(bitSet.findChildByName("first"));
+    }
+}
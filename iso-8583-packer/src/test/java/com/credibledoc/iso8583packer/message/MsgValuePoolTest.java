@@ -0,0 +1,194 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link MsgValuePool} and the {@link ValueHolder#reset()} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class MsgValuePoolTest {
+    private static final Logger logger = LoggerFactory.getLogger(MsgValuePoolTest.class);
+
+    private static final String MSG = "MSG";
+    private static final String MTI = "MTI";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String PAN = "PAN";
+    private static final String STAN = "STAN";
+    private static final int WARM_UP = 100000;
+    private static final int MEASURED = 20000;
+
+    /**
+     * Bytes allocated per message with the pool. Only small objects of the unpacking are allocated, for example
+     * the {@link com.credibledoc.iso8583packer.bitmap.Bitmap}, the {@link com.credibledoc.iso8583packer.offset.Offset}
+     * and entries of the {@link MsgValue#getChildNamesMap()} maps. A single {@link MsgValue} or {@link java.util.List}
+     * allocated per field exceeds the limit.
+     */
+    private static final long MAX_POOLED_BYTES_PER_FIELD = 80;
+
+    @Test
+    public void releaseAndAcquireTest() {
+        MsgField definition = defineMessage();
+        byte[] bytes = createMessage(definition, "000001");
+        MsgValuePool pool = new MsgValuePool(16);
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setMsgValuePool(pool);
+
+        valueHolder.unpack(bytes);
+        MsgValue firstRoot = valueHolder.jumpToRoot().getCurrentMsgValue();
+        MsgValue firstStan = firstRoot.getChildNamesMap().get(BIT_SET).getChildNamesMap().get(STAN);
+        assertEquals("000001", firstStan.getBodyValue());
+
+        valueHolder.reset();
+        assertNull(firstStan.getName());
+        assertNull(firstStan.getParent());
+        assertTrue(firstStan.getChildNamesMap().isEmpty());
+        assertEquals(4, pool.getIdleCount());
+
+        valueHolder.unpack(createMessage(definition, "000002"));
+        MsgValue secondRoot = valueHolder.jumpToRoot().getCurrentMsgValue();
+        assertSame(secondRoot, secondRoot.getRoot());
+        assertEquals("000002", valueHolder.getValue(MSG, BIT_SET, STAN));
+        assertEquals("1234567890123456", valueHolder.getValue(MSG, BIT_SET, PAN));
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void resetWithoutRootTest() {
+        MsgField definition = defineMessage();
+        MsgValuePool pool = new MsgValuePool(16);
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setMsgValuePool(pool);
+        valueHolder.unpack(createMessage(definition, "000001"));
+        MsgValue bitSet = valueHolder.jumpToRoot().jumpToChild(BIT_SET).getCurrentMsgValue();
+
+        // A value without the root reference, for example created manually
+        valueHolder.jumpToChild(STAN).getCurrentMsgValue().setRoot(null);
+        valueHolder.reset();
+        assertNull(bitSet.getName());
+        assertEquals(4, pool.getIdleCount());
+    }
+
+    @Test
+    public void maxSizeTest() {
+        MsgValuePool pool = new MsgValuePool(1);
+        MsgValue parent = pool.acquire();
+        MsgValue child = pool.acquire();
+        assertNotSame(parent, child);
+        parent.setChildren(pool.acquireList());
+        parent.getChildren().add(child);
+        child.setParent(parent);
+
+        pool.release(parent);
+        assertEquals(1, pool.getIdleCount());
+        assertSame(child, pool.acquire());
+        assertTrue(pool.acquireList().isEmpty());
+    }
+
+    /**
+     * Measure the number of bytes allocated by the current thread for unpacking with and without the pool,
+     * after warm-up.
+     */
+    @Test
+    public void allocationTest() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(sunThreadMXBean.isThreadAllocatedMemorySupported());
+        sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        MsgField definition = defineMessage();
+        byte[] bytes = createMessage(definition, "123456");
+
+        ValueHolder unpooled = newZeroCopyHolder(definition, null);
+        ValueHolder pooled = newZeroCopyHolder(definition, new MsgValuePool(64));
+        unpackMessages(unpooled, bytes, WARM_UP);
+        unpackMessages(pooled, bytes, WARM_UP);
+
+        long threadId = Thread.currentThread().getId();
+        long start = sunThreadMXBean.getThreadAllocatedBytes(threadId);
+        unpackMessages(unpooled, bytes, MEASURED);
+        long unpooledBytes = (sunThreadMXBean.getThreadAllocatedBytes(threadId) - start) / MEASURED;
+
+        start = sunThreadMXBean.getThreadAllocatedBytes(threadId);
+        unpackMessages(pooled, bytes, MEASURED);
+        long pooledBytes = (sunThreadMXBean.getThreadAllocatedBytes(threadId) - start) / MEASURED;
+
+        logger.info("Allocated bytes per message, unpooled: {}, pooled: {}", unpooledBytes, pooledBytes);
+        // The root, MTI, BIT_SET, PAN and STAN values
+        int fields = 5;
+        assertTrue("Unpooled: " + unpooledBytes + ", pooled: " + pooledBytes,
+            pooledBytes <= fields * MAX_POOLED_BYTES_PER_FIELD);
+    }
+
+    private static ValueHolder newZeroCopyHolder(MsgField definition, MsgValuePool pool) {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setZeroCopy(true);
+        valueHolder.setLazy(true);
+        valueHolder.setMsgValuePool(pool);
+        return valueHolder;
+    }
+
+    private static void unpackMessages(ValueHolder valueHolder, byte[] bytes, int count) {
+        for (int i = 0; i < count; i++) {
+            valueHolder.reset();
+            valueHolder.unpack(bytes);
+        }
+    }
+
+    private static byte[] createMessage(MsgField definition, String stan) {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0200", MSG, MTI);
+        valueHolder.setValue("1234567890123456", MSG, BIT_SET, PAN);
+        valueHolder.setValue(stan, MSG, BIT_SET, STAN);
+        return valueHolder.jumpToRoot().pack();
+    }
+
+    private static MsgField defineMessage() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(MTI)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName(PAN)
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(STAN)
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure(true);
+        return fieldBuilder.getCurrentField();
+    }
+}
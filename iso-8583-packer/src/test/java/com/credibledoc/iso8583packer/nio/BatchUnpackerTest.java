@@ -0,0 +1,198 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.plan.PlanService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link BatchUnpacker} class.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BatchUnpackerTest {
+    private static final String MSG = "MSG";
+    private static final String MTI = "MTI";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String STAN = "STAN";
+    private static final int FRAMES = 5000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MsgField definition;
+    private FrameCodec frameCodec;
+    private ForkJoinPool forkJoinPool;
+    private BatchUnpacker batchUnpacker;
+
+    @Before
+    public void before() {
+        definition = defineMessage();
+        frameCodec = new FrameCodec(BinaryLengthPacker.getInstance(2), 8192);
+        forkJoinPool = new ForkJoinPool(4);
+        batchUnpacker = new BatchUnpacker(PlanService.getInstance().compile(definition), frameCodec,
+            forkJoinPool, 64);
+    }
+
+    @After
+    public void after() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @Test
+    public void heapBufferTest() {
+        ByteBuffer buffer = ByteBuffer.wrap(createCapture(FRAMES));
+        List<String> stans = new ArrayList<>();
+        long count = batchUnpacker.unpack(buffer, (index, frame, msgValue) -> stans.add(getStan(index, msgValue)));
+        assertEquals(FRAMES, count);
+        assertOrdered(stans);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void directBufferTest() {
+        byte[] capture = createCapture(FRAMES);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capture.length);
+        buffer.put(capture).flip();
+        List<String> stans = new ArrayList<>();
+        long count = batchUnpacker.unpack(buffer, (index, frame, msgValue) -> stans.add(getStan(index, msgValue)));
+        assertEquals(FRAMES, count);
+        assertOrdered(stans);
+    }
+
+    @Test
+    public void fileChannelTest() throws Exception {
+        File file = temporaryFolder.newFile("capture.bin");
+        Files.write(file.toPath(), createCapture(FRAMES));
+        List<String> stans = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long count = batchUnpacker.unpack(channel,
+                (index, frame, msgValue) -> stans.add(getStan(index, msgValue)));
+            assertEquals(FRAMES, count);
+        }
+        assertOrdered(stans);
+    }
+
+    @Test
+    public void onErrorTest() {
+        byte[] capture = createCapture(3);
+        // the PAN length of the second frame is greater than the frame, the PAN length follows the MTI and bitmap
+        int panLengthOffset = 2 + capture[1] + 2 + 2 + 8;
+        byte[] broken = capture.clone();
+        broken[panLengthOffset] = '9';
+        broken[panLengthOffset + 1] = '9';
+
+        List<Long> errors = new ArrayList<>();
+        List<Long> messages = new ArrayList<>();
+        batchUnpacker.unpack(ByteBuffer.wrap(broken), new BatchUnpacker.MessageListener() {
+            @Override
+            public void onMessage(long index, byte[] frame, MsgValue msgValue) {
+                messages.add(index);
+            }
+
+            @Override
+            public void onError(long index, byte[] frame, RuntimeException exception) {
+                errors.add(index);
+            }
+        });
+        assertEquals(2, messages.size());
+        assertEquals(Long.valueOf(1), errors.get(0));
+    }
+
+    @Test
+    public void incompleteFrameTest() {
+        byte[] capture = createCapture(10);
+        ByteBuffer buffer = ByteBuffer.wrap(capture, 0, capture.length - 1);
+        List<Long> messages = new ArrayList<>();
+        try {
+            batchUnpacker.unpack(buffer, (index, frame, msgValue) -> messages.add(index));
+            fail("PackerRuntimeException expected");
+        } catch (PackerRuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("incomplete frame"));
+        }
+        assertEquals(9, messages.size());
+    }
+
+    private static String getStan(long index, MsgValue msgValue) {
+        MsgValue bitSet = msgValue.getChildNamesMap().get(BIT_SET);
+        assertEquals("0200", msgValue.getChildNamesMap().get(MTI).getBodyValue());
+        return index + ":" + bitSet.getChildNamesMap().get(STAN).getBodyValue();
+    }
+
+    private static void assertOrdered(List<String> stans) {
+        assertEquals(FRAMES, stans.size());
+        for (int i = 0; i < stans.size(); i++) {
+            assertEquals(i + ":" + String.format("%06d", i), stans.get(i));
+        }
+    }
+
+    private byte[] createCapture(int frames) {
+        ByteBuffer capture = ByteBuffer.allocate(frames * 64);
+        for (int i = 0; i < frames; i++) {
+            ValueHolder valueHolder = ValueHolder.newInstance(definition);
+            valueHolder.setValue("0200", MSG, MTI);
+            valueHolder.setValue("1234567890123456", MSG, BIT_SET, "PAN");
+            valueHolder.setValue(String.format("%06d", i), MSG, BIT_SET, STAN);
+            capture.put(frameCodec.encode(valueHolder.jumpToRoot().pack()));
+        }
+        capture.flip();
+        byte[] bytes = new byte[capture.remaining()];
+        capture.get(bytes);
+        return bytes;
+    }
+
+    private static MsgField defineMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(MTI)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(STAN)
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .jumpToRoot()
+            .getCurrentField();
+    }
+}
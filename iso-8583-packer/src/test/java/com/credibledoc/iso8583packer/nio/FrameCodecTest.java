@@ -0,0 +1,64 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link FrameCodec}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FrameCodecTest {
+
+    @Test
+    public void binaryPrefixTest() {
+        FrameCodec frameCodec = new FrameCodec(BinaryLengthPacker.getInstance(2), 1000);
+        ByteBuffer first = frameCodec.encode(new byte[] {1, 2, 3});
+        assertArrayEquals(new byte[] {0, 3, 1, 2, 3}, first.array());
+
+        byte[] stream = new byte[5 + 302];
+        System.arraycopy(first.array(), 0, stream, 0, 5);
+        System.arraycopy(frameCodec.encode(new byte[300]).array(), 0, stream, 5, 302);
+        List<byte[]> frames = new ArrayList<>();
+
+        // The second frame is split to two reads
+        ByteBuffer buffer = ByteBuffer.allocate(400);
+        buffer.put(stream, 0, 100).flip();
+        assertEquals(1, frameCodec.decode(buffer, frames::add));
+        assertEquals(5, buffer.position());
+        buffer.compact();
+        buffer.put(stream, 100, stream.length - 100).flip();
+        assertEquals(1, frameCodec.decode(buffer, frames::add));
+        assertEquals(2, frames.size());
+        assertArrayEquals(new byte[] {1, 2, 3}, frames.get(0));
+        assertEquals(300, frames.get(1).length);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void asciiPrefixTest() {
+        FrameCodec frameCodec = new FrameCodec(AsciiLengthPacker.getInstance(4), 1000);
+        ByteBuffer buffer = ByteBuffer.wrap("0002ab0001c00".getBytes());
+        List<byte[]> frames = new ArrayList<>();
+        assertEquals(2, frameCodec.decode(buffer, frames::add));
+        assertArrayEquals("ab".getBytes(), frames.get(0));
+        assertArrayEquals("c".getBytes(), frames.get(1));
+        // The incomplete length prefix stays in the buffer
+        assertEquals(2, buffer.remaining());
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void tooLongFrameTest() {
+        FrameCodec frameCodec = new FrameCodec(BinaryLengthPacker.getInstance(2), 10);
+        frameCodec.decode(ByteBuffer.wrap(new byte[] {0, 11}), frame -> { });
+    }
+}
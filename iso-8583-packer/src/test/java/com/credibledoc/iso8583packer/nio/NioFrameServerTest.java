@@ -0,0 +1,238 @@
+package com.credibledoc.iso8583packer.nio;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.FieldPath;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A loopback {@link NioFrameServer} with a load client. The client sends pipelined ISO 8583 requests
+ * with 2-byte binary length prefixes and checks the responses. Throughput and latencies are logged.
+ *
+ * @author Kyrylo Semenko
+ */
+public class NioFrameServerTest {
+    private static final Logger logger = LoggerFactory.getLogger(NioFrameServerTest.class);
+
+    private static final int CONNECTIONS = 4;
+    private static final int REQUESTS_PER_CONNECTION = 2000;
+    private static final String MSG = "MSG";
+    private static final String MTI = "MTI";
+    private static final String BIT_SET = "BIT_SET";
+
+    @Test
+    public void loopbackTest() throws Exception {
+        final MsgField definition = defineMessage();
+        final FieldPath mti = FieldPath.compile(definition, MSG, MTI);
+        final FieldPath stan = FieldPath.compile(definition, MSG, BIT_SET, "STAN");
+        final FrameCodec frameCodec = new FrameCodec(BinaryLengthPacker.getInstance(2), 8192);
+
+        FrameHandler frameHandler = frame -> {
+            ValueHolder valueHolder = ValueHolder.newInstance(definition);
+            valueHolder.unpack(frame);
+            valueHolder.setValue("0210", mti);
+            valueHolder.setValue("00", MSG, BIT_SET, "RESPONSE_CODE");
+            return valueHolder.jumpToRoot().pack();
+        };
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        ExecutorService clients = Executors.newFixedThreadPool(CONNECTIONS * 2);
+        try (NioFrameServer server = new NioFrameServer(new InetSocketAddress("localhost", 0), frameCodec,
+                frameHandler, workers, new BufferPool(256, CONNECTIONS), 128).start()) {
+
+            long start = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int connection = 0; connection < CONNECTIONS; connection++) {
+                futures.add(clients.submit(newLoadClient(server.getPort(), definition, mti, stan, clients)));
+            }
+            long[] latencies = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] connectionLatencies = future.get(60, TimeUnit.SECONDS);
+                int length = latencies.length;
+                latencies = Arrays.copyOf(latencies, length + connectionLatencies.length);
+                System.arraycopy(connectionLatencies, 0, latencies, length, connectionLatencies.length);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(CONNECTIONS * REQUESTS_PER_CONNECTION, latencies.length);
+            Arrays.sort(latencies);
+            long p50 = latencies[latencies.length / 2];
+            long p99 = latencies[(int) (latencies.length * 0.99) - 1];
+            logger.info("Messages: {}, throughput: {} msg/s, p50: {} us, p99: {} us", latencies.length,
+                latencies.length * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99));
+            // A response cannot be received before its request has been sent
+            assertTrue("Minimal latency " + latencies[0], latencies[0] > 0);
+            assertTrue(p50 <= p99);
+            assertTrue("Maximal latency " + latencies[latencies.length - 1], latencies[latencies.length - 1] <= elapsed);
+        } finally {
+            clients.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * The client sends requests and closes its output. All pipelined responses are written before the server
+     * closes the connection.
+     */
+    @Test
+    public void halfCloseTest() throws Exception {
+        final MsgField definition = defineMessage();
+        final FieldPath mti = FieldPath.compile(definition, MSG, MTI);
+        final FieldPath stan = FieldPath.compile(definition, MSG, BIT_SET, "STAN");
+        final FrameCodec frameCodec = new FrameCodec(BinaryLengthPacker.getInstance(2), 8192);
+        final int requests = 20;
+
+        FrameHandler frameHandler = frame -> {
+            // Responses are still pending when the end of the input stream is read by the server
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            ValueHolder valueHolder = ValueHolder.newInstance(definition);
+            valueHolder.unpack(frame);
+            valueHolder.setValue("0210", mti);
+            return valueHolder.jumpToRoot().pack();
+        };
+
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try (NioFrameServer server = new NioFrameServer(new InetSocketAddress("localhost", 0), frameCodec,
+                frameHandler, workers, new BufferPool(256, 1), 128).start();
+             Socket socket = new Socket("localhost", server.getPort())) {
+
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10));
+            DataOutputStream outputStream = new DataOutputStream(socket.getOutputStream());
+            for (int i = 0; i < requests; i++) {
+                ValueHolder valueHolder = ValueHolder.newInstance(definition);
+                valueHolder.setValue("0200", mti);
+                valueHolder.setValue(String.format("%06d", i), stan);
+                byte[] request = valueHolder.jumpToRoot().pack();
+                outputStream.writeShort(request.length);
+                outputStream.write(request);
+            }
+            outputStream.flush();
+            socket.shutdownOutput();
+
+            DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i < requests; i++) {
+                byte[] response = new byte[inputStream.readUnsignedShort()];
+                inputStream.readFully(response);
+                ValueHolder valueHolder = ValueHolder.newInstance(definition);
+                valueHolder.unpack(response);
+                assertEquals("0210", valueHolder.getValue(mti));
+                assertEquals(String.format("%06d", i), valueHolder.getValue(stan));
+            }
+            assertEquals(-1, inputStream.read());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * The client writes all requests without waiting for responses in one thread and reads responses in
+     * another thread.
+     *
+     * @return Latencies of requests in nanoseconds.
+     */
+    private Callable<long[]> newLoadClient(final int port, final MsgField definition, final FieldPath mti,
+                                           final FieldPath stan, final ExecutorService clients) {
+        return () -> {
+            // Written by the writer thread and read by this thread
+            final AtomicLongArray sent = new AtomicLongArray(REQUESTS_PER_CONNECTION);
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.setTcpNoDelay(true);
+                final DataOutputStream outputStream = new DataOutputStream(socket.getOutputStream());
+                Future<?> writer = clients.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CONNECTION; i++) {
+                        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+                        valueHolder.setValue("0200", mti);
+                        valueHolder.setValue(String.format("%06d", i), stan);
+                        byte[] request = valueHolder.jumpToRoot().pack();
+                        sent.set(i, System.nanoTime());
+                        outputStream.writeShort(request.length);
+                        outputStream.write(request);
+                    }
+                    outputStream.flush();
+                    return null;
+                });
+
+                long[] latencies = new long[REQUESTS_PER_CONNECTION];
+                DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+                for (int i = 0; i < REQUESTS_PER_CONNECTION; i++) {
+                    byte[] response = new byte[inputStream.readUnsignedShort()];
+                    inputStream.readFully(response);
+                    latencies[i] = System.nanoTime() - sent.get(i);
+                    ValueHolder valueHolder = ValueHolder.newInstance(definition);
+                    valueHolder.unpack(response);
+                    assertEquals("0210", valueHolder.getValue(mti));
+                    assertEquals(String.format("%06d", i), valueHolder.getValue(stan));
+                }
+                writer.get();
+                return latencies;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private MsgField defineMessage() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(MTI)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("RESPONSE_CODE")
+            .defineFieldNum(39)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(2)
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure(true);
+        return fieldBuilder.getCurrentField();
+    }
+}
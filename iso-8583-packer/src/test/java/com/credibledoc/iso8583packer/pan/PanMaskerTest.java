@@ -54,4 +54,14 @@ public class PanMaskerTest {
         String masked = panMasker.maskValue("12345678");
         assertEquals("1234****", masked);
     }
+
+    @Test
+    public void maskToAppendable() throws Exception {
+        PanMasker panMasker = PanMasker.getInstance();
+        StringBuilder stringBuilder = new StringBuilder();
+        panMasker.maskHex(new byte[] {0x12, 0x34, 0x56, 0x78}, 0, 4, stringBuilder);
+        stringBuilder.append(' ');
+        panMasker.maskValue("12345678", stringBuilder);
+        assertEquals("1234**** 1234****", stringBuilder.toString());
+    }
 }
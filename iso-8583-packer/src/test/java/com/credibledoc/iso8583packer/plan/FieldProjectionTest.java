@@ -0,0 +1,131 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FieldProjectionTest {
+
+    private static final String MSG = "MSG";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String EMV = "EMV";
+
+    @Test
+    public void skipByFieldNumsTest() {
+        MsgField msgField = defineMessage();
+        byte[] bytes = createMessage(msgField);
+        MessagePlan messagePlan = PlanService.getInstance().compile(msgField);
+
+        FieldProjection projection = new FieldProjection().addFieldNums(41).addPath(MSG, "MTI");
+        ValueHolder valueHolder = ValueHolder.newInstance(messagePlan);
+        MsgValue msgValue = valueHolder.unpack(bytes, projection);
+
+        assertEquals("0200", valueHolder.getValue(MSG, "MTI"));
+        assertEquals("4141", valueHolder.getValue(MSG, BIT_SET, "TerminalId"));
+        assertFalse(valueHolder.hasValue(MSG, BIT_SET, "PAN"));
+        assertFalse(valueHolder.hasValue(MSG, BIT_SET, EMV));
+        MsgValue bitSet = msgValue.getChildren().get(1);
+        assertEquals(1, bitSet.getChildren().size());
+        assertTrue(bitSet.getBitSet().get(55));
+
+        byte[] mask = projection.compile(messagePlan);
+        assertEquals(FieldProjection.PASS, mask[messagePlan.getRoot().getIndex()]);
+        assertEquals(FieldProjection.SKIP, mask[messagePlan.getRoot().findChildByName(BIT_SET)
+            .findChildByFieldNum(55).getIndex()]);
+    }
+
+    @Test
+    public void nestedPathTest() {
+        MsgField msgField = defineMessage();
+        byte[] bytes = createMessage(msgField);
+
+        ValueHolder valueHolder = ValueHolder.newInstance(msgField, true);
+        valueHolder.unpack(bytes, new FieldProjection().addPath(MSG, BIT_SET, EMV, "tag-3"));
+
+        assertEquals("33", valueHolder.getValue(MSG, BIT_SET, EMV, "tag-3"));
+        assertFalse(valueHolder.hasValue(MSG, BIT_SET, EMV, "tag-1"));
+        assertFalse(valueHolder.hasValue(MSG, BIT_SET, "TerminalId"));
+        assertFalse(valueHolder.hasValue(MSG, "MTI"));
+    }
+
+    @Test
+    public void allFieldsTest() {
+        MsgField msgField = defineMessage();
+        byte[] bytes = createMessage(msgField);
+
+        ValueHolder valueHolder = ValueHolder.newInstance(PlanService.getInstance().compile(msgField));
+        valueHolder.unpack(bytes, new FieldProjection().addPath(MSG));
+        assertEquals("11", valueHolder.getValue(MSG, BIT_SET, EMV, "tag-1"));
+        assertArrayEquals(bytes, valueHolder.jumpToRoot().pack());
+    }
+
+    private byte[] createMessage(MsgField msgField) {
+        ValueHolder valueHolder = ValueHolder.newInstance(msgField, true);
+        valueHolder.setValue("0200", MSG, "MTI");
+        valueHolder.setValue("123456", MSG, BIT_SET, "PAN");
+        valueHolder.setValue("11", MSG, BIT_SET, EMV, "tag-1");
+        valueHolder.setValue("33", MSG, BIT_SET, EMV, "tag-3");
+        valueHolder.setValue("4141", MSG, BIT_SET, "TerminalId");
+        return valueHolder.jumpToRoot().pack();
+    }
+
+    private MsgField defineMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("TerminalId")
+            .defineFieldNum(41)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName(EMV)
+            .defineFieldNum(55)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(3))
+            .defineChildrenLengthPacker(EbcdicDecimalLengthPacker.getInstance(2))
+            .defineChildrenTagPacker(EbcdicDecimalTagPacker.getInstance(2))
+
+            .createChild(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(1)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-1")
+
+            .createSibling(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(3)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-3")
+
+            .getCurrentField();
+    }
+}
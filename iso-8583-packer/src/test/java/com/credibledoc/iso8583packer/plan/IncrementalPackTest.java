@@ -0,0 +1,276 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link ValueHolder#repack()} method and the {@link PlanPacker#getIncrementalInstance()} packer.
+ *
+ * @author Kyrylo Semenko
+ */
+public class IncrementalPackTest {
+    private static final String MSG = "MSG";
+    private static final String MTI = "MTI";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String PAN = "PAN";
+    private static final String STAN = "STAN";
+    private static final String APPROVAL_CODE = "APPROVAL_CODE";
+    private static final String RESPONSE_CODE = "RESPONSE_CODE";
+    private static final String PRIVATE_DATA = "PRIVATE_DATA";
+    private static final String PROCESSING_CODE = "PROCESSING_CODE";
+    private static final String TRANSACTION_TYPE = "TRANSACTION_TYPE";
+    private static final String ACCOUNT_TYPE = "ACCOUNT_TYPE";
+    private static final int STAN_FIELD_NUM = 11;
+
+    @Test
+    public void unchangedTest() {
+        MsgField definition = defineMessage(true);
+        byte[] request = createRequest(definition);
+        ValueHolder valueHolder = unpackZeroCopy(definition, request);
+
+        MsgValue root = valueHolder.getCurrentMsgValue();
+        assertEquals(request.length, root.getRawLength());
+        assertArrayEquals(request, valueHolder.repack());
+    }
+
+    @Test
+    public void responseTest() {
+        MsgField definition = defineMessage(true);
+        byte[] request = createRequest(definition);
+        ValueHolder valueHolder = unpackZeroCopy(definition, request);
+
+        valueHolder.setValue("0110", MSG, MTI);
+        valueHolder.setValue("123456", MSG, BIT_SET, APPROVAL_CODE);
+        valueHolder.setValue("00", MSG, BIT_SET, RESPONSE_CODE);
+        valueHolder.setValue("shorter", MSG, BIT_SET, PRIVATE_DATA);
+
+        MsgValue root = valueHolder.jumpToRoot().getCurrentMsgValue();
+        assertEquals(-1, root.getRawLength());
+        MsgValue bitSet = root.getChildNamesMap().get(BIT_SET);
+        assertEquals(-1, bitSet.getRawLength());
+        assertTrue(bitSet.getChildNamesMap().get(PAN).getRawLength() > 0);
+        assertTrue(bitSet.getChildNamesMap().get(STAN).getRawLength() > 0);
+
+        byte[] repacked = valueHolder.repack();
+        assertArrayEquals(createResponse(definition), repacked);
+        assertArrayEquals(valueHolder.pack(), repacked);
+
+        ValueHolder responseHolder = ValueHolder.newInstance(definition);
+        responseHolder.unpack(repacked);
+        assertEquals("0110", responseHolder.getValue(MSG, MTI));
+        assertEquals("4000123412341234", responseHolder.getValue(MSG, BIT_SET, PAN));
+        assertEquals("shorter", responseHolder.getValue(MSG, BIT_SET, PRIVATE_DATA));
+    }
+
+    @Test
+    public void definitionWithoutPlanTest() {
+        MsgField definition = defineMessage(false);
+        byte[] request = createRequest(definition);
+        ValueHolder valueHolder = unpackZeroCopy(definition, request);
+        assertArrayEquals(request, valueHolder.repack());
+
+        valueHolder.setValue("0110", MSG, MTI);
+        valueHolder.setValue("123456", MSG, BIT_SET, APPROVAL_CODE);
+        valueHolder.setValue("00", MSG, BIT_SET, RESPONSE_CODE);
+        valueHolder.setValue("shorter", MSG, BIT_SET, PRIVATE_DATA);
+        assertArrayEquals(createResponse(definition), valueHolder.jumpToRoot().repack());
+    }
+
+    @Test
+    public void readBitSetTest() {
+        MsgField definition = defineMessage(true);
+        byte[] request = createRequest(definition);
+        ValueHolder valueHolder = unpackZeroCopy(definition, request);
+
+        MsgValue root = valueHolder.getCurrentMsgValue();
+        MsgValue bitSet = root.getChildNamesMap().get(BIT_SET);
+        assertTrue(bitSet.getBitSet().get(STAN_FIELD_NUM));
+        assertEquals(request.length, root.getRawLength());
+        assertTrue(bitSet.getRawLength() > 0);
+        assertArrayEquals(request, valueHolder.repack());
+    }
+
+    @Test
+    public void projectedTest() {
+        MsgField definition = defineMessage(true);
+        byte[] request = createRequest(definition);
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setZeroCopy(true);
+        valueHolder.unpack(request, new FieldProjection().addFieldNums(STAN_FIELD_NUM));
+        valueHolder.setValue("000124", MSG, BIT_SET, STAN);
+        try {
+            valueHolder.jumpToRoot().repack();
+            fail("PackerRuntimeException expected");
+        } catch (PackerRuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(FieldProjection.class.getSimpleName()));
+        }
+
+        valueHolder.unpack(request);
+        assertArrayEquals(request, valueHolder.repack());
+    }
+
+    /**
+     * The full packing references the packed bytes as new slices of nodes. Raw bytes of unchanged nodes,
+     * for example of the nested MSG field, still belong to the unpacked message. The shorter PAN moves
+     * the nested field to another offset in the packed bytes.
+     */
+    @Test
+    public void packThenRepackTest() {
+        for (boolean frozen : new boolean[] {true, false}) {
+            MsgField definition = defineNestedMessage(frozen);
+            ValueHolder requestHolder = ValueHolder.newInstance(definition);
+            requestHolder.setValue("0100", MSG, MTI);
+            requestHolder.setValue("4000123412341234", MSG, BIT_SET, PAN);
+            requestHolder.setValue("00", MSG, BIT_SET, PROCESSING_CODE, TRANSACTION_TYPE);
+            requestHolder.setValue("11", MSG, BIT_SET, PROCESSING_CODE, ACCOUNT_TYPE);
+            requestHolder.setValue("000123", MSG, BIT_SET, STAN);
+            byte[] request = requestHolder.jumpToRoot().pack();
+
+            ValueHolder valueHolder = unpackZeroCopy(definition, request);
+            valueHolder.setValue("4000123412", MSG, BIT_SET, PAN);
+            valueHolder.jumpToRoot().pack();
+            valueHolder.setValue("000999", MSG, BIT_SET, STAN);
+
+            byte[] repacked = valueHolder.jumpToRoot().repack();
+            assertArrayEquals("Frozen: " + frozen, valueHolder.pack(), repacked);
+            ValueHolder responseHolder = ValueHolder.newInstance(definition);
+            responseHolder.unpack(repacked);
+            assertEquals("11", responseHolder.getValue(MSG, BIT_SET, PROCESSING_CODE, ACCOUNT_TYPE));
+            assertEquals("000999", responseHolder.getValue(MSG, BIT_SET, STAN));
+        }
+    }
+
+    private ValueHolder unpackZeroCopy(MsgField definition, byte[] request) {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setZeroCopy(true);
+        valueHolder.unpack(request);
+        return valueHolder;
+    }
+
+    private byte[] createRequest(MsgField definition) {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0100", MSG, MTI);
+        valueHolder.setValue("4000123412341234", MSG, BIT_SET, PAN);
+        valueHolder.setValue("000123", MSG, BIT_SET, STAN);
+        valueHolder.setValue("private data of the request", MSG, BIT_SET, PRIVATE_DATA);
+        return valueHolder.jumpToRoot().pack();
+    }
+
+    private byte[] createResponse(MsgField definition) {
+        ValueHolder valueHolder = ValueHolder.newInstance(definition);
+        valueHolder.setValue("0110", MSG, MTI);
+        valueHolder.setValue("4000123412341234", MSG, BIT_SET, PAN);
+        valueHolder.setValue("000123", MSG, BIT_SET, STAN);
+        valueHolder.setValue("123456", MSG, BIT_SET, APPROVAL_CODE);
+        valueHolder.setValue("00", MSG, BIT_SET, RESPONSE_CODE);
+        valueHolder.setValue("shorter", MSG, BIT_SET, PRIVATE_DATA);
+        return valueHolder.jumpToRoot().pack();
+    }
+
+    private MsgField defineNestedMessage(boolean frozen) {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(MTI)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName(PAN)
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.MSG)
+            .defineName(PROCESSING_CODE)
+            .defineFieldNum(3)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(TRANSACTION_TYPE)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(ACCOUNT_TYPE)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(2)
+
+            .jumpToParent()
+            .createSibling(MsgFieldType.VAL)
+            .defineName(STAN)
+            .defineFieldNum(STAN_FIELD_NUM)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure(frozen);
+        return fieldBuilder.getCurrentField();
+    }
+
+    private MsgField defineMessage(boolean frozen) {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName(MTI)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName(PAN)
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(STAN)
+            .defineFieldNum(STAN_FIELD_NUM)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(APPROVAL_CODE)
+            .defineFieldNum(38)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName(RESPONSE_CODE)
+            .defineFieldNum(39)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName(PRIVATE_DATA)
+            .defineFieldNum(48)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(3))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure(frozen);
+        return fieldBuilder.getCurrentField();
+    }
+}
@@ -0,0 +1,323 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.dump.DumpService;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compare results of the {@link MessagePlan} packing and unpacking with the results of the
+ * {@link ValueHolder} without a plan.
+ *
+ * @author Kyrylo Semenko
+ */
+public class PlanServiceTest {
+
+    @Test
+    public void compileTest() {
+        MsgField msgField = defineBitmapMessage();
+        MessagePlan messagePlan = PlanService.getInstance().compile(msgField);
+        assertEquals(9, messagePlan.size());
+        assertEquals("MSG", messagePlan.getRoot().getMsgField().getName());
+        assertSame(messagePlan.getRoot(), messagePlan.findPlan(msgField).getParent().getParent());
+        FieldPlan bitSet = messagePlan.getRoot().findChildByName("BIT_SET");
+        assertNotNull(bitSet);
+        assertEquals(41, bitSet.getMaxFieldNum());
+        assertEquals("TerminalId", bitSet.findChildByFieldNum(41).getMsgField().getName());
+        assertEquals(-1, messagePlan.getRoot().getChildrenLenSum());
+        for (int i = 0; i < messagePlan.size(); i++) {
+            assertEquals(i, messagePlan.getNode(i).getIndex());
+        }
+    }
+
+    @Test
+    public void bitmapTest() {
+        MsgField msgField = defineBitmapMessage();
+        String hex = "02005820008000800000222244445555111125254141";
+        assertSameResults(msgField, HexService.hex2byte(hex));
+
+        MessagePlan messagePlan = PlanService.getInstance().compile(msgField);
+        ValueHolder valueHolder = ValueHolder.newInstance(messagePlan);
+        valueHolder.setValue("0200", "MSG", "MTI");
+        valueHolder.setValue("2222", "MSG", "BIT_SET", "PAN");
+        valueHolder.setValue("4444", "MSG", "BIT_SET", "Amount");
+        valueHolder.setValue("4141", "MSG", "BIT_SET", "TerminalId");
+        assertEquals("020050000000008000002222444441 41".replace(" ", ""),
+            HexService.bytesToHex(valueHolder.jumpToRoot().pack()));
+    }
+
+    @Test
+    public void tlvTest() {
+        MsgField msgField = defineTaggedMessage(MsgFieldType.TAG_LEN_VAL);
+        String hex = "F0F3F0F2F3F3 F0F2F0F2F2F2 F0F4F0F2F4F4 F0F1F0F2F1F1";
+        MsgValue msgValue = assertSameResults(msgField, HexService.hex2byte(hex.replace(" ", "")));
+        assertEquals(2, msgValue.getUndefinedChildrenMap().size());
+        assertEquals("22", msgValue.getUndefinedChildrenMap().get("tag-3-clone-1").getBodyValue());
+    }
+
+    @Test
+    public void ltvTest() {
+        MsgField msgField = defineTaggedMessage(MsgFieldType.LEN_TAG_VAL);
+        String hex = "F0F4F0F3F3F3 F0F4F0F2F2F2 F0F4F0F4F4F4 F0F4F0F1F1F1";
+        MsgValue msgValue = assertSameResults(msgField, HexService.hex2byte(hex.replace(" ", "")));
+        assertEquals(2, msgValue.getUndefinedChildrenMap().size());
+        assertEquals(4, msgValue.getUndefinedChildrenMap().get("tag-3-clone-2").getTag());
+    }
+
+    @Test
+    public void nestedLengthTest() {
+        MsgField msgField = defineNestedLengthMessage();
+        assertSameResults(msgField, packNestedLengthMessage(msgField));
+    }
+
+    @Test
+    public void zeroCopyNestedLengthTest() {
+        MsgField msgField = defineNestedLengthMessage();
+        byte[] bytes = packNestedLengthMessage(msgField);
+
+        ValueHolder legacy = ValueHolder.newInstance(msgField, true);
+        legacy.setZeroCopy(true);
+        ValueHolder planned = ValueHolder.newInstance(PlanService.getInstance().compile(msgField));
+        planned.setZeroCopy(true);
+        for (ValueHolder valueHolder : new ValueHolder[] {legacy, planned}) {
+            MsgValue child = valueHolder.unpack(bytes).getChildren().get(1);
+            assertEquals("tail_2", valueHolder.getValue("Parent", "Child_2", "Tail_2"));
+            // The length of the Tail_2 is resolved from the Child_2 length slice without copying
+            assertTrue(child.toString(), child.toString().contains("lengthBytes=source["));
+        }
+    }
+
+    private MsgField defineNestedLengthMessage() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.LEN_VAL)
+            .defineName("Parent")
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(3));
+        for (int i = 1; i <= 3; i++) {
+            fieldBuilder.createChild(MsgFieldType.LEN_VAL)
+                .defineName("Child_" + i)
+                .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(3))
+
+                .createChild(MsgFieldType.VAL)
+                .defineName("Fixed_" + i)
+                .defineLen(2)
+                .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+                .createSibling(MsgFieldType.VAL)
+                .defineName("Tail_" + i)
+                .defineBodyPacker(AsciiBodyPacker.getInstance())
+                .jumpToParent()
+                .jumpToParent();
+        }
+        return fieldBuilder.getCurrentField();
+    }
+
+    private byte[] packNestedLengthMessage(MsgField msgField) {
+        ValueHolder valueHolder = ValueHolder.newInstance(msgField, true);
+        for (int i = 1; i <= 3; i++) {
+            valueHolder.setValue("f" + i, "Parent", "Child_" + i, "Fixed_" + i);
+            valueHolder.setValue("tail_" + i, "Parent", "Child_" + i, "Tail_" + i);
+        }
+        return valueHolder.jumpToRoot().pack();
+    }
+
+    @Test
+    public void packToBufferTest() {
+        MsgField msgField = defineTaggedMessage(MsgFieldType.LEN_TAG_VAL);
+        ValueHolder valueHolder = ValueHolder.newInstance(PlanService.getInstance().compile(msgField));
+        valueHolder.setValue("11", "msg", "tag-1");
+        valueHolder.setValue("33", "msg", "tag-3");
+        byte[] expected = HexService.hex2byte("F0F4F0F1F1F1F0F4F0F3F3F3");
+        assertArrayEquals(expected, valueHolder.jumpToRoot().pack());
+
+        for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(20), ByteBuffer.allocateDirect(20)}) {
+            buffer.put((byte) 0x7F);
+            assertEquals(expected.length, valueHolder.pack(buffer));
+            assertEquals(expected.length + 1, buffer.position());
+            byte[] written = new byte[expected.length];
+            buffer.position(1);
+            buffer.get(written);
+            assertArrayEquals(expected, written);
+            // The caller reuses the buffer, it should not change the packed values
+            buffer.clear();
+            buffer.put(new byte[buffer.capacity()]);
+        }
+        assertArrayEquals(HexService.hex2byte("F0F4F0F1F1F1F0F4F0F3F3F3"),
+            valueHolder.getCurrentMsgValue().getBodyBytes());
+    }
+
+    @Test
+    public void lazyTest() {
+        final AtomicInteger decoded = new AtomicInteger();
+        final BodyPacker hexBodyPacker = HexBodyPacker.getInstance();
+        BodyPacker countingBodyPacker = new BodyPacker() {
+            @Override
+            public void pack(Object object, byte[] bytes, int offset) {
+                hexBodyPacker.pack(object, bytes, offset);
+            }
+
+            @Override
+            public <T> T unpack(byte[] sourceData, int offset, int bytesCount) {
+                decoded.incrementAndGet();
+                return hexBodyPacker.unpack(sourceData, offset, bytesCount);
+            }
+
+            @Override
+            public int getPackedLength(Object object) {
+                return hexBodyPacker.getPackedLength(object);
+            }
+        };
+        MsgField msgField = defineBitmapMessage();
+        for (MsgField child : msgField.getParent().getChildren()) {
+            child.setBodyPacker(countingBodyPacker);
+        }
+        byte[] bytes = HexService.hex2byte("02005820008000800000222244445555111125254141");
+        ValueHolder legacy = ValueHolder.newInstance(msgField, true);
+        legacy.setLazy(true);
+        ValueHolder planned = ValueHolder.newInstance(PlanService.getInstance().compile(msgField));
+        planned.setLazy(true);
+        planned.setZeroCopy(true);
+        for (ValueHolder valueHolder : new ValueHolder[] {legacy, planned}) {
+            decoded.set(0);
+            valueHolder.unpack(bytes);
+            assertEquals(0, decoded.get());
+            assertTrue(valueHolder.hasValue("MSG", "BIT_SET", "STAN"));
+            assertEquals("1111", valueHolder.getValue("MSG", "BIT_SET", "STAN"));
+            assertEquals("1111", valueHolder.getValue("MSG", "BIT_SET", "STAN"));
+            assertEquals(1, decoded.get());
+            assertArrayEquals(bytes, valueHolder.jumpToRoot().pack());
+            assertEquals(1, decoded.get());
+        }
+    }
+
+    @Test
+    public void zeroCopyTest() {
+        MsgField msgField = defineTaggedMessage(MsgFieldType.TAG_LEN_VAL);
+        byte[] bytes = HexService.hex2byte("F0F3F0F2F3F3F0F1F0F2F1F1");
+        String expectedDump = DumpService.getInstance().dumpMsgValue(msgField,
+            ValueHolder.newInstance(msgField, true).unpack(bytes), false);
+
+        ValueHolder legacy = ValueHolder.newInstance(msgField, true);
+        legacy.setZeroCopy(true);
+        ValueHolder planned = ValueHolder.newInstance(PlanService.getInstance().compile(msgField));
+        planned.setZeroCopy(true);
+        for (ValueHolder valueHolder : new ValueHolder[] {legacy, planned}) {
+            MsgValue msgValue = valueHolder.unpack(bytes);
+            MsgValue tag3 = msgValue.getChildren().get(0);
+            assertEquals(2, tag3.getBodyBytesLength());
+            assertEquals(expectedDump, DumpService.getInstance().dumpMsgValue(msgField, msgValue, false));
+            assertArrayEquals(bytes, valueHolder.jumpToRoot().pack());
+            tag3.setBodyBytes(new byte[] {1});
+            assertEquals(1, tag3.getBodyBytesLength());
+        }
+    }
+
+    private MsgValue assertSameResults(MsgField msgField, byte[] bytes) {
+        ValueHolder legacy = ValueHolder.newInstance(msgField, true);
+        MsgValue expected = legacy.unpack(bytes);
+        String expectedDump = DumpService.getInstance().dumpMsgValue(msgField, expected, false);
+
+        MessagePlan messagePlan = PlanService.getInstance().compile(msgField);
+        ValueHolder planned = ValueHolder.newInstance(messagePlan);
+        MsgValue actual = planned.unpack(bytes);
+        assertEquals(expectedDump, DumpService.getInstance().dumpMsgValue(msgField, actual, false));
+        assertEquals(expectedDump, DumpService.getInstance().dumpMsgValue(msgField,
+            ValueHolder.unpack(bytes, 0, messagePlan), false));
+
+        if (expected.getUndefinedChildrenMap().isEmpty()) {
+            assertArrayEquals(legacy.jumpToRoot().pack(), planned.jumpToRoot().pack());
+            assertArrayEquals(bytes, planned.pack());
+        }
+        return actual;
+    }
+
+    private MsgField defineBitmapMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("MSG")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName("BIT_SET")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("Amount")
+            .defineFieldNum(4)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("AmountReco")
+            .defineFieldNum(5)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineFieldNum(11)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("ReasonCode")
+            .defineFieldNum(25)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("TerminalId")
+            .defineFieldNum(41)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .getCurrentField();
+    }
+
+    private MsgField defineTaggedMessage(MsgFieldType msgFieldType) {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("msg")
+            .defineChildrenLengthPacker(EbcdicDecimalLengthPacker.getInstance(2))
+            .defineChildrenTagPacker(EbcdicDecimalTagPacker.getInstance(2))
+
+            .createChild(msgFieldType)
+            .defineHeaderTag(1)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-1")
+
+            .createSibling(msgFieldType)
+            .defineHeaderTag(3)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-3")
+
+            .getCurrentField();
+    }
+}
@@ -0,0 +1,192 @@
+package com.credibledoc.iso8583packer.stress;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.FieldPath;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A single frozen {@link MsgField} definition is used by many threads for packing and unpacking.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FrozenDefinitionTest {
+
+    private static final String MSG = "MSG";
+    private static final String BIT_SET = "BIT_SET";
+    private static final String EMV = "EMV";
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void frozenDefinitionTest() {
+        MsgField definition = defineMessage();
+        assertTrue(definition.isFrozen());
+        assertTrue(definition.getChildren().get(1).isFrozen());
+        assertNotNull(definition.getMessagePlan());
+
+        try {
+            definition.getChildren().get(0).setName("changed");
+            fail("Frozen MsgField should not be changed");
+        } catch (PackerRuntimeException e) {
+            assertTrue(e.getMessage().contains("frozen"));
+        }
+
+        try {
+            FieldBuilder.from(definition).jumpToChild(BIT_SET).createChild(MsgFieldType.VAL);
+            fail("Frozen MsgField should not obtain a new child");
+        } catch (PackerRuntimeException e) {
+            assertTrue(e.getMessage().contains("frozen"));
+        }
+
+        try {
+            definition.getChildren().add(definition.getChildren().get(0));
+            fail("Children of a frozen MsgField should not be changed");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(2, definition.getChildren().size());
+        }
+    }
+
+    @Test
+    public void concurrentPackUnpackTest() throws Exception {
+        final MsgField definition = defineMessage();
+        final FieldPath pan = FieldPath.compile(definition, MSG, BIT_SET, "PAN");
+        final FieldPath tag3 = FieldPath.compile(definition, MSG, BIT_SET, EMV, "tag-3");
+        final MsgField emv = tag3.getMsgField(2);
+        final int emvChildren = emv.getChildren().size();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int threadNum = thread;
+                futures.add(executorService.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            String panValue = String.valueOf(1000000 + threadNum * ITERATIONS + i);
+                            String tagValue = String.valueOf(i % 100);
+
+                            ValueHolder valueHolder = ValueHolder.newInstance(definition);
+                            valueHolder.setValue("0200", MSG, "MTI");
+                            valueHolder.setValue(panValue, pan);
+                            valueHolder.setValue(tagValue, tag3);
+                            byte[] bytes = valueHolder.jumpToRoot().pack();
+
+                            ValueHolder incoming = ValueHolder.newInstance(definition);
+                            incoming.unpack(bytes);
+                            assertEquals(panValue, incoming.getValue(pan));
+                            assertEquals(tagValue, incoming.getValue(tag3));
+                            assertArrayEquals(bytes, incoming.jumpToRoot().pack());
+
+                            // The tag 7 is not defined, its definition is created for the message only
+                            byte[] undefined = withUndefinedTag(bytes);
+                            ValueHolder withUndefined = ValueHolder.newInstance(definition);
+                            withUndefined.unpack(undefined);
+                            assertEquals(panValue, withUndefined.getValue(pan));
+                            assertArrayEquals(undefined, withUndefined.jumpToRoot().pack());
+                        }
+                        return ITERATIONS;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(ITERATIONS, (int) future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(emvChildren, emv.getChildren().size());
+    }
+
+    /**
+     * Append the tag 7 with the value '1' to the EMV field. The field is the last one in the message,
+     * its length header has 3 ASCII digits.
+     */
+    private static byte[] withUndefinedTag(byte[] bytes) {
+        int emvLengthOffset = indexOfEmvLength(bytes);
+        int emvLength = Integer.parseInt(new String(bytes, emvLengthOffset, 3));
+        // EBCDIC tag '07', length '01' and value '1'
+        byte[] extra = {(byte) 0xF0, (byte) 0xF7, (byte) 0xF0, (byte) 0xF1, (byte) 0xF1};
+        byte[] result = new byte[bytes.length + extra.length];
+        System.arraycopy(bytes, 0, result, 0, bytes.length);
+        System.arraycopy(extra, 0, result, bytes.length, extra.length);
+        byte[] newLength = String.format("%03d", emvLength + extra.length).getBytes();
+        System.arraycopy(newLength, 0, result, emvLengthOffset, newLength.length);
+        return result;
+    }
+
+    /**
+     * MTI has 2 bytes and the bitmap has 8 bytes, the PAN has 2 ASCII digits of length.
+     */
+    private static int indexOfEmvLength(byte[] bytes) {
+        int panLengthOffset = 2 + 8;
+        int panLength = Integer.parseInt(new String(bytes, panLengthOffset, 2));
+        return panLengthOffset + 2 + panLength;
+    }
+
+    private MsgField defineMessage() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(MSG)
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName(BIT_SET)
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.LEN_VAL)
+            .defineName(EMV)
+            .defineFieldNum(55)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(3))
+            .defineChildrenLengthPacker(EbcdicDecimalLengthPacker.getInstance(2))
+            .defineChildrenTagPacker(EbcdicDecimalTagPacker.getInstance(2))
+
+            .createChild(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(1)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-1")
+
+            .createSibling(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(3)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-3")
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure(true);
+        return fieldBuilder.getCurrentField();
+    }
+}
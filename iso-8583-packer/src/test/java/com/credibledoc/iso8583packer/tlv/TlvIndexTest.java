@@ -0,0 +1,140 @@
+package com.credibledoc.iso8583packer.tlv;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.exception.MalformedMessageException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.hex.HexTagPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link TlvIndex}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class TlvIndexTest {
+    private static final String EMV = "EMV";
+    private static final String CRYPTOGRAM = "9F26";
+    private static final String AMOUNT = "9F02";
+
+    /**
+     * Tags 9F02 (defined), 0082 (undefined), 9F26 (defined) and 0082 (undefined) with 2-byte hex tags
+     * and 1-byte binary lengths.
+     */
+    private static final String EMV_HEX = "9F0206000000001000" + "00820239 00" + "9F260811223344556677 88" +
+        "00820258 00";
+
+    @Test
+    public void scanTest() {
+        MsgField emv = defineEmv();
+        byte[] bytes = HexService.hex2byte(EMV_HEX.replace(" ", ""));
+        TlvIndex tlvIndex = TlvIndex.scan(emv, bytes, 0, bytes.length);
+
+        assertEquals(4, tlvIndex.size());
+        int cryptogram = tlvIndex.indexOfKey(0x9F26);
+        assertEquals(2, cryptogram);
+        assertEquals(0x9F26, (int) tlvIndex.getTag(cryptogram));
+        assertArrayEquals(HexService.hex2byte("1122334455667788"), tlvIndex.getBodyBytes(cryptogram));
+        assertEquals("1122334455667788", tlvIndex.getBodyValue(cryptogram));
+        assertEquals(0, tlvIndex.indexOf(0x9F02));
+        // The first of repeated tags
+        assertEquals(1, tlvIndex.indexOf(0x82));
+        assertEquals(TlvIndex.NOT_FOUND, tlvIndex.indexOfKey(0x9F27));
+    }
+
+    @Test
+    public void toMsgValueTest() {
+        MsgField emv = defineEmv();
+        ValueHolder valueHolder = ValueHolder.newInstance(emv);
+        valueHolder.setValue("000000001000", EMV, AMOUNT);
+        valueHolder.setValue("1122334455667788", EMV, CRYPTOGRAM);
+        byte[] bytes = valueHolder.jumpToRoot().pack();
+
+        MsgValue msgValue = TlvIndex.scan(emv, bytes, 0, bytes.length).toMsgValue();
+        assertEquals(2, msgValue.getChildren().size());
+        assertEquals("000000001000", msgValue.getChildNamesMap().get(AMOUNT).getBodyValue());
+        assertEquals("1122334455667788", msgValue.getChildNamesMap().get(CRYPTOGRAM).getBodyValue());
+
+        // The created tree can be packed again
+        assertArrayEquals(bytes, ValueHolder.newInstance(msgValue, emv).pack());
+    }
+
+    @Test
+    public void undefinedTagsTest() {
+        MsgField emv = defineEmv();
+        byte[] bytes = HexService.hex2byte(EMV_HEX.replace(" ", ""));
+        MsgValue msgValue = TlvIndex.scan(emv, bytes, 0, bytes.length).toMsgValue();
+
+        assertEquals(4, msgValue.getChildren().size());
+        assertEquals(2, msgValue.getUndefinedChildrenMap().size());
+        MsgValue clone = msgValue.getUndefinedChildrenMap().get(CRYPTOGRAM + MsgField.CLONE_INFIX + "2");
+        assertEquals(0x82, (int) clone.getTag(Integer.class));
+        assertEquals("5800", clone.getBodyValue());
+
+        // The same names as in the ValueHolder
+        MsgValue unpacked = ValueHolder.newInstance(emv).unpack(bytes);
+        assertEquals(unpacked.getUndefinedChildrenMap().keySet(), msgValue.getUndefinedChildrenMap().keySet());
+    }
+
+    @Test
+    public void lenTagValTest() {
+        // Lengths contain tags, see the TlvLtvTest
+        byte[] bytes = HexService.hex2byte("F0F4F0F3F3F3 F0F4F0F1F1F1".replace(" ", ""));
+        TlvIndex tlvIndex = TlvIndex.scan(bytes, 0, bytes.length, MsgFieldType.LEN_TAG_VAL,
+            EbcdicDecimalTagPacker.getInstance(2), EbcdicDecimalLengthPacker.getInstance(2));
+
+        assertEquals(2, tlvIndex.size());
+        int entry = tlvIndex.indexOf(1);
+        assertEquals(1, entry);
+        assertEquals(10, tlvIndex.getBodyOffset(entry));
+        assertEquals(2, tlvIndex.getBodyLength(entry));
+        assertEquals("11", EbcdicBodyPacker.getInstance().unpack(bytes, 10, 2));
+    }
+
+    @Test
+    public void truncatedTest() {
+        MsgField emv = defineEmv();
+        byte[] bytes = HexService.hex2byte("9F0206000000001000" + "9F260811");
+        try {
+            TlvIndex.scan(emv, bytes, 0, bytes.length);
+            fail("MalformedMessageException expected");
+        } catch (MalformedMessageException e) {
+            assertEquals(12, e.getOffset());
+            assertEquals(8, e.getExpectedLength());
+            assertEquals(1, e.getActualLength());
+        }
+    }
+
+    private MsgField defineEmv() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName(EMV)
+            .defineChildrenTagPacker(HexTagPacker.getInstance(2))
+            .defineChildrenLengthPacker(BinaryLengthPacker.getInstance(1))
+
+            .createChild(MsgFieldType.TAG_LEN_VAL)
+            .defineName(AMOUNT)
+            .defineHeaderTag(0x9F02)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.TAG_LEN_VAL)
+            .defineName(CRYPTOGRAM)
+            .defineHeaderTag(0x9F26)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+
+            .jumpToRoot();
+        fieldBuilder.validateStructure();
+        return fieldBuilder.getCurrentField();
+    }
+}
@@ -3,6 +3,7 @@ package com.credibledoc.combiner.log.buffered;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * Extends the {@link FileInputStream} and provides an extra
@@ -17,15 +18,113 @@ public class LogFileInputStream extends FileInputStream {
      */
     private File file;
 
+    /**
+     * Number of bytes from the beginning of the {@link #file} which have been read or skipped.
+     */
+    private long position;
+
+    /**
+     * Number of bytes from the beginning of the {@link #file} after which the stream returns the end of data,
+     * even if the file is longer. {@link Long#MAX_VALUE} means the whole file.
+     */
+    private long limit = Long.MAX_VALUE;
+
     public LogFileInputStream(File file) throws FileNotFoundException {
         super(file);
         this.file = file;
     }
 
+    /**
+     * Open the file and continue reading from the offset.
+     *
+     * @param file   the data source
+     * @param offset number of bytes from the beginning of the file which will not be read,
+     *               for example the last {@link #getPosition()} value of a previous reading.
+     * @throws IOException in case when the file cannot be opened or positioned
+     */
+    public LogFileInputStream(File file, long offset) throws IOException {
+        super(file);
+        this.file = file;
+        if (offset > 0) {
+            getChannel().position(offset);
+            position = offset;
+        }
+    }
+
+    /**
+     * Open the file, continue reading from the offset and stop reading at the limit.
+     *
+     * @param file   the data source
+     * @param offset number of bytes from the beginning of the file which will not be read,
+     *               for example the last {@link #getPosition()} value of a previous reading.
+     * @param limit  see the {@link #limit} field description
+     * @throws IOException in case when the file cannot be opened or positioned
+     */
+    public LogFileInputStream(File file, long offset, long limit) throws IOException {
+        this(file, offset);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position >= limit) {
+            return -1;
+        }
+        int result = super.read();
+        if (result != -1) {
+            position++;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] bytes) throws IOException {
+        return read(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        long remaining = limit - position;
+        if (remaining <= 0 && length > 0) {
+            return -1;
+        }
+        int result = super.read(bytes, offset, (int) Math.min(length, remaining));
+        if (result > 0) {
+            position += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long result = super.skip(Math.min(n, Math.max(0, limit - position)));
+        position += result;
+        return result;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(super.available(), Math.max(0, limit - position));
+    }
+
     /**
      * @return the {@link #file} value.
      */
     public File getFile() {
         return file;
     }
+
+    /**
+     * @return The {@link #position} field value. It is available after the stream is closed too.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return The {@link #limit} field value.
+     */
+    public long getLimit() {
+        return limit;
+    }
 }
@@ -17,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -24,6 +25,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Reads lines from log files.
@@ -83,6 +85,23 @@ public class ReaderService {
      */
     public List<String> readMultiline(String line, LogBufferedReader logBufferedReader, CombinerContext combinerContext) {
         List<String> result = new ArrayList<>();
+        readMultiline(line, logBufferedReader, combinerContext, result);
+        return result;
+    }
+
+    /**
+     * The same as the {@link #readMultiline(String, LogBufferedReader, CombinerContext)} method, but rows
+     * of the record are placed to the caller-supplied list. The list will be cleared before filling,
+     * so the same instance can be reused for each record without allocation of a new list.
+     *
+     * @param line              the first line of the record.
+     * @param logBufferedReader the data source
+     * @param combinerContext   the current state
+     * @param result            the target list, it will be cleared and filled with rows of the record.
+     */
+    public void readMultiline(String line, LogBufferedReader logBufferedReader, CombinerContext combinerContext,
+                              List<String> result) {
+        result.clear();
         try {
             Date lineDate = logBufferedReader.getLineDate(); // keep the date if exists
             result.add(cutIfLonger(line));
@@ -95,12 +114,12 @@ public class ReaderService {
                         logger.warn("Line is longer than {} chars. Line begins with: '{}'.",
                             MAX_CHARACTERS_IN_ONE_LINE, cutIfLonger(line));
                     }
-                    return result;
+                    return;
                 }
                 if (containsStartPattern(line, logBufferedReader, combinerContext)) {
                     logBufferedReader.reset();
                     logBufferedReader.setLineDate(lineDate);
-                    return result;
+                    return;
                 } else {
                     result.add(cutIfLonger(line));
                 }
@@ -108,7 +127,6 @@ public class ReaderService {
                 line = logBufferedReader.readLine();
             }
             logBufferedReader.setLineDate(lineDate);
-            return result;
         } catch (IOException e) {
             String message = "ReadMultiline failed. Line: '" + cutIfLonger(line) + "', Result: " + result.toString();
             throw new CombinerRuntimeException(message, e);
@@ -293,6 +311,27 @@ public class ReaderService {
         return logFileInputStream.getFile();
     }
 
+    /**
+     * Get number of bytes read from a log file of this reader. After the last line of the file has been read,
+     * the value is equal to the file length.
+     *
+     * @param logBufferedReader contains {@link LogInputStreamReader} that contains
+     *                          {@link LogConcatenatedInputStream} that contains
+     *                          {@link LogFileInputStream#getPosition()}
+     * @return the {@link LogFileInputStream#getPosition()} value or -1 if the reader has no stream
+     */
+    public long getPosition(LogBufferedReader logBufferedReader) {
+        if (logBufferedReader == null) {
+            return -1;
+        }
+        LogInputStreamReader logInputStreamReader = (LogInputStreamReader) logBufferedReader.getReader();
+        LogConcatenatedInputStream logConcatenatedInputStream = (LogConcatenatedInputStream) logInputStreamReader.getInputStream();
+        if (logConcatenatedInputStream == null || logConcatenatedInputStream.getCurrentStream() == null) {
+            return -1;
+        }
+        return logConcatenatedInputStream.getCurrentStream().getPosition();
+    }
+
     /**
      * Create {@link FileInputStream}s from all log files and set them to {@link NodeFile}s from the combinerContext.
      *
@@ -310,11 +349,48 @@ public class ReaderService {
      * @param nodeFiles that should be used.
      */
     public void prepareBufferedReaders(CombinerContext combinerContext, NodeFileTreeSet<NodeFile> nodeFiles) {
+        Map<File, Long> offsets = Collections.emptyMap();
+        prepareBufferedReaders(combinerContext, nodeFiles, offsets);
+    }
+
+    /**
+     * Create {@link FileInputStream}s from {@link NodeFile}s and set them to {@link NodeFile}s from the combinerContext.
+     * Reading of files from the offsets map continues from their offsets.
+     *
+     * @param combinerContext the holder of {@link NodeFile}s with files for parsing.
+     * @param nodeFiles that should be used.
+     * @param offsets a map where a key is a file and a value is a number of bytes which will be skipped,
+     *                for example values of the {@link #getPosition(LogBufferedReader)} method from a previous reading.
+     */
+    public void prepareBufferedReaders(CombinerContext combinerContext, NodeFileTreeSet<NodeFile> nodeFiles,
+                                       Map<File, Long> offsets) {
+        Map<File, Long> limits = Collections.emptyMap();
+        prepareBufferedReaders(combinerContext, nodeFiles, offsets, limits);
+    }
+
+    /**
+     * Create {@link FileInputStream}s from {@link NodeFile}s and set them to {@link NodeFile}s from the combinerContext.
+     * Reading of files from the offsets map continues from their offsets and reading of files from the limits map
+     * stops at their limits.
+     *
+     * @param combinerContext the holder of {@link NodeFile}s with files for parsing.
+     * @param nodeFiles that should be used.
+     * @param offsets a map where a key is a file and a value is a number of bytes which will be skipped,
+     *                for example values of the {@link #getPosition(LogBufferedReader)} method from a previous reading.
+     * @param limits a map where a key is a file and a value is a number of bytes from the beginning of the file
+     *               which will be read, for example a value of the {@link #findEndOfLastLine(File, long)} method.
+     */
+    public void prepareBufferedReaders(CombinerContext combinerContext, NodeFileTreeSet<NodeFile> nodeFiles,
+                                       Map<File, Long> offsets, Map<File, Long> limits) {
         try {
             long startNanos = System.nanoTime();
             for (NodeFile nodeFile : nodeFiles) {
                 List<LogFileInputStream> inputStreams = new ArrayList<>();
-                inputStreams.add(new LogFileInputStream(nodeFile.getFileWithSources().getFile()));
+                File file = nodeFile.getFileWithSources().getFile();
+                Long offset = offsets.get(file);
+                Long limit = limits.get(file);
+                inputStreams.add(new LogFileInputStream(file, offset == null ? 0 : offset,
+                    limit == null ? Long.MAX_VALUE : limit));
                 Enumeration<LogFileInputStream> enumeration = Collections.enumeration(inputStreams);
                 LogConcatenatedInputStream logConcatenatedInputStream = new LogConcatenatedInputStream(enumeration);
                 // TODO Kyrylo Semenko - charset from combinerContext
@@ -334,4 +410,39 @@ public class ReaderService {
         }
     }
 
+    /**
+     * Find the end of the last complete line of a file, which may be still written. A line is complete when it is
+     * terminated with the '\n' character or with the '\r' character followed by another character.
+     * A trailing '\r' may be the first part of a '\r\n' line ending, so it does not complete the line.
+     *
+     * @param file   a log file
+     * @param offset the position in the file where searching stops, for example a previous
+     *               {@link #getPosition(LogBufferedReader)} value
+     * @return Number of bytes from the beginning of the file up to and including the last line terminator,
+     * or the offset if there is no complete line after the offset.
+     */
+    public long findEndOfLastLine(File file, long offset) {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            byte[] buffer = new byte[8192];
+            long end = length;
+            while (end > offset) {
+                int chunk = (int) Math.min(buffer.length, end - offset);
+                long start = end - chunk;
+                randomAccessFile.seek(start);
+                randomAccessFile.readFully(buffer, 0, chunk);
+                for (int i = chunk - 1; i >= 0; i--) {
+                    long index = start + i;
+                    if (buffer[i] == '\n' || (buffer[i] == '\r' && index < length - 1)) {
+                        return index + 1;
+                    }
+                }
+                end = start;
+            }
+            return offset;
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot read file '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
 }
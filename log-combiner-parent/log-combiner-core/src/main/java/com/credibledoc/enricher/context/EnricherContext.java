@@ -28,6 +28,12 @@ public class EnricherContext {
      */
     private Map<Printable, List<LineProcessor>> printableToLineProcessorsMap = new HashMap<>();
 
+    /**
+     * If the value is 'true', {@link LineProcessor}s collect their
+     * {@link com.credibledoc.enricher.line.LineProcessorStatistics}.
+     */
+    private boolean statisticsEnabled;
+
     /**
      * Create new instances of
      * <ul>
@@ -47,6 +53,7 @@ public class EnricherContext {
         return "EnricherContext{" +
             "lineProcessorRepository=" + lineProcessorRepository +
             ", derivingToLineProcessorsMap=" + printableToLineProcessorsMap +
+            ", statisticsEnabled=" + statisticsEnabled +
             '}';
     }
 
@@ -77,4 +84,18 @@ public class EnricherContext {
     public void setPrintableToLineProcessorsMap(Map<Printable, List<LineProcessor>> printableToLineProcessorsMap) {
         this.printableToLineProcessorsMap = printableToLineProcessorsMap;
     }
+
+    /**
+     * @return The {@link #statisticsEnabled} field value.
+     */
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * @param statisticsEnabled see the {@link #statisticsEnabled} field description.
+     */
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
 }
@@ -29,6 +29,11 @@ public class LineProcessor {
      */
     private Printable printable;
 
+    /**
+     * Counters and durations of this {@link LineProcessor}. The value is 'null' when statistics is disabled.
+     */
+    private LineProcessorStatistics statistics;
+
     /**
      * Constructor sets the fields:
      * @param searchCommand {@link #searchCommand}
@@ -83,4 +88,18 @@ public class LineProcessor {
     public void setPrintable(Printable printable) {
         this.printable = printable;
     }
+
+    /**
+     * @return The {@link #statistics} field value.
+     */
+    public LineProcessorStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @param statistics see the {@link #statistics} field
+     */
+    public void setStatistics(LineProcessorStatistics statistics) {
+        this.statistics = statistics;
+    }
 }
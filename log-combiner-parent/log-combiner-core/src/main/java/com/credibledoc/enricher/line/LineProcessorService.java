@@ -12,6 +12,12 @@ import java.util.*;
  */
 public class LineProcessorService {
 
+    private static final String SEARCH_COMMAND_HEADER = "SearchCommand";
+
+    private static final String TRANSFORMER_HEADER = "Transformer";
+
+    private static final double NANOS_IN_MILLISECOND = 1000000d;
+
     /**
      * Singleton.
      */
@@ -61,6 +67,90 @@ public class LineProcessorService {
     public void addAll(List<LineProcessor> lineProcessors, EnricherContext enricherContext) {
         enricherContext.getPrintableToLineProcessorsMap().clear();
         enricherContext.getLineProcessorRepository().getLineProcessors().addAll(lineProcessors);
+        if (enricherContext.isStatisticsEnabled()) {
+            enableStatistics(enricherContext);
+        }
+    }
+
+    /**
+     * Set the {@link EnricherContext#setStatisticsEnabled(boolean)} to 'true' and create
+     * {@link LineProcessorStatistics} for all {@link LineProcessor}s without statistics.
+     * {@link LineProcessor}s appended by the {@link #addAll(List, EnricherContext)} method later
+     * will collect statistics too.
+     * <p>
+     * Statistics is disabled by default. Disabled statistics costs a single flag check per
+     * {@link LineProcessor} call. See the {@link #disableStatistics(EnricherContext)} method.
+     *
+     * @param enricherContext the current state
+     */
+    public void enableStatistics(EnricherContext enricherContext) {
+        enricherContext.setStatisticsEnabled(true);
+        for (LineProcessor lineProcessor : getLineProcessors(enricherContext)) {
+            if (lineProcessor.getStatistics() == null) {
+                lineProcessor.setStatistics(new LineProcessorStatistics());
+            }
+        }
+    }
+
+    /**
+     * Set the {@link EnricherContext#setStatisticsEnabled(boolean)} to 'false', so {@link LineProcessor}s stop
+     * measuring and counting their calls. Already collected {@link LineProcessorStatistics} are kept for the
+     * {@link #formatStatistics(EnricherContext)} method.
+     *
+     * @param enricherContext the current state
+     */
+    public void disableStatistics(EnricherContext enricherContext) {
+        enricherContext.setStatisticsEnabled(false);
+    }
+
+    /**
+     * Create a table of {@link LineProcessorStatistics} of all {@link LineProcessor}s ordered by
+     * cumulative duration, the most expensive {@link LineProcessor} first.
+     *
+     * @param enricherContext the current state
+     * @return a multi-line table with invocations, matches and durations in milliseconds
+     */
+    public String formatStatistics(EnricherContext enricherContext) {
+        List<LineProcessor> lineProcessors = new ArrayList<>();
+        for (LineProcessor lineProcessor : getLineProcessors(enricherContext)) {
+            if (lineProcessor.getStatistics() != null) {
+                lineProcessors.add(lineProcessor);
+            }
+        }
+        Collections.sort(lineProcessors, new Comparator<LineProcessor>() {
+            @Override
+            public int compare(LineProcessor first, LineProcessor second) {
+                return Long.compare(getTotalNanos(second.getStatistics()), getTotalNanos(first.getStatistics()));
+            }
+        });
+        int searchWidth = SEARCH_COMMAND_HEADER.length();
+        int transformerWidth = TRANSFORMER_HEADER.length();
+        for (LineProcessor lineProcessor : lineProcessors) {
+            searchWidth = Math.max(searchWidth, lineProcessor.getSearchCommand().getClass().getName().length());
+            transformerWidth = Math.max(transformerWidth, lineProcessor.getTransformer().getClass().getName().length());
+        }
+        String format = "%-" + searchWidth + "s  %-" + transformerWidth + "s  %12s  %12s  %8s  %12s  %12s";
+        StringBuilder result = new StringBuilder();
+        result.append(String.format(format, SEARCH_COMMAND_HEADER, TRANSFORMER_HEADER, "Invocations", "Matches",
+            "Match %", "Search ms", "Transform ms"));
+        for (LineProcessor lineProcessor : lineProcessors) {
+            LineProcessorStatistics statistics = lineProcessor.getStatistics();
+            double matchPercent = statistics.getInvocations() == 0 ? 0 :
+                statistics.getMatches() * 100d / statistics.getInvocations();
+            result.append(System.lineSeparator()).append(String.format(format,
+                lineProcessor.getSearchCommand().getClass().getName(),
+                lineProcessor.getTransformer().getClass().getName(),
+                statistics.getInvocations(),
+                statistics.getMatches(),
+                String.format("%.2f", matchPercent),
+                String.format("%.3f", statistics.getSearchNanos() / NANOS_IN_MILLISECOND),
+                String.format("%.3f", statistics.getTransformNanos() / NANOS_IN_MILLISECOND)));
+        }
+        return result.toString();
+    }
+
+    private long getTotalNanos(LineProcessorStatistics statistics) {
+        return statistics.getSearchNanos() + statistics.getTransformNanos();
     }
 
     private void initializeCache(EnricherContext enricherContext) {
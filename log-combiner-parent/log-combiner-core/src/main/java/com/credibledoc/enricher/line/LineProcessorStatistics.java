@@ -0,0 +1,95 @@
+package com.credibledoc.enricher.line;
+
+import com.credibledoc.enricher.searchcommand.SearchCommand;
+import com.credibledoc.enricher.transformer.Transformer;
+
+/**
+ * Stateful data object. Contains counters and durations of a single {@link LineProcessor}.
+ * The values are collected only when statistics is enabled, see the
+ * {@link LineProcessorService#enableStatistics(com.credibledoc.enricher.context.EnricherContext)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LineProcessorStatistics {
+
+    /**
+     * How many times the {@link SearchCommand#isApplicable} method has been called
+     */
+    private long invocations;
+
+    /**
+     * How many times the {@link SearchCommand#isApplicable} method returned 'true'
+     */
+    private long matches;
+
+    /**
+     * Cumulative duration of the {@link SearchCommand#isApplicable} calls in nanoseconds
+     */
+    private long searchNanos;
+
+    /**
+     * Cumulative duration of the {@link Transformer#transform} calls in nanoseconds
+     */
+    private long transformNanos;
+
+    @Override
+    public String toString() {
+        return "LineProcessorStatistics{" +
+            "invocations=" + invocations +
+            ", matches=" + matches +
+            ", searchNanos=" + searchNanos +
+            ", transformNanos=" + transformNanos +
+            '}';
+    }
+
+    /**
+     * Add a single {@link SearchCommand#isApplicable} call.
+     *
+     * @param applicable the returned value
+     * @param nanos      duration of the call
+     */
+    public void addSearch(boolean applicable, long nanos) {
+        invocations++;
+        if (applicable) {
+            matches++;
+        }
+        searchNanos += nanos;
+    }
+
+    /**
+     * Add a single {@link Transformer#transform} call.
+     *
+     * @param nanos duration of the call
+     */
+    public void addTransform(long nanos) {
+        transformNanos += nanos;
+    }
+
+    /**
+     * @return The {@link #invocations} field value.
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return The {@link #matches} field value.
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     * @return The {@link #searchNanos} field value.
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * @return The {@link #transformNanos} field value.
+     */
+    public long getTransformNanos() {
+        return transformNanos;
+    }
+}
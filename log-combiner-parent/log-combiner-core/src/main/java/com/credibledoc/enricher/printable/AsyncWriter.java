@@ -0,0 +1,326 @@
+package com.credibledoc.enricher.printable;
+
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Writer} which collects written characters to chunks and writes them to the {@link #target}
+ * {@link Writer} in a dedicated thread. It can be used as a source of the {@link Printable#getPrintWriter()},
+ * for example
+ * <pre>
+ *     new PrintWriter(new AsyncWriter(new FileWriter(file)))
+ * </pre>
+ * so the thread which transforms log lines does not wait for a disk.
+ * <p>
+ * The chunks are recycled in a ring of {@link #chunksNumber} buffers. A writing thread waits only in case when
+ * all chunks are filled and not written to the {@link #target} yet.
+ * <p>
+ * Errors of the {@link #target} are stored and thrown as a {@link CombinerRuntimeException} from the next
+ * {@link #write(char[], int, int)}, {@link #flush()} or {@link #close()} call. The {@link CombinerRuntimeException}
+ * is unchecked, so it is not swallowed by the {@link PrintWriter}.
+ * <p>
+ * Methods of this {@link Writer} should be called from a single thread, or synchronized on the {@link #lock},
+ * as the {@link PrintWriter} does.
+ *
+ * @author Kyrylo Semenko
+ */
+public class AsyncWriter extends Writer {
+
+    /**
+     * Default size of a single chunk in characters
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Default number of chunks in the ring
+     */
+    public static final int DEFAULT_CHUNKS_NUMBER = 8;
+
+    /**
+     * Used for the {@link #thread} names
+     */
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    /**
+     * The destination of written characters
+     */
+    private final Writer target;
+
+    /**
+     * Number of chunks in the ring
+     */
+    private final int chunksNumber;
+
+    /**
+     * Empty chunks ready for filling
+     */
+    private final BlockingQueue<Chunk> freeChunks;
+
+    /**
+     * Filled chunks and commands ready for writing to the {@link #target}
+     */
+    private final BlockingQueue<Chunk> filledChunks;
+
+    /**
+     * The thread which writes the {@link #filledChunks} to the {@link #target}
+     */
+    private final Thread thread;
+
+    /**
+     * The chunk which is filled now
+     */
+    private Chunk currentChunk;
+
+    /**
+     * The first error occurred in the {@link #thread}
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Is 'true' after the {@link #close()} method has been called
+     */
+    private boolean closed;
+
+    /**
+     * Create a writer with the {@link #DEFAULT_CHUNK_SIZE} and {@link #DEFAULT_CHUNKS_NUMBER}.
+     * @param target see the {@link #target} field description
+     */
+    public AsyncWriter(Writer target) {
+        this(target, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNKS_NUMBER);
+    }
+
+    /**
+     * Create a writer and start its {@link #thread}.
+     *
+     * @param target       see the {@link #target} field description
+     * @param chunkSize    size of a single chunk in characters
+     * @param chunksNumber see the {@link #chunksNumber} field description, at least two.
+     */
+    public AsyncWriter(Writer target, int chunkSize, int chunksNumber) {
+        if (chunkSize < 1 || chunksNumber < 2) {
+            throw new CombinerRuntimeException("Expected chunkSize > 0 and chunksNumber > 1, " +
+                "but found chunkSize: " + chunkSize + ", chunksNumber: " + chunksNumber);
+        }
+        this.target = target;
+        this.chunksNumber = chunksNumber;
+        this.freeChunks = new ArrayBlockingQueue<>(chunksNumber);
+        // commands are placed to the queue in addition to chunks
+        this.filledChunks = new ArrayBlockingQueue<>(chunksNumber + 2);
+        for (int i = 1; i < chunksNumber; i++) {
+            freeChunks.add(new Chunk(chunkSize));
+        }
+        currentChunk = new Chunk(chunkSize);
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeChunks();
+            }
+        }, "AsyncWriter-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        ensureOpen();
+        int position = off;
+        int end = off + len;
+        while (position < end) {
+            int length = Math.min(end - position, currentChunk.chars.length - currentChunk.length);
+            System.arraycopy(cbuf, position, currentChunk.chars, currentChunk.length, length);
+            currentChunk.length += length;
+            position += length;
+            if (currentChunk.length == currentChunk.chars.length) {
+                submitCurrentChunk();
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        ensureOpen();
+        int position = off;
+        int end = off + len;
+        while (position < end) {
+            int length = Math.min(end - position, currentChunk.chars.length - currentChunk.length);
+            str.getChars(position, position + length, currentChunk.chars, currentChunk.length);
+            currentChunk.length += length;
+            position += length;
+            if (currentChunk.length == currentChunk.chars.length) {
+                submitCurrentChunk();
+            }
+        }
+    }
+
+    /**
+     * Hand over the current chunk and wait until all chunks are written and the {@link #target} is flushed.
+     */
+    @Override
+    public void flush() {
+        ensureOpen();
+        if (currentChunk.length > 0) {
+            submitCurrentChunk();
+        }
+        Chunk command = new Chunk(0);
+        command.latch = new CountDownLatch(1);
+        put(filledChunks, command);
+        await(command.latch);
+        throwIfFailed();
+    }
+
+    /**
+     * Hand over the current chunk, wait until all chunks are written and close the {@link #target}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (currentChunk.length > 0 && failure == null) {
+            put(filledChunks, currentChunk);
+        }
+        currentChunk = null;
+        Chunk command = new Chunk(0);
+        command.close = true;
+        put(filledChunks, command);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CombinerRuntimeException("Interrupted while closing " + thread.getName(), e);
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * @return The {@link #chunksNumber} field value.
+     */
+    public int getChunksNumber() {
+        return chunksNumber;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new CombinerRuntimeException("AsyncWriter is closed.");
+        }
+        throwIfFailed();
+    }
+
+    private void throwIfFailed() {
+        Throwable throwable = failure;
+        if (throwable != null) {
+            throw new CombinerRuntimeException("Writing failed in the " + thread.getName() + " thread.", throwable);
+        }
+    }
+
+    private void submitCurrentChunk() {
+        put(filledChunks, currentChunk);
+        try {
+            currentChunk = freeChunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CombinerRuntimeException("Interrupted while waiting for a free chunk.", e);
+        }
+        throwIfFailed();
+    }
+
+    private void put(BlockingQueue<Chunk> queue, Chunk chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CombinerRuntimeException("Interrupted while submitting a chunk.", e);
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CombinerRuntimeException("Interrupted while flushing.", e);
+        }
+    }
+
+    /**
+     * The body of the {@link #thread}. After a failure the chunks are returned without writing,
+     * so the writing thread is never blocked forever.
+     */
+    private void writeChunks() {
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = filledChunks.take();
+            } catch (InterruptedException e) {
+                failure = e;
+                return;
+            }
+            if (chunk.close) {
+                closeTarget();
+                return;
+            }
+            try {
+                if (chunk.latch != null) {
+                    if (failure == null) {
+                        target.flush();
+                    }
+                } else {
+                    if (failure == null) {
+                        target.write(chunk.chars, 0, chunk.length);
+                    }
+                    chunk.length = 0;
+                    freeChunks.add(chunk);
+                }
+            } catch (Throwable throwable) {
+                if (failure == null) {
+                    failure = throwable;
+                }
+                if (chunk.latch == null) {
+                    chunk.length = 0;
+                    freeChunks.add(chunk);
+                }
+            } finally {
+                if (chunk.latch != null) {
+                    chunk.latch.countDown();
+                }
+            }
+        }
+    }
+
+    private void closeTarget() {
+        try {
+            try {
+                if (failure == null) {
+                    target.flush();
+                }
+            } finally {
+                target.close();
+            }
+        } catch (Throwable throwable) {
+            if (failure == null) {
+                failure = throwable;
+            }
+        }
+    }
+
+    /**
+     * A buffer of characters or a command for the {@link #thread}.
+     */
+    private static final class Chunk {
+        private final char[] chars;
+        private int length;
+        private CountDownLatch latch;
+        private boolean close;
+
+        private Chunk(int size) {
+            this.chars = new char[size];
+        }
+    }
+}
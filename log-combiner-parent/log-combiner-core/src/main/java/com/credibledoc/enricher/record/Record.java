@@ -2,17 +2,26 @@ package com.credibledoc.enricher.record;
 
 import com.credibledoc.combiner.node.file.NodeFile;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 /**
  * This data object represents a log line. If a line has multiple rows,
  * all these rows will be represented here.
+ * <p>
+ * Instances returned from the {@link RecordIterator} are reusable views, see the {@link RecordIterator}
+ * description of their lifetime. Call the {@link #copy()} method when the {@link Record} should be kept.
  *
  * @author Kyrylo Semenko
  */
 public class Record {
 
+    /**
+     * The {@link #epochMillis} value of a {@link Record} without a date.
+     */
+    public static final long UNKNOWN_EPOCH_MILLIS = Long.MIN_VALUE;
+
     /**
      * A log record. It may have one or more rows.
      */
@@ -23,6 +32,12 @@ public class Record {
      */
     private Date date;
 
+    /**
+     * Milliseconds since the epoch of the {@link #date} or the {@link #UNKNOWN_EPOCH_MILLIS} value
+     * if the {@link #date} is unknown.
+     */
+    private long epochMillis = UNKNOWN_EPOCH_MILLIS;
+
     /**
      * The source of this {@link Record}.
      */
@@ -34,7 +49,20 @@ public class Record {
 
     public Record(List<String> multiLine, Date date) {
         this.multiLine = multiLine;
-        this.date = date;
+        setDate(date);
+    }
+
+    /**
+     * Create a detached copy of this {@link Record} with its own {@link #multiLine} list.
+     * The copy is not affected by subsequent reuse of this instance.
+     *
+     * @return a new {@link Record} instance
+     */
+    public Record copy() {
+        List<String> multiLineCopy = multiLine == null ? null : new ArrayList<>(multiLine);
+        Record result = new Record(multiLineCopy, date);
+        result.setNodeFile(nodeFile);
+        return result;
     }
 
     /**
@@ -63,6 +91,14 @@ public class Record {
      */
     public void setDate(Date date) {
         this.date = date;
+        this.epochMillis = date == null ? UNKNOWN_EPOCH_MILLIS : date.getTime();
+    }
+
+    /**
+     * @return the {@link #epochMillis} value
+     */
+    public long getEpochMillis() {
+        return epochMillis;
     }
 
     /**
@@ -0,0 +1,116 @@
+package com.credibledoc.enricher.record;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.log.reader.ReaderService;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.state.FilesMergerState;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Stateful object. Iterates log records of all {@link NodeFile}s from a {@link FilesMergerState}
+ * in the order of their dates, the same way as the
+ * {@link ReaderService#readLineFromReaders(FilesMergerState)} and
+ * {@link ReaderService#readMultiline(String, LogBufferedReader, CombinerContext)} methods do.
+ * <p>
+ * The iterator does not allocate a new {@link Record} and a new {@link Record#getMultiLine()} list for each
+ * log record. The same mutable {@link Record} instance is returned from every {@link #next()} call.
+ * <p>
+ * Lifetime contract:
+ * <ul>
+ *     <li>A {@link Record} returned from {@link #next()} and its {@link Record#getMultiLine()} list
+ *     are valid until the next call of the {@link #hasNext()} or {@link #next()} method.</li>
+ *     <li>The {@link #hasNext()} method reads the next line from the {@link LogBufferedReader}s
+ *     and changes the {@link FilesMergerState#getCurrentNodeFile()}, so it should be called only
+ *     when the current {@link Record} is processed.</li>
+ *     <li>Please do not keep references to the {@link Record} or its {@link Record#getMultiLine()} list.
+ *     If a {@link Record} should be kept, use the {@link Record#copy()} method.</li>
+ * </ul>
+ * An instance of this class is not thread-safe.
+ *
+ * @author Kyrylo Semenko
+ */
+public class RecordIterator implements Iterator<Record> {
+
+    /**
+     * Contains {@link NodeFile}s with prepared {@link LogBufferedReader}s.
+     */
+    private final FilesMergerState filesMergerState;
+
+    /**
+     * The current state
+     */
+    private final CombinerContext combinerContext;
+
+    /**
+     * The reused {@link Record} returned from the {@link #next()} method.
+     */
+    private final Record record;
+
+    /**
+     * The reused {@link Record#getMultiLine()} list of the {@link #record}.
+     */
+    private final List<String> multiLine;
+
+    /**
+     * The first line of the next record, or 'null' if all readers are empty.
+     */
+    private String nextLine;
+
+    /**
+     * Is 'true' when the {@link #nextLine} has been read and not returned yet.
+     */
+    private boolean nextLineRead;
+
+    /**
+     * @param filesMergerState contains {@link NodeFile}s with prepared {@link LogBufferedReader}s, see the
+     *                         {@link ReaderService#prepareBufferedReaders(CombinerContext)} method.
+     * @param combinerContext the current state
+     */
+    public RecordIterator(FilesMergerState filesMergerState, CombinerContext combinerContext) {
+        this.filesMergerState = filesMergerState;
+        this.combinerContext = combinerContext;
+        this.multiLine = new ArrayList<>();
+        this.record = new Record(multiLine, null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!nextLineRead) {
+            nextLine = ReaderService.getInstance().readLineFromReaders(filesMergerState);
+            nextLineRead = true;
+        }
+        return nextLine != null;
+    }
+
+    /**
+     * @return the reused {@link Record} instance filled with the next log record.
+     * See the {@link RecordIterator} description of its lifetime.
+     */
+    @Override
+    public Record next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        nextLineRead = false;
+        NodeFile nodeFile = filesMergerState.getCurrentNodeFile();
+        LogBufferedReader logBufferedReader = nodeFile.getLogBufferedReader();
+        ReaderService.getInstance().readMultiline(nextLine, logBufferedReader, combinerContext, multiLine);
+        record.setDate(logBufferedReader.getLineDate());
+        record.setNodeFile(nodeFile);
+        nextLine = null;
+        return record;
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+}
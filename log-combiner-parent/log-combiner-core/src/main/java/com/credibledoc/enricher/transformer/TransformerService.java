@@ -6,8 +6,11 @@ import com.credibledoc.enricher.context.EnricherContext;
 import com.credibledoc.enricher.printable.Printable;
 import com.credibledoc.enricher.line.LineProcessor;
 import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.line.LineProcessorStatistics;
+import com.credibledoc.enricher.record.Record;
 import com.credibledoc.enricher.searchcommand.SearchCommand;
 
+import java.io.PrintWriter;
 import java.util.List;
 
 /**
@@ -18,6 +21,11 @@ import java.util.List;
  */
 public class TransformerService {
 
+    /**
+     * The line separator written after each transformed line.
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
     /**
      * Singleton.
      */
@@ -65,12 +73,31 @@ public class TransformerService {
                                   EnricherContext enricherContext) {
         List<LineProcessor> lineProcessors = LineProcessorService.getInstance().getLineProcessors(printable, enricherContext);
         for (LineProcessor lineProcessor : lineProcessors) {
-            boolean isApplicable = lineProcessor.getSearchCommand().isApplicable(printable, multiline, logBufferedReader);
+            LineProcessorStatistics statistics =
+                enricherContext.isStatisticsEnabled() ? lineProcessor.getStatistics() : null;
+            boolean isApplicable;
+            if (statistics == null) {
+                isApplicable = lineProcessor.getSearchCommand().isApplicable(printable, multiline, logBufferedReader);
+            } else {
+                long startNanos = System.nanoTime();
+                isApplicable = lineProcessor.getSearchCommand().isApplicable(printable, multiline, logBufferedReader);
+                statistics.addSearch(isApplicable, System.nanoTime() - startNanos);
+            }
             if (isApplicable) {
-                String transformed = lineProcessor.getTransformer()
-                    .transform(printable, multiline, logBufferedReader, combinerContext);
+                String transformed;
+                if (statistics == null) {
+                    transformed = lineProcessor.getTransformer()
+                        .transform(printable, multiline, logBufferedReader, combinerContext);
+                } else {
+                    long startNanos = System.nanoTime();
+                    transformed = lineProcessor.getTransformer()
+                        .transform(printable, multiline, logBufferedReader, combinerContext);
+                    statistics.addTransform(System.nanoTime() - startNanos);
+                }
                 if (transformed != null) {
-                    printable.getPrintWriter().write(transformed + System.lineSeparator());
+                    PrintWriter printWriter = printable.getPrintWriter();
+                    printWriter.write(transformed);
+                    printWriter.write(LINE_SEPARATOR);
                 }
                 if (!printable.checkAllLineProcessors()) {
                     break;
@@ -79,4 +106,22 @@ public class TransformerService {
         }
     }
 
+    /**
+     * Call the {@link #transformToReport(Printable, List, LogBufferedReader, CombinerContext, EnricherContext)}
+     * method with the {@link Record#getMultiLine()} and the {@link LogBufferedReader} of the
+     * {@link Record#getNodeFile()}. The {@link Record} can be a reused instance, see the
+     * {@link com.credibledoc.enricher.record.RecordIterator} description.
+     *
+     * @param printable       report state
+     * @param record          a log record
+     * @param combinerContext the current state
+     * @param enricherContext the current state
+     */
+    public void transformToReport(Printable printable,
+                                  Record record,
+                                  CombinerContext combinerContext,
+                                  EnricherContext enricherContext) {
+        transformToReport(printable, record.getMultiLine(), record.getNodeFile().getLogBufferedReader(),
+            combinerContext, enricherContext);
+    }
 }
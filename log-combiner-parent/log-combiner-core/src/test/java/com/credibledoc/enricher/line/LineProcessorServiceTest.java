@@ -0,0 +1,120 @@
+package com.credibledoc.enricher.line;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.SearchCommand;
+import com.credibledoc.enricher.transformer.Transformer;
+import com.credibledoc.enricher.transformer.TransformerService;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LineProcessorServiceTest {
+
+    private static class ErrorSearchCommand implements SearchCommand {
+        @Override
+        public boolean isApplicable(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader) {
+            return multiLine.get(0).contains("ERROR");
+        }
+    }
+
+    private static class UpperCaseTransformer implements Transformer {
+        @Override
+        public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                CombinerContext combinerContext) {
+            return multiLine.get(0).toUpperCase();
+        }
+    }
+
+    private static class StringPrintable implements Printable {
+        private final StringWriter stringWriter = new StringWriter();
+        private final PrintWriter printWriter = new PrintWriter(stringWriter);
+
+        @Override
+        public PrintWriter getPrintWriter() {
+            return printWriter;
+        }
+
+        @Override
+        public List<String> getCacheLines() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean checkAllLineProcessors() {
+            return false;
+        }
+    }
+
+    @Test
+    public void collectStatistics() {
+        EnricherContext enricherContext = new EnricherContext().init();
+        StringPrintable printable = new StringPrintable();
+        LineProcessor lineProcessor = new LineProcessor(new ErrorSearchCommand(), new UpperCaseTransformer(), printable);
+        LineProcessorService lineProcessorService = LineProcessorService.getInstance();
+        lineProcessorService.addAll(Collections.singletonList(lineProcessor), enricherContext);
+        assertNull(lineProcessor.getStatistics());
+
+        lineProcessorService.enableStatistics(enricherContext);
+        TransformerService transformerService = TransformerService.getInstance();
+        for (String line : Arrays.asList("ERROR one", "INFO two", "ERROR three", "DEBUG four")) {
+            transformerService.transformToReport(printable, Collections.singletonList(line), null,
+                new CombinerContext(), enricherContext);
+        }
+
+        LineProcessorStatistics statistics = lineProcessor.getStatistics();
+        assertEquals(4, statistics.getInvocations());
+        assertEquals(2, statistics.getMatches());
+        assertEquals("ERROR ONE" + System.lineSeparator() + "ERROR THREE" + System.lineSeparator(),
+            printable.stringWriter.toString());
+
+        String table = lineProcessorService.formatStatistics(enricherContext);
+        String[] rows = table.split(System.lineSeparator());
+        assertEquals(2, rows.length);
+        assertTrue(rows[1].contains(ErrorSearchCommand.class.getName()));
+        assertTrue(rows[1].contains("50.00"));
+    }
+
+    @Test
+    public void disableStatistics() {
+        EnricherContext enricherContext = new EnricherContext().init();
+        StringPrintable printable = new StringPrintable();
+        LineProcessor lineProcessor = new LineProcessor(new ErrorSearchCommand(), new UpperCaseTransformer(), printable);
+        LineProcessorService lineProcessorService = LineProcessorService.getInstance();
+        lineProcessorService.addAll(Collections.singletonList(lineProcessor), enricherContext);
+        lineProcessorService.enableStatistics(enricherContext);
+        TransformerService transformerService = TransformerService.getInstance();
+        transformerService.transformToReport(printable, Collections.singletonList("ERROR one"), null,
+            new CombinerContext(), enricherContext);
+
+        lineProcessorService.disableStatistics(enricherContext);
+        assertFalse(enricherContext.isStatisticsEnabled());
+        for (String line : Arrays.asList("ERROR two", "INFO three")) {
+            transformerService.transformToReport(printable, Collections.singletonList(line), null,
+                new CombinerContext(), enricherContext);
+        }
+
+        LineProcessorStatistics statistics = lineProcessor.getStatistics();
+        assertEquals(1, statistics.getInvocations());
+        assertEquals(1, statistics.getMatches());
+        long searchNanos = statistics.getSearchNanos();
+        long transformNanos = statistics.getTransformNanos();
+        transformerService.transformToReport(printable, Collections.singletonList("ERROR four"), null,
+            new CombinerContext(), enricherContext);
+        assertEquals(searchNanos, statistics.getSearchNanos());
+        assertEquals(transformNanos, statistics.getTransformNanos());
+        assertTrue(printable.stringWriter.toString().contains("ERROR FOUR"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.credibledoc.enricher.printable;
+
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncWriterTest {
+
+    @Test
+    public void writeInChunks() {
+        StringWriter target = new StringWriter();
+        PrintWriter printWriter = new PrintWriter(new AsyncWriter(target, 7, 2));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String line = "line " + i;
+            printWriter.write(line);
+            printWriter.write(System.lineSeparator());
+            expected.append(line).append(System.lineSeparator());
+        }
+        printWriter.flush();
+        assertEquals(expected.toString(), target.toString());
+        printWriter.write("last");
+        printWriter.close();
+        assertEquals(expected + "last", target.toString());
+    }
+
+    @Test
+    public void propagateFailure() {
+        Writer failingWriter = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("Disk is full");
+            }
+
+            @Override
+            public void flush() {
+                // nothing to flush
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+        PrintWriter printWriter = new PrintWriter(new AsyncWriter(failingWriter, 4, 2));
+        try {
+            for (int i = 0; i < 100; i++) {
+                printWriter.write("abcdef");
+            }
+            printWriter.flush();
+            fail("CombinerRuntimeException expected");
+        } catch (CombinerRuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        try {
+            printWriter.close();
+            fail("CombinerRuntimeException expected");
+        } catch (CombinerRuntimeException e) {
+            assertEquals("Disk is full", e.getCause().getMessage());
+        }
+    }
+}
@@ -5,8 +5,13 @@ import com.credibledoc.combiner.config.Config;
 import com.credibledoc.combiner.config.ConfigService;
 import com.credibledoc.combiner.context.CombinerContext;
 import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.log.buffered.LogFileInputStream;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.node.file.NodeFileTreeSet;
 import com.credibledoc.combiner.state.FilesMergerState;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -14,11 +19,18 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -27,6 +39,9 @@ import static org.junit.Assert.assertTrue;
 
 public class ReaderServiceTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void findTheOldestTest() throws Exception {
         File configFile = new File("src/test/resources/reader-config/log-combiner.properties");
@@ -71,6 +86,75 @@ public class ReaderServiceTest {
         reader.close();
 }
 
+    @Test
+    public void continueFromPositions() throws Exception {
+        File configFile = new File("src/test/resources/reader-config/log-combiner.properties");
+        Config config = new ConfigService().loadConfig(configFile.getAbsolutePath());
+        File logDirectory = new File("src/test/resources/reader");
+
+        CombinerContext combinerContext = new CombinerContext().init();
+        CombinerService.getInstance().prepareReader(logDirectory, config, combinerContext);
+        NodeFileTreeSet<NodeFile> nodeFiles = combinerContext.getNodeFileRepository().getNodeFiles();
+
+        FilesMergerState filesMergerState = new FilesMergerState();
+        filesMergerState.setNodeFiles(nodeFiles);
+        ReaderService readerService = ReaderService.getInstance();
+        String line = readerService.readLineFromReaders(filesMergerState);
+        while (line != null) {
+            LogBufferedReader logBufferedReader = filesMergerState.getCurrentNodeFile().getLogBufferedReader();
+            readerService.readMultiline(line, logBufferedReader, combinerContext);
+            line = readerService.readLineFromReaders(filesMergerState);
+        }
+
+        Map<File, Long> offsets = new HashMap<>();
+        for (NodeFile nodeFile : nodeFiles) {
+            File file = nodeFile.getFileWithSources().getFile();
+            long position = readerService.getPosition(nodeFile.getLogBufferedReader());
+            assertEquals(file.length(), position);
+            offsets.put(file, position);
+            nodeFile.getLogBufferedReader().close();
+        }
+
+        readerService.prepareBufferedReaders(combinerContext, nodeFiles, offsets);
+        FilesMergerState resumedState = new FilesMergerState();
+        resumedState.setNodeFiles(nodeFiles);
+        assertNull(readerService.readLineFromReaders(resumedState));
+    }
+
+    @Test
+    public void stopAtLastCompleteLine() throws Exception {
+        File file = temporaryFolder.newFile("growing.log");
+        Files.write(file.toPath(), "first\nsecond\r\nthird is still writ".getBytes(StandardCharsets.UTF_8));
+        ReaderService readerService = ReaderService.getInstance();
+        long limit = readerService.findEndOfLastLine(file, 0);
+        assertEquals("first\nsecond\r\n".length(), limit);
+        assertEquals(limit, readerService.findEndOfLastLine(file, limit));
+
+        List<String> lines = new ArrayList<>();
+        LogFileInputStream inputStream = new LogFileInputStream(file, 0, limit);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                lines.add(line);
+                line = reader.readLine();
+            }
+        }
+        assertEquals(Arrays.asList("first", "second"), lines);
+        assertEquals(limit, inputStream.getPosition());
+
+        Files.write(file.toPath(), "ten\r\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        long nextLimit = readerService.findEndOfLastLine(file, limit);
+        assertEquals(file.length(), nextLimit);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new LogFileInputStream(file, limit, nextLimit), StandardCharsets.UTF_8))) {
+            assertEquals("third is still written", reader.readLine());
+            assertNull(reader.readLine());
+        }
+
+        Files.write(file.toPath(), "trailing CR\r".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(nextLimit, readerService.findEndOfLastLine(file, nextLimit));
+    }
+
     public void generateTestResult(List<String> result) throws IOException {
         File file = new File("C:\\Users\\semenko\\git\\credibledoc\\credible-doc\\log-combiner-parent\\log-combiner" +
             "\\src\\test\\resources\\reader-config\\result.log");
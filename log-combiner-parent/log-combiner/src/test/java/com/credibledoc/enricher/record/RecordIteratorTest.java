@@ -0,0 +1,73 @@
+package com.credibledoc.enricher.record;
+
+import com.credibledoc.combiner.CombinerService;
+import com.credibledoc.combiner.config.Config;
+import com.credibledoc.combiner.config.ConfigService;
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.state.FilesMergerState;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RecordIteratorTest {
+
+    @Test
+    public void iterateRecords() throws Exception {
+        File configFile = new File("src/test/resources/reader-config/log-combiner.properties");
+        Config config = new ConfigService().loadConfig(configFile.getAbsolutePath());
+        File logDirectory = new File("src/test/resources/reader");
+        assertTrue(logDirectory.exists());
+
+        CombinerContext combinerContext = new CombinerContext().init();
+        CombinerService.getInstance().prepareReader(logDirectory, config, combinerContext);
+
+        FilesMergerState filesMergerState = new FilesMergerState();
+        filesMergerState.setNodeFiles(combinerContext.getNodeFileRepository().getNodeFiles());
+
+        RecordIterator recordIterator = new RecordIterator(filesMergerState, combinerContext);
+        List<String> result = new ArrayList<>();
+        List<Record> copies = new ArrayList<>();
+        Record previous = null;
+        while (recordIterator.hasNext()) {
+            Record record = recordIterator.next();
+            if (previous != null) {
+                assertSame(previous, record);
+            }
+            previous = record;
+            assertNotNull(record.getNodeFile());
+            if (record.getDate() == null) {
+                assertEquals(Record.UNKNOWN_EPOCH_MILLIS, record.getEpochMillis());
+            } else {
+                assertEquals(record.getDate().getTime(), record.getEpochMillis());
+            }
+            result.addAll(record.getMultiLine());
+            copies.add(record.copy());
+        }
+        assertFalse(recordIterator.hasNext());
+
+        File resultFile = new File("src/test/resources/reader-config/result.log");
+        BufferedReader reader = new BufferedReader(new FileReader(resultFile));
+        for (String resultLine : result) {
+            assertEquals(reader.readLine(), resultLine);
+        }
+        assertNull(reader.readLine());
+        reader.close();
+
+        int copiedLines = 0;
+        for (Record copy : copies) {
+            copiedLines += copy.getMultiLine().size();
+        }
+        assertEquals(result.size(), copiedLines);
+    }
+}
@@ -0,0 +1,64 @@
+package com.credibledoc.substitution.reporting.checkpoint;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data object. Contains a state of a {@link com.credibledoc.substitution.reporting.report.Report} after its creation,
+ * see the {@link CheckpointService} description.
+ *
+ * @author Kyrylo Semenko
+ */
+public class Checkpoint {
+
+    /**
+     * A map where a key is an absolute path of a log file and a value is
+     * a number of bytes processed from the file.
+     */
+    private Map<String, Long> offsets = new LinkedHashMap<>();
+
+    /**
+     * A map where a key is a document key, see the
+     * {@link CheckpointService#getDocumentKey(com.credibledoc.substitution.reporting.reportdocument.ReportDocument, List)}
+     * method, and a value is a content of the
+     * {@link com.credibledoc.enricher.printable.Printable#getCacheLines()} list.
+     */
+    private Map<String, List<String>> cacheLines = new LinkedHashMap<>();
+
+    @Override
+    public String toString() {
+        return "Checkpoint{" +
+            "offsets=" + offsets +
+            ", cacheLines=" + cacheLines +
+            '}';
+    }
+
+    /**
+     * @return The {@link #offsets} field value.
+     */
+    public Map<String, Long> getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @param offsets see the {@link #offsets} field description.
+     */
+    public void setOffsets(Map<String, Long> offsets) {
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return The {@link #cacheLines} field value.
+     */
+    public Map<String, List<String>> getCacheLines() {
+        return cacheLines;
+    }
+
+    /**
+     * @param cacheLines see the {@link #cacheLines} field description.
+     */
+    public void setCacheLines(Map<String, List<String>> cacheLines) {
+        this.cacheLines = cacheLines;
+    }
+}
@@ -0,0 +1,272 @@
+package com.credibledoc.substitution.reporting.checkpoint;
+
+import com.credibledoc.combiner.log.reader.ReaderService;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.substitution.core.exception.SubstitutionRuntimeException;
+import com.credibledoc.substitution.reporting.report.Report;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.WriterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves and loads {@link Checkpoint}s of the {@link Report#getCheckpointFile()}.
+ * <p>
+ * When a {@link Report} has the {@link Report#getCheckpointFile()}, the
+ * {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService}
+ * <ul>
+ *     <li>continues reading of log files from the saved offsets, so only lines appended to the log files
+ *     after the previous run will be transformed,</li>
+ *     <li>restores the {@link Printable#getCacheLines()} of {@link ReportDocument}s,</li>
+ *     <li>saves a new {@link Checkpoint} after successful processing of all lines.</li>
+ * </ul>
+ * {@link ReportDocument}s are created by applications, so the applications are responsible for appending to existing
+ * report files. They can use the {@link #isResumable(Report)} method for decision to open report files in the
+ * append mode. Footers of {@link ReportDocument}s are written only once, by the
+ * {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService#closeReport(Report,
+ * com.credibledoc.substitution.reporting.context.ReportingContext)} method.
+ * <p>
+ * Log files are expected to grow by appending of lines. Every run reads log files up to the last complete line,
+ * so a line which is still written will be read by the next run, see the {@link #getLimits(Map, Set)} method.
+ * When a log file is shorter than its saved offset, for example after rotation, the file will be read from the
+ * beginning.
+ *
+ * @author Kyrylo Semenko
+ */
+public class CheckpointService {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointService.class);
+
+    private static final String FIELD_OFFSETS = "offsets";
+    private static final String FIELD_CACHE_LINES = "cacheLines";
+
+    /**
+     * Singleton.
+     */
+    private static final CheckpointService instance = new CheckpointService();
+
+    /**
+     * @return The {@link CheckpointService} singleton.
+     */
+    public static CheckpointService getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param report the current report
+     * @return 'true' if the {@link Report#getCheckpointFile()} exists, so the report creation will continue
+     * from the saved {@link Checkpoint}.
+     */
+    public boolean isResumable(Report report) {
+        return report.getCheckpointFile() != null && report.getCheckpointFile().exists();
+    }
+
+    /**
+     * Load the {@link Report#getCheckpointFile()}.
+     *
+     * @param report the current report
+     * @return 'null' if the {@link Report} is not resumable, see the {@link #isResumable(Report)} method.
+     */
+    public Checkpoint load(Report report) {
+        if (!isResumable(report)) {
+            return null;
+        }
+        File file = report.getCheckpointFile();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject jsonObject = Json.parse(reader).asObject();
+            Checkpoint checkpoint = new Checkpoint();
+            JsonObject offsets = jsonObject.get(FIELD_OFFSETS).asObject();
+            for (String path : offsets.names()) {
+                checkpoint.getOffsets().put(path, offsets.get(path).asLong());
+            }
+            JsonObject cacheLines = jsonObject.get(FIELD_CACHE_LINES).asObject();
+            for (String documentKey : cacheLines.names()) {
+                List<String> lines = new ArrayList<>();
+                for (JsonValue jsonValue : cacheLines.get(documentKey).asArray()) {
+                    lines.add(jsonValue.asString());
+                }
+                checkpoint.getCacheLines().put(documentKey, lines);
+            }
+            return checkpoint;
+        } catch (Exception e) {
+            throw new SubstitutionRuntimeException("Cannot load checkpoint file '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Write the {@link Checkpoint} to a temporary file and then move it to the target file,
+     * so the target file is never written partially.
+     *
+     * @param checkpoint the data for saving
+     * @param file       the target file
+     */
+    public void save(Checkpoint checkpoint, File file) {
+        JsonObject offsets = Json.object();
+        for (Map.Entry<String, Long> entry : checkpoint.getOffsets().entrySet()) {
+            offsets.add(entry.getKey(), entry.getValue());
+        }
+        JsonObject cacheLines = Json.object();
+        for (Map.Entry<String, List<String>> entry : checkpoint.getCacheLines().entrySet()) {
+            JsonArray lines = Json.array();
+            for (String line : entry.getValue()) {
+                lines.add(line);
+            }
+            cacheLines.add(entry.getKey(), lines);
+        }
+        JsonObject jsonObject = Json.object().add(FIELD_OFFSETS, offsets).add(FIELD_CACHE_LINES, cacheLines);
+        File temporaryFile = new File(file.getAbsolutePath() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8)) {
+                jsonObject.writeTo(writer, WriterConfig.PRETTY_PRINT);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException("Cannot save checkpoint file '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Create a {@link Checkpoint} from the current state of {@link NodeFile#getLogBufferedReader()}s
+     * and {@link ReportDocument}s.
+     *
+     * @param nodeFiles       processed log files
+     * @param reportDocuments documents of the report
+     * @return a new {@link Checkpoint}
+     */
+    public Checkpoint createCheckpoint(Set<NodeFile> nodeFiles, List<ReportDocument> reportDocuments) {
+        Checkpoint checkpoint = new Checkpoint();
+        ReaderService readerService = ReaderService.getInstance();
+        for (NodeFile nodeFile : nodeFiles) {
+            long position = readerService.getPosition(nodeFile.getLogBufferedReader());
+            if (position >= 0) {
+                checkpoint.getOffsets().put(nodeFile.getFileWithSources().getFile().getAbsolutePath(), position);
+            }
+        }
+        for (ReportDocument reportDocument : reportDocuments) {
+            List<String> cacheLines = reportDocument.getCacheLines();
+            if (cacheLines != null) {
+                checkpoint.getCacheLines().put(getDocumentKey(reportDocument, reportDocuments),
+                    new ArrayList<>(cacheLines));
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Collect offsets of log files from the {@link Checkpoint}. Files shorter than their offsets will be
+     * read from the beginning.
+     *
+     * @param checkpoint the loaded {@link Checkpoint}
+     * @param nodeFiles  log files of the report
+     * @return a map where a key is a file and a value is a number of bytes which will be skipped
+     */
+    public Map<File, Long> getOffsets(Checkpoint checkpoint, Set<NodeFile> nodeFiles) {
+        Map<File, Long> result = new HashMap<>();
+        for (NodeFile nodeFile : nodeFiles) {
+            File file = nodeFile.getFileWithSources().getFile();
+            Long offset = checkpoint.getOffsets().get(file.getAbsolutePath());
+            if (offset != null) {
+                if (file.length() < offset) {
+                    logger.warn("File '{}' is shorter than its checkpoint offset {}, it will be read from the beginning",
+                        file.getAbsolutePath(), offset);
+                } else {
+                    result.put(file, offset);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the end of the last complete line of every log file, see the
+     * {@link ReaderService#findEndOfLastLine(File, long)} method. Log files will be read up to these limits,
+     * so the saved {@link Checkpoint} offsets always point to the beginning of a line.
+     *
+     * @param offsets   offsets of log files, see the {@link #getOffsets(Checkpoint, Set)} method
+     * @param nodeFiles log files of the report
+     * @return a map where a key is a file and a value is a number of bytes which will be read from the file
+     */
+    public Map<File, Long> getLimits(Map<File, Long> offsets, Set<NodeFile> nodeFiles) {
+        Map<File, Long> result = new HashMap<>();
+        ReaderService readerService = ReaderService.getInstance();
+        for (NodeFile nodeFile : nodeFiles) {
+            File file = nodeFile.getFileWithSources().getFile();
+            Long offset = offsets.get(file);
+            result.put(file, readerService.findEndOfLastLine(file, offset == null ? 0 : offset));
+        }
+        return result;
+    }
+
+    /**
+     * Delete the {@link Report#getCheckpointFile()} if it exists.
+     *
+     * @param report the current report
+     */
+    public void delete(Report report) {
+        File file = report.getCheckpointFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException("Cannot delete checkpoint file '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Replace the {@link Printable#getCacheLines()} content of {@link ReportDocument}s
+     * with lines from the {@link Checkpoint}.
+     *
+     * @param checkpoint      the loaded {@link Checkpoint}
+     * @param reportDocuments documents of the report
+     */
+    public void restoreDocuments(Checkpoint checkpoint, List<ReportDocument> reportDocuments) {
+        for (ReportDocument reportDocument : reportDocuments) {
+            List<String> lines = checkpoint.getCacheLines().get(getDocumentKey(reportDocument, reportDocuments));
+            if (lines != null && reportDocument.getCacheLines() != null) {
+                reportDocument.getCacheLines().clear();
+                reportDocument.getCacheLines().addAll(lines);
+            }
+        }
+    }
+
+    /**
+     * @param reportDocument  the document
+     * @param reportDocuments all documents of the report
+     * @return A key of the {@link ReportDocument}, for example 'com.example.SequenceDiagram#0'. It contains
+     * the {@link ReportDocument#getReportDocumentType()} name and an order of the {@link ReportDocument} among
+     * documents of the same type.
+     */
+    public String getDocumentKey(ReportDocument reportDocument, List<ReportDocument> reportDocuments) {
+        int index = 0;
+        for (ReportDocument next : reportDocuments) {
+            if (next == reportDocument) {
+                break;
+            }
+            if (next.getReportDocumentType() == reportDocument.getReportDocumentType()) {
+                index++;
+            }
+        }
+        String typeName = reportDocument.getReportDocumentType() == null ? "null" :
+            reportDocument.getReportDocumentType().getName();
+        return typeName + "#" + index;
+    }
+}
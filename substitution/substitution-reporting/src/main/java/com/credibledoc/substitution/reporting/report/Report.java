@@ -31,6 +31,14 @@ public class Report {
      */
     private boolean creationOfSelfDocumentation;
 
+    /**
+     * If the value is not 'null', the {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService}
+     * saves positions in log files and states of report documents to this file after the report creation,
+     * and the next creation of the report continues from the saved positions.
+     * See the {@link com.credibledoc.substitution.reporting.checkpoint.CheckpointService} description.
+     */
+    private File checkpointFile;
+
     /**
      * Initializes all lists.
      */
@@ -45,6 +53,7 @@ public class Report {
             ", transactionsFilter=" + transactionsFilter +
             ", linesNumber=" + linesNumber +
             ", creationOfSelfDocumentation=" + creationOfSelfDocumentation +
+            ", checkpointFile=" + checkpointFile +
             '}';
     }
 
@@ -103,4 +112,18 @@ public class Report {
     public void setCreationOfSelfDocumentation(boolean creationOfSelfDocumentation) {
         this.creationOfSelfDocumentation = creationOfSelfDocumentation;
     }
+
+    /**
+     * @return The {@link #checkpointFile} field value.
+     */
+    public File getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * @param checkpointFile see the {@link #checkpointFile} field
+     */
+    public void setCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
 }
@@ -94,6 +94,13 @@ public class Document implements ReportDocument {
         this.printWriter = printWriter;
     }
 
+    /**
+     * @return The {@link #fileNumber} field value.
+     */
+    public int getFileNumber() {
+        return fileNumber;
+    }
+
     /**
      * @return The {@link Document#footerMethod} field
      */
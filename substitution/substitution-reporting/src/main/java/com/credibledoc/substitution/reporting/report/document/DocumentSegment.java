@@ -0,0 +1,120 @@
+package com.credibledoc.substitution.reporting.report.document;
+
+import java.io.File;
+
+/**
+ * Data object. Describes a single file of a {@link RollingDocument}, for example its {@link #file}
+ * and a time range of log records transformed to the {@link #file}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class DocumentSegment {
+
+    /**
+     * The {@link #firstEpochMillis} and {@link #lastEpochMillis} value in case when no time has been marked.
+     */
+    public static final long UNKNOWN_EPOCH_MILLIS = Long.MIN_VALUE;
+
+    /**
+     * The file of this segment
+     */
+    private final File file;
+
+    /**
+     * A time of the first log record transformed to the {@link #file}
+     */
+    private long firstEpochMillis = UNKNOWN_EPOCH_MILLIS;
+
+    /**
+     * A time of the last log record transformed to the {@link #file}
+     */
+    private long lastEpochMillis = UNKNOWN_EPOCH_MILLIS;
+
+    /**
+     * Number of bytes written to the {@link #file}
+     */
+    private long bytes;
+
+    /**
+     * Number of lines written to the {@link #file}
+     */
+    private long lines;
+
+    /**
+     * @param file see the {@link #file} field description
+     */
+    public DocumentSegment(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentSegment{" +
+            "file=" + file +
+            ", firstEpochMillis=" + firstEpochMillis +
+            ", lastEpochMillis=" + lastEpochMillis +
+            ", bytes=" + bytes +
+            ", lines=" + lines +
+            '}';
+    }
+
+    /**
+     * Extend the time range of this segment.
+     * @param epochMillis a time of a log record
+     */
+    void markTime(long epochMillis) {
+        if (firstEpochMillis == UNKNOWN_EPOCH_MILLIS) {
+            firstEpochMillis = epochMillis;
+        }
+        lastEpochMillis = epochMillis;
+    }
+
+    /**
+     * @return The {@link #file} field value.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return The {@link #firstEpochMillis} field value.
+     */
+    public long getFirstEpochMillis() {
+        return firstEpochMillis;
+    }
+
+    /**
+     * @return The {@link #lastEpochMillis} field value.
+     */
+    public long getLastEpochMillis() {
+        return lastEpochMillis;
+    }
+
+    /**
+     * @return The {@link #bytes} field value.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @param bytes see the {@link #bytes} field description.
+     */
+    void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return The {@link #lines} field value.
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * @param lines see the {@link #lines} field description.
+     */
+    void setLines(long lines) {
+        this.lines = lines;
+    }
+}
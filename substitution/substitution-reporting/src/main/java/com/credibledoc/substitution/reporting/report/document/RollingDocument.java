@@ -0,0 +1,62 @@
+package com.credibledoc.substitution.reporting.report.document;
+
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * A {@link Document} which output is split to more files by the {@link RollingFileWriter}.
+ * The {@link #getPrintWriter()} writes to the {@link #rollingFileWriter}, and the
+ * {@link #getFileNumber()} returns a number of the current file.
+ * <p>
+ * The {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService} marks times of
+ * transformed log records, so the {@link RollingFileWriter#getIndexFile()} contains time ranges of all files.
+ *
+ * @author Kyrylo Semenko
+ */
+public class RollingDocument extends Document {
+
+    /**
+     * The writer of this {@link RollingDocument}
+     */
+    private final RollingFileWriter rollingFileWriter;
+
+    /**
+     * Create a new {@link RollingDocument} and its {@link PrintWriter} over the {@link RollingFileWriter}.
+     *
+     * @param rollingFileWriter see the {@link #rollingFileWriter} field description
+     */
+    public RollingDocument(RollingFileWriter rollingFileWriter) {
+        this.rollingFileWriter = rollingFileWriter;
+        setPrintWriter(new PrintWriter(rollingFileWriter));
+    }
+
+    /**
+     * @return A number of the current file of the {@link #rollingFileWriter}.
+     */
+    @Override
+    public int getFileNumber() {
+        return rollingFileWriter.getFileNumber();
+    }
+
+    /**
+     * Call the {@link RollingFileWriter#markTime(long)} method.
+     * @param epochMillis a time of a log record which will be transformed to this document
+     */
+    public void markTime(long epochMillis) {
+        rollingFileWriter.markTime(epochMillis);
+    }
+
+    /**
+     * @return The {@link RollingFileWriter#getSegments()} value.
+     */
+    public List<DocumentSegment> getSegments() {
+        return rollingFileWriter.getSegments();
+    }
+
+    /**
+     * @return The {@link #rollingFileWriter} field value.
+     */
+    public RollingFileWriter getRollingFileWriter() {
+        return rollingFileWriter;
+    }
+}
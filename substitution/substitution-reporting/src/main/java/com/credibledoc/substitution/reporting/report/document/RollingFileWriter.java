@@ -0,0 +1,422 @@
+package com.credibledoc.substitution.reporting.report.document;
+
+import com.credibledoc.substitution.core.exception.SubstitutionRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A {@link Writer} which splits its output to more files. When the {@link #maxBytes} or {@link #maxLines}
+ * threshold is reached, the current file will be closed and the next one will be opened before the next
+ * character is written.
+ * Files are never split in the middle of a line, so a file can be slightly larger than the {@link #maxBytes}.
+ * <p>
+ * Characters are encoded to a large direct {@link ByteBuffer} and written to a {@link FileChannel}
+ * when the buffer is full.
+ * <p>
+ * Names of the files are created from the {@link #fileNamePrefix}, a number of the file and
+ * the {@link #fileNameSuffix}, for example report.1.txt, report.2.txt and so on.
+ * When the writer is closed, an index file with the {@link DocumentSegment}s, for example report.index, will be written.
+ *
+ * @author Kyrylo Semenko
+ */
+public class RollingFileWriter extends Writer {
+
+    /**
+     * Default size of the {@link #byteBuffer}
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Size of the {@link #charBuffer}
+     */
+    private static final int CHAR_BUFFER_SIZE = 8192;
+
+    /**
+     * Suffix of the index file, see the {@link #getIndexFile()} method.
+     */
+    public static final String INDEX_FILE_SUFFIX = ".index";
+
+    /**
+     * Format of the time range values in the index file
+     */
+    private static final String INDEX_DATE_PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    /**
+     * The value of an unknown time in the index file
+     */
+    private static final String UNKNOWN_TIME = "-";
+
+    /**
+     * Where the files will be created
+     */
+    private final File directory;
+
+    /**
+     * The first part of the file names, for example 'report'
+     */
+    private final String fileNamePrefix;
+
+    /**
+     * The last part of the file names, for example '.txt'
+     */
+    private final String fileNameSuffix;
+
+    /**
+     * Maximal size of a single file in bytes. Zero or negative value means unlimited.
+     */
+    private final long maxBytes;
+
+    /**
+     * Maximal number of lines in a single file. Zero or negative value means unlimited.
+     */
+    private final long maxLines;
+
+    /**
+     * Encodes characters from the {@link #charBuffer} to the {@link #byteBuffer}
+     */
+    private final CharsetEncoder encoder;
+
+    /**
+     * Written characters which are not encoded yet
+     */
+    private final CharBuffer charBuffer;
+
+    /**
+     * Encoded bytes which are not written to the {@link #fileChannel} yet
+     */
+    private final ByteBuffer byteBuffer;
+
+    /**
+     * All files created by this writer
+     */
+    private final List<DocumentSegment> segments = new ArrayList<>();
+
+    /**
+     * The channel of the {@link #currentSegment} file
+     */
+    private FileChannel fileChannel;
+
+    /**
+     * The last item from the {@link #segments}
+     */
+    private DocumentSegment currentSegment;
+
+    /**
+     * Number of the {@link #currentSegment} file, the first one is 1.
+     */
+    private int fileNumber;
+
+    /**
+     * Number of bytes written to the {@link #fileChannel}
+     */
+    private long segmentBytes;
+
+    /**
+     * Number of line separators written to the {@link #currentSegment}
+     */
+    private long segmentLines;
+
+    /**
+     * Is 'true' after the {@link #close()} method has been called
+     */
+    private boolean closed;
+
+    /**
+     * Is 'true' when a threshold has been reached at the end of a line. The next file will be opened before
+     * the next character is written, so no empty file is created at the end.
+     */
+    private boolean rollPending;
+
+    /**
+     * The first time marked by the {@link #markTime(long)} method when the {@link #rollPending} is 'true'.
+     * It belongs to the next file.
+     */
+    private long pendingFirstEpochMillis = DocumentSegment.UNKNOWN_EPOCH_MILLIS;
+
+    /**
+     * The last time marked by the {@link #markTime(long)} method when the {@link #rollPending} is 'true'.
+     */
+    private long pendingLastEpochMillis = DocumentSegment.UNKNOWN_EPOCH_MILLIS;
+
+    /**
+     * Create a writer with UTF-8 charset and the {@link #DEFAULT_BUFFER_SIZE}. The first file will be created immediately.
+     *
+     * @param directory      see the {@link #directory} field description
+     * @param fileNamePrefix see the {@link #fileNamePrefix} field description
+     * @param fileNameSuffix see the {@link #fileNameSuffix} field description
+     * @param maxBytes       see the {@link #maxBytes} field description
+     * @param maxLines       see the {@link #maxLines} field description
+     */
+    public RollingFileWriter(File directory, String fileNamePrefix, String fileNameSuffix, long maxBytes, long maxLines) {
+        this(directory, fileNamePrefix, fileNameSuffix, maxBytes, maxLines, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a writer. The first file will be created immediately.
+     *
+     * @param directory      see the {@link #directory} field description
+     * @param fileNamePrefix see the {@link #fileNamePrefix} field description
+     * @param fileNameSuffix see the {@link #fileNameSuffix} field description
+     * @param maxBytes       see the {@link #maxBytes} field description
+     * @param maxLines       see the {@link #maxLines} field description
+     * @param charset        encoding of the files
+     * @param bufferSize     size of the direct {@link #byteBuffer} in bytes
+     */
+    public RollingFileWriter(File directory, String fileNamePrefix, String fileNameSuffix, long maxBytes,
+                             long maxLines, Charset charset, int bufferSize) {
+        this.directory = directory;
+        this.fileNamePrefix = fileNamePrefix;
+        this.fileNameSuffix = fileNameSuffix;
+        this.maxBytes = maxBytes;
+        this.maxLines = maxLines;
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charBuffer = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+        try {
+            openSegment();
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException("Cannot create a file in the directory '" +
+                directory.getAbsolutePath() + "'", e);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            writeLines(CharBuffer.wrap(cbuf, off, len));
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            writeLines(CharBuffer.wrap(str, off, off + len));
+        }
+    }
+
+    /**
+     * Extend the time range of the current {@link DocumentSegment}, see the {@link DocumentSegment#markTime(long)}
+     * method.
+     *
+     * @param epochMillis a time of a log record which will be written to the current file
+     */
+    public void markTime(long epochMillis) {
+        synchronized (lock) {
+            if (rollPending) {
+                if (pendingFirstEpochMillis == DocumentSegment.UNKNOWN_EPOCH_MILLIS) {
+                    pendingFirstEpochMillis = epochMillis;
+                }
+                pendingLastEpochMillis = epochMillis;
+            } else {
+                currentSegment.markTime(epochMillis);
+            }
+        }
+    }
+
+    /**
+     * Write all buffered characters to the current file.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            encodeChars();
+            flushBytes();
+        }
+    }
+
+    /**
+     * Write all buffered characters, close the current file and write the index file,
+     * see the {@link #getIndexFile()} method.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            charBuffer.flip();
+            encode(true);
+            while (encoder.flush(byteBuffer).isOverflow()) {
+                flushBytes();
+            }
+            charBuffer.clear();
+            closeSegment();
+            writeIndex();
+        }
+    }
+
+    /**
+     * @return A file with lines of {@link DocumentSegment}s separated by tabs: file name, first time,
+     * last time, bytes and lines.
+     */
+    public File getIndexFile() {
+        return new File(directory, fileNamePrefix + INDEX_FILE_SUFFIX);
+    }
+
+    /**
+     * @return Unmodifiable list of the {@link #segments}
+     */
+    public List<DocumentSegment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * @return The {@link #fileNumber} field value.
+     */
+    public int getFileNumber() {
+        return fileNumber;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("RollingFileWriter is closed. Directory: '" + directory.getAbsolutePath() +
+                "', fileNamePrefix: '" + fileNamePrefix + "'");
+        }
+    }
+
+    /**
+     * Write the characters line by line, so every line separator, including the ones inside the chars,
+     * is counted and the file can be rolled after it.
+     *
+     * @param chars the characters from their position to their limit
+     */
+    private void writeLines(CharBuffer chars) throws IOException {
+        int end = chars.limit();
+        while (chars.hasRemaining()) {
+            if (rollPending) {
+                roll();
+            }
+            int lineEnd = chars.position();
+            while (lineEnd < end && chars.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            boolean lineCompleted = lineEnd < end;
+            chars.limit(lineCompleted ? lineEnd + 1 : end);
+            putChars(chars);
+            chars.limit(end);
+            if (lineCompleted) {
+                segmentLines++;
+                rollPending = isThresholdReached();
+            }
+        }
+    }
+
+    private void putChars(CharBuffer chars) throws IOException {
+        int end = chars.limit();
+        while (chars.hasRemaining()) {
+            if (!charBuffer.hasRemaining()) {
+                encodeChars();
+            }
+            chars.limit(Math.min(end, chars.position() + charBuffer.remaining()));
+            charBuffer.put(chars);
+            chars.limit(end);
+        }
+    }
+
+    private boolean isThresholdReached() throws IOException {
+        if (maxLines > 0 && segmentLines >= maxLines) {
+            return true;
+        }
+        if (maxBytes > 0) {
+            encodeChars();
+            return segmentBytes + byteBuffer.position() >= maxBytes;
+        }
+        return false;
+    }
+
+    private void roll() throws IOException {
+        encodeChars();
+        closeSegment();
+        openSegment();
+        rollPending = false;
+        if (pendingFirstEpochMillis != DocumentSegment.UNKNOWN_EPOCH_MILLIS) {
+            currentSegment.markTime(pendingFirstEpochMillis);
+            currentSegment.markTime(pendingLastEpochMillis);
+            pendingFirstEpochMillis = DocumentSegment.UNKNOWN_EPOCH_MILLIS;
+            pendingLastEpochMillis = DocumentSegment.UNKNOWN_EPOCH_MILLIS;
+        }
+    }
+
+    private void encodeChars() throws IOException {
+        charBuffer.flip();
+        encode(false);
+        charBuffer.compact();
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        CoderResult coderResult = encoder.encode(charBuffer, byteBuffer, endOfInput);
+        while (coderResult.isOverflow()) {
+            flushBytes();
+            coderResult = encoder.encode(charBuffer, byteBuffer, endOfInput);
+        }
+    }
+
+    private void flushBytes() throws IOException {
+        byteBuffer.flip();
+        while (byteBuffer.hasRemaining()) {
+            segmentBytes += fileChannel.write(byteBuffer);
+        }
+        byteBuffer.clear();
+    }
+
+    private void openSegment() throws IOException {
+        fileNumber++;
+        File file = new File(directory, fileNamePrefix + "." + fileNumber + fileNameSuffix);
+        fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        currentSegment = new DocumentSegment(file);
+        segments.add(currentSegment);
+        segmentBytes = 0;
+        segmentLines = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        flushBytes();
+        currentSegment.setBytes(segmentBytes);
+        currentSegment.setLines(segmentLines);
+        fileChannel.close();
+    }
+
+    private void writeIndex() throws IOException {
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(INDEX_DATE_PATTERN);
+        List<String> lines = new ArrayList<>();
+        for (DocumentSegment segment : segments) {
+            lines.add(segment.getFile().getName() +
+                "\t" + formatTime(segment.getFirstEpochMillis(), simpleDateFormat) +
+                "\t" + formatTime(segment.getLastEpochMillis(), simpleDateFormat) +
+                "\t" + segment.getBytes() +
+                "\t" + segment.getLines());
+        }
+        Files.write(getIndexFile().toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    private String formatTime(long epochMillis, SimpleDateFormat simpleDateFormat) {
+        if (epochMillis == DocumentSegment.UNKNOWN_EPOCH_MILLIS) {
+            return UNKNOWN_TIME;
+        }
+        return simpleDateFormat.format(new Date(epochMillis));
+    }
+}
@@ -7,18 +7,27 @@ import com.credibledoc.combiner.node.file.NodeFile;
 import com.credibledoc.combiner.node.file.NodeFileTreeSet;
 import com.credibledoc.combiner.state.FilesMergerState;
 import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.line.LineProcessorService;
 import com.credibledoc.enricher.transformer.TransformerService;
 import com.credibledoc.substitution.core.exception.SubstitutionRuntimeException;
+import com.credibledoc.substitution.reporting.checkpoint.Checkpoint;
+import com.credibledoc.substitution.reporting.checkpoint.CheckpointService;
 import com.credibledoc.substitution.reporting.context.ReportingContext;
 import com.credibledoc.substitution.reporting.report.Report;
+import com.credibledoc.substitution.reporting.report.document.RollingDocument;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentService;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.PrintWriter;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Visualizer creates reports. The reports describes scenarios recorded in log files,
@@ -49,7 +58,8 @@ public class VisualizerService {
     }
 
     /**
-     * Read files(s), parse them and create reports.
+     * Read files(s), parse them and create reports. If the {@link EnricherContext#isStatisticsEnabled()},
+     * a table of {@link com.credibledoc.enricher.line.LineProcessorStatistics} will be logged at the end.
      *
      * @param reportDocumentTypes defines which {@link ReportDocumentType}s
      *                            can be transformed in a particular invocation
@@ -64,6 +74,10 @@ public class VisualizerService {
         for (Report report : reports) {
             createReport(reportDocumentTypes, report, combinerContext, reportingContext, enricherContext);
         }
+        if (enricherContext.isStatisticsEnabled()) {
+            logger.info("LineProcessor statistics:{}{}", System.lineSeparator(),
+                LineProcessorService.getInstance().formatStatistics(enricherContext));
+        }
     }
 
     private void createReport(Collection<Class<? extends ReportDocumentType>> reportDocumentTypes,
@@ -74,7 +88,19 @@ public class VisualizerService {
         List<ReportDocument> reportDocuments = reportDocumentService.getReportDocuments(report, reportingContext);
         NodeFileTreeSet<NodeFile> nodeFiles = (NodeFileTreeSet<NodeFile>) reportDocumentService.getNodeFiles(reportDocuments);
         ReaderService readerService = ReaderService.getInstance();
-        readerService.prepareBufferedReaders(combinerContext, nodeFiles);
+        CheckpointService checkpointService = CheckpointService.getInstance();
+        Checkpoint checkpoint = checkpointService.load(report);
+        Map<File, Long> offsets = Collections.emptyMap();
+        if (checkpoint != null) {
+            offsets = checkpointService.getOffsets(checkpoint, nodeFiles);
+            checkpointService.restoreDocuments(checkpoint, reportDocuments);
+            logger.info("Report creation continues from the checkpoint '{}'", report.getCheckpointFile());
+        }
+        Map<File, Long> limits = Collections.emptyMap();
+        if (report.getCheckpointFile() != null) {
+            limits = checkpointService.getLimits(offsets, nodeFiles);
+        }
+        readerService.prepareBufferedReaders(combinerContext, nodeFiles, offsets, limits);
         String line = null;
 
         FilesMergerState filesMergerState = new FilesMergerState();
@@ -85,9 +111,10 @@ public class VisualizerService {
         TransformerService transformerService = TransformerService.getInstance();
         try {
             line = readerService.readLineFromReaders(filesMergerState);
-            int endIndex = Math.max(line.length(), 35);
-            String substring = line.substring(0, endIndex);
-            logger.trace("The first line is read from {}. Line: '{}...'", getClass().getSimpleName(), substring);
+            if (line != null && logger.isTraceEnabled()) {
+                String substring = line.substring(0, Math.min(line.length(), 35));
+                logger.trace("The first line is read from {}. Line: '{}...'", getClass().getSimpleName(), substring);
+            }
             while (line != null) {
                 currentReader = filesMergerState.getCurrentNodeFile().getLogBufferedReader();
                 List<String> multiLine = readerService.readMultiline(line, currentReader, combinerContext);
@@ -100,6 +127,11 @@ public class VisualizerService {
 
                 line = readerService.readLineFromReaders(filesMergerState);
             }
+            flushPrintWriters(reportDocuments);
+            if (report.getCheckpointFile() != null) {
+                checkpointService.save(checkpointService.createCheckpoint(nodeFiles, reportDocuments),
+                    report.getCheckpointFile());
+            }
             logger.debug("{} lines processed (100%)", currentLineNumber);
         } catch (Exception e) {
             String fileName = "null";
@@ -112,10 +144,36 @@ public class VisualizerService {
                     "', line: '" + line + "'";
             throw new SubstitutionRuntimeException(message, e);
         } finally {
-            for (ReportDocument reportDocument : reportDocuments) {
-                if (reportDocument.getFooterMethod() != null) {
-                    reportDocument.getFooterMethod().accept(reportDocument);
-                }
+            if (report.getCheckpointFile() == null) {
+                writeFooters(reportDocuments);
+            }
+        }
+    }
+
+    /**
+     * Finish a {@link Report} created with the {@link Report#getCheckpointFile()}. Footers of its
+     * {@link ReportDocument}s are written and the checkpoint file is deleted, so the next
+     * {@link #createReports(Collection, CombinerContext, ReportingContext, EnricherContext)} call
+     * creates the report from the beginning.
+     * <p>
+     * Reports without the checkpoint file are finished at the end of every
+     * {@link #createReports(Collection, CombinerContext, ReportingContext, EnricherContext)} call.
+     *
+     * @param report           the report with the {@link Report#getCheckpointFile()}
+     * @param reportingContext the current state
+     */
+    public void closeReport(Report report, ReportingContext reportingContext) {
+        List<ReportDocument> reportDocuments =
+            ReportDocumentService.getInstance().getReportDocuments(report, reportingContext);
+        writeFooters(reportDocuments);
+        flushPrintWriters(reportDocuments);
+        CheckpointService.getInstance().delete(report);
+    }
+
+    private void writeFooters(List<ReportDocument> reportDocuments) {
+        for (ReportDocument reportDocument : reportDocuments) {
+            if (reportDocument.getFooterMethod() != null) {
+                reportDocument.getFooterMethod().accept(reportDocument);
             }
         }
     }
@@ -135,8 +193,12 @@ public class VisualizerService {
                 logger.debug("{} lines processed ({}%)", currentLineNumber, perCent);
             }
 
+            Date lineDate = currentReader.getLineDate();
             for (ReportDocument reportDocument : reportDocuments) {
                 if (reportDocumentTypes.contains(reportDocument.getReportDocumentType())) {
+                    if (lineDate != null && reportDocument instanceof RollingDocument) {
+                        ((RollingDocument) reportDocument).markTime(lineDate.getTime());
+                    }
                     transformerService.transformToReport(reportDocument, multiLine, currentReader,
                         combinerContext, enricherContext);
                 }
@@ -155,6 +217,20 @@ public class VisualizerService {
         return currentLineNumber;
     }
 
+    /**
+     * Flush the {@link ReportDocument#getPrintWriter()}s. In case of asynchronous writers,
+     * for example the {@link com.credibledoc.enricher.printable.AsyncWriter}, the flushing
+     * waits for all written lines and throws an exception if the writing failed.
+     */
+    private void flushPrintWriters(List<ReportDocument> reportDocuments) {
+        for (ReportDocument reportDocument : reportDocuments) {
+            PrintWriter printWriter = reportDocument.getPrintWriter();
+            if (printWriter != null) {
+                printWriter.flush();
+            }
+        }
+    }
+
     private String getReportDirectoryPath(Report report) {
         if (report.getDirectory() != null) {
             return report.getDirectory().getAbsolutePath();
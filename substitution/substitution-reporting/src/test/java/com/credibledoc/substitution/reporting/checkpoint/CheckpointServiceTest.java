@@ -0,0 +1,84 @@
+package com.credibledoc.substitution.reporting.checkpoint;
+
+import com.credibledoc.substitution.reporting.report.Report;
+import com.credibledoc.substitution.reporting.report.document.Document;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CheckpointServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static class FirstType implements ReportDocumentType {
+        // empty
+    }
+
+    private static class SecondType implements ReportDocumentType {
+        // empty
+    }
+
+    @Test
+    public void saveAndRestore() throws Exception {
+        Report report = new Report();
+        report.setCheckpointFile(new File(temporaryFolder.getRoot(), "report.checkpoint"));
+        CheckpointService checkpointService = CheckpointService.getInstance();
+        assertFalse(checkpointService.isResumable(report));
+        assertNull(checkpointService.load(report));
+
+        List<ReportDocument> reportDocuments = new ArrayList<>();
+        reportDocuments.add(createDocument(FirstType.class, "a1"));
+        reportDocuments.add(createDocument(SecondType.class, "b1"));
+        reportDocuments.add(createDocument(FirstType.class, "a2 \"quoted\"", "a3"));
+        assertEquals(FirstType.class.getName() + "#1",
+            checkpointService.getDocumentKey(reportDocuments.get(2), reportDocuments));
+
+        Checkpoint checkpoint = checkpointService.createCheckpoint(new TreeSet<>(), reportDocuments);
+        checkpoint.getOffsets().put("/var/log/app.log", 12345L);
+        checkpointService.save(checkpoint, report.getCheckpointFile());
+        assertTrue(checkpointService.isResumable(report));
+
+        for (ReportDocument reportDocument : reportDocuments) {
+            reportDocument.getCacheLines().clear();
+        }
+        Checkpoint loaded = checkpointService.load(report);
+        assertEquals(Long.valueOf(12345L), loaded.getOffsets().get("/var/log/app.log"));
+        checkpointService.restoreDocuments(loaded, reportDocuments);
+        assertEquals(Arrays.asList("a1"), reportDocuments.get(0).getCacheLines());
+        assertEquals(Arrays.asList("b1"), reportDocuments.get(1).getCacheLines());
+        assertEquals(Arrays.asList("a2 \"quoted\"", "a3"), reportDocuments.get(2).getCacheLines());
+    }
+
+    @Test
+    public void deleteAfterClose() {
+        Report report = new Report();
+        report.setCheckpointFile(new File(temporaryFolder.getRoot(), "closed.checkpoint"));
+        CheckpointService checkpointService = CheckpointService.getInstance();
+        checkpointService.save(new Checkpoint(), report.getCheckpointFile());
+        assertTrue(checkpointService.isResumable(report));
+        checkpointService.delete(report);
+        assertFalse(checkpointService.isResumable(report));
+        checkpointService.delete(report);
+    }
+
+    private ReportDocument createDocument(Class<? extends ReportDocumentType> type, String... cacheLines) {
+        Document document = new Document();
+        document.setReportDocumentType(type);
+        document.getCacheLines().addAll(Arrays.asList(cacheLines));
+        return document;
+    }
+}
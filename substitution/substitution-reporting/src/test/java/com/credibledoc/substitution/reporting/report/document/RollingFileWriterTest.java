@@ -0,0 +1,117 @@
+package com.credibledoc.substitution.reporting.report.document;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RollingFileWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void rollByLines() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        RollingFileWriter rollingFileWriter = new RollingFileWriter(directory, "report", ".txt", 0, 3);
+        RollingDocument rollingDocument = new RollingDocument(rollingFileWriter);
+        PrintWriter printWriter = rollingDocument.getPrintWriter();
+        for (int i = 0; i < 7; i++) {
+            rollingDocument.markTime(1000L + i);
+            printWriter.write("line " + i + System.lineSeparator());
+        }
+        assertEquals(3, rollingDocument.getFileNumber());
+        printWriter.close();
+
+        List<DocumentSegment> segments = rollingDocument.getSegments();
+        assertEquals(3, segments.size());
+        assertEquals(3, segments.get(0).getLines());
+        assertEquals(3, segments.get(1).getLines());
+        assertEquals(1, segments.get(2).getLines());
+        assertEquals(1000L, segments.get(0).getFirstEpochMillis());
+        assertEquals(1002L, segments.get(0).getLastEpochMillis());
+        assertEquals(1006L, segments.get(2).getFirstEpochMillis());
+
+        List<String> secondFileLines = Files.readAllLines(new File(directory, "report.2.txt").toPath(),
+            StandardCharsets.UTF_8);
+        assertEquals("line 3", secondFileLines.get(0));
+        assertEquals("line 5", secondFileLines.get(2));
+
+        File indexFile = rollingFileWriter.getIndexFile();
+        assertTrue(indexFile.exists());
+        List<String> indexLines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, indexLines.size());
+        assertTrue(indexLines.get(0).startsWith("report.1.txt\t"));
+    }
+
+    @Test
+    public void noEmptyLastFile() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        RollingFileWriter rollingFileWriter = new RollingFileWriter(directory, "report", ".txt", 0, 3);
+        for (int i = 0; i < 6; i++) {
+            rollingFileWriter.write("line " + i + "\n");
+        }
+        rollingFileWriter.close();
+
+        List<DocumentSegment> segments = rollingFileWriter.getSegments();
+        assertEquals(2, segments.size());
+        assertEquals(3, segments.get(1).getLines());
+        assertFalse(new File(directory, "report.3.txt").exists());
+    }
+
+    @Test
+    public void rollInsideChunk() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        RollingFileWriter rollingFileWriter = new RollingFileWriter(directory, "report", ".txt", 0, 2);
+        rollingFileWriter.write("a\nb\nc\nd\ne");
+        rollingFileWriter.write("\nf".toCharArray());
+        rollingFileWriter.close();
+
+        List<DocumentSegment> segments = rollingFileWriter.getSegments();
+        assertEquals(3, segments.size());
+        assertEquals("a\nb\n", new String(Files.readAllBytes(segments.get(0).getFile().toPath()),
+            StandardCharsets.UTF_8));
+        assertEquals("c\nd\n", new String(Files.readAllBytes(segments.get(1).getFile().toPath()),
+            StandardCharsets.UTF_8));
+        assertEquals("e\nf", new String(Files.readAllBytes(segments.get(2).getFile().toPath()),
+            StandardCharsets.UTF_8));
+        assertEquals(1, segments.get(2).getLines());
+    }
+
+    @Test
+    public void rollByBytesWithSmallBuffer() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        RollingFileWriter rollingFileWriter =
+            new RollingFileWriter(directory, "report", ".log", 100, 0, StandardCharsets.UTF_8, 16);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            String line = "žluťoučký kůň " + i + "\n";
+            expected.append(line);
+            rollingFileWriter.write(line);
+        }
+        rollingFileWriter.close();
+
+        StringBuilder actual = new StringBuilder();
+        long totalBytes = 0;
+        for (DocumentSegment segment : rollingFileWriter.getSegments()) {
+            byte[] bytes = Files.readAllBytes(segment.getFile().toPath());
+            assertEquals(segment.getBytes(), bytes.length);
+            totalBytes += bytes.length;
+            actual.append(new String(bytes, StandardCharsets.UTF_8));
+            assertEquals(DocumentSegment.UNKNOWN_EPOCH_MILLIS, segment.getFirstEpochMillis());
+        }
+        assertTrue(rollingFileWriter.getSegments().size() > 1);
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.toString().getBytes(StandardCharsets.UTF_8).length, totalBytes);
+    }
+}